@@ -0,0 +1,220 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.benchmark;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLEngine;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.rest.RestRequest.Method;
+import org.opensearch.security.auditlog.NullAuditLog;
+import org.opensearch.security.auth.BackendRegistry;
+import org.opensearch.security.auth.internal.InternalAuthenticationBackend;
+import org.opensearch.security.configuration.AdminDNs;
+import org.opensearch.security.filter.SecurityRequestChannel;
+import org.opensearch.security.filter.SecurityResponse;
+import org.opensearch.security.http.XFFResolver;
+import org.opensearch.security.securityconf.DynamicConfigModelV7;
+import org.opensearch.security.securityconf.InternalUsersModel;
+import org.opensearch.security.securityconf.impl.v7.ConfigV7;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.security.tools.Hasher;
+import org.opensearch.threadpool.ThreadPool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the authentication of a REST request with HTTP basic credentials against the internal users database.
+ * With a cache TTL of zero minutes every request verifies the password hash, otherwise the authenticated user is
+ * served from the user cache after the first request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BackendRegistryBenchmark {
+
+    private static final String USER = "benchmark_user";
+    private static final String PASSWORD = "benchmark_password";
+
+    @Param({ "60", "0" })
+    public int cacheTtlMinutes;
+
+    private ThreadPool threadPool;
+    private BackendRegistry backendRegistry;
+    private Request request;
+
+    @Setup
+    public void setup() {
+        final Settings settings = Settings.builder()
+            .put("node.name", "benchmark")
+            .put(ConfigConstants.SECURITY_CACHE_TTL_MINUTES, cacheTtlMinutes)
+            .build();
+        threadPool = new ThreadPool(settings);
+
+        final InternalAuthenticationBackend internalAuthenticationBackend = new InternalAuthenticationBackend();
+        internalAuthenticationBackend.onInternalUsersModelChanged(new SingleUserModel(USER, Hasher.hash(PASSWORD.toCharArray())));
+
+        final ConfigV7.AuthcDomain basicInternalAuthDomain = new ConfigV7.AuthcDomain();
+        basicInternalAuthDomain.http_authenticator.type = "basic";
+        final ConfigV7 config = new ConfigV7();
+        config.dynamic = new ConfigV7.Dynamic();
+        config.dynamic.authc.getDomains().put("basic_internal_auth_domain", basicInternalAuthDomain);
+
+        final XFFResolver xffResolver = new XFFResolver(threadPool);
+        backendRegistry = new BackendRegistry(settings, new AdminDNs(Settings.EMPTY), xffResolver, new NullAuditLog(), threadPool);
+        backendRegistry.onDynamicConfigModelChanged(new DynamicConfigModelV7(config, settings, null, internalAuthenticationBackend, null));
+
+        final String credentials = Base64.getEncoder().encodeToString((USER + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        request = new Request(Map.of("Authorization", List.of("Basic " + credentials)));
+        if (!authenticate()) {
+            throw new IllegalStateException("Benchmark user could not be authenticated");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ThreadPool.terminate(threadPool, 10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public boolean authenticate() {
+        // authentication puts the user into the thread context which must not have one yet
+        try (ThreadContext.StoredContext ctx = threadPool.getThreadContext().stashContext()) {
+            return backendRegistry.authenticate(request);
+        }
+    }
+
+    private static final class SingleUserModel extends InternalUsersModel {
+
+        private final String user;
+        private final String hash;
+
+        SingleUserModel(final String user, final String hash) {
+            this.user = user;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean exists(final String user) {
+            return this.user.equals(user);
+        }
+
+        @Override
+        public List<String> getBackenRoles(final String user) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Map<String, String> getAttributes(final String user) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public String getDescription(final String user) {
+            return null;
+        }
+
+        @Override
+        public String getHash(final String user) {
+            return exists(user) ? hash : null;
+        }
+
+        @Override
+        public List<String> getSecurityRoles(final String user) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static final class Request implements SecurityRequestChannel {
+
+        private static final InetSocketAddress REMOTE_ADDRESS = new InetSocketAddress("127.0.0.1", 9200);
+
+        private final Map<String, List<String>> headers;
+
+        Request(final Map<String, List<String>> headers) {
+            this.headers = headers;
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public SSLEngine getSSLEngine() {
+            return null;
+        }
+
+        @Override
+        public String path() {
+            return "/_search";
+        }
+
+        @Override
+        public Method method() {
+            return Method.GET;
+        }
+
+        @Override
+        public Optional<InetSocketAddress> getRemoteAddress() {
+            return Optional.of(REMOTE_ADDRESS);
+        }
+
+        @Override
+        public String uri() {
+            return path();
+        }
+
+        @Override
+        public Map<String, String> params() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Set<String> getUnconsumedParams() {
+            return Set.of();
+        }
+
+        @Override
+        public void queueForSending(final SecurityResponse response) {
+            throw new IllegalStateException("Authentication failed with status " + response.getStatus());
+        }
+
+        @Override
+        public Optional<SecurityResponse> getQueuedResponse() {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.benchmark;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.security.support.Base64Helper;
+import org.opensearch.security.user.User;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the serialization of the user which is sent along with every transport request in the thread context headers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class Base64HelperBenchmark {
+
+    @Param({ "1", "10", "100" })
+    public int backendRoles;
+
+    @Param({ "false", "true" })
+    public boolean useJDKSerialization;
+
+    private User user;
+    private String serialized;
+
+    @Setup
+    public void setup() {
+        user = new SyntheticSecurityConfig(backendRoles * 10, 0, backendRoles, 42).user("benchmark_user");
+        final Map<String, String> attributes = new HashMap<>();
+        for (int i = 0; i < backendRoles; i++) {
+            attributes.put("attr.ldap.attribute_" + i, "value_" + i);
+        }
+        user.addAttributes(attributes);
+        serialized = Base64Helper.serializeObject(user, useJDKSerialization);
+    }
+
+    @Benchmark
+    public String serializeUser() {
+        return Base64Helper.serializeObject(user, useJDKSerialization);
+    }
+
+    @Benchmark
+    public Serializable deserializeUser() {
+        return Base64Helper.deserializeObject(serialized, useJDKSerialization);
+    }
+}
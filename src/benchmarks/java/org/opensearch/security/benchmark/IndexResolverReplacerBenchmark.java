@@ -0,0 +1,87 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.security.configuration.ClusterInfoHolder;
+import org.opensearch.security.resolver.IndexResolverReplacer;
+import org.opensearch.security.resolver.IndexResolverReplacer.Resolved;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the resolution of the indices of a search request against the cluster metadata, for concrete index
+ * names, a wildcard expression and an alias.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IndexResolverReplacerBenchmark {
+
+    @Param({ "100", "10000" })
+    public int indices;
+
+    private IndexResolverReplacer indexResolverReplacer;
+    private SearchRequest concreteIndices;
+    private SearchRequest wildcard;
+    private SearchRequest alias;
+
+    @Setup
+    public void setup() {
+        final SyntheticSecurityConfig config = new SyntheticSecurityConfig(10, indices, 1, 42);
+        final ClusterService clusterService = SyntheticSecurityConfig.clusterService(config.clusterState());
+        final IndexNameExpressionResolver resolver = new IndexNameExpressionResolver(new ThreadContext(Settings.EMPTY));
+        indexResolverReplacer = new IndexResolverReplacer(resolver, clusterService, new ClusterInfoHolder("benchmark"));
+        SyntheticSecurityConfig.registerNodeServices();
+
+        final List<String> names = config.indexNames(5);
+        concreteIndices = new SearchRequest(names.toArray(new String[0]));
+        // matches the first ten indices of the synthetic cluster state
+        wildcard = new SearchRequest("logs_0-*");
+        alias = new SearchRequest("alias_0");
+    }
+
+    @Benchmark
+    public Resolved resolveConcreteIndices() {
+        return indexResolverReplacer.resolveRequest(concreteIndices);
+    }
+
+    @Benchmark
+    public Resolved resolveWildcard() {
+        return indexResolverReplacer.resolveRequest(wildcard);
+    }
+
+    @Benchmark
+    public Resolved resolveAlias() {
+        return indexResolverReplacer.resolveRequest(alias);
+    }
+}
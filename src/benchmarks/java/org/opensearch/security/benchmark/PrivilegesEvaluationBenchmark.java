@@ -0,0 +1,216 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.benchmark;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+
+import org.opensearch.action.get.GetAction;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.search.SearchAction;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.security.auditlog.NullAuditLog;
+import org.opensearch.security.configuration.ClusterInfoHolder;
+import org.opensearch.security.privileges.PrivilegesEvaluator;
+import org.opensearch.security.privileges.PrivilegesEvaluatorResponse;
+import org.opensearch.security.privileges.PrivilegesInterceptor;
+import org.opensearch.security.resolver.IndexResolverReplacer;
+import org.opensearch.security.resolver.IndexResolverReplacer.Resolved;
+import org.opensearch.security.securityconf.ConfigModelV7;
+import org.opensearch.security.securityconf.SecurityRoles;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.security.user.User;
+import org.opensearch.threadpool.ThreadPool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the steps of the privileges evaluation which depend on the size of the roles configuration:
+ * mapping a user to roles, restricting the roles to the mapped ones and checking cluster and index permissions.
+ * The evaluate benchmarks run the whole {@link PrivilegesEvaluator} for a get and a search on one index the user
+ * has unrestricted access to, with and without the fast path for such requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PrivilegesEvaluationBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int roles;
+
+    @Param({ "100", "10000" })
+    public int indices;
+
+    @Param({ "1", "10" })
+    public int backendRoles;
+
+    private SyntheticSecurityConfig config;
+    private ConfigModelV7 configModel;
+    private SecurityRoles securityRoles;
+    private SecurityRoles userRoles;
+    private Set<String> mappedRoles;
+    private User user;
+    private ClusterService clusterService;
+    private IndexNameExpressionResolver resolver;
+    private Resolved resolved;
+    private String index;
+
+    @Setup
+    public void setup() throws IOException {
+        config = new SyntheticSecurityConfig(roles, indices, backendRoles, 42);
+        configModel = config.configModel(Settings.EMPTY);
+        securityRoles = configModel.getSecurityRoles();
+        clusterService = SyntheticSecurityConfig.clusterService(config.clusterState());
+        resolver = new IndexNameExpressionResolver(new ThreadContext(Settings.EMPTY));
+        user = config.user("benchmark_user");
+        mappedRoles = configModel.mapSecurityRoles(user, null);
+        userRoles = securityRoles.filter(mappedRoles);
+
+        final ImmutableSet<String> requested = ImmutableSet.copyOf(config.indexNames(5));
+        resolved = new Resolved(ImmutableSet.of(), requested, requested, ImmutableSet.of(), IndicesOptions.STRICT_EXPAND_OPEN);
+        index = config.indexNames(1).get(0);
+    }
+
+    @Benchmark
+    public Set<String> mapSecurityRoles() {
+        return configModel.mapSecurityRoles(user, null);
+    }
+
+    @Benchmark
+    public SecurityRoles filterSecurityRoles() {
+        return securityRoles.filter(mappedRoles);
+    }
+
+    @Benchmark
+    public boolean impliesClusterPermission() {
+        return userRoles.impliesClusterPermissionPermission("cluster:monitor/health");
+    }
+
+    @Benchmark
+    public boolean impliesIndexPermission() {
+        return userRoles.get(resolved, user, SyntheticSecurityConfig.READ_ACTIONS, resolver, clusterService);
+    }
+
+    @Benchmark
+    public boolean impliesUnrestrictedSingleIndexPermission() {
+        return userRoles.impliesUnrestrictedIndexPermission(
+            index,
+            SyntheticSecurityConfig.READ_ACTIONS[0],
+            user,
+            resolver,
+            clusterService
+        );
+    }
+
+    @Benchmark
+    public PrivilegesEvaluatorResponse evaluateSingleIndexGet(final Evaluator evaluator) {
+        return evaluator.privilegesEvaluator.evaluate(user, GetAction.NAME, evaluator.getRequest, null, null);
+    }
+
+    @Benchmark
+    public PrivilegesEvaluatorResponse evaluateSingleIndexSearch(final Evaluator evaluator) {
+        return evaluator.privilegesEvaluator.evaluate(user, SearchAction.NAME, evaluator.searchRequest, null, null);
+    }
+
+    /**
+     * A privileges evaluator on the generated configuration, with the fast path for unrestricted single index
+     * requests enabled or disabled.
+     */
+    @State(Scope.Benchmark)
+    public static class Evaluator {
+
+        @Param({ "true", "false" })
+        public boolean fastPath;
+
+        private ThreadPool threadPool;
+        private PrivilegesEvaluator privilegesEvaluator;
+        private GetRequest getRequest;
+        private SearchRequest searchRequest;
+
+        @Setup
+        public void setup(final PrivilegesEvaluationBenchmark benchmark) throws IOException {
+            final Settings settings = Settings.builder()
+                .put("node.name", "benchmark")
+                .put(ConfigConstants.SECURITY_PRIVILEGES_FAST_PATH_ENABLED, fastPath)
+                .build();
+            final ClusterInfoHolder clusterInfoHolder = new ClusterInfoHolder("benchmark");
+            // the full path resolves the request's indices
+            SyntheticSecurityConfig.registerNodeServices();
+            threadPool = new ThreadPool(settings);
+            privilegesEvaluator = new PrivilegesEvaluator(
+                benchmark.clusterService,
+                threadPool,
+                null,
+                benchmark.resolver,
+                new NullAuditLog(),
+                settings,
+                new PrivilegesInterceptor(benchmark.resolver, benchmark.clusterService, null, threadPool),
+                clusterInfoHolder,
+                new IndexResolverReplacer(benchmark.resolver, benchmark.clusterService, clusterInfoHolder),
+                false,
+                NamedXContentRegistry.EMPTY
+            );
+            privilegesEvaluator.onConfigModelChanged(benchmark.configModel);
+            privilegesEvaluator.onDynamicConfigModelChanged(benchmark.config.dynamicConfigModel(Settings.EMPTY));
+
+            final String index = unrestrictedIndex(benchmark);
+            getRequest = new GetRequest(index, "1");
+            searchRequest = new SearchRequest(index);
+        }
+
+        @TearDown
+        public void tearDown() {
+            ThreadPool.terminate(threadPool, 10, TimeUnit.SECONDS);
+        }
+
+        // an index without aliases to which the user has unrestricted read access, so that the fast path applies
+        private static String unrestrictedIndex(final PrivilegesEvaluationBenchmark benchmark) {
+            for (int i = 0; i < benchmark.indices; i++) {
+                final String index = SyntheticSecurityConfig.indexName(i);
+                if (benchmark.clusterService.state().metadata().index(index).getAliases().isEmpty()
+                    && benchmark.userRoles.impliesUnrestrictedIndexPermission(
+                        index,
+                        SearchAction.NAME,
+                        benchmark.user,
+                        benchmark.resolver,
+                        benchmark.clusterService
+                    )) {
+                    return index;
+                }
+            }
+            throw new IllegalStateException("The benchmark user has no unrestricted access to any index");
+        }
+    }
+}
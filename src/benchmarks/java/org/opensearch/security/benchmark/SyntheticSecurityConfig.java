@@ -0,0 +1,200 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.opensearch.Version;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.metadata.AliasMetadata;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.cluster.metadata.Metadata;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.security.DefaultObjectMapper;
+import org.opensearch.security.OpenSearchSecurityPlugin;
+import org.opensearch.security.securityconf.ConfigModelV7;
+import org.opensearch.security.securityconf.DynamicConfigModelV7;
+import org.opensearch.security.securityconf.impl.CType;
+import org.opensearch.security.securityconf.impl.SecurityDynamicConfiguration;
+import org.opensearch.security.securityconf.impl.v7.ConfigV7;
+import org.opensearch.security.user.User;
+import org.opensearch.transport.RemoteClusterService;
+import org.opensearch.transport.TransportService;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Generates security configurations, users and cluster metadata of a configurable size for benchmarks.
+ *
+ * Indices are named {@code <prefix>-<n>}, where the prefixes are shared by groups of indices. Each role grants
+ * read access to a few index prefixes by wildcard and to a few indices by name, and is mapped to a backend role
+ * by name as well as to a group of backend roles by wildcard. The generated data only depends on the seed.
+ */
+public class SyntheticSecurityConfig {
+
+    public static final String READ_ACTION_GROUP = "indices:data/read/*";
+    public static final String[] READ_ACTIONS = { "indices:data/read/search", "indices:data/read/get", "indices:data/read/mget" };
+
+    private static final int INDICES_PER_PREFIX = 10;
+    private static final int PATTERNS_PER_ROLE = 4;
+
+    private final int roles;
+    private final int indices;
+    private final int backendRolesPerUser;
+    private final Random random;
+
+    public SyntheticSecurityConfig(final int roles, final int indices, final int backendRolesPerUser, final long seed) {
+        this.roles = roles;
+        this.indices = indices;
+        this.backendRolesPerUser = backendRolesPerUser;
+        this.random = new Random(seed);
+    }
+
+    public static String indexName(final int index) {
+        return indexPrefix(index / INDICES_PER_PREFIX) + "-" + index;
+    }
+
+    public static String backendRoleName(final int role) {
+        return "backend_" + (role % 10) + "_" + role;
+    }
+
+    private static String indexPrefix(final int prefix) {
+        return "logs_" + prefix;
+    }
+
+    private int prefixes() {
+        return Math.max(1, indices / INDICES_PER_PREFIX);
+    }
+
+    /** Builds the config model from generated roles and role mappings */
+    public ConfigModelV7 configModel(final Settings settings) throws IOException {
+        return new ConfigModelV7(
+            rolesConfig(),
+            rolesMappingConfig(),
+            emptyConfig(CType.ACTIONGROUPS, "actiongroups"),
+            emptyConfig(CType.TENANTS, "tenants"),
+            dynamicConfigModel(settings),
+            settings
+        );
+    }
+
+    /** The dynamic configuration with defaults only */
+    public DynamicConfigModelV7 dynamicConfigModel(final Settings settings) {
+        final ConfigV7 config = new ConfigV7();
+        config.dynamic = new ConfigV7.Dynamic();
+        return new DynamicConfigModelV7(config, settings, null, null, null);
+    }
+
+    public <T> SecurityDynamicConfiguration<T> rolesConfig() throws IOException {
+        final ObjectNode rolesNode = DefaultObjectMapper.objectMapper.createObjectNode();
+        rolesNode.set("_meta", meta("roles"));
+        for (int role = 0; role < roles; role++) {
+            final ObjectNode roleNode = rolesNode.putObject(roleName(role));
+            roleNode.putArray("cluster_permissions").add("cluster:monitor/*");
+            final ArrayNode indexPermissions = roleNode.putArray("index_permissions");
+            for (int pattern = 0; pattern < PATTERNS_PER_ROLE; pattern++) {
+                final ObjectNode indexPermission = indexPermissions.addObject();
+                indexPermission.putArray("index_patterns")
+                    .add(indexPrefix(random.nextInt(prefixes())) + "-*")
+                    .add(indexName(random.nextInt(Math.max(1, indices))));
+                indexPermission.putArray("allowed_actions").add(READ_ACTION_GROUP);
+            }
+        }
+        return SecurityDynamicConfiguration.fromNode(rolesNode, CType.ROLES, 2, 0, 0);
+    }
+
+    public <T> SecurityDynamicConfiguration<T> rolesMappingConfig() throws IOException {
+        final ObjectNode rolesMappingNode = DefaultObjectMapper.objectMapper.createObjectNode();
+        rolesMappingNode.set("_meta", meta("rolesmapping"));
+        for (int role = 0; role < roles; role++) {
+            final ObjectNode mappingNode = rolesMappingNode.putObject(roleName(role));
+            mappingNode.putArray("backend_roles").add(backendRoleName(role)).add("backend_" + (role % 10) + "_*");
+        }
+        return SecurityDynamicConfiguration.fromNode(rolesMappingNode, CType.ROLESMAPPING, 2, 0, 0);
+    }
+
+    /** Cluster metadata with open indices, every tenth of them having an alias */
+    public ClusterState clusterState() {
+        final Metadata.Builder metadata = Metadata.builder();
+        for (int index = 0; index < indices; index++) {
+            final IndexMetadata.Builder indexMetadata = IndexMetadata.builder(indexName(index))
+                .settings(Settings.builder().put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT))
+                .numberOfShards(1)
+                .numberOfReplicas(0);
+            if (index % 10 == 0) {
+                indexMetadata.putAlias(AliasMetadata.builder("alias_" + index));
+            }
+            metadata.put(indexMetadata);
+        }
+        return ClusterState.builder(ClusterName.DEFAULT).metadata(metadata).build();
+    }
+
+    /** A cluster service which always returns the given state */
+    public static ClusterService clusterService(final ClusterState state) {
+        return new ClusterService(Settings.EMPTY, new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS), null) {
+            @Override
+            public ClusterState state() {
+                return state;
+            }
+        };
+    }
+
+    /** Registers the node services which the index resolution looks up statically, without any remote clusters */
+    public static void registerNodeServices() {
+        final TransportService transportService = mock(TransportService.class);
+        when(transportService.getRemoteClusterService()).thenReturn(mock(RemoteClusterService.class));
+        new OpenSearchSecurityPlugin.GuiceHolder(null, transportService, null, null, null);
+    }
+
+    /** A user with randomly chosen backend roles, as if returned by an authentication backend */
+    public User user(final String name) {
+        final List<String> backendRoles = new ArrayList<>(backendRolesPerUser);
+        for (int i = 0; i < backendRolesPerUser; i++) {
+            backendRoles.add(backendRoleName(random.nextInt(Math.max(1, roles))));
+        }
+        return new User(name, backendRoles, null);
+    }
+
+    /** Randomly chosen names of existing indices */
+    public List<String> indexNames(final int count) {
+        final String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = indexName(random.nextInt(Math.max(1, indices)));
+        }
+        return Arrays.asList(names);
+    }
+
+    private static String roleName(final int role) {
+        return "role_" + role;
+    }
+
+    private static ObjectNode meta(final String type) {
+        return DefaultObjectMapper.objectMapper.createObjectNode().put("type", type).put("config_version", 2);
+    }
+
+    private static <T> SecurityDynamicConfiguration<T> emptyConfig(final CType type, final String metaType) throws IOException {
+        final ObjectNode node = DefaultObjectMapper.objectMapper.createObjectNode();
+        node.set("_meta", meta(metaType));
+        return SecurityDynamicConfiguration.fromNode(node, type, 2, 0, 0);
+    }
+}
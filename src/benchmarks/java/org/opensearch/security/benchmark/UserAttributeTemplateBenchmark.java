@@ -0,0 +1,83 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.security.securityconf.UserAttributeTemplate;
+import org.opensearch.security.user.User;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the substitution of user attributes into index patterns and DLS queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserAttributeTemplateBenchmark {
+
+    @Param({ "0", "10", "100" })
+    public int attributes;
+
+    private User user;
+    private UserAttributeTemplate indexPattern;
+    private UserAttributeTemplate dlsQuery;
+    private UserAttributeTemplate staticPattern;
+
+    @Setup
+    public void setup() {
+        user = new SyntheticSecurityConfig(10, 0, 3, 42).user("benchmark_user");
+        final Map<String, String> userAttributes = new HashMap<>();
+        for (int i = 0; i < attributes; i++) {
+            userAttributes.put("attr.jwt.claim_" + i, "value_" + i);
+        }
+        userAttributes.put("attr.jwt.department", "sales");
+        user.addAttributes(userAttributes);
+
+        indexPattern = UserAttributeTemplate.compile("logs-${attr_jwt_department}-*");
+        dlsQuery = UserAttributeTemplate.compile(
+            "{\"bool\":{\"must\":[{\"term\":{\"owner\":\"${user.name}\"}},{\"terms\":{\"roles\":[${user.roles}]}}]}}"
+        );
+        staticPattern = UserAttributeTemplate.compile("logs-*");
+    }
+
+    @Benchmark
+    public String expandIndexPattern() {
+        return indexPattern.expand(user);
+    }
+
+    @Benchmark
+    public String expandDlsQuery() {
+        return dlsQuery.expand(user);
+    }
+
+    @Benchmark
+    public String expandStaticPattern() {
+        return staticPattern.expand(user);
+    }
+}
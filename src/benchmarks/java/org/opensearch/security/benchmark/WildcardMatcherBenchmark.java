@@ -0,0 +1,102 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.security.support.WildcardMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures building and matching sets of index patterns as found in roles and role mappings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WildcardMatcherBenchmark {
+
+    private static final int CANDIDATES = 64;
+
+    @Param({ "1", "10", "100", "1000" })
+    public int patterns;
+
+    private List<String> patternList;
+    private WildcardMatcher matcher;
+    private String[] candidates;
+
+    @Setup
+    public void setup() {
+        patternList = new ArrayList<>(patterns);
+        for (int i = 0; i < patterns; i++) {
+            switch (i % 4) {
+                case 0:
+                    patternList.add("logs_" + i + "-*");
+                    break;
+                case 1:
+                    patternList.add(SyntheticSecurityConfig.indexName(i));
+                    break;
+                case 2:
+                    patternList.add("*-audit_" + i);
+                    break;
+                default:
+                    patternList.add("metrics_" + i + "-20??.*");
+                    break;
+            }
+        }
+        matcher = WildcardMatcher.from(patternList);
+
+        // half of the candidates match one of the patterns
+        candidates = new String[CANDIDATES];
+        for (int i = 0; i < CANDIDATES; i++) {
+            final int pattern = (i * 31) % patterns;
+            candidates[i] = i % 2 == 0 ? "logs_" + (pattern - pattern % 4) + "-2024.01.01" : "unmatched-" + i;
+        }
+    }
+
+    @Benchmark
+    public WildcardMatcher build() {
+        return WildcardMatcher.from(patternList);
+    }
+
+    @Benchmark
+    public void test(final Blackhole blackhole) {
+        for (String candidate : candidates) {
+            blackhole.consume(matcher.test(candidate));
+        }
+    }
+
+    @Benchmark
+    public void findFirst(final Blackhole blackhole) {
+        for (String candidate : candidates) {
+            final Optional<WildcardMatcher> found = matcher.findFirst(candidate);
+            blackhole.consume(found);
+        }
+    }
+}
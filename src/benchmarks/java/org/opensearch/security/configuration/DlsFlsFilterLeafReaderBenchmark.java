@@ -0,0 +1,157 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFieldVisitor;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.security.auditlog.NullAuditLog;
+import org.opensearch.security.support.ConfigConstants;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading the stored fields of a document through the DLS/FLS reader, which rewrites the source for field
+ * level security and field masking. It lives in the package of the reader because the reader is not public.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DlsFlsFilterLeafReaderBenchmark {
+
+    private static final int DOCUMENTS = 1000;
+
+    @Param({ "none", "fls", "masking", "fls_masking" })
+    public String restriction;
+
+    @Param({ "10", "100" })
+    public int fields;
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private StoredFields storedFields;
+    private int doc;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (int i = 0; i < DOCUMENTS; i++) {
+                final Document document = new Document();
+                document.add(new StoredField("_id", new BytesRef(Integer.toString(i))));
+                document.add(new StoredField("_source", new BytesRef(source(i))));
+                writer.addDocument(document);
+            }
+            writer.forceMerge(1);
+        }
+
+        // every other field is visible with field level security, the second one is masked
+        Set<String> includes = null;
+        if (restriction.startsWith("fls")) {
+            includes = new HashSet<>(Set.of("_source", "_id"));
+            for (int field = 0; field < fields; field += 2) {
+                includes.add("field_" + field);
+            }
+        }
+        final Set<String> maskedFields = restriction.endsWith("masking") ? Set.of("field_2") : null;
+
+        final ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+        threadContext.putTransient(ConfigConstants.OPENDISTRO_SECURITY_ACTION_NAME, "indices:data/read/search");
+        reader = new DlsFlsFilterLeafReader.DlsFlsDirectoryReader(
+            DirectoryReader.open(directory),
+            includes,
+            null,
+            null,
+            threadContext,
+            null,
+            new NullAuditLog(),
+            maskedFields,
+            new ShardId("index", "_na_", 0),
+            Salt.from(Settings.EMPTY),
+            new DlsBitsetCache(Settings.EMPTY)
+        );
+        storedFields = reader.leaves().get(0).reader().storedFields();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Benchmark
+    public int loadDocument() throws IOException {
+        final SourceVisitor visitor = new SourceVisitor();
+        storedFields.document(doc, visitor);
+        doc = (doc + 1) % DOCUMENTS;
+        return visitor.length;
+    }
+
+    private byte[] source(final int doc) {
+        final StringBuilder source = new StringBuilder("{");
+        for (int field = 0; field < fields; field++) {
+            if (field > 0) {
+                source.append(',');
+            }
+            source.append("\"field_").append(field).append("\":\"value ").append(doc).append('-').append(field).append('"');
+        }
+        return source.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Loads the id and the source like the fetch phase does */
+    private static final class SourceVisitor extends StoredFieldVisitor {
+
+        private int length;
+
+        @Override
+        public Status needsField(final FieldInfo fieldInfo) {
+            return Status.YES;
+        }
+
+        @Override
+        public void binaryField(final FieldInfo fieldInfo, final byte[] value) {
+            length += value.length;
+        }
+    }
+}
@@ -89,11 +89,15 @@ import org.opensearch.common.settings.Setting;
 import org.opensearch.common.settings.Setting.Property;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.settings.SettingsFilter;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.util.BigArrays;
 import org.opensearch.common.util.PageCacheRecycler;
 import org.opensearch.common.util.concurrent.ThreadContext;
 import org.opensearch.core.action.ActionResponse;
+import org.opensearch.core.common.breaker.CircuitBreaker;
 import org.opensearch.core.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.core.common.unit.ByteSizeUnit;
+import org.opensearch.core.common.unit.ByteSizeValue;
 import org.opensearch.core.index.Index;
 import org.opensearch.core.indices.breaker.CircuitBreakerService;
 import org.opensearch.core.rest.RestStatus;
@@ -110,10 +114,13 @@ import org.opensearch.index.IndexModule;
 import org.opensearch.index.cache.query.QueryCache;
 import org.opensearch.indices.IndicesService;
 import org.opensearch.indices.SystemIndexDescriptor;
+import org.opensearch.indices.breaker.BreakerSettings;
+import org.opensearch.plugins.CircuitBreakerPlugin;
 import org.opensearch.plugins.ClusterPlugin;
 import org.opensearch.plugins.ExtensionAwarePlugin;
 import org.opensearch.plugins.IdentityPlugin;
 import org.opensearch.plugins.MapperPlugin;
+import org.opensearch.plugins.SearchPlugin;
 import org.opensearch.repositories.RepositoriesService;
 import org.opensearch.rest.RestController;
 import org.opensearch.rest.RestHandler;
@@ -121,7 +128,6 @@ import org.opensearch.script.ScriptService;
 import org.opensearch.search.internal.InternalScrollSearchRequest;
 import org.opensearch.search.internal.ReaderContext;
 import org.opensearch.search.internal.SearchContext;
-import org.opensearch.search.query.QuerySearchResult;
 import org.opensearch.security.action.configupdate.ConfigUpdateAction;
 import org.opensearch.security.action.configupdate.TransportConfigUpdateAction;
 import org.opensearch.security.action.onbehalf.CreateOnBehalfOfTokenAction;
@@ -140,12 +146,16 @@ import org.opensearch.security.configuration.AdminDNs;
 import org.opensearch.security.configuration.ClusterInfoHolder;
 import org.opensearch.security.configuration.CompatConfig;
 import org.opensearch.security.configuration.ConfigurationRepository;
+import org.opensearch.security.configuration.DlsBitsetCache;
+import org.opensearch.security.configuration.DlsFlsRequestCacheKey;
 import org.opensearch.security.configuration.DlsFlsRequestValve;
 import org.opensearch.security.configuration.DlsFlsValveImpl;
 import org.opensearch.security.configuration.PrivilegesInterceptorImpl;
 import org.opensearch.security.configuration.Salt;
 import org.opensearch.security.configuration.SecurityFlsDlsIndexSearcherWrapper;
+import org.opensearch.security.configuration.TermsLookupCache;
 import org.opensearch.security.dlic.rest.api.Endpoint;
+import org.opensearch.security.dlic.rest.api.RestApiAdminPrivilegesEvaluator;
 import org.opensearch.security.dlic.rest.api.SecurityRestApiActions;
 import org.opensearch.security.dlic.rest.validation.PasswordValidator;
 import org.opensearch.security.filter.SecurityFilter;
@@ -157,14 +167,18 @@ import org.opensearch.security.identity.SecurityTokenManager;
 import org.opensearch.security.privileges.PrivilegesEvaluator;
 import org.opensearch.security.privileges.PrivilegesInterceptor;
 import org.opensearch.security.privileges.RestLayerPrivilegesEvaluator;
+import org.opensearch.security.privileges.SecurityRolesCache;
 import org.opensearch.security.resolver.IndexResolverReplacer;
 import org.opensearch.security.rest.DashboardsInfoAction;
 import org.opensearch.security.rest.SecurityConfigUpdateAction;
 import org.opensearch.security.rest.SecurityHealthAction;
 import org.opensearch.security.rest.SecurityInfoAction;
+import org.opensearch.security.rest.SecurityStatsAction;
 import org.opensearch.security.rest.SecurityWhoAmIAction;
 import org.opensearch.security.rest.TenantInfoAction;
+import org.opensearch.security.securityconf.ConfigModelV7;
 import org.opensearch.security.securityconf.DynamicConfigFactory;
+import org.opensearch.security.securityconf.ResolvedIndexPatternCache;
 import org.opensearch.security.setting.OpensearchDynamicSetting;
 import org.opensearch.security.setting.TransportPassiveAuthSetting;
 import org.opensearch.security.ssl.OpenSearchSecuritySSLPlugin;
@@ -211,6 +225,8 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
     implements
         ClusterPlugin,
         MapperPlugin,
+        CircuitBreakerPlugin,
+        SearchPlugin,
         // CS-SUPPRESS-SINGLE: RegexpSingleline get Extensions Settings
         ExtensionAwarePlugin,
         IdentityPlugin
@@ -248,6 +264,8 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
     private final AtomicReference<NamedXContentRegistry> namedXContentRegistry = new AtomicReference<>(NamedXContentRegistry.EMPTY);;
     private volatile DlsFlsRequestValve dlsFlsValve = null;
     private volatile Salt salt;
+    private volatile DlsBitsetCache dlsBitsetCache;
+    private volatile CircuitBreaker dlsBitsetBreaker;
     private volatile OpensearchDynamicSetting<Boolean> transportPassiveAuthSetting;
 
     public static boolean isActionTraceEnabled() {
@@ -535,6 +553,18 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                     new SecurityInfoAction(settings, restController, Objects.requireNonNull(evaluator), Objects.requireNonNull(threadPool))
                 );
                 handlers.add(new SecurityHealthAction(settings, restController, Objects.requireNonNull(backendRegistry)));
+                handlers.add(
+                    new SecurityStatsAction(
+                        Objects.requireNonNull(evaluator),
+                        Objects.requireNonNull(auditLog),
+                        new RestApiAdminPrivilegesEvaluator(
+                            threadPool.getThreadContext(),
+                            evaluator,
+                            adminDns,
+                            settings.getAsBoolean(ConfigConstants.SECURITY_RESTAPI_ADMIN_ENABLED, false)
+                        )
+                    )
+                );
                 handlers.add(
                     new DashboardsInfoAction(
                         settings,
@@ -639,7 +669,8 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                     auditLog,
                     ciol,
                     evaluator,
-                    salt
+                    salt,
+                    dlsBitsetCache
                 )
             );
             indexModule.forceQueryCacheProvider((indexSettings, nodeCache) -> new QueryCache() {
@@ -746,28 +777,6 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                         }
                     }
                 }
-
-                @Override
-                public void onQueryPhase(SearchContext searchContext, long tookInNanos) {
-                    QuerySearchResult queryResult = searchContext.queryResult();
-                    assert queryResult != null;
-                    if (!queryResult.hasAggs()) {
-                        return;
-                    }
-
-                    @SuppressWarnings("unchecked")
-                    final Map<String, Set<String>> maskedFieldsMap = (Map<String, Set<String>>) HeaderHelper.deserializeSafeFromHeader(
-                        threadPool.getThreadContext(),
-                        ConfigConstants.OPENDISTRO_SECURITY_MASKED_FIELD_HEADER
-                    );
-                    final String maskedEval = SecurityUtils.evalMap(maskedFieldsMap, indexModule.getIndex().getName());
-                    if (maskedEval != null) {
-                        final Set<String> mf = maskedFieldsMap.get(maskedEval);
-                        if (mf != null && !mf.isEmpty()) {
-                            dlsFlsValve.onQueryPhase(queryResult);
-                        }
-                    }
-                }
             }.toListener());
         }
     }
@@ -999,7 +1008,13 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
 
         final ClusterInfoHolder cih = new ClusterInfoHolder(this.cs.getClusterName().value());
         this.cs.addListener(cih);
+        final ResolvedIndexPatternCache resolvedIndexPatternCache = new ResolvedIndexPatternCache(settings);
+        this.cs.addListener(resolvedIndexPatternCache);
         this.salt = Salt.from(settings);
+        this.dlsBitsetCache = new DlsBitsetCache(settings);
+        if (dlsBitsetBreaker != null) {
+            dlsBitsetCache.setCircuitBreaker(dlsBitsetBreaker);
+        }
 
         final IndexNameExpressionResolver resolver = new IndexNameExpressionResolver(threadPool.getThreadContext());
         irr = new IndexResolverReplacer(resolver, clusterService, cih);
@@ -1030,7 +1045,8 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                 clusterService,
                 resolver,
                 xContentRegistry,
-                threadPool.getThreadContext()
+                threadPool.getThreadContext(),
+                () -> evaluator.getDlsQueryTemplates()
             );
             auditLog = new AuditLogImpl(settings, configPath, localClient, threadPool, resolver, clusterService, environment);
             privilegesInterceptor = new PrivilegesInterceptorImpl(resolver, clusterService, localClient, threadPool);
@@ -1088,7 +1104,7 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
             configPath,
             compatConfig
         );
-        dcf = new DynamicConfigFactory(cr, settings, configPath, localClient, threadPool, cih);
+        dcf = new DynamicConfigFactory(cr, settings, configPath, localClient, threadPool, cih, resolvedIndexPatternCache);
         dcf.registerDCFListener(backendRegistry);
         dcf.registerDCFListener(compatConfig);
         dcf.registerDCFListener(irr);
@@ -1161,6 +1177,26 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
         return builder.build();
     }
 
+    @Override
+    public BreakerSettings getCircuitBreaker(Settings settings) {
+        return new BreakerSettings(DlsBitsetCache.BREAKER_NAME, DlsBitsetCache.size(settings), 1.0);
+    }
+
+    @Override
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.dlsBitsetBreaker = circuitBreaker;
+        if (dlsBitsetCache != null) {
+            dlsBitsetCache.setCircuitBreaker(circuitBreaker);
+        }
+    }
+
+    @Override
+    public List<SearchExtSpec<?>> getSearchExts() {
+        return Collections.singletonList(
+            new SearchExtSpec<>(DlsFlsRequestCacheKey.NAME, DlsFlsRequestCacheKey::new, DlsFlsRequestCacheKey::fromXContent)
+        );
+    }
+
     @Override
     public List<Setting<?>> getSettings() {
         List<Setting<?>> settings = new ArrayList<Setting<?>>();
@@ -1297,6 +1333,71 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
             settings.add(
                 Setting.boolSetting(ConfigConstants.SECURITY_DFM_EMPTY_OVERRIDES_ALL, false, Property.NodeScope, Property.Filtered)
             );
+            settings.add(
+                Setting.intSetting(
+                    ConfigConstants.SECURITY_PRIVILEGES_SUBSTITUTED_PATTERN_CACHE_MAX_SIZE,
+                    ResolvedIndexPatternCache.DEFAULT_SUBSTITUTED_PATTERNS_MAX_SIZE,
+                    0,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.intSetting(
+                    ConfigConstants.SECURITY_PRIVILEGES_ROLES_CACHE_MAX_SIZE,
+                    SecurityRolesCache.DEFAULT_MAX_SIZE,
+                    0,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.boolSetting(ConfigConstants.SECURITY_PRIVILEGES_FAST_PATH_ENABLED, true, Property.NodeScope, Property.Filtered)
+            );
+            settings.add(
+                Setting.intSetting(
+                    ConfigConstants.SECURITY_ROLES_MAPPING_CACHE_MAX_SIZE,
+                    ConfigModelV7.DEFAULT_ROLES_MAPPING_CACHE_MAX_SIZE,
+                    0,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.intSetting(
+                    ConfigConstants.SECURITY_PRIVILEGES_DLS_FLS_CACHE_MAX_SIZE,
+                    ConfigModelV7.DEFAULT_DLS_FLS_CACHE_MAX_SIZE,
+                    0,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.memorySizeSetting(
+                    ConfigConstants.SECURITY_DLS_BITSET_CACHE_SIZE,
+                    DlsBitsetCache.DEFAULT_SIZE,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.timeSetting(
+                    ConfigConstants.SECURITY_DLS_TLQ_CACHE_TTL,
+                    TermsLookupCache.DEFAULT_TTL,
+                    TimeValue.ZERO,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.listSetting(
+                    ConfigConstants.SECURITY_DLS_FLS_REQUEST_CACHE_INDICES,
+                    Collections.emptyList(),
+                    Function.identity(),
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
             settings.add(Setting.groupSetting(ConfigConstants.SECURITY_AUTHCZ_REST_IMPERSONATION_USERS + ".", Property.NodeScope)); // not
                                                                                                                                     // filtered
                                                                                                                                     // here
@@ -1319,6 +1420,37 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                     Property.Filtered
                 )
             );
+            settings.add(
+                Setting.simpleString(ConfigConstants.SECURITY_AUDIT_THREADPOOL_BACKPRESSURE, Property.NodeScope, Property.Filtered)
+            );
+            settings.add(
+                Setting.timeSetting(
+                    ConfigConstants.SECURITY_AUDIT_THREADPOOL_BLOCK_TIMEOUT,
+                    TimeValue.timeValueMillis(100),
+                    TimeValue.ZERO,
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(Setting.boolSetting(ConfigConstants.SECURITY_AUDIT_SPOOL_ENABLED, false, Property.NodeScope, Property.Filtered));
+            settings.add(Setting.simpleString(ConfigConstants.SECURITY_AUDIT_SPOOL_PATH, Property.NodeScope, Property.Filtered));
+            settings.add(Setting.simpleString(ConfigConstants.SECURITY_AUDIT_SPOOL_FSYNC, Property.NodeScope, Property.Filtered));
+            settings.add(
+                Setting.byteSizeSetting(
+                    ConfigConstants.SECURITY_AUDIT_SPOOL_SEGMENT_SIZE,
+                    new ByteSizeValue(16, ByteSizeUnit.MB),
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
+            settings.add(
+                Setting.byteSizeSetting(
+                    ConfigConstants.SECURITY_AUDIT_SPOOL_MAX_SIZE,
+                    new ByteSizeValue(1, ByteSizeUnit.GB),
+                    Property.NodeScope,
+                    Property.Filtered
+                )
+            );
             settings.add(
                 Setting.boolSetting(ConfigConstants.OPENDISTRO_SECURITY_AUDIT_LOG_REQUEST_BODY, true, Property.NodeScope, Property.Filtered)
             );
@@ -1452,6 +1584,24 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                 )
             );
 
+            // Internal OpenSearch
+            for (String bulkSetting : Arrays.asList(
+                ConfigConstants.SECURITY_AUDIT_OPENSEARCH_REFRESH_POLICY,
+                ConfigConstants.SECURITY_AUDIT_OPENSEARCH_BULK_ACTIONS,
+                ConfigConstants.SECURITY_AUDIT_OPENSEARCH_BULK_SIZE,
+                ConfigConstants.SECURITY_AUDIT_OPENSEARCH_BULK_FLUSH_INTERVAL,
+                ConfigConstants.SECURITY_AUDIT_OPENSEARCH_BULK_MAX_QUEUED,
+                ConfigConstants.SECURITY_AUDIT_OPENSEARCH_BULK_MAX_RETRIES
+            )) {
+                settings.add(
+                    Setting.simpleString(
+                        ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT_PREFIX + bulkSetting,
+                        Property.NodeScope,
+                        Property.Filtered
+                    )
+                );
+            }
+
             // External OpenSearch
             settings.add(
                 Setting.listSetting(
@@ -1622,6 +1772,25 @@ public final class OpenSearchSecurityPlugin extends OpenSearchSecuritySSLPlugin
                     Property.Filtered
                 )
             );
+            for (String webhookSetting : Arrays.asList(
+                ConfigConstants.SECURITY_AUDIT_WEBHOOK_ASYNC,
+                ConfigConstants.SECURITY_AUDIT_WEBHOOK_HTTP2,
+                ConfigConstants.SECURITY_AUDIT_WEBHOOK_COMPRESSION,
+                ConfigConstants.SECURITY_AUDIT_WEBHOOK_BATCH_SIZE,
+                ConfigConstants.SECURITY_AUDIT_WEBHOOK_BATCH_FLUSH_INTERVAL,
+                ConfigConstants.SECURITY_AUDIT_WEBHOOK_MAX_CONNECTIONS,
+                ConfigConstants.SECURITY_AUDIT_WEBHOOK_MAX_INFLIGHT_REQUESTS,
+                ConfigConstants.SECURITY_AUDIT_WEBHOOK_MAX_QUEUED,
+                ConfigConstants.SECURITY_AUDIT_WEBHOOK_MAX_RETRIES
+            )) {
+                settings.add(
+                    Setting.simpleString(
+                        ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT_PREFIX + webhookSetting,
+                        Property.NodeScope,
+                        Property.Filtered
+                    )
+                );
+            }
 
             // Log4j
             settings.add(
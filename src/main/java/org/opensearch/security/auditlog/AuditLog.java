@@ -27,9 +27,11 @@
 package org.opensearch.security.auditlog;
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.util.Map;
 
 import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.index.engine.Engine.Delete;
 import org.opensearch.index.engine.Engine.DeleteResult;
 import org.opensearch.index.engine.Engine.Index;
@@ -83,6 +85,9 @@ public interface AuditLog extends Closeable {
     // set config
     void setConfig(AuditConfig auditConfig);
 
+    // stats
+    default void addStats(XContentBuilder builder) throws IOException {}
+
     public enum Origin {
         REST,
         TRANSPORT,
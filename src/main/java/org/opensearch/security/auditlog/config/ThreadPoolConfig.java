@@ -11,17 +11,48 @@
 
 package org.opensearch.security.auditlog.config;
 
+import java.util.Locale;
+
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.security.support.ConfigConstants;
 
 public class ThreadPoolConfig {
     private static final int DEFAULT_THREAD_POOL_SIZE = 10;
     private static final int DEFAULT_THREAD_POOL_MAX_QUEUE_LEN = 100_000;
+    private static final BackpressurePolicy DEFAULT_BACKPRESSURE = BackpressurePolicy.FALLBACK;
+    private static final TimeValue DEFAULT_BLOCK_TIMEOUT = TimeValue.timeValueMillis(100);
+
+    /**
+     * What to do with an audit message when the queue of its sink is full. Messages which do not fit are written
+     * to the spool of the sink first, if it has one.
+     * <p>
+     * {@link #FALLBACK} is the default and never loses a message: it stores the message synchronously on the
+     * fallback sink. {@link #DROP_OLDEST} and {@link #DROP_NEW} discard audit messages and must be opted into
+     * explicitly with {@code plugins.security.audit.threadpool.backpressure}. Discarded messages are counted in
+     * the audit section of the security stats.
+     */
+    public enum BackpressurePolicy {
+        // store the new message on the fallback sink on the calling thread
+        FALLBACK,
+        // wait for room up to the block timeout, then store the new message on the fallback sink
+        BLOCK,
+        // discard the oldest queued message to make room for the new one
+        DROP_OLDEST,
+        // discard the new message
+        DROP_NEW
+    }
 
     private final int threadPoolSize;
     private final int threadPoolMaxQueueLen;
+    private final BackpressurePolicy backpressurePolicy;
+    private final TimeValue blockTimeout;
 
     public ThreadPoolConfig(int threadPoolSize, int threadPoolMaxQueueLen) {
+        this(threadPoolSize, threadPoolMaxQueueLen, DEFAULT_BACKPRESSURE, DEFAULT_BLOCK_TIMEOUT);
+    }
+
+    public ThreadPoolConfig(int threadPoolSize, int threadPoolMaxQueueLen, BackpressurePolicy backpressurePolicy, TimeValue blockTimeout) {
         if (threadPoolSize <= 0) {
             throw new IllegalArgumentException("Incorrect thread pool size: " + threadPoolSize + " configured for audit logging.");
         }
@@ -34,6 +65,8 @@ public class ThreadPoolConfig {
 
         this.threadPoolSize = threadPoolSize;
         this.threadPoolMaxQueueLen = threadPoolMaxQueueLen;
+        this.backpressurePolicy = backpressurePolicy;
+        this.blockTimeout = blockTimeout;
     }
 
     public int getThreadPoolSize() {
@@ -44,6 +77,14 @@ public class ThreadPoolConfig {
         return threadPoolMaxQueueLen;
     }
 
+    public BackpressurePolicy getBackpressurePolicy() {
+        return backpressurePolicy;
+    }
+
+    public TimeValue getBlockTimeout() {
+        return blockTimeout;
+    }
+
     public static ThreadPoolConfig getConfig(Settings settings) {
         int threadPoolSize = settings.getAsInt(ConfigConstants.SECURITY_AUDIT_THREADPOOL_SIZE, DEFAULT_THREAD_POOL_SIZE);
         int threadPoolMaxQueueLen = settings.getAsInt(
@@ -51,6 +92,17 @@ public class ThreadPoolConfig {
             DEFAULT_THREAD_POOL_MAX_QUEUE_LEN
         );
 
-        return new ThreadPoolConfig(threadPoolSize, threadPoolMaxQueueLen);
+        final String backpressure = settings.get(ConfigConstants.SECURITY_AUDIT_THREADPOOL_BACKPRESSURE);
+        final BackpressurePolicy backpressurePolicy;
+        try {
+            backpressurePolicy = backpressure == null
+                ? DEFAULT_BACKPRESSURE
+                : BackpressurePolicy.valueOf(backpressure.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Incorrect backpressure policy: " + backpressure + " configured for audit logging.");
+        }
+        final TimeValue blockTimeout = settings.getAsTime(ConfigConstants.SECURITY_AUDIT_THREADPOOL_BLOCK_TIMEOUT, DEFAULT_BLOCK_TIMEOUT);
+
+        return new ThreadPoolConfig(threadPoolSize, threadPoolMaxQueueLen, backpressurePolicy, blockTimeout);
     }
 }
@@ -23,6 +23,7 @@ import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.env.Environment;
 import org.opensearch.index.engine.Engine.Delete;
 import org.opensearch.index.engine.Engine.DeleteResult;
@@ -123,6 +124,13 @@ public final class AuditLogImpl extends AbstractAuditLog {
         }
     }
 
+    @Override
+    public void addStats(final XContentBuilder builder) throws IOException {
+        if (messageRouterEnabled) {
+            messageRouter.addStats(builder);
+        }
+    }
+
     @Override
     protected void save(final AuditMessage msg) {
         if (enabled) {
@@ -18,6 +18,7 @@ import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -31,14 +32,20 @@ import org.apache.hc.core5.net.URIBuilder;
 import org.opensearch.ExceptionsHelper;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.common.xcontent.XContentHelper;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.common.xcontent.json.JsonXContent;
 import org.opensearch.core.common.Strings;
+import org.opensearch.core.common.bytes.BytesArray;
 import org.opensearch.core.common.bytes.BytesReference;
 import org.opensearch.core.common.transport.TransportAddress;
 import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.xcontent.DeprecationHandler;
 import org.opensearch.core.xcontent.MediaType;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
 import org.opensearch.rest.RestRequest;
 import org.opensearch.security.auditlog.AuditLog.Operation;
 import org.opensearch.security.auditlog.AuditLog.Origin;
@@ -125,76 +132,191 @@ public final class AuditMessage {
     public static final String COMPLIANCE_DOC_VERSION = "audit_compliance_doc_version";
 
     private static final DateTimeFormatter DEFAULT_FORMAT = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZZ");
-    private final Map<String, Object> auditInfo = new HashMap<String, Object>(50);
+    // reusable scratch buffer for serialization, the serialized bytes are copied out of it
+    private static final ThreadLocal<BytesStreamOutput> SCRATCH = ThreadLocal.withInitial(BytesStreamOutput::new);
+
+    /**
+     * The fields of an audit message in the order in which they are serialized.
+     */
+    private enum Field {
+        FORMAT_VERSION(AuditMessage.FORMAT_VERSION),
+        CATEGORY(AuditMessage.CATEGORY),
+        UTC_TIMESTAMP(AuditMessage.UTC_TIMESTAMP),
+        CLUSTER_NAME(AuditMessage.CLUSTER_NAME),
+        NODE_ID(AuditMessage.NODE_ID),
+        NODE_HOST_ADDRESS(AuditMessage.NODE_HOST_ADDRESS),
+        NODE_HOST_NAME(AuditMessage.NODE_HOST_NAME),
+        NODE_NAME(AuditMessage.NODE_NAME),
+        ORIGIN(AuditMessage.ORIGIN),
+        REQUEST_LAYER(AuditMessage.REQUEST_LAYER),
+        REMOTE_ADDRESS(AuditMessage.REMOTE_ADDRESS),
+        REQUEST_EFFECTIVE_USER(AuditMessage.REQUEST_EFFECTIVE_USER),
+        REQUEST_INITIATING_USER(AuditMessage.REQUEST_INITIATING_USER),
+        IS_ADMIN_DN(AuditMessage.IS_ADMIN_DN),
+        PRIVILEGE(AuditMessage.PRIVILEGE),
+        REST_REQUEST_PATH(AuditMessage.REST_REQUEST_PATH),
+        REST_REQUEST_PARAMS(AuditMessage.REST_REQUEST_PARAMS),
+        REST_REQUEST_HEADERS(AuditMessage.REST_REQUEST_HEADERS),
+        REST_REQUEST_METHOD(AuditMessage.REST_REQUEST_METHOD),
+        TRANSPORT_REQUEST_TYPE(AuditMessage.TRANSPORT_REQUEST_TYPE),
+        TRANSPORT_ACTION(AuditMessage.TRANSPORT_ACTION),
+        TRANSPORT_REQUEST_HEADERS(AuditMessage.TRANSPORT_REQUEST_HEADERS),
+        ID(AuditMessage.ID),
+        INDICES(AuditMessage.INDICES),
+        SHARD_ID(AuditMessage.SHARD_ID),
+        RESOLVED_INDICES(AuditMessage.RESOLVED_INDICES),
+        TASK_ID(AuditMessage.TASK_ID),
+        TASK_PARENT_ID(AuditMessage.TASK_PARENT_ID),
+        EXCEPTION(AuditMessage.EXCEPTION),
+        REQUEST_BODY(AuditMessage.REQUEST_BODY),
+        COMPLIANCE_OPERATION(AuditMessage.COMPLIANCE_OPERATION),
+        COMPLIANCE_DOC_VERSION(AuditMessage.COMPLIANCE_DOC_VERSION),
+        COMPLIANCE_DIFF_IS_NOOP(AuditMessage.COMPLIANCE_DIFF_IS_NOOP),
+        COMPLIANCE_DIFF_CONTENT(AuditMessage.COMPLIANCE_DIFF_CONTENT),
+        COMPLIANCE_FILE_INFOS(AuditMessage.COMPLIANCE_FILE_INFOS);
+
+        private static final Field[] VALUES = values();
+        private static final Map<String, Field> BY_KEY = new HashMap<>();
+
+        static {
+            for (final Field field : VALUES) {
+                BY_KEY.put(field.key, field);
+            }
+        }
+
+        private final String key;
+
+        Field(final String key) {
+            this.key = key;
+        }
+    }
+
+    private final Object[] fields = new Object[Field.VALUES.length];
     private final AuditCategory msgCategory;
+    // JSON serialization shared by all sinks, reset whenever a field changes
+    private volatile BytesReference json;
 
     public AuditMessage(final AuditCategory msgCategory, final ClusterService clusterService, final Origin origin, final Origin layer) {
         this.msgCategory = Objects.requireNonNull(msgCategory);
         final String currentTime = currentTime();
-        auditInfo.put(FORMAT_VERSION, 4);
-        auditInfo.put(CATEGORY, Objects.requireNonNull(msgCategory));
-        auditInfo.put(UTC_TIMESTAMP, currentTime);
-        auditInfo.put(NODE_HOST_ADDRESS, Objects.requireNonNull(clusterService).localNode().getHostAddress());
-        auditInfo.put(NODE_ID, Objects.requireNonNull(clusterService).localNode().getId());
-        auditInfo.put(NODE_HOST_NAME, Objects.requireNonNull(clusterService).localNode().getHostName());
-        auditInfo.put(NODE_NAME, Objects.requireNonNull(clusterService).localNode().getName());
-        auditInfo.put(CLUSTER_NAME, Objects.requireNonNull(clusterService).getClusterName().value());
+        put(Field.FORMAT_VERSION, 4);
+        put(Field.CATEGORY, Objects.requireNonNull(msgCategory));
+        put(Field.UTC_TIMESTAMP, currentTime);
+        put(Field.NODE_HOST_ADDRESS, Objects.requireNonNull(clusterService).localNode().getHostAddress());
+        put(Field.NODE_ID, Objects.requireNonNull(clusterService).localNode().getId());
+        put(Field.NODE_HOST_NAME, Objects.requireNonNull(clusterService).localNode().getHostName());
+        put(Field.NODE_NAME, Objects.requireNonNull(clusterService).localNode().getName());
+        put(Field.CLUSTER_NAME, Objects.requireNonNull(clusterService).getClusterName().value());
 
         if (origin != null) {
-            auditInfo.put(ORIGIN, origin);
+            put(Field.ORIGIN, origin);
         }
 
         if (layer != null) {
-            auditInfo.put(REQUEST_LAYER, layer);
+            put(Field.REQUEST_LAYER, layer);
+        }
+    }
+
+    private AuditMessage(final AuditCategory msgCategory) {
+        this.msgCategory = msgCategory;
+    }
+
+    /**
+     * Restores a message from its JSON representation as returned by {@link #toJsonBytes()}. Fields which are not
+     * known are ignored.
+     */
+    public static AuditMessage fromJson(final BytesReference json) throws IOException {
+        final Map<String, Object> map;
+        try (
+            XContentParser parser = JsonXContent.jsonXContent.createParser(
+                NamedXContentRegistry.EMPTY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION,
+                json.streamInput()
+            )
+        ) {
+            map = parser.map();
+        }
+
+        final Object category = map.get(CATEGORY);
+        if (category == null) {
+            throw new IOException("Audit message without " + CATEGORY);
+        }
+        final AuditMessage msg = new AuditMessage(AuditCategory.valueOf(category.toString()));
+        for (final Entry<String, Object> entry : map.entrySet()) {
+            final Field field = Field.BY_KEY.get(entry.getKey());
+            if (field == null || entry.getValue() == null) {
+                continue;
+            }
+            final String value = entry.getValue().toString();
+            switch (field) {
+                case CATEGORY:
+                    msg.put(field, msg.msgCategory);
+                    break;
+                case ORIGIN:
+                case REQUEST_LAYER:
+                    msg.put(field, Origin.valueOf(value));
+                    break;
+                case REST_REQUEST_METHOD:
+                    msg.put(field, RestRequest.Method.valueOf(value));
+                    break;
+                case COMPLIANCE_OPERATION:
+                    msg.put(field, Operation.valueOf(value));
+                    break;
+                default:
+                    msg.put(field, entry.getValue());
+            }
         }
+        // the restored message serializes to the same JSON
+        msg.json = json;
+        return msg;
     }
 
     public void addRemoteAddress(TransportAddress remoteAddress) {
         if (remoteAddress != null && remoteAddress.getAddress() != null) {
-            auditInfo.put(REMOTE_ADDRESS, remoteAddress.getAddress());
+            put(Field.REMOTE_ADDRESS, remoteAddress.getAddress());
         }
     }
 
     public void addIsAdminDn(boolean isAdminDn) {
-        auditInfo.put(IS_ADMIN_DN, isAdminDn);
+        put(Field.IS_ADMIN_DN, isAdminDn);
     }
 
     public void addException(Throwable t) {
         if (t != null) {
-            auditInfo.put(EXCEPTION, ExceptionsHelper.stackTrace(t));
+            put(Field.EXCEPTION, ExceptionsHelper.stackTrace(t));
         }
     }
 
     public void addPrivilege(String priv) {
         if (priv != null) {
-            auditInfo.put(PRIVILEGE, priv);
+            put(Field.PRIVILEGE, priv);
         }
     }
 
     public void addInitiatingUser(String user) {
         if (user != null) {
-            auditInfo.put(REQUEST_INITIATING_USER, user);
+            put(Field.REQUEST_INITIATING_USER, user);
         }
     }
 
     public void addEffectiveUser(String user) {
         if (user != null) {
-            auditInfo.put(REQUEST_EFFECTIVE_USER, user);
+            put(Field.REQUEST_EFFECTIVE_USER, user);
         }
     }
 
     public void addPath(String path) {
         if (path != null) {
-            auditInfo.put(REST_REQUEST_PATH, path);
+            put(Field.REST_REQUEST_PATH, path);
         }
     }
 
     public void addComplianceWriteDiffSource(String diff) {
         if (diff != null && !diff.isEmpty()) {
-            auditInfo.put(COMPLIANCE_DIFF_CONTENT, diff);
-            auditInfo.put(COMPLIANCE_DIFF_IS_NOOP, false);
+            put(Field.COMPLIANCE_DIFF_CONTENT, diff);
+            put(Field.COMPLIANCE_DIFF_IS_NOOP, false);
         } else if (diff != null && diff.isEmpty()) {
-            auditInfo.put(COMPLIANCE_DIFF_IS_NOOP, true);
+            put(Field.COMPLIANCE_DIFF_IS_NOOP, true);
         }
     }
 
@@ -212,22 +334,22 @@ public final class AuditMessage {
     public void addTupleToRequestBody(Tuple<MediaType, BytesReference> xContentTuple) {
         if (xContentTuple != null) {
             try {
-                auditInfo.put(REQUEST_BODY, XContentHelper.convertToJson(xContentTuple.v2(), false, xContentTuple.v1()));
+                put(Field.REQUEST_BODY, XContentHelper.convertToJson(xContentTuple.v2(), false, xContentTuple.v1()));
             } catch (Exception e) {
-                auditInfo.put(REQUEST_BODY, "ERROR: Unable to convert to json because of " + e.toString());
+                put(Field.REQUEST_BODY, "ERROR: Unable to convert to json because of " + e.toString());
             }
         }
     }
 
     public void addMapToRequestBody(Map<String, ?> map) {
         if (map != null) {
-            auditInfo.put(REQUEST_BODY, Utils.convertStructuredMapToJson(map));
+            put(Field.REQUEST_BODY, Utils.convertStructuredMapToJson(map));
         }
     }
 
     public void addUnescapedJsonToRequestBody(String source) {
         if (source != null) {
-            auditInfo.put(REQUEST_BODY, source);
+            put(Field.REQUEST_BODY, source);
         }
     }
 
@@ -241,7 +363,7 @@ public final class AuditMessage {
     void addSecurityConfigContentToRequestBody(final String source, final String id) {
         if (source != null) {
             final String redactedContent = redactSecurityConfigContent(source, id);
-            auditInfo.put(REQUEST_BODY, redactedContent);
+            put(Field.REQUEST_BODY, redactedContent);
         }
     }
 
@@ -250,7 +372,7 @@ public final class AuditMessage {
             try {
                 addSecurityConfigContentToRequestBody(XContentHelper.convertToJson(xContentTuple.v2(), false, xContentTuple.v1()), id);
             } catch (Exception e) {
-                auditInfo.put(REQUEST_BODY, "ERROR: Unable to convert to json");
+                put(Field.REQUEST_BODY, "ERROR: Unable to convert to json");
             }
         }
     }
@@ -263,19 +385,19 @@ public final class AuditMessage {
 
     public void addRequestType(String requestType) {
         if (requestType != null) {
-            auditInfo.put(TRANSPORT_REQUEST_TYPE, requestType);
+            put(Field.TRANSPORT_REQUEST_TYPE, requestType);
         }
     }
 
     public void addAction(String action) {
         if (action != null) {
-            auditInfo.put(TRANSPORT_ACTION, action);
+            put(Field.TRANSPORT_ACTION, action);
         }
     }
 
     public void addId(String id) {
         if (id != null) {
-            auditInfo.put(ID, id);
+            put(Field.ID, id);
         }
     }
 
@@ -311,7 +433,7 @@ public final class AuditMessage {
                     // ignore non readable files
                 }
             }
-            auditInfo.put(COMPLIANCE_FILE_INFOS, infos);
+            put(Field.COMPLIANCE_FILE_INFOS, infos);
         }
     }
 
@@ -323,30 +445,30 @@ public final class AuditMessage {
 
     public void addIndices(String[] indices) {
         if (indices != null && indices.length > 0) {
-            auditInfo.put(INDICES, indices);
+            put(Field.INDICES, indices);
         }
 
     }
 
     public void addResolvedIndices(String[] resolvedIndices) {
         if (resolvedIndices != null && resolvedIndices.length > 0) {
-            auditInfo.put(RESOLVED_INDICES, resolvedIndices);
+            put(Field.RESOLVED_INDICES, resolvedIndices);
         }
     }
 
     public void addTaskId(long id) {
-        auditInfo.put(TASK_ID, auditInfo.get(NODE_ID) + ":" + id);
+        put(Field.TASK_ID, get(Field.NODE_ID) + ":" + id);
     }
 
     public void addShardId(ShardId id) {
         if (id != null) {
-            auditInfo.put(SHARD_ID, id.getId());
+            put(Field.SHARD_ID, id.getId());
         }
     }
 
     public void addTaskParentId(String id) {
         if (id != null) {
-            auditInfo.put(TASK_PARENT_ID, id);
+            put(Field.TASK_PARENT_ID, id);
         }
     }
 
@@ -360,7 +482,7 @@ public final class AuditMessage {
                     redactedParams.put(param.getKey(), param.getValue());
                 }
             }
-            auditInfo.put(REST_REQUEST_PARAMS, redactedParams);
+            put(Field.REST_REQUEST_PARAMS, redactedParams);
         }
     }
 
@@ -373,13 +495,13 @@ public final class AuditMessage {
             if (filter != null) {
                 headersClone.entrySet().removeIf(entry -> filter.shouldExcludeHeader(entry.getKey()));
             }
-            auditInfo.put(REST_REQUEST_HEADERS, headersClone);
+            put(Field.REST_REQUEST_HEADERS, headersClone);
         }
     }
 
     void addRestMethod(final RestRequest.Method method) {
         if (method != null) {
-            auditInfo.put(REST_REQUEST_METHOD, method);
+            put(Field.REST_REQUEST_METHOD, method);
         }
     }
 
@@ -413,12 +535,12 @@ public final class AuditMessage {
                         && requestBody != null
                         && SENSITIVE_PATHS.matcher(path).matches()
                         && requestBody.contains(SENSITIVE_KEY)) {
-                        auditInfo.put(REQUEST_BODY, SENSITIVE_REPLACEMENT_VALUE);
+                        put(Field.REQUEST_BODY, SENSITIVE_REPLACEMENT_VALUE);
                     } else {
-                        auditInfo.put(REQUEST_BODY, requestBody);
+                        put(Field.REQUEST_BODY, requestBody);
                     }
                 } catch (IOException e) {
-                    auditInfo.put(REQUEST_BODY, "ERROR: Unable to generate request body");
+                    put(Field.REQUEST_BODY, "ERROR: Unable to generate request body");
                 }
             }
         }
@@ -430,38 +552,54 @@ public final class AuditMessage {
             if (excludeSensitiveHeaders) {
                 headersClone.keySet().removeIf(AUTHORIZATION_HEADER);
             }
-            auditInfo.put(TRANSPORT_REQUEST_HEADERS, headersClone);
+            put(Field.TRANSPORT_REQUEST_HEADERS, headersClone);
         }
     }
 
     public void addComplianceOperation(Operation op) {
         if (op != null) {
-            auditInfo.put(COMPLIANCE_OPERATION, op);
+            put(Field.COMPLIANCE_OPERATION, op);
         }
     }
 
     public void addComplianceDocVersion(long version) {
-        auditInfo.put(COMPLIANCE_DOC_VERSION, version);
+        put(Field.COMPLIANCE_DOC_VERSION, version);
+    }
+
+    private void put(final Field field, final Object value) {
+        fields[field.ordinal()] = value;
+        json = null;
+    }
+
+    private Object get(final Field field) {
+        return fields[field.ordinal()];
     }
 
     public Map<String, Object> getAsMap() {
-        return new HashMap<>(this.auditInfo);
+        final Map<String, Object> map = new LinkedHashMap<>();
+        for (final Field field : Field.VALUES) {
+            final Object value = fields[field.ordinal()];
+            if (value != null) {
+                map.put(field.key, value);
+            }
+        }
+        return map;
     }
 
     public String getInitiatingUser() {
-        return (String) this.auditInfo.get(REQUEST_INITIATING_USER);
+        return (String) get(Field.REQUEST_INITIATING_USER);
     }
 
     public String getEffectiveUser() {
-        return (String) this.auditInfo.get(REQUEST_EFFECTIVE_USER);
+        return (String) get(Field.REQUEST_EFFECTIVE_USER);
     }
 
     public String getRequestType() {
-        return (String) this.auditInfo.get(TRANSPORT_REQUEST_TYPE);
+        return (String) get(Field.TRANSPORT_REQUEST_TYPE);
     }
 
     public RestRequest.Method getRequestMethod() {
-        return (RestRequest.Method) this.auditInfo.get(REST_REQUEST_METHOD);
+        return (RestRequest.Method) get(Field.REST_REQUEST_METHOD);
     }
 
     public AuditCategory getCategory() {
@@ -469,50 +607,81 @@ public final class AuditMessage {
     }
 
     public Origin getOrigin() {
-        return (Origin) this.auditInfo.get(ORIGIN);
+        return (Origin) get(Field.ORIGIN);
     }
 
     public String getPrivilege() {
-        return (String) this.auditInfo.get(PRIVILEGE);
+        return (String) get(Field.PRIVILEGE);
     }
 
     public String getExceptionStackTrace() {
-        return (String) this.auditInfo.get(EXCEPTION);
+        return (String) get(Field.EXCEPTION);
     }
 
     public String getRequestBody() {
-        return (String) this.auditInfo.get(REQUEST_BODY);
+        return (String) get(Field.REQUEST_BODY);
     }
 
     public String getNodeId() {
-        return (String) this.auditInfo.get(NODE_ID);
+        return (String) get(Field.NODE_ID);
     }
 
     public String getDocId() {
-        return (String) this.auditInfo.get(ID);
+        return (String) get(Field.ID);
+    }
+
+    /**
+     * Returns the JSON representation of this message. It is serialized only once and shared by all sinks.
+     */
+    public BytesReference toJsonBytes() {
+        BytesReference bytes = json;
+        if (bytes == null) {
+            final BytesStreamOutput out = SCRATCH.get();
+            try {
+                try (XContentBuilder builder = new XContentBuilder(JsonXContent.jsonXContent, out)) {
+                    writeTo(builder);
+                }
+                bytes = new BytesArray(BytesReference.toBytes(out.bytes()));
+            } catch (final IOException e) {
+                throw ExceptionsHelper.convertToOpenSearchException(e);
+            } finally {
+                out.reset();
+            }
+            json = bytes;
+        }
+        return bytes;
     }
 
     @Override
     public String toString() {
-        try {
-            return JsonXContent.contentBuilder().map(getAsMap()).toString();
-        } catch (final IOException e) {
-            throw ExceptionsHelper.convertToOpenSearchException(e);
-        }
+        return toJsonBytes().utf8ToString();
     }
 
     public String toPrettyString() {
         try {
-            return JsonXContent.contentBuilder().prettyPrint().map(getAsMap()).toString();
+            final XContentBuilder builder = JsonXContent.contentBuilder().prettyPrint();
+            writeTo(builder);
+            return builder.toString();
         } catch (final IOException e) {
             throw ExceptionsHelper.convertToOpenSearchException(e);
         }
     }
 
+    private void writeTo(final XContentBuilder builder) throws IOException {
+        builder.startObject();
+        for (final Field field : Field.VALUES) {
+            final Object value = fields[field.ordinal()];
+            if (value != null) {
+                builder.field(field.key, value);
+            }
+        }
+        builder.endObject();
+    }
+
     public String toText() {
         StringBuilder builder = new StringBuilder();
-        for (Entry<String, Object> entry : getAsMap().entrySet()) {
-            addIfNonEmpty(builder, entry.getKey(), stringOrNull(entry.getValue()));
+        for (final Field field : Field.VALUES) {
+            addIfNonEmpty(builder, field.key, stringOrNull(fields[field.ordinal()]));
         }
         return builder.toString();
     }
@@ -523,8 +692,11 @@ public final class AuditMessage {
 
     public String toUrlParameters() {
         URIBuilder builder = new URIBuilder();
-        for (Entry<String, Object> entry : getAsMap().entrySet()) {
-            builder.addParameter(entry.getKey(), stringOrNull(entry.getValue()));
+        for (final Field field : Field.VALUES) {
+            final Object value = fields[field.ordinal()];
+            if (value != null) {
+                builder.addParameter(field.key, stringOrNull(value));
+            }
         }
         return builder.toString();
     }
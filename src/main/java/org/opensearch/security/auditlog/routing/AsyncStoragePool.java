@@ -11,26 +11,69 @@
 
 package org.opensearch.security.auditlog.routing;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.security.auditlog.config.ThreadPoolConfig;
 import org.opensearch.security.auditlog.impl.AuditMessage;
 import org.opensearch.security.auditlog.sink.AuditLogSink;
 
+/**
+ * Stores audit messages on their sinks asynchronously.
+ * <p>
+ * Every sink has a ring buffer of the configured queue length, which the storage threads drain in batches. When
+ * the ring buffer of a sink is full, the message goes to the spool of the sink, if it has one. Otherwise the configured
+ * backpressure policy decides: by default the message is stored on the fallback sink on the calling thread, and
+ * only the explicit drop policies discard messages.
+ */
 public class AsyncStoragePool {
     private static final Logger log = LogManager.getLogger(AsyncStoragePool.class);
-    private final ExecutorService pool;
+    private static final int BATCH_SIZE = 64;
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCK_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long DROP_WARNING_INTERVAL = 10_000;
+
     private final ThreadPoolConfig threadPoolConfig;
+    private final ConcurrentMap<AuditLogSink, SinkQueue> queues = new ConcurrentHashMap<>();
+    // snapshot of the values of queues, iterated by the storage threads
+    private volatile SinkQueue[] queueArray = new SinkQueue[0];
+    private final Thread[] workers;
+    private final ReentrantLock idleLock = new ReentrantLock();
+    private final Condition notEmpty = idleLock.newCondition();
+    private final AtomicInteger idleWorkers = new AtomicInteger();
+    private volatile boolean closed;
 
     public AsyncStoragePool(final ThreadPoolConfig threadPoolConfig) {
         this.threadPoolConfig = threadPoolConfig;
-        this.pool = createExecutor(threadPoolConfig);
+        if (log.isDebugEnabled()) {
+            log.debug(
+                "Create new storage pool with threadPoolSize: {}, maxQueueLen: {} and backpressure: {}",
+                threadPoolConfig.getThreadPoolSize(),
+                threadPoolConfig.getThreadPoolMaxQueueLen(),
+                threadPoolConfig.getBackpressurePolicy()
+            );
+        }
+        this.workers = new Thread[threadPoolConfig.getThreadPoolSize()];
+        for (int i = 0; i < workers.length; i++) {
+            final int offset = i;
+            workers[i] = new Thread(() -> work(offset), "opensearch-security-audit-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
     }
 
     public ThreadPoolConfig getConfig() {
@@ -38,61 +81,225 @@ public class AsyncStoragePool {
     }
 
     public void submit(AuditMessage message, AuditLogSink sink) {
-        try {
-            pool.submit(() -> {
-                sink.store(message);
-                if (log.isTraceEnabled()) {
-                    log.trace("stored on delegate {} asynchronously", sink.getClass().getSimpleName());
-                }
-            });
-        } catch (Exception ex) {
-            log.error(
-                "Could not submit audit message {} to thread pool for delegate '{}' due to '{}'",
-                message,
-                sink.getClass().getSimpleName(),
-                ex.getMessage()
-            );
+        if (closed) {
+            log.error("Could not submit audit message {} for delegate '{}' as the storage pool is closed", message, sink.getName());
             if (sink.getFallbackSink() != null) {
                 sink.getFallbackSink().store(message);
             }
+            return;
+        }
+
+        final SinkQueue queue = queue(sink);
+        if (!queue.buffer.offer(message) && !offerWithBackpressure(queue, message)) {
+            overflow(queue, message);
+            return;
+        }
+
+        if (idleWorkers.get() > 0) {
+            idleLock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                idleLock.unlock();
+            }
         }
     }
 
-    private static ThreadPoolExecutor createExecutor(final ThreadPoolConfig config) {
-        if (log.isDebugEnabled()) {
-            log.debug(
-                "Create new executor with threadPoolSize: {} and maxQueueLen: {}",
-                config.getThreadPoolSize(),
-                config.getThreadPoolMaxQueueLen()
-            );
+    private boolean offerWithBackpressure(final SinkQueue queue, final AuditMessage message) {
+        switch (threadPoolConfig.getBackpressurePolicy()) {
+            case DROP_OLDEST:
+                do {
+                    final AuditMessage oldest = queue.buffer.poll();
+                    if (oldest != null) {
+                        overflow(queue, oldest);
+                    }
+                } while (!queue.buffer.offer(message));
+                return true;
+            case BLOCK:
+                final long deadline = System.nanoTime() + threadPoolConfig.getBlockTimeout().nanos();
+                while (System.nanoTime() < deadline && !closed) {
+                    LockSupport.parkNanos(this, BLOCK_WAIT_NANOS);
+                    if (queue.buffer.offer(message)) {
+                        return true;
+                    }
+                }
+                return false;
+            case FALLBACK:
+            case DROP_NEW:
+            default:
+                return false;
         }
-        return new ThreadPoolExecutor(
-            config.getThreadPoolSize(),
-            config.getThreadPoolSize(),
-            0L,
-            TimeUnit.MILLISECONDS,
-            new LinkedBlockingQueue<>(config.getThreadPoolMaxQueueLen())
-        );
     }
 
-    public void close() {
+    private void overflow(final SinkQueue queue, final AuditMessage message) {
+        if (queue.sink.spool(message)) {
+            queue.spooled.increment();
+            return;
+        }
+        final AuditLogSink fallbackSink = queue.sink.getFallbackSink();
+        if (fallbackSink != null && !isDropping(threadPoolConfig.getBackpressurePolicy())) {
+            fallbackSink.store(message);
+            queue.fallback.increment();
+            return;
+        }
+        final long dropped = queue.dropped.incrementAndGet();
+        if (dropped % DROP_WARNING_INTERVAL == 1) {
+            log.warn("Audit queue of sink '{}' is full, {} messages dropped so far", queue.sink.getName(), dropped);
+        }
+    }
+
+    private static boolean isDropping(final ThreadPoolConfig.BackpressurePolicy policy) {
+        return policy == ThreadPoolConfig.BackpressurePolicy.DROP_NEW || policy == ThreadPoolConfig.BackpressurePolicy.DROP_OLDEST;
+    }
+
+    private SinkQueue queue(final AuditLogSink sink) {
+        final SinkQueue queue = queues.get(sink);
+        if (queue != null) {
+            return queue;
+        }
+        synchronized (queues) {
+            return queues.computeIfAbsent(sink, s -> {
+                final SinkQueue created = new SinkQueue(s, threadPoolConfig.getThreadPoolMaxQueueLen());
+                final SinkQueue[] array = Arrays.copyOf(queueArray, queueArray.length + 1);
+                array[array.length - 1] = created;
+                queueArray = array;
+                return created;
+            });
+        }
+    }
+
+    private void work(final int offset) {
+        final AuditMessage[] batch = new AuditMessage[BATCH_SIZE];
+        while (true) {
+            final boolean wasClosed = closed;
+            boolean drained = false;
+            final SinkQueue[] queues = queueArray;
+            for (int i = 0; i < queues.length; i++) {
+                // the threads start at different sinks so that a slow sink does not hold up all of them
+                drained |= store(queues[(offset + i) % queues.length], batch);
+            }
+            if (!drained) {
+                if (wasClosed) {
+                    return;
+                }
+                awaitMessages();
+            }
+        }
+    }
 
-        if (pool != null) {
-            pool.shutdown(); // Disable new tasks from being submitted
+    private boolean store(final SinkQueue queue, final AuditMessage[] batch) {
+        final int count = queue.buffer.drainTo(batch);
+        if (count == 0) {
+            return false;
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            try {
+                queue.sink.store(batch[i]);
+            } catch (Exception e) {
+                log.error("Could not store audit message on delegate '{}'", queue.sink.getName(), e);
+            }
+            batch[i] = null;
+        }
+        final long latency = System.nanoTime() - start;
+        queue.stored.add(count);
+        queue.storeNanos.add(latency);
+        queue.maxBatchNanos.accumulateAndGet(latency, Math::max);
+        if (log.isTraceEnabled()) {
+            log.trace("stored {} messages on delegate {} asynchronously", count, queue.sink.getClass().getSimpleName());
+        }
+        return true;
+    }
 
+    private void awaitMessages() {
+        idleLock.lock();
+        try {
+            idleWorkers.incrementAndGet();
             try {
-                // Wait a while for existing tasks to terminate
-                if (!pool.awaitTermination(60, TimeUnit.SECONDS)) {
-                    pool.shutdownNow(); // Cancel currently executing tasks
-                    // Wait a while for tasks to respond to being cancelled
-                    if (!pool.awaitTermination(60, TimeUnit.SECONDS)) log.error("Pool did not terminate");
+                // re-check after announcing the wait, a producer which missed the announcement published before it
+                if (isEmpty() && !closed) {
+                    notEmpty.awaitNanos(IDLE_WAIT_NANOS);
+                }
+            } finally {
+                idleWorkers.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    private boolean isEmpty() {
+        for (final SinkQueue queue : queueArray) {
+            if (queue.buffer.size() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void addStats(final XContentBuilder builder) throws IOException {
+        builder.field("threads", workers.length);
+        builder.field("backpressure", threadPoolConfig.getBackpressurePolicy().name().toLowerCase(Locale.ROOT));
+        builder.startObject("sinks");
+        for (final SinkQueue queue : queueArray) {
+            final long stored = queue.stored.sum();
+            builder.startObject(queue.sink.getName());
+            builder.field("queue_depth", queue.buffer.size());
+            builder.field("queue_capacity", queue.buffer.capacity());
+            builder.field("dropped", queue.dropped.get());
+            builder.field("spooled", queue.spooled.sum());
+            builder.field("fallback", queue.fallback.sum());
+            builder.field("stored", stored);
+            builder.field("avg_store_latency_micros", stored == 0 ? 0 : (double) queue.storeNanos.sum() / stored / 1000);
+            builder.field("max_batch_latency_micros", TimeUnit.NANOSECONDS.toMicros(queue.maxBatchNanos.get()));
+            builder.endObject();
+        }
+        builder.endObject();
+    }
+
+    public void close() {
+        closed = true;
+        idleLock.lock();
+        try {
+            notEmpty.signalAll();
+        } finally {
+            idleLock.unlock();
+        }
+
+        // the storage threads store the queued messages before they terminate
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        try {
+            for (final Thread worker : workers) {
+                final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining > 0) {
+                    worker.join(remaining);
+                }
+                if (worker.isAlive()) {
+                    log.error("Pool did not terminate");
+                    break;
                 }
-            } catch (InterruptedException ie) {
-                // (Re-)Cancel if current thread also interrupted
-                pool.shutdownNow();
-                // Preserve interrupt status
-                Thread.currentThread().interrupt();
             }
+        } catch (InterruptedException ie) {
+            // Preserve interrupt status
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class SinkQueue {
+        private final AuditLogSink sink;
+        private final AuditRingBuffer buffer;
+        private final AtomicLong dropped = new AtomicLong();
+        private final LongAdder spooled = new LongAdder();
+        private final LongAdder fallback = new LongAdder();
+        private final LongAdder stored = new LongAdder();
+        private final LongAdder storeNanos = new LongAdder();
+        private final AtomicLong maxBatchNanos = new AtomicLong();
+
+        private SinkQueue(final AuditLogSink sink, final int capacity) {
+            this.sink = sink;
+            this.buffer = new AuditRingBuffer(capacity);
         }
     }
 }
@@ -11,6 +11,7 @@
 
 package org.opensearch.security.auditlog.routing;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.EnumSet;
 import java.util.LinkedList;
@@ -24,6 +25,7 @@ import org.apache.logging.log4j.Logger;
 
 import org.opensearch.client.Client;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.security.auditlog.config.ThreadPoolConfig;
 import org.opensearch.security.auditlog.impl.AuditCategory;
 import org.opensearch.security.auditlog.impl.AuditMessage;
@@ -82,6 +84,15 @@ public class AuditMessageRouter {
         }
     }
 
+    public void addStats(final XContentBuilder builder) throws IOException {
+        builder.startObject("storage_pool");
+        storagePool.addStats(builder);
+        builder.endObject();
+        builder.startObject("sinks");
+        sinkProvider.addStats(builder);
+        builder.endObject();
+    }
+
     public final void close() {
         log.info("Closing {}", getClass().getSimpleName());
         // shutdown storage pool
@@ -0,0 +1,121 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.routing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.opensearch.security.auditlog.impl.AuditMessage;
+
+/**
+ * Bounded, lock-free ring buffer of audit messages for multiple producers and consumers.
+ * <p>
+ * Every slot carries a sequence number which tells producers and consumers whether the slot is free or holds a
+ * published message for their position. Producers and consumers claim positions with a compare-and-set on their
+ * cursor, so neither side takes a lock and no object is allocated per message.
+ */
+final class AuditRingBuffer {
+
+    private final AtomicReferenceArray<AuditMessage> messages;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerCursor = new AtomicLong();
+    private final AtomicLong consumerCursor = new AtomicLong();
+
+    AuditRingBuffer(final int minCapacity) {
+        final int capacity = minCapacity <= 1 ? 1 : Integer.highestOneBit(minCapacity - 1) << 1;
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity too large: " + minCapacity);
+        }
+        this.messages = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds the message, or returns false if the buffer is full.
+     */
+    boolean offer(final AuditMessage message) {
+        long position = producerCursor.get();
+        while (true) {
+            final int slot = (int) position & mask;
+            final long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (producerCursor.compareAndSet(position, position + 1)) {
+                    messages.lazySet(slot, message);
+                    // publishes the message to the consumer of this position
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = producerCursor.get();
+            } else if (difference < 0) {
+                // the slot still holds the message from one lap ago
+                return false;
+            } else {
+                position = producerCursor.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest message, or returns null if the buffer is empty.
+     */
+    AuditMessage poll() {
+        long position = consumerCursor.get();
+        while (true) {
+            final int slot = (int) position & mask;
+            final long difference = sequences.get(slot) - (position + 1);
+            if (difference == 0) {
+                if (consumerCursor.compareAndSet(position, position + 1)) {
+                    final AuditMessage message = messages.get(slot);
+                    messages.lazySet(slot, null);
+                    // frees the slot for the producer of the next lap
+                    sequences.set(slot, position + mask + 1);
+                    return message;
+                }
+                position = consumerCursor.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = consumerCursor.get();
+            }
+        }
+    }
+
+    /**
+     * Removes up to {@code batch.length} messages into {@code batch} and returns their number.
+     */
+    int drainTo(final AuditMessage[] batch) {
+        int count = 0;
+        while (count < batch.length) {
+            final AuditMessage message = poll();
+            if (message == null) {
+                break;
+            }
+            batch[count++] = message;
+        }
+        return count;
+    }
+
+    int size() {
+        final long size = producerCursor.get() - consumerCursor.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,498 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.sink;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Sends the messages of a {@link WebhookSink} without blocking the calling thread.
+ * <p>
+ * Messages are collected into batches which are sent as newline delimited payloads once they are full or the flush
+ * interval has passed. The number of requests in flight and of queued messages is limited. Requests which fail with a
+ * connection error, 429 or a 5xx status are retried with exponential backoff on a scheduler thread. Messages which
+ * cannot be delivered are appended to the spool, if the sink has one, or handed to the failure handler, which stores
+ * them on the fallback sink.
+ * <p>
+ * Nothing is retried or read from disk on the calling thread. A message which does not fit into the queue is appended
+ * to the spool right away, or handed to the failure handler if there is no spool or it is full. Spooled messages are
+ * replayed on the scheduler thread.
+ */
+final class AsyncWebhookSender implements Closeable {
+
+    private static final Logger log = LogManager.getLogger(AsyncWebhookSender.class);
+    private static final ContentType NDJSON = ContentType.create("application/x-ndjson", StandardCharsets.UTF_8);
+    private static final int DEFAULT_BATCH_SIZE = 1;
+    private static final TimeValue DEFAULT_FLUSH_INTERVAL = TimeValue.timeValueSeconds(1);
+    private static final int DEFAULT_MAX_INFLIGHT = 8;
+    private static final int DEFAULT_MAX_QUEUED = 10000;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = 100;
+    private static final long CLOSE_TIMEOUT_MILLIS = 10000;
+    private static final long REPLAY_INTERVAL_MILLIS = 1000;
+    private static final long REPLAY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int OVERFLOW_WARNING_INTERVAL = 1000;
+
+    private final String name;
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final Consumer<AuditMessage> failureHandler;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final int batchSize;
+    private final TimeValue flushInterval;
+    private final boolean compression;
+    private final int maxInflight;
+    private final int maxQueued;
+    private final int maxRetries;
+
+    // guarded by this
+    private final Deque<Request> pending = new ArrayDeque<>();
+    private Batch batch;
+    private int inflight;
+    private int queued;
+    private boolean closed;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder sentMessages = new LongAdder();
+    private final LongAdder retriedRequests = new LongAdder();
+    private final LongAdder failedMessages = new LongAdder();
+    private final LongAdder rejectedMessages = new LongAdder();
+    private final LongAdder spooledMessages = new LongAdder();
+    private final LongAdder replayedMessages = new LongAdder();
+    private final AtomicLong overflowMessages = new AtomicLong();
+    private final LongAdder latencyMillis = new LongAdder();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+    private volatile long lastFailureNanos = System.nanoTime() - REPLAY_BACKOFF_NANOS;
+    private volatile AuditSpool spool;
+
+    AsyncWebhookSender(
+        final String name,
+        final Settings sinkSettings,
+        final CloseableHttpAsyncClient httpClient,
+        final Consumer<AuditMessage> failureHandler
+    ) {
+        this.name = name;
+        this.httpClient = httpClient;
+        this.failureHandler = failureHandler;
+        this.batchSize = Math.max(1, sinkSettings.getAsInt(ConfigConstants.SECURITY_AUDIT_WEBHOOK_BATCH_SIZE, DEFAULT_BATCH_SIZE));
+        this.flushInterval = sinkSettings.getAsTime(ConfigConstants.SECURITY_AUDIT_WEBHOOK_BATCH_FLUSH_INTERVAL, DEFAULT_FLUSH_INTERVAL);
+        this.compression = sinkSettings.getAsBoolean(ConfigConstants.SECURITY_AUDIT_WEBHOOK_COMPRESSION, false);
+        this.maxInflight = Math.max(
+            1,
+            sinkSettings.getAsInt(ConfigConstants.SECURITY_AUDIT_WEBHOOK_MAX_INFLIGHT_REQUESTS, DEFAULT_MAX_INFLIGHT)
+        );
+        this.maxQueued = sinkSettings.getAsInt(ConfigConstants.SECURITY_AUDIT_WEBHOOK_MAX_QUEUED, DEFAULT_MAX_QUEUED);
+        this.maxRetries = sinkSettings.getAsInt(ConfigConstants.SECURITY_AUDIT_WEBHOOK_MAX_RETRIES, DEFAULT_MAX_RETRIES);
+
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "opensearch-security-audit-webhook-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Gives the sender a spool for the messages it cannot queue or deliver. Spooled messages are passed to the replay
+     * function, which formats and queues them again.
+     */
+    void setSpool(final AuditSpool spool, final Predicate<AuditMessage> replay) {
+        this.spool = spool;
+        scheduler.scheduleWithFixedDelay(() -> replaySpool(replay), REPLAY_INTERVAL_MILLIS, REPLAY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    AuditSpool getSpool() {
+        return spool;
+    }
+
+    /**
+     * Sends the payload, batched with other payloads if it is batchable and batching is enabled. Returns false if too
+     * many messages are queued already, the message is spooled or handed to the failure handler then.
+     */
+    boolean send(
+        final AuditMessage msg,
+        final boolean post,
+        final String url,
+        final String payload,
+        final ContentType contentType,
+        final boolean batchable
+    ) {
+        final List<Request> ready;
+        synchronized (this) {
+            if (closed || queued >= maxQueued) {
+                rejectedMessages.increment();
+                ready = null;
+            } else {
+                queued++;
+                if (batchable && batchSize > 1) {
+                    if (batch == null) {
+                        batch = new Batch(url);
+                        if (flushInterval.millis() > 0) {
+                            final Batch lingering = batch;
+                            scheduler.schedule(() -> flush(lingering), flushInterval.millis(), TimeUnit.MILLISECONDS);
+                        }
+                    }
+                    batch.add(msg, payload);
+                    if (batch.messages.size() >= batchSize || flushInterval.millis() <= 0) {
+                        pending.add(batch.toRequest());
+                        batch = null;
+                    }
+                } else {
+                    pending.add(
+                        new Request(post, url, payload.getBytes(StandardCharsets.UTF_8), contentType, Collections.singletonList(msg))
+                    );
+                }
+                ready = takeReady();
+            }
+        }
+        if (ready == null) {
+            overflow(msg);
+            return false;
+        }
+        execute(ready);
+        return true;
+    }
+
+    private void overflow(final AuditMessage msg) {
+        final AuditSpool current = spool;
+        if (current != null && current.append(msg.toJsonBytes())) {
+            spooledMessages.increment();
+            return;
+        }
+        final long overflow = overflowMessages.incrementAndGet();
+        if (overflow % OVERFLOW_WARNING_INTERVAL == 1) {
+            log.warn("Webhook queue of sink '{}' is full, {} messages stored on the fallback sink so far", name, overflow);
+        }
+        failureHandler.accept(msg);
+    }
+
+    private void undeliverable(final AuditMessage msg) {
+        final AuditSpool current = spool;
+        if (current != null && current.append(msg.toJsonBytes())) {
+            spooledMessages.increment();
+        } else {
+            failureHandler.accept(msg);
+        }
+    }
+
+    private void replaySpool(final Predicate<AuditMessage> replay) {
+        final AuditSpool current = spool;
+        if (current == null || System.nanoTime() - lastFailureNanos < REPLAY_BACKOFF_NANOS) {
+            return;
+        }
+        int capacity;
+        synchronized (this) {
+            // leaves room for new messages
+            capacity = closed ? 0 : maxQueued / 2 - queued;
+        }
+        BytesReference record;
+        while (capacity-- > 0 && (record = current.peek()) != null) {
+            final AuditMessage msg;
+            try {
+                msg = AuditMessage.fromJson(record);
+            } catch (Exception e) {
+                log.error("Skipping unreadable spooled audit message for {}", name, e);
+                current.advance();
+                continue;
+            }
+            final boolean queued = replay.test(msg);
+            // a message which could not be queued has been spooled again
+            current.advance();
+            if (!queued) {
+                return;
+            }
+            replayedMessages.increment();
+        }
+    }
+
+    private void flush(final Batch lingering) {
+        final List<Request> ready;
+        synchronized (this) {
+            if (batch != lingering) {
+                // already sent because it was full
+                return;
+            }
+            pending.add(batch.toRequest());
+            batch = null;
+            ready = takeReady();
+        }
+        execute(ready);
+    }
+
+    private List<Request> takeReady() {
+        assert Thread.holdsLock(this);
+        if (pending.isEmpty() || inflight >= maxInflight) {
+            return Collections.emptyList();
+        }
+        final List<Request> ready = new ArrayList<>();
+        while (inflight < maxInflight && !pending.isEmpty()) {
+            ready.add(pending.poll());
+            inflight++;
+        }
+        return ready;
+    }
+
+    @SuppressWarnings("removal")
+    private void execute(final List<Request> ready) {
+        for (final Request request : ready) {
+            final long start = System.nanoTime();
+            requests.increment();
+            try {
+                final SimpleHttpRequest httpRequest = request.build(compression);
+                AccessController.doPrivileged((PrivilegedAction<Object>) () -> httpClient.execute(httpRequest, new FutureCallback<>() {
+                    @Override
+                    public void completed(final SimpleHttpResponse response) {
+                        final int code = response.getCode();
+                        if (code >= 200 && code < 300) {
+                            onSuccess(request, start);
+                        } else {
+                            onFailure(request, "status " + code, code == 429 || code >= 500);
+                        }
+                    }
+
+                    @Override
+                    public void failed(final Exception e) {
+                        onFailure(request, e.toString(), true);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        onFailure(request, "cancelled", false);
+                    }
+                }));
+            } catch (RuntimeException e) {
+                onFailure(request, e.toString(), false);
+            }
+        }
+    }
+
+    private void onSuccess(final Request request, final long start) {
+        final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        latencyMillis.add(latency);
+        maxLatencyMillis.accumulateAndGet(latency, Math::max);
+        sentMessages.add(request.messages.size());
+        complete(request.messages.size());
+    }
+
+    private void onFailure(final Request request, final String reason, final boolean retryable) {
+        lastFailureNanos = System.nanoTime();
+        if (retryable && request.attempt < maxRetries && !scheduler.isShutdown()) {
+            final long backoff = INITIAL_BACKOFF_MILLIS << request.attempt;
+            request.attempt++;
+            retriedRequests.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("Webhook request failed due to {}, retrying in {}ms", reason, backoff);
+            }
+            final List<Request> ready;
+            synchronized (this) {
+                inflight--;
+                ready = takeReady();
+            }
+            try {
+                scheduler.schedule(() -> retry(request), backoff, TimeUnit.MILLISECONDS);
+                execute(ready);
+                return;
+            } catch (RejectedExecutionException e) {
+                // closed in the meantime, give up below
+                synchronized (this) {
+                    inflight++;
+                }
+                execute(ready);
+            }
+        }
+
+        log.error("Cannot send {} audit messages to webhook URL '{}' due to {}", request.messages.size(), request.url, reason);
+        failedMessages.add(request.messages.size());
+        try {
+            // the fallback sink may block, keep it off the I/O threads of the client
+            scheduler.execute(() -> request.messages.forEach(this::undeliverable));
+        } catch (RejectedExecutionException e) {
+            request.messages.forEach(this::undeliverable);
+        }
+        complete(request.messages.size());
+    }
+
+    private void retry(final Request request) {
+        final List<Request> ready;
+        synchronized (this) {
+            pending.addFirst(request);
+            ready = takeReady();
+        }
+        execute(ready);
+    }
+
+    private void complete(final int messages) {
+        final List<Request> ready;
+        synchronized (this) {
+            inflight--;
+            queued -= messages;
+            ready = takeReady();
+            if (queued == 0) {
+                notifyAll();
+            }
+        }
+        execute(ready);
+    }
+
+    void addStats(final XContentBuilder builder) throws IOException {
+        final long requestCount = requests.sum();
+        builder.startObject("async");
+        synchronized (this) {
+            builder.field("inflight_requests", inflight);
+            builder.field("queued_messages", queued);
+        }
+        builder.field("requests", requestCount);
+        builder.field("sent_messages", sentMessages.sum());
+        builder.field("retried_requests", retriedRequests.sum());
+        builder.field("failed_messages", failedMessages.sum());
+        builder.field("rejected_messages", rejectedMessages.sum());
+        builder.field("spooled_messages", spooledMessages.sum());
+        builder.field("replayed_messages", replayedMessages.sum());
+        builder.field("overflow_messages", overflowMessages.get());
+        builder.field("avg_latency_millis", requestCount == 0 ? 0 : (double) latencyMillis.sum() / requestCount);
+        builder.field("max_latency_millis", maxLatencyMillis.get());
+        builder.endObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        final List<Request> ready;
+        synchronized (this) {
+            closed = true;
+            if (batch != null) {
+                pending.add(batch.toRequest());
+                batch = null;
+            }
+            ready = takeReady();
+        }
+        execute(ready);
+
+        synchronized (this) {
+            final long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLIS;
+            long remaining = CLOSE_TIMEOUT_MILLIS;
+            while (queued > 0 && remaining > 0) {
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                remaining = deadline - System.currentTimeMillis();
+            }
+            if (queued > 0) {
+                log.warn("{} audit messages were not sent to the webhook before it was closed", queued);
+            }
+        }
+        scheduler.shutdown();
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    private static final class Batch {
+        private final String url;
+        private final List<AuditMessage> messages = new ArrayList<>();
+        private final StringBuilder payload = new StringBuilder();
+
+        private Batch(final String url) {
+            this.url = url;
+        }
+
+        private void add(final AuditMessage msg, final String line) {
+            messages.add(msg);
+            payload.append(line).append('\n');
+        }
+
+        private Request toRequest() {
+            return new Request(true, url, payload.toString().getBytes(StandardCharsets.UTF_8), NDJSON, messages);
+        }
+    }
+
+    private static final class Request {
+        private final boolean post;
+        private final String url;
+        private final byte[] body;
+        private final ContentType contentType;
+        private final List<AuditMessage> messages;
+        private int attempt;
+
+        private Request(
+            final boolean post,
+            final String url,
+            final byte[] body,
+            final ContentType contentType,
+            final List<AuditMessage> messages
+        ) {
+            this.post = post;
+            this.url = url;
+            this.body = body;
+            this.contentType = contentType;
+            this.messages = messages;
+        }
+
+        private SimpleHttpRequest build(final boolean compression) {
+            if (!post) {
+                return SimpleRequestBuilder.get(url).build();
+            }
+            final SimpleRequestBuilder builder = SimpleRequestBuilder.post(url);
+            if (compression) {
+                builder.setBody(gzip(body), contentType).addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            } else {
+                builder.setBody(body, contentType);
+            }
+            return builder.build();
+        }
+
+        private static byte[] gzip(final byte[] bytes) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to compress webhook payload", e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -14,12 +14,16 @@ package org.opensearch.security.auditlog.sink;
 import java.io.IOException;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.google.common.util.concurrent.Uninterruptibles;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.security.auditlog.impl.AuditMessage;
 import org.opensearch.security.support.ConfigConstants;
 
@@ -36,6 +40,11 @@ public abstract class AuditLogSink {
     protected final AuditLogSink fallbackSink;
     private final int retryCount;
     private final long delayMs;
+    private AuditSpool spool;
+    private final ReentrantLock replayLock = new ReentrantLock();
+    private final LongAdder droppedMessages = new LongAdder();
+    // while the sink fails, messages go to the spool until this time
+    private volatile long nextAttemptNanos = System.nanoTime();
 
     protected AuditLogSink(String name, Settings settings, String settingsPrefix, AuditLogSink fallbackSink) {
         this.name = name.toLowerCase();
@@ -60,11 +69,89 @@ public abstract class AuditLogSink {
     }
 
     public final void store(AuditMessage msg) {
-        if (!doStoreWithRetry(msg) && !fallbackSink.doStoreWithRetry(msg)) {
-            System.err.println(msg.toPrettyString());
+        if (spool != null) {
+            storeWithSpool(msg);
+        } else if (!doStoreWithRetry(msg) && !fallbackSink.doStoreWithRetry(msg)) {
+            drop(msg);
         }
     }
 
+    /**
+     * Appends a message which could not be queued for this sink to its spool. Returns false if the sink has no spool
+     * or the spool is full.
+     */
+    public boolean spool(AuditMessage msg) {
+        return spool != null && spool.append(msg.toJsonBytes());
+    }
+
+    void setSpool(AuditSpool spool) {
+        this.spool = spool;
+    }
+
+    AuditSpool getSpool() {
+        return spool;
+    }
+
+    long getDroppedMessages() {
+        return droppedMessages.sum();
+    }
+
+    private void drop(AuditMessage msg) {
+        droppedMessages.increment();
+        log.error("Unable to store audit message on sink '{}' or its fallback sink, dropping it: {}", name, msg.toPrettyString());
+    }
+
+    private void storeWithSpool(AuditMessage msg) {
+        // messages are spooled instead of retried so that a failing sink does not hold up the storage threads
+        if (System.nanoTime() - nextAttemptNanos >= 0 && replaySpool()) {
+            if (doStore(msg)) {
+                return;
+            }
+            backOff();
+        }
+        if (!spool.append(msg.toJsonBytes()) && !fallbackSink.doStoreWithRetry(msg)) {
+            drop(msg);
+        }
+    }
+
+    /**
+     * Stores the spooled messages in order. Returns true if the spool is empty afterwards.
+     */
+    private boolean replaySpool() {
+        if (spool.isEmpty()) {
+            return true;
+        }
+        if (!replayLock.tryLock()) {
+            // another thread replays, newer messages must queue up behind the spooled ones
+            return false;
+        }
+        try {
+            BytesReference record;
+            while ((record = spool.peek()) != null) {
+                AuditMessage spooled;
+                try {
+                    spooled = AuditMessage.fromJson(record);
+                } catch (Exception e) {
+                    log.error("Skipping unreadable spooled audit message for {}", getName(), e);
+                    spool.advance();
+                    continue;
+                }
+                if (!doStore(spooled)) {
+                    backOff();
+                    return false;
+                }
+                spool.advance();
+            }
+            return true;
+        } finally {
+            replayLock.unlock();
+        }
+    }
+
+    private void backOff() {
+        nextAttemptNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+    }
+
     private boolean doStoreWithRetry(AuditMessage msg) {
         // retryCount of 0 means no retry (which is: try exactly once) - delayMs is ignored
         // retryCount of 1 means: try and if this fails wait delayMs and try once again
@@ -95,6 +182,13 @@ public abstract class AuditLogSink {
         // to be implemented by subclasses
     }
 
+    /**
+     * Adds the statistics of this sink to the stats of the security plugin.
+     */
+    public void addStats(XContentBuilder builder) throws IOException {
+        // to be implemented by subclasses
+    }
+
     protected String getExpandedIndexName(DateTimeFormatter indexPattern, String index) {
         if (indexPattern == null) {
             return index;
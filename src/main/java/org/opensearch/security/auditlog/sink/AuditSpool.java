@@ -0,0 +1,376 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.util.BytesRef;
+
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+/**
+ * Append-only, segmented on-disk log of serialized audit messages.
+ * <p>
+ * A sink appends the messages it cannot store to the spool and replays them in order once it is able to store
+ * again. Every record is written as its length, its CRC32 and its bytes. A new segment is started when the current
+ * one exceeds the segment size and on every start of the node, so only the segment written by this instance is ever
+ * appended to. Fully replayed segments are deleted, and the oldest segments are dropped when the spool would grow
+ * beyond its maximum size.
+ * <p>
+ * The replay position is saved when the spool is closed. After a crash, the records of the oldest segment are
+ * replayed again, so delivery from the spool is at least once.
+ */
+final class AuditSpool implements Closeable {
+
+    private static final Logger log = LogManager.getLogger(AuditSpool.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * When appended records are forced to disk.
+     */
+    enum FsyncPolicy {
+        /** after every record */
+        ALWAYS,
+        /** when a segment is completed and when the spool is closed */
+        SEGMENT,
+        /** never, the operating system decides */
+        NEVER
+    }
+
+    private final Path directory;
+    private final long segmentSize;
+    private final long maxSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    private final CRC32 crc = new CRC32();
+    private FileChannel writeChannel;
+    private FileChannel readChannel;
+    private long readPosition;
+    private int pendingRecordSize;
+    private long totalSize;
+    private boolean closed;
+
+    private long spooled;
+    private long replayed;
+    private long rejected;
+    private long corrupted;
+    private long expiredSegments;
+    private long expiredBytes;
+    private long fsyncs;
+
+    AuditSpool(final Path directory, final long segmentSize, final long maxSize, final FsyncPolicy fsyncPolicy) throws IOException {
+        if (segmentSize <= HEADER_SIZE || maxSize < segmentSize) {
+            throw new IllegalArgumentException(
+                "Incorrect audit spool size: segment size " + segmentSize + " and maximum size " + maxSize + " configured"
+            );
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+        this.fsyncPolicy = fsyncPolicy;
+
+        Files.createDirectories(directory);
+        final List<Segment> existing = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (final Path file : files) {
+                final String fileName = file.getFileName().toString();
+                try {
+                    final long sequence = Long.parseLong(
+                        fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length())
+                    );
+                    existing.add(new Segment(sequence, file, Files.size(file)));
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring unexpected file {} in audit spool {}", fileName, directory);
+                }
+            }
+        }
+        existing.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+        for (final Segment segment : existing) {
+            segments.add(segment);
+            totalSize += segment.size;
+        }
+        readCheckpoint();
+
+        openSegment(segments.isEmpty() ? 0 : segments.peekLast().sequence + 1);
+        if (existing.size() > 0) {
+            log.info("Audit spool {} contains {} bytes to replay", directory, totalSize - readPosition);
+        }
+    }
+
+    /**
+     * Appends the record to the spool, or returns false if it could not be written.
+     */
+    synchronized boolean append(final BytesReference record) {
+        final BytesRef bytes = record.toBytesRef();
+        final long recordSize = HEADER_SIZE + bytes.length;
+        if (closed || recordSize > segmentSize) {
+            rejected++;
+            return false;
+        }
+        try {
+            final Segment tail = segments.peekLast();
+            if (tail.size > 0 && tail.size + recordSize > segmentSize) {
+                openSegment(tail.sequence + 1);
+            }
+            while (totalSize + recordSize > maxSize && segments.size() > 1) {
+                final Segment head = segments.peekFirst();
+                expiredSegments++;
+                expiredBytes += head.size - readPosition;
+                log.warn("Audit spool {} is full, dropping segment {} with {} bytes", directory, head.file, head.size - readPosition);
+                dropHead();
+            }
+            if (totalSize + recordSize > maxSize) {
+                rejected++;
+                return false;
+            }
+
+            crc.reset();
+            crc.update(bytes.bytes, bytes.offset, bytes.length);
+            header.clear();
+            header.putInt(bytes.length).putInt((int) crc.getValue()).flip();
+            final ByteBuffer[] buffers = { header, ByteBuffer.wrap(bytes.bytes, bytes.offset, bytes.length) };
+            while (buffers[1].hasRemaining()) {
+                writeChannel.write(buffers);
+            }
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                force();
+            }
+
+            final Segment current = segments.peekLast();
+            current.size += recordSize;
+            totalSize += recordSize;
+            spooled++;
+            return true;
+        } catch (IOException e) {
+            log.error("Unable to append audit message to spool {}", directory, e);
+            rejected++;
+            try {
+                // removes a partially written record
+                writeChannel.truncate(segments.peekLast().size);
+            } catch (IOException inner) {
+                e.addSuppressed(inner);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns the oldest record which has not been replayed, or null if there is none. The record is returned again
+     * until {@link #advance()} is called.
+     */
+    synchronized BytesReference peek() {
+        while (!closed) {
+            final Segment head = segments.peekFirst();
+            final boolean isTail = head == segments.peekLast();
+            if (readPosition >= head.size) {
+                if (isTail) {
+                    return null;
+                }
+                dropHead();
+                continue;
+            }
+
+            try {
+                if (readChannel == null) {
+                    readChannel = FileChannel.open(head.file, StandardOpenOption.READ);
+                }
+                header.clear();
+                final int length = readFully(header, readPosition) ? header.flip().getInt() : -1;
+                final int checksum = length >= 0 ? header.getInt() : 0;
+                if (length >= 0 && readPosition + HEADER_SIZE + length <= head.size) {
+                    final ByteBuffer payload = ByteBuffer.allocate(length);
+                    if (readFully(payload, readPosition + HEADER_SIZE)) {
+                        crc.reset();
+                        crc.update(payload.array(), 0, length);
+                        if ((int) crc.getValue() == checksum) {
+                            pendingRecordSize = HEADER_SIZE + length;
+                            return new BytesArray(payload.array());
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Unable to read audit spool segment {}", head.file, e);
+            }
+
+            // a record which was not written completely before the node stopped, the rest of the segment is unusable
+            corrupted++;
+            log.warn("Skipping {} bytes of corrupted audit spool segment {}", head.size - readPosition, head.file);
+            if (isTail) {
+                try {
+                    openSegment(head.sequence + 1);
+                } catch (IOException e) {
+                    log.error("Unable to create audit spool segment in {}", directory, e);
+                    return null;
+                }
+            }
+            dropHead();
+        }
+        return null;
+    }
+
+    /**
+     * Marks the record returned by {@link #peek()} as replayed.
+     */
+    synchronized void advance() {
+        if (pendingRecordSize == 0) {
+            return;
+        }
+        readPosition += pendingRecordSize;
+        pendingRecordSize = 0;
+        replayed++;
+        if (readPosition >= segments.peekFirst().size && segments.size() > 1) {
+            dropHead();
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        return segments.size() == 1 && readPosition >= segments.peekFirst().size;
+    }
+
+    synchronized void addStats(final XContentBuilder builder) throws IOException {
+        builder.field("segments", segments.size());
+        builder.field("size_in_bytes", totalSize);
+        builder.field("pending_bytes", totalSize - readPosition);
+        builder.field("spooled", spooled);
+        builder.field("replayed", replayed);
+        builder.field("rejected", rejected);
+        builder.field("corrupted", corrupted);
+        builder.field("expired_segments", expiredSegments);
+        builder.field("expired_bytes", expiredBytes);
+        builder.field("fsyncs", fsyncs);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            force();
+        }
+        closeChannels();
+        if (segments.size() == 1 && readPosition >= segments.peekFirst().size) {
+            // nothing left to replay
+            Files.deleteIfExists(segments.peekFirst().file);
+            Files.deleteIfExists(directory.resolve(CHECKPOINT_FILE));
+        } else {
+            final String checkpoint = segments.peekFirst().sequence + " " + readPosition;
+            Files.write(directory.resolve(CHECKPOINT_FILE), checkpoint.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void readCheckpoint() {
+        final Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (segments.isEmpty() || !Files.exists(checkpoint)) {
+            return;
+        }
+        try {
+            final String[] parts = new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim().split(" ");
+            if (Long.parseLong(parts[0]) == segments.peekFirst().sequence) {
+                readPosition = Math.min(Long.parseLong(parts[1]), segments.peekFirst().size);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to read audit spool checkpoint {}, replaying the oldest segment from the start", checkpoint, e);
+        }
+    }
+
+    private boolean readFully(final ByteBuffer buffer, final long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            final int read = readChannel.read(buffer, current);
+            if (read < 0) {
+                return false;
+            }
+            current += read;
+        }
+        return true;
+    }
+
+    private void openSegment(final long sequence) throws IOException {
+        if (writeChannel != null) {
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                force();
+            }
+            writeChannel.close();
+        }
+        final Path file = directory.resolve(String.format(Locale.ROOT, "%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        writeChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segments.add(new Segment(sequence, file, 0));
+    }
+
+    private void dropHead() {
+        final Segment head = segments.pollFirst();
+        totalSize -= head.size;
+        readPosition = 0;
+        pendingRecordSize = 0;
+        try {
+            if (readChannel != null) {
+                readChannel.close();
+                readChannel = null;
+            }
+            Files.deleteIfExists(head.file);
+        } catch (IOException e) {
+            log.warn("Unable to delete audit spool segment {}", head.file, e);
+        }
+    }
+
+    private void force() throws IOException {
+        writeChannel.force(false);
+        fsyncs++;
+    }
+
+    private void closeChannels() throws IOException {
+        try {
+            if (readChannel != null) {
+                readChannel.close();
+                readChannel = null;
+            }
+        } finally {
+            writeChannel.close();
+        }
+    }
+
+    private static final class Segment {
+        private final long sequence;
+        private final Path file;
+        private long size;
+
+        private Segment(final long sequence, final Path file, final long size) {
+            this.sequence = sequence;
+            this.file = file;
+            this.size = size;
+        }
+    }
+}
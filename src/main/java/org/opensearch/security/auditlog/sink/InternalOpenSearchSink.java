@@ -13,13 +13,28 @@ package org.opensearch.security.auditlog.sink;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
-import org.opensearch.action.index.IndexRequestBuilder;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.support.WriteRequest.RefreshPolicy;
 import org.opensearch.client.Client;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.util.concurrent.ThreadContext.StoredContext;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.common.unit.ByteSizeUnit;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.security.auditlog.impl.AuditMessage;
 import org.opensearch.security.support.ConfigConstants;
 import org.opensearch.security.support.HeaderHelper;
@@ -28,14 +43,51 @@ import org.opensearch.threadpool.ThreadPool;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+/**
+ * Stores audit messages in an index of the local cluster.
+ * <p>
+ * Messages are collected into bulk requests, which are sent when they reach the configured number of actions or
+ * size, or when the first message of the batch waited for the flush interval. Bulk requests are sent asynchronously
+ * and do not refresh the audit index unless configured. Items which fail with a retryable status are sent again
+ * with an exponential backoff, messages which cannot be indexed end up in the fallback sink.
+ */
 public final class InternalOpenSearchSink extends AuditLogSink {
 
+    private static final int DEFAULT_BULK_ACTIONS = 1000;
+    private static final ByteSizeValue DEFAULT_BULK_SIZE = new ByteSizeValue(5, ByteSizeUnit.MB);
+    private static final TimeValue DEFAULT_FLUSH_INTERVAL = TimeValue.timeValueSeconds(1);
+    private static final int DEFAULT_MAX_QUEUED = 10000;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 50;
+    private static final TimeValue CLOSE_TIMEOUT = TimeValue.timeValueSeconds(10);
+
     private final Client clientProvider;
     final String index;
-    final String type;
     private DateTimeFormatter indexPattern;
     private final ThreadPool threadPool;
 
+    final RefreshPolicy refreshPolicy;
+    final int bulkActions;
+    final long bulkSizeInBytes;
+    final TimeValue flushInterval;
+    final int maxQueued;
+    final int maxRetries;
+
+    // the batch which is currently filled, guarded by this
+    private Batch batch = new Batch(0);
+    // messages which were accepted and are not indexed or handed to the fallback sink yet, guarded by this
+    private int queued;
+    private boolean closed;
+
+    private final LongAdder bulkRequests = new LongAdder();
+    private final LongAdder bulkItems = new LongAdder();
+    private final LongAdder indexedItems = new LongAdder();
+    private final LongAdder retriedItems = new LongAdder();
+    private final LongAdder failedItems = new LongAdder();
+    private final LongAdder rejectedItems = new LongAdder();
+    private final LongAdder bulkLatencyMillis = new LongAdder();
+    private final AtomicLong maxBulkLatencyMillis = new AtomicLong();
+
     public InternalOpenSearchSink(
         final String name,
         final Settings settings,
@@ -50,7 +102,13 @@ public final class InternalOpenSearchSink extends AuditLogSink {
         Settings sinkSettings = getSinkSettings(settingsPrefix);
 
         this.index = sinkSettings.get(ConfigConstants.SECURITY_AUDIT_OPENSEARCH_INDEX, "'security-auditlog-'YYYY.MM.dd");
-        this.type = sinkSettings.get(ConfigConstants.SECURITY_AUDIT_OPENSEARCH_TYPE, null);
+        this.refreshPolicy = RefreshPolicy.parse(sinkSettings.get(ConfigConstants.SECURITY_AUDIT_OPENSEARCH_REFRESH_POLICY, "false"));
+        this.bulkActions = Math.max(1, sinkSettings.getAsInt(ConfigConstants.SECURITY_AUDIT_OPENSEARCH_BULK_ACTIONS, DEFAULT_BULK_ACTIONS));
+        this.bulkSizeInBytes = sinkSettings.getAsBytesSize(ConfigConstants.SECURITY_AUDIT_OPENSEARCH_BULK_SIZE, DEFAULT_BULK_SIZE)
+            .getBytes();
+        this.flushInterval = sinkSettings.getAsTime(ConfigConstants.SECURITY_AUDIT_OPENSEARCH_BULK_FLUSH_INTERVAL, DEFAULT_FLUSH_INTERVAL);
+        this.maxQueued = sinkSettings.getAsInt(ConfigConstants.SECURITY_AUDIT_OPENSEARCH_BULK_MAX_QUEUED, DEFAULT_MAX_QUEUED);
+        this.maxRetries = sinkSettings.getAsInt(ConfigConstants.SECURITY_AUDIT_OPENSEARCH_BULK_MAX_RETRIES, DEFAULT_MAX_RETRIES);
 
         this.threadPool = threadPool;
         try {
@@ -65,7 +123,31 @@ public final class InternalOpenSearchSink extends AuditLogSink {
 
     @Override
     public void close() throws IOException {
+        final Batch remaining;
+        synchronized (this) {
+            closed = true;
+            remaining = takeBatch();
+        }
+        if (remaining != null) {
+            send(remaining);
+        }
 
+        // give the bulk requests in flight a chance to complete
+        final long deadline = System.nanoTime() + CLOSE_TIMEOUT.nanos();
+        synchronized (this) {
+            long remainingNanos;
+            while (queued > 0 && (remainingNanos = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (queued > 0) {
+                log.warn("{} audit messages were not indexed before the sink was closed", queued);
+            }
+        }
     }
 
     public boolean doStore(final AuditMessage msg) {
@@ -79,19 +161,204 @@ public final class InternalOpenSearchSink extends AuditLogSink {
             return true;
         }
 
-        try (StoredContext ctx = threadPool.getThreadContext().stashContext()) {
-            try {
-                final IndexRequestBuilder irb = clientProvider.prepareIndex(getExpandedIndexName(indexPattern, index))
-                    .setRefreshPolicy(RefreshPolicy.IMMEDIATE)
-                    .setSource(msg.getAsMap());
-                threadPool.getThreadContext().putHeader(ConfigConstants.OPENDISTRO_SECURITY_CONF_REQUEST_HEADER, "true");
-                irb.setTimeout(TimeValue.timeValueMinutes(1));
-                irb.execute().actionGet();
-                return true;
-            } catch (final Exception e) {
-                log.error("Unable to index audit log {} due to", msg, e);
+        final IndexRequest request;
+        try {
+            request = new IndexRequest(getExpandedIndexName(indexPattern, index)).source(msg.toJsonBytes(), XContentType.JSON);
+        } catch (final Exception e) {
+            log.error("Unable to index audit log {} due to", msg, e);
+            return false;
+        }
+
+        final Batch full;
+        synchronized (this) {
+            if (closed || queued >= maxQueued) {
+                rejectedItems.increment();
                 return false;
             }
+            queued++;
+            batch.add(request, msg);
+            boolean flushNow = flushInterval.millis() <= 0;
+            if (batch.size() == 1 && !flushNow) {
+                final Batch lingering = batch;
+                try {
+                    threadPool.schedule(() -> flush(lingering), flushInterval, ThreadPool.Names.GENERIC);
+                } catch (RejectedExecutionException e) {
+                    // nothing would flush the batch later
+                    flushNow = true;
+                }
+            }
+            full = batch.size() >= bulkActions || batch.sizeInBytes >= bulkSizeInBytes || flushNow ? takeBatch() : null;
+        }
+        if (full != null) {
+            send(full);
+        }
+        return true;
+    }
+
+    private void flush(final Batch lingering) {
+        final Batch ready;
+        synchronized (this) {
+            // the batch may have been sent already because it became full
+            ready = batch == lingering ? takeBatch() : null;
+        }
+        if (ready != null) {
+            send(ready);
+        }
+    }
+
+    private Batch takeBatch() {
+        assert Thread.holdsLock(this);
+        if (batch.size() == 0) {
+            return null;
+        }
+        final Batch ready = batch;
+        batch = new Batch(0);
+        return ready;
+    }
+
+    private void send(final Batch batch) {
+        final BulkRequest bulkRequest = new BulkRequest();
+        bulkRequest.setRefreshPolicy(refreshPolicy);
+        bulkRequest.timeout(TimeValue.timeValueMinutes(1));
+        for (final IndexRequest request : batch.requests) {
+            bulkRequest.add(request);
+        }
+
+        final long start = System.nanoTime();
+        try (StoredContext ctx = threadPool.getThreadContext().stashContext()) {
+            threadPool.getThreadContext().putHeader(ConfigConstants.OPENDISTRO_SECURITY_CONF_REQUEST_HEADER, "true");
+            clientProvider.bulk(bulkRequest, new ActionListener<BulkResponse>() {
+                @Override
+                public void onResponse(final BulkResponse response) {
+                    recordBulk(batch, start);
+                    onBulkResponse(batch, response);
+                }
+
+                @Override
+                public void onFailure(final Exception e) {
+                    recordBulk(batch, start);
+                    log.error("Unable to index {} audit messages due to", batch.size(), e);
+                    retry(batch, new ArrayList<>(batch.requests), new ArrayList<>(batch.messages));
+                }
+            });
+        } catch (final Exception e) {
+            log.error("Unable to index {} audit messages due to", batch.size(), e);
+            retry(batch, new ArrayList<>(batch.requests), new ArrayList<>(batch.messages));
+        }
+    }
+
+    private void recordBulk(final Batch batch, final long start) {
+        final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        bulkRequests.increment();
+        bulkItems.add(batch.size());
+        bulkLatencyMillis.add(latency);
+        maxBulkLatencyMillis.accumulateAndGet(latency, Math::max);
+    }
+
+    private void onBulkResponse(final Batch batch, final BulkResponse response) {
+        final List<IndexRequest> retryRequests = new ArrayList<>();
+        final List<AuditMessage> retryMessages = new ArrayList<>();
+        int indexed = 0;
+        int failed = 0;
+        for (final BulkItemResponse item : response.getItems()) {
+            final AuditMessage msg = batch.messages.get(item.getItemId());
+            if (!item.isFailed()) {
+                indexed++;
+            } else if (isRetryable(item.getFailure().getStatus())) {
+                retryRequests.add(batch.requests.get(item.getItemId()));
+                retryMessages.add(msg);
+            } else {
+                log.error("Unable to index audit log {} due to {}", msg, item.getFailureMessage());
+                failed(msg);
+                failed++;
+            }
+        }
+        indexedItems.add(indexed);
+        completed(indexed + failed);
+        if (!retryRequests.isEmpty()) {
+            retry(batch, retryRequests, retryMessages);
+        }
+    }
+
+    private static boolean isRetryable(final RestStatus status) {
+        return status == RestStatus.TOO_MANY_REQUESTS || status.getStatus() >= 500;
+    }
+
+    private void retry(final Batch failedBatch, final List<IndexRequest> requests, final List<AuditMessage> messages) {
+        if (failedBatch.attempt >= maxRetries || isClosed()) {
+            messages.forEach(this::failed);
+            completed(messages.size());
+            return;
+        }
+
+        final Batch retry = new Batch(failedBatch.attempt + 1);
+        for (int i = 0; i < requests.size(); i++) {
+            retry.add(requests.get(i), messages.get(i));
+        }
+        retriedItems.add(retry.size());
+        final TimeValue backoff = TimeValue.timeValueMillis(RETRY_BACKOFF_MILLIS << failedBatch.attempt);
+        try {
+            threadPool.schedule(() -> send(retry), backoff, ThreadPool.Names.GENERIC);
+        } catch (RejectedExecutionException e) {
+            // the thread pool is shutting down or overloaded
+            log.error("Unable to schedule the retry of {} audit messages due to", messages.size(), e);
+            messages.forEach(this::failed);
+            completed(messages.size());
+        }
+    }
+
+    private void failed(final AuditMessage msg) {
+        failedItems.increment();
+        fallbackSink.store(msg);
+    }
+
+    private synchronized void completed(final int count) {
+        queued -= count;
+        if (closed) {
+            notifyAll();
+        }
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void addStats(final XContentBuilder builder) throws IOException {
+        final long requests = bulkRequests.sum();
+        builder.startObject("bulk");
+        builder.field("requests", requests);
+        builder.field("indexed_items", indexedItems.sum());
+        builder.field("retried_items", retriedItems.sum());
+        builder.field("failed_items", failedItems.sum());
+        builder.field("rejected_items", rejectedItems.sum());
+        synchronized (this) {
+            builder.field("queued_items", queued);
+        }
+        builder.field("avg_batch_size", requests == 0 ? 0 : (double) bulkItems.sum() / requests);
+        builder.field("avg_latency_millis", requests == 0 ? 0 : (double) bulkLatencyMillis.sum() / requests);
+        builder.field("max_latency_millis", maxBulkLatencyMillis.get());
+        builder.endObject();
+    }
+
+    private static final class Batch {
+        private final int attempt;
+        private final List<IndexRequest> requests = new ArrayList<>();
+        private final List<AuditMessage> messages = new ArrayList<>();
+        private long sizeInBytes;
+
+        private Batch(final int attempt) {
+            this.attempt = attempt;
+        }
+
+        private void add(final IndexRequest request, final AuditMessage msg) {
+            requests.add(request);
+            messages.add(msg);
+            sizeInBytes += request.source().length();
+        }
+
+        private int size() {
+            return requests.size();
         }
     }
 }
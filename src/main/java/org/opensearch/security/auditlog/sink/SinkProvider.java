@@ -11,8 +11,11 @@
 
 package org.opensearch.security.auditlog.sink;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -20,7 +23,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import org.opensearch.client.Client;
+import org.opensearch.common.io.PathUtils;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.unit.ByteSizeUnit;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.env.Environment;
 import org.opensearch.security.dlic.rest.support.Utils;
 import org.opensearch.security.support.ConfigConstants;
 import org.opensearch.threadpool.ThreadPool;
@@ -71,6 +79,7 @@ public class SinkProvider {
         }
 
         allSinks.put(DEFAULTSINK_NAME, defaultSink);
+        attachSpool(DEFAULTSINK_NAME, defaultSink);
 
         // create all other sinks
         Map<String, Object> sinkSettingsMap = Utils.convertJsonToxToStructuredMap(
@@ -99,6 +108,7 @@ public class SinkProvider {
                 continue;
             }
             allSinks.put(sinkName.toLowerCase(), sink);
+            attachSpool(sinkName, sink);
             if (log.isDebugEnabled()) {
                 log.debug("sink '{}' created successfully.", sinkName);
             }
@@ -113,6 +123,21 @@ public class SinkProvider {
         return defaultSink;
     }
 
+    public void addStats(XContentBuilder builder) throws IOException {
+        for (Entry<String, AuditLogSink> sink : allSinks.entrySet()) {
+            builder.startObject(sink.getKey());
+            builder.field("type", sink.getValue().getClass().getSimpleName());
+            sink.getValue().addStats(builder);
+            builder.field("dropped_messages", sink.getValue().getDroppedMessages());
+            if (sink.getValue().getSpool() != null) {
+                builder.startObject("spool");
+                sink.getValue().getSpool().addStats(builder);
+                builder.endObject();
+            }
+            builder.endObject();
+        }
+    }
+
     public void close() {
         for (AuditLogSink sink : allSinks.values()) {
             close(sink);
@@ -123,11 +148,52 @@ public class SinkProvider {
         try {
             log.info("Closing {}", sink.getClass().getSimpleName());
             sink.close();
+            if (sink.getSpool() != null) {
+                sink.getSpool().close();
+            }
         } catch (Exception ex) {
             log.info("Could not close sink '{}' due to '{}'", sink.getClass().getSimpleName(), ex.getMessage());
         }
     }
 
+    /**
+     * Gives the sink a spool for the messages it cannot store, if spooling is enabled.
+     */
+    private void attachSpool(final String name, final AuditLogSink sink) {
+        if (!settings.getAsBoolean(ConfigConstants.SECURITY_AUDIT_SPOOL_ENABLED, false)) {
+            return;
+        }
+        try {
+            final AuditSpool.FsyncPolicy fsyncPolicy = AuditSpool.FsyncPolicy.valueOf(
+                settings.get(ConfigConstants.SECURITY_AUDIT_SPOOL_FSYNC, "segment").toUpperCase(Locale.ROOT)
+            );
+            final ByteSizeValue segmentSize = settings.getAsBytesSize(
+                ConfigConstants.SECURITY_AUDIT_SPOOL_SEGMENT_SIZE,
+                new ByteSizeValue(16, ByteSizeUnit.MB)
+            );
+            final ByteSizeValue maxSize = settings.getAsBytesSize(
+                ConfigConstants.SECURITY_AUDIT_SPOOL_MAX_SIZE,
+                new ByteSizeValue(1, ByteSizeUnit.GB)
+            );
+            final Path directory = getSpoolPath().resolve(name.toLowerCase(Locale.ROOT));
+            sink.setSpool(new AuditSpool(directory, segmentSize.getBytes(), maxSize.getBytes(), fsyncPolicy));
+            log.info("Spooling failed audit messages of endpoint '{}' to {}", name, directory);
+        } catch (Exception e) {
+            log.error("Unable to create audit spool for endpoint '{}', failed messages will not be spooled", name, e);
+        }
+    }
+
+    private Path getSpoolPath() {
+        final Path home = PathUtils.get(Environment.PATH_HOME_SETTING.get(settings));
+        final String configured = settings.get(ConfigConstants.SECURITY_AUDIT_SPOOL_PATH);
+        if (configured != null) {
+            return home.resolve(configured);
+        }
+        final List<String> dataPaths = Environment.PATH_DATA_SETTING.get(settings);
+        final Path dataPath = dataPaths.isEmpty() ? home.resolve("data") : home.resolve(dataPaths.get(0));
+        return dataPath.resolve("security-audit-spool");
+    }
+
     private final AuditLogSink createSink(final String name, final String type, final Settings settings, final String settingsPrefix) {
         AuditLogSink sink = null;
         if (type != null) {
@@ -21,29 +21,40 @@ import java.security.KeyStore;
 import java.security.PrivilegedAction;
 import java.security.cert.X509Certificate;
 import java.util.concurrent.TimeUnit;
+import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
 
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
 import org.apache.hc.client5.http.ssl.DefaultHostnameVerifier;
 import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.function.Factory;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.io.SocketConfig;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.reactor.ssl.TlsDetails;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
 import org.apache.hc.core5.ssl.TrustStrategy;
 import org.apache.http.HttpStatus;
 
 import org.opensearch.common.settings.Settings;
 import org.opensearch.core.common.Strings;
+import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.security.auditlog.impl.AuditMessage;
 import org.opensearch.security.ssl.util.SSLConfigConstants;
 import org.opensearch.security.support.ConfigConstants;
@@ -60,6 +71,8 @@ public class WebhookSink extends AuditLogSink {
     WebhookFormat webhookFormat = null;
     final boolean verifySSL;
     final KeyStore effectiveTruststore;
+    /* only set if the sink sends asynchronously, see plugins.security.audit.config.webhook.async */
+    private AsyncWebhookSender asyncSender;
 
     public WebhookSink(
         final String name,
@@ -78,9 +91,10 @@ public class WebhookSink extends AuditLogSink {
         final String format = sinkSettings.get(ConfigConstants.SECURITY_AUDIT_WEBHOOK_FORMAT);
 
         verifySSL = sinkSettings.getAsBoolean(ConfigConstants.SECURITY_AUDIT_WEBHOOK_SSL_VERIFY, true);
-        httpClient = getHttpClient();
+        final boolean async = sinkSettings.getAsBoolean(ConfigConstants.SECURITY_AUDIT_WEBHOOK_ASYNC, false);
+        httpClient = async ? null : getHttpClient();
 
-        if (httpClient == null) {
+        if (!async && httpClient == null) {
             log.error("Could not create HttpClient, audit log not available.");
             return;
         }
@@ -109,6 +123,37 @@ public class WebhookSink extends AuditLogSink {
                 webhookFormat = WebhookFormat.TEXT;
             }
         }
+
+        if (async && this.webhookUrl != null) {
+            final CloseableHttpAsyncClient asyncHttpClient = getAsyncHttpClient(sinkSettings);
+            if (asyncHttpClient == null) {
+                log.error("Could not create HttpClient, audit log not available.");
+                this.webhookUrl = null;
+                return;
+            }
+            asyncSender = new AsyncWebhookSender(getName(), sinkSettings, asyncHttpClient, msg -> fallbackSink.store(msg));
+        }
+    }
+
+    @Override
+    public boolean isHandlingBackpressure() {
+        // messages are only formatted and queued, sending them never blocks the caller
+        return asyncSender != null;
+    }
+
+    @Override
+    void setSpool(AuditSpool spool) {
+        if (asyncSender != null) {
+            // the sender replays the spool on its own thread instead of store() doing so on the caller's thread
+            asyncSender.setSpool(spool, this::sendAsync);
+        } else {
+            super.setSpool(spool);
+        }
+    }
+
+    @Override
+    AuditSpool getSpool() {
+        return asyncSender != null ? asyncSender.getSpool() : super.getSpool();
     }
 
     @Override
@@ -122,6 +167,11 @@ public class WebhookSink extends AuditLogSink {
             log.debug("Message is null");
             return true;
         }
+        if (asyncSender != null) {
+            // a message which cannot be queued is spooled or stored on the fallback sink by the sender, it is never retried here
+            sendAsync(msg);
+            return true;
+        }
 
         return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
 
@@ -159,11 +209,21 @@ public class WebhookSink extends AuditLogSink {
 
     @Override
     public void close() throws IOException {
+        if (asyncSender != null) {
+            asyncSender.close();
+        }
         if (httpClient != null) {
             httpClient.close();
         }
     }
 
+    @Override
+    public void addStats(final XContentBuilder builder) throws IOException {
+        if (asyncSender != null) {
+            asyncSender.addStats(builder);
+        }
+    }
+
     /**
      * Transforms an {@link AuditMessage} to JSON. By default, all fields are
      * included in the JSON string. This method can be overridden by subclasses
@@ -281,6 +341,25 @@ public class WebhookSink extends AuditLogSink {
 
     }
 
+    boolean sendAsync(AuditMessage msg) {
+        switch (webhookFormat) {
+            case URL_PARAMETER_GET:
+                return asyncSender.send(msg, false, webhookUrl + formatUrlParameters(msg), "", webhookFormat.contentType, false);
+            case URL_PARAMETER_POST:
+                return asyncSender.send(msg, true, webhookUrl + formatUrlParameters(msg), "", webhookFormat.contentType, false);
+            case JSON:
+                // only JSON documents can be batched into a newline delimited payload
+                return asyncSender.send(msg, true, webhookUrl, formatJson(msg), webhookFormat.contentType, true);
+            case TEXT:
+                return asyncSender.send(msg, true, webhookUrl, formatText(msg), webhookFormat.contentType, false);
+            case SLACK:
+                return asyncSender.send(msg, true, webhookUrl, formatSlack(msg), webhookFormat.contentType, false);
+            default:
+                log.error("WebhookFormat '{}' not implemented yet", webhookFormat.name());
+                return false;
+        }
+    }
+
     protected boolean doPost(String url, String payload) {
 
         HttpPost postRequest = new HttpPost(url);
@@ -415,6 +494,73 @@ public class WebhookSink extends AuditLogSink {
         }
     }
 
+    @SuppressWarnings("removal")
+    CloseableHttpAsyncClient getAsyncHttpClient(final Settings sinkSettings) {
+
+        final int timeout = 5;
+        final int maxConnections = Math.max(1, sinkSettings.getAsInt(ConfigConstants.SECURITY_AUDIT_WEBHOOK_MAX_CONNECTIONS, 4));
+        final boolean http2 = sinkSettings.getAsBoolean(ConfigConstants.SECURITY_AUDIT_WEBHOOK_HTTP2, false);
+
+        final TrustStrategy trustAllStrategy = new TrustStrategy() {
+            @Override
+            public boolean isTrusted(X509Certificate[] chain, String authType) {
+                return true;
+            }
+        };
+
+        return AccessController.doPrivileged(new PrivilegedAction<CloseableHttpAsyncClient>() {
+
+            @Override
+            public CloseableHttpAsyncClient run() {
+                try {
+                    final PoolingAsyncClientConnectionManagerBuilder cmb = PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .setDefaultConnectionConfig(
+                            ConnectionConfig.custom()
+                                .setConnectTimeout(timeout, TimeUnit.SECONDS)
+                                .setSocketTimeout(timeout, TimeUnit.SECONDS)
+                                .build()
+                        );
+
+                    if (!verifySSL || effectiveTruststore != null) {
+                        final SSLContext sslContext = verifySSL
+                            ? SSLContextBuilder.create().loadTrustMaterial(effectiveTruststore, null).build()
+                            : SSLContextBuilder.create().loadTrustMaterial(trustAllStrategy).build();
+                        final HostnameVerifier hnv = verifySSL ? new DefaultHostnameVerifier() : NoopHostnameVerifier.INSTANCE;
+                        cmb.setTlsStrategy(
+                            ClientTlsStrategyBuilder.create()
+                                .setSslContext(sslContext)
+                                .setHostnameVerifier(hnv)
+                                // See please https://issues.apache.org/jira/browse/HTTPCLIENT-2219
+                                .setTlsDetailsFactory(new Factory<SSLEngine, TlsDetails>() {
+                                    @Override
+                                    public TlsDetails create(final SSLEngine sslEngine) {
+                                        return new TlsDetails(sslEngine.getSession(), sslEngine.getApplicationProtocol());
+                                    }
+                                })
+                                .build()
+                        );
+                    }
+
+                    final CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                        .setConnectionManager(cmb.build())
+                        // HTTP/2 is negotiated with ALPN, so it is only used for https webhooks
+                        .setVersionPolicy(http2 ? HttpVersionPolicy.NEGOTIATE : HttpVersionPolicy.FORCE_HTTP_1)
+                        .setDefaultRequestConfig(RequestConfig.custom().setConnectionRequestTimeout(timeout, TimeUnit.SECONDS).build())
+                        // failed requests are retried by the sender, with backoff and without blocking other batches
+                        .disableAutomaticRetries()
+                        .build();
+                    client.start();
+                    return client;
+                } catch (Exception ex) {
+                    log.error("Could not create HTTPClient due to {}, audit log not available.", ex.getMessage(), ex);
+                    return null;
+                }
+            }
+        });
+    }
+
     public static enum WebhookFormat {
         URL_PARAMETER_GET(HttpMethod.GET, ContentType.TEXT_PLAIN),
         URL_PARAMETER_POST(HttpMethod.POST, ContentType.TEXT_PLAIN),
@@ -0,0 +1,364 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
+
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.breaker.CircuitBreaker;
+import org.opensearch.core.common.breaker.CircuitBreakingException;
+import org.opensearch.core.common.breaker.NoopCircuitBreaker;
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Node level cache of the documents a DLS query matches in a segment.
+ * <p>
+ * Entries are keyed by the core cache key of the segment together with the DLS query and the FLS and masking
+ * configuration the query was evaluated under, so users sharing the same DLS restrictions share one bitset.
+ * The bitsets do not include deletions; these are applied on top by the reader.
+ * <p>
+ * Other per segment data of DLS and FLS restricted readers, such as {@link FlsFieldFilter}, is kept in the same
+ * cache under its own {@link SegmentKey}. All entries are dropped as soon as their segment is closed, share the
+ * budget of {@link ConfigConstants#SECURITY_DLS_BITSET_CACHE_SIZE} and are charged to the {@link #BREAKER_NAME}
+ * circuit breaker.
+ */
+public class DlsBitsetCache {
+
+    public static final String BREAKER_NAME = "security_dls_bitset";
+    public static final String DEFAULT_SIZE = "5%";
+
+    private static final Logger log = LogManager.getLogger(DlsBitsetCache.class);
+
+    private final long maxWeight;
+    private final Cache<SegmentKey, Accountable> cache;
+    // the keys of the cached entries per segment core, so a closed segment is evicted without scanning the cache
+    private final Map<IndexReader.CacheKey, Set<SegmentKey>> keysByCore = new ConcurrentHashMap<>();
+    private final Map<IndexReader.CacheKey, Map<Key, IndexReader.CacheHelper>> cacheHelpersByReader = new ConcurrentHashMap<>();
+    private volatile CircuitBreaker breaker = new NoopCircuitBreaker(BREAKER_NAME);
+
+    public DlsBitsetCache(final Settings settings) {
+        this.maxWeight = size(settings);
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(maxWeight)
+            .weigher((SegmentKey key, Accountable value) -> weight(value))
+            .removalListener(this::onRemoval)
+            .build();
+    }
+
+    public static long size(final Settings settings) {
+        return settings.getAsMemory(ConfigConstants.SECURITY_DLS_BITSET_CACHE_SIZE, DEFAULT_SIZE).getBytes();
+    }
+
+    public void setCircuitBreaker(final CircuitBreaker breaker) {
+        this.breaker = Objects.requireNonNull(breaker);
+    }
+
+    /**
+     * Returns the documents of the segment of {@code in} which match {@code dlsQuery} when it is evaluated
+     * against {@code reader}, the FLS and masking restricted view of {@code in}. The returned bitset is shared
+     * and must not be modified.
+     */
+    FixedBitSet getBitSet(
+        final LeafReader reader,
+        final LeafReader in,
+        final Query dlsQuery,
+        final Set<String> includesExcludes,
+        final Set<String> maskedFields
+    ) throws IOException {
+        final IndexReader.CacheHelper coreCacheHelper = in.getCoreCacheHelper();
+        if (coreCacheHelper == null || maxWeight <= 0) {
+            return compute(reader, dlsQuery);
+        }
+
+        final Key key = new Key(coreCacheHelper.getKey(), dlsQuery, includesExcludes, maskedFields);
+        final FixedBitSet cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final FixedBitSet bits = compute(reader, dlsQuery);
+        put(coreCacheHelper, key, bits);
+        return bits;
+    }
+
+    /**
+     * Like {@link #getBitSet}, but when the bitset is not cached yet the documents are matched one at a time
+     * against {@code dlsQuery} instead of scoring the whole segment. Meant for lookups of single documents.
+     */
+    Bits getDocBits(
+        final LeafReader reader,
+        final LeafReader in,
+        final Query dlsQuery,
+        final Set<String> includesExcludes,
+        final Set<String> maskedFields
+    ) {
+        final IndexReader.CacheHelper coreCacheHelper = in.getCoreCacheHelper();
+        if (coreCacheHelper != null && maxWeight > 0) {
+            final FixedBitSet cached = get(new Key(coreCacheHelper.getKey(), dlsQuery, includesExcludes, maskedFields));
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return new QueryBits(reader, dlsQuery);
+    }
+
+    /**
+     * Returns a cache helper for a DLS filtered view of {@code in}. Its key is unique per reader and DLS
+     * restriction, so caches which depend on the visible documents of a reader do not mix up users with
+     * different DLS queries. Returns {@code null}, which disables such caches, if {@code in} has no cache helper.
+     */
+    IndexReader.CacheHelper getReaderCacheHelper(
+        final LeafReader in,
+        final Query dlsQuery,
+        final Set<String> includesExcludes,
+        final Set<String> maskedFields
+    ) {
+        final IndexReader.CacheHelper readerCacheHelper = in.getReaderCacheHelper();
+        if (readerCacheHelper == null) {
+            return null;
+        }
+
+        final IndexReader.CacheKey readerKey = readerCacheHelper.getKey();
+        final Key key = new Key(readerKey, dlsQuery, includesExcludes, maskedFields);
+        final Map<Key, IndexReader.CacheHelper> helpers = cacheHelpersByReader.computeIfAbsent(readerKey, k -> {
+            readerCacheHelper.addClosedListener(this::onReaderClosed);
+            return new ConcurrentHashMap<>();
+        });
+        final IndexReader.CacheHelper derived = helpers.get(key);
+        if (derived != null) {
+            return derived;
+        }
+        return helpers.computeIfAbsent(key, k -> DlsFlsFilterLeafReader.DlsFlsDirectoryReader.derivedCacheHelper(readerCacheHelper));
+    }
+
+    /**
+     * Returns the value cached under {@code key}, or {@code null}. The value must be of the type which is
+     * cached under keys of the class of {@code key}.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends Accountable> T get(final SegmentKey key) {
+        return (T) cache.getIfPresent(key);
+    }
+
+    /**
+     * Caches {@code value} until the segment of {@code coreCacheHelper} is closed, unless caching it would
+     * trip the circuit breaker. The core key of {@code key} must be the key of {@code coreCacheHelper}.
+     */
+    void put(final IndexReader.CacheHelper coreCacheHelper, final SegmentKey key, final Accountable value) {
+        if (maxWeight <= 0) {
+            return;
+        }
+
+        final Set<SegmentKey> coreKeys = keysByCore.computeIfAbsent(key.coreKey, coreKey -> {
+            coreCacheHelper.addClosedListener(this::onCoreClosed);
+            return ConcurrentHashMap.newKeySet();
+        });
+        try {
+            breaker.addEstimateBytesAndMaybeBreak(weight(value), BREAKER_NAME);
+        } catch (CircuitBreakingException e) {
+            log.debug("Not caching {} of {} bytes for {}", value.getClass().getSimpleName(), weight(value), key, e);
+            return;
+        }
+        coreKeys.add(key);
+        cache.put(key, value);
+        if (keysByCore.get(key.coreKey) != coreKeys) {
+            // the segment was closed while the value was computed
+            cache.invalidate(key);
+        }
+    }
+
+    long count() {
+        return cache.size();
+    }
+
+    private void onCoreClosed(final IndexReader.CacheKey coreKey) {
+        final Set<SegmentKey> keys = keysByCore.remove(coreKey);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    private void onReaderClosed(final IndexReader.CacheKey readerKey) {
+        cacheHelpersByReader.remove(readerKey);
+    }
+
+    private void onRemoval(final RemovalNotification<SegmentKey, Accountable> notification) {
+        final SegmentKey key = notification.getKey();
+        final Set<SegmentKey> keys = notification.getCause() == RemovalCause.REPLACED ? null : keysByCore.get(key.coreKey);
+        if (keys != null) {
+            keys.remove(key);
+        }
+        if (notification.getValue() != null) {
+            breaker.addWithoutBreaking(-weight(notification.getValue()));
+        }
+    }
+
+    private static int weight(final Accountable value) {
+        return (int) Math.min(Integer.MAX_VALUE, value.ramBytesUsed());
+    }
+
+    private static Weight createWeight(final LeafReader reader, final Query dlsQuery) throws IOException {
+        final IndexSearcher searcher = new IndexSearcher(reader);
+        searcher.setQueryCache(null);
+        return searcher.rewrite(dlsQuery).createWeight(searcher, ScoreMode.COMPLETE_NO_SCORES, 1f);
+    }
+
+    private static FixedBitSet compute(final LeafReader reader, final Query dlsQuery) throws IOException {
+        // borrowed from Apache Lucene (Copyright Apache Software Foundation (ASF))
+        // https://github.com/apache/lucene-solr/blob/branch_6_3/lucene/misc/src/java/org/apache/lucene/index/PKIndexSplitter.java
+        final Weight preserveWeight = createWeight(reader, dlsQuery);
+
+        final FixedBitSet bits = new FixedBitSet(reader.maxDoc());
+        final Scorer preserveScorer = preserveWeight.scorer(reader.getContext());
+
+        if (preserveScorer != null) {
+            bits.or(preserveScorer.iterator());
+        }
+        return bits;
+    }
+
+    /**
+     * Live docs of a DLS restricted segment which has deletions.
+     */
+    static final class LiveDocs implements Bits {
+        private final Bits dlsBits;
+        private final Bits liveDocs;
+
+        LiveDocs(final Bits dlsBits, final Bits liveDocs) {
+            this.dlsBits = dlsBits;
+            this.liveDocs = liveDocs;
+        }
+
+        @Override
+        public boolean get(final int index) {
+            return dlsBits.get(index) && liveDocs.get(index);
+        }
+
+        @Override
+        public int length() {
+            return dlsBits.length();
+        }
+    }
+
+    /**
+     * Matches single documents against a DLS query. The iterator is reused as long as documents are
+     * requested in increasing order, which is the case for the ids of a multi get.
+     */
+    static final class QueryBits implements Bits {
+        private final LeafReader reader;
+        private final Query dlsQuery;
+        private Weight weight;
+        private DocIdSetIterator iterator;
+
+        QueryBits(final LeafReader reader, final Query dlsQuery) {
+            this.reader = reader;
+            this.dlsQuery = dlsQuery;
+        }
+
+        @Override
+        public synchronized boolean get(final int index) {
+            try {
+                if (weight == null) {
+                    weight = createWeight(reader, dlsQuery);
+                }
+                if (iterator == null || iterator.docID() > index) {
+                    final Scorer scorer = weight.scorer(reader.getContext());
+                    iterator = scorer == null ? DocIdSetIterator.empty() : scorer.iterator();
+                }
+                final int doc = iterator.docID() < index ? iterator.advance(index) : iterator.docID();
+                return doc == index;
+            } catch (IOException e) {
+                throw ExceptionsHelper.convertToOpenSearchException(e);
+            }
+        }
+
+        @Override
+        public int length() {
+            return reader.maxDoc();
+        }
+    }
+
+    /**
+     * Key of a value derived from a segment. Subclasses add what else the value depends on; keys of different
+     * classes never match.
+     */
+    abstract static class SegmentKey {
+        final IndexReader.CacheKey coreKey;
+
+        SegmentKey(final IndexReader.CacheKey coreKey) {
+            this.coreKey = coreKey;
+        }
+    }
+
+    private static final class Key extends SegmentKey {
+        private final Query dlsQuery;
+        private final Set<String> includesExcludes;
+        private final Set<String> maskedFields;
+        private final int hashCode;
+
+        private Key(
+            final IndexReader.CacheKey coreKey,
+            final Query dlsQuery,
+            final Set<String> includesExcludes,
+            final Set<String> maskedFields
+        ) {
+            super(coreKey);
+            this.dlsQuery = dlsQuery;
+            this.includesExcludes = includesExcludes;
+            this.maskedFields = maskedFields;
+            this.hashCode = Objects.hash(coreKey, dlsQuery, includesExcludes, maskedFields);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return coreKey == other.coreKey
+                && Objects.equals(dlsQuery, other.dlsQuery)
+                && Objects.equals(includesExcludes, other.includesExcludes)
+                && Objects.equals(maskedFields, other.maskedFields);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -15,6 +15,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,6 +38,8 @@ import org.opensearch.action.search.MultiSearchRequest;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.action.search.SearchScrollAction;
+import org.opensearch.action.support.ContextPreservingActionListener;
+import org.opensearch.action.support.GroupedActionListener;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.metadata.IndexMetadata;
 import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
@@ -50,6 +54,8 @@ import org.opensearch.index.mapper.MapperService;
 import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.query.QueryRewriteContext;
+import org.opensearch.index.query.Rewriteable;
 import org.opensearch.index.query.TermsQueryBuilder;
 import org.opensearch.index.seqno.SequenceNumbers;
 import org.opensearch.indices.IndicesService;
@@ -84,6 +90,7 @@ public class DlsFilterLevelActionHandler {
         IndicesService indicesService,
         IndexNameExpressionResolver resolver,
         DlsQueryParser dlsQueryParser,
+        TermsLookupCache termsLookupCache,
         ThreadContext threadContext
     ) {
 
@@ -122,6 +129,7 @@ public class DlsFilterLevelActionHandler {
             indicesService,
             resolver,
             dlsQueryParser,
+            termsLookupCache,
             threadContext
         ).handle();
     }
@@ -134,6 +142,7 @@ public class DlsFilterLevelActionHandler {
     private final boolean requiresIndexScoping;
     private final Client nodeClient;
     private final DlsQueryParser dlsQueryParser;
+    private final TermsLookupCache termsLookupCache;
     private final ClusterService clusterService;
     private final IndicesService indicesService;
     private final ThreadContext threadContext;
@@ -152,6 +161,7 @@ public class DlsFilterLevelActionHandler {
         IndicesService indicesService,
         IndexNameExpressionResolver resolver,
         DlsQueryParser dlsQueryParser,
+        TermsLookupCache termsLookupCache,
         ThreadContext threadContext
     ) {
         this.action = action;
@@ -163,6 +173,7 @@ public class DlsFilterLevelActionHandler {
         this.clusterService = clusterService;
         this.indicesService = indicesService;
         this.dlsQueryParser = dlsQueryParser;
+        this.termsLookupCache = termsLookupCache;
         this.threadContext = threadContext;
         this.resolver = resolver;
 
@@ -231,32 +242,38 @@ public class DlsFilterLevelActionHandler {
             }
         }
 
-        if (searchRequest.source().query() != null) {
-            filterLevelQueryBuilder.must(searchRequest.source().query());
-        }
+        resolveTermsLookups(ActionListener.wrap(dlsQuery -> {
+            BoolQueryBuilder query = dlsQuery instanceof BoolQueryBuilder
+                ? (BoolQueryBuilder) dlsQuery
+                : QueryBuilders.boolQuery().must(dlsQuery);
 
-        searchRequest.source().query(filterLevelQueryBuilder);
+            if (searchRequest.source().query() != null) {
+                query.must(searchRequest.source().query());
+            }
 
-        nodeClient.search(searchRequest, new ActionListener<SearchResponse>() {
-            @Override
-            public void onResponse(SearchResponse response) {
-                try {
-                    ctx.restore();
+            searchRequest.source().query(query);
 
-                    @SuppressWarnings("unchecked")
-                    ActionListener<SearchResponse> searchListener = (ActionListener<SearchResponse>) listener;
+            nodeClient.search(searchRequest, new ActionListener<SearchResponse>() {
+                @Override
+                public void onResponse(SearchResponse response) {
+                    try {
+                        ctx.restore();
 
-                    searchListener.onResponse(response);
-                } catch (Exception e) {
-                    listener.onFailure(e);
+                        @SuppressWarnings("unchecked")
+                        ActionListener<SearchResponse> searchListener = (ActionListener<SearchResponse>) listener;
+
+                        searchListener.onResponse(response);
+                    } catch (Exception e) {
+                        listener.onFailure(e);
+                    }
                 }
-            }
 
-            @Override
-            public void onFailure(Exception e) {
-                listener.onFailure(e);
-            }
-        });
+                @Override
+                public void onFailure(Exception e) {
+                    listener.onFailure(e);
+                }
+            });
+        }, listener::onFailure));
 
         return false;
     }
@@ -267,55 +284,42 @@ public class DlsFilterLevelActionHandler {
         }
 
         SearchRequest searchRequest = new SearchRequest(getRequest.indices());
-        BoolQueryBuilder query = QueryBuilders.boolQuery()
-            .must(QueryBuilders.idsQuery().addIds(getRequest.id()))
-            .must(filterLevelQueryBuilder);
-        searchRequest.source(SearchSourceBuilder.searchSource().query(query));
 
-        nodeClient.search(searchRequest, new ActionListener<SearchResponse>() {
-            @Override
-            public void onResponse(SearchResponse response) {
-                try {
+        resolveTermsLookups(ActionListener.wrap(dlsQuery -> {
+            BoolQueryBuilder query = QueryBuilders.boolQuery().must(QueryBuilders.idsQuery().addIds(getRequest.id())).must(dlsQuery);
+            searchRequest.source(SearchSourceBuilder.searchSource().query(query));
 
-                    ctx.restore();
-
-                    long hits = response.getHits().getTotalHits().value;
-
-                    @SuppressWarnings("unchecked")
-                    ActionListener<GetResponse> getListener = (ActionListener<GetResponse>) listener;
-                    if (hits == 1) {
-                        getListener.onResponse(new GetResponse(searchHitToGetResult(response.getHits().getAt(0))));
-                    } else if (hits == 0) {
-                        getListener.onResponse(
-                            new GetResponse(
-                                new GetResult(
-                                    searchRequest.indices()[0],
-                                    getRequest.id(),
-                                    SequenceNumbers.UNASSIGNED_SEQ_NO,
-                                    SequenceNumbers.UNASSIGNED_PRIMARY_TERM,
-                                    -1,
-                                    false,
-                                    null,
-                                    null,
-                                    null
-                                )
-                            )
-                        );
-                    } else {
-                        log.error("Unexpected hit count " + hits + " in " + response);
-                        listener.onFailure(new OpenSearchSecurityException("Internal error when performing DLS"));
+            nodeClient.search(searchRequest, new ActionListener<SearchResponse>() {
+                @Override
+                public void onResponse(SearchResponse response) {
+                    try {
+
+                        ctx.restore();
+
+                        long hits = response.getHits().getTotalHits().value;
+
+                        @SuppressWarnings("unchecked")
+                        ActionListener<GetResponse> getListener = (ActionListener<GetResponse>) listener;
+                        if (hits == 1) {
+                            getListener.onResponse(new GetResponse(searchHitToGetResult(response.getHits().getAt(0))));
+                        } else if (hits == 0) {
+                            getListener.onResponse(new GetResponse(notFound(searchRequest.indices()[0], getRequest.id())));
+                        } else {
+                            log.error("Unexpected hit count " + hits + " in " + response);
+                            listener.onFailure(new OpenSearchSecurityException("Internal error when performing DLS"));
+                        }
+
+                    } catch (Exception e) {
+                        listener.onFailure(e);
                     }
+                }
 
-                } catch (Exception e) {
+                @Override
+                public void onFailure(Exception e) {
                     listener.onFailure(e);
                 }
-            }
-
-            @Override
-            public void onFailure(Exception e) {
-                listener.onFailure(e);
-            }
-        });
+            });
+        }, listener::onFailure));
 
         return false;
 
@@ -328,64 +332,136 @@ public class DlsFilterLevelActionHandler {
 
         Map<String, Set<String>> idsGroupedByIndex = multiGetRequest.getItems()
             .stream()
-            .collect(Collectors.groupingBy((item) -> item.index(), Collectors.mapping((item) -> item.id(), Collectors.toSet())));
-        Set<String> indices = idsGroupedByIndex.keySet();
-        SearchRequest searchRequest = new SearchRequest(indices.toArray(new String[indices.size()]));
-
-        BoolQueryBuilder query;
-
-        if (indices.size() == 1) {
-            Set<String> ids = idsGroupedByIndex.get(indices.iterator().next());
-            query = QueryBuilders.boolQuery()
-                .must(QueryBuilders.idsQuery().addIds(ids.toArray(new String[ids.size()])))
-                .must(filterLevelQueryBuilder);
-        } else {
-            BoolQueryBuilder mgetQuery = QueryBuilders.boolQuery().minimumShouldMatch(1);
+            .collect(
+                Collectors.groupingBy(
+                    (item) -> item.index(),
+                    LinkedHashMap::new,
+                    Collectors.mapping((item) -> item.id(), Collectors.toCollection(LinkedHashSet::new))
+                )
+            );
+
+        resolveTermsLookups(ActionListener.wrap(dlsQuery -> {
+            // One search per index, executed in parallel. A failing index only fails the items of that index.
+            GroupedActionListener<Map<String, MultiGetItemResponse>> groupListener = new GroupedActionListener<>(
+                ActionListener.wrap(itemsByIndex -> {
+                    try {
+                        ctx.restore();
+
+                        Map<String, MultiGetItemResponse> items = new HashMap<>();
+                        for (Map<String, MultiGetItemResponse> indexItems : itemsByIndex) {
+                            items.putAll(indexItems);
+                        }
+
+                        List<MultiGetItemResponse> itemResponses = new ArrayList<>(multiGetRequest.getItems().size());
+                        for (MultiGetRequest.Item item : multiGetRequest.getItems()) {
+                            MultiGetItemResponse itemResponse = items.get(itemKey(item.index(), item.id()));
+                            itemResponses.add(
+                                itemResponse != null
+                                    ? itemResponse
+                                    : new MultiGetItemResponse(new GetResponse(notFound(item.index(), item.id())), null)
+                            );
+                        }
+
+                        @SuppressWarnings("unchecked")
+                        ActionListener<MultiGetResponse> multiGetListener = (ActionListener<MultiGetResponse>) listener;
+                        multiGetListener.onResponse(
+                            new MultiGetResponse(itemResponses.toArray(new MultiGetItemResponse[itemResponses.size()]))
+                        );
+                    } catch (Exception e) {
+                        listener.onFailure(e);
+                    }
+                }, listener::onFailure),
+                idsGroupedByIndex.size()
+            );
 
             for (Map.Entry<String, Set<String>> entry : idsGroupedByIndex.entrySet()) {
-                BoolQueryBuilder indexQuery = QueryBuilders.boolQuery()
-                    .must(QueryBuilders.termQuery("_index", entry.getKey()))
-                    .must(QueryBuilders.idsQuery().addIds(entry.getValue().toArray(new String[entry.getValue().size()])));
-
-                mgetQuery.should(indexQuery);
+                search(entry.getKey(), entry.getValue(), dlsQuery, groupListener);
             }
+        }, listener::onFailure));
 
-            query = QueryBuilders.boolQuery().must(mgetQuery).must(filterLevelQueryBuilder);
-        }
+        return false;
 
-        searchRequest.source(SearchSourceBuilder.searchSource().query(query));
+    }
+
+    private void search(String index, Set<String> ids, QueryBuilder dlsQuery, ActionListener<Map<String, MultiGetItemResponse>> listener) {
+        SearchRequest searchRequest = new SearchRequest(index);
+        BoolQueryBuilder query = QueryBuilders.boolQuery()
+            .must(QueryBuilders.idsQuery().addIds(ids.toArray(new String[ids.size()])))
+            .must(dlsQuery);
+        searchRequest.source(SearchSourceBuilder.searchSource().query(query).size(ids.size()));
 
         nodeClient.search(searchRequest, new ActionListener<SearchResponse>() {
             @Override
             public void onResponse(SearchResponse response) {
-                try {
-
-                    ctx.restore();
-
-                    List<MultiGetItemResponse> itemResponses = new ArrayList<>(response.getHits().getHits().length);
+                Map<String, MultiGetItemResponse> items = new HashMap<>();
 
+                try {
                     for (SearchHit hit : response.getHits().getHits()) {
-                        itemResponses.add(new MultiGetItemResponse(new GetResponse(searchHitToGetResult(hit)), null));
+                        // hits carry the concrete index, while mget items may refer to an alias
+                        items.put(itemKey(index, hit.getId()), new MultiGetItemResponse(new GetResponse(searchHitToGetResult(hit)), null));
                     }
-
-                    @SuppressWarnings("unchecked")
-                    ActionListener<MultiGetResponse> multiGetListener = (ActionListener<MultiGetResponse>) listener;
-                    multiGetListener.onResponse(
-                        new MultiGetResponse(itemResponses.toArray(new MultiGetItemResponse[itemResponses.size()]))
-                    );
                 } catch (Exception e) {
-                    listener.onFailure(e);
+                    onFailure(e);
+                    return;
                 }
+
+                listener.onResponse(items);
             }
 
             @Override
             public void onFailure(Exception e) {
-                listener.onFailure(e);
+                Map<String, MultiGetItemResponse> items = new HashMap<>();
+
+                for (String id : ids) {
+                    items.put(itemKey(index, id), new MultiGetItemResponse(null, new MultiGetResponse.Failure(index, id, e)));
+                }
+
+                listener.onResponse(items);
             }
         });
+    }
 
-        return false;
+    private static String itemKey(String index, String id) {
+        return index + "/" + id;
+    }
 
+    private static GetResult notFound(String index, String id) {
+        return new GetResult(
+            index,
+            id,
+            SequenceNumbers.UNASSIGNED_SEQ_NO,
+            SequenceNumbers.UNASSIGNED_PRIMARY_TERM,
+            -1,
+            false,
+            null,
+            null,
+            null
+        );
+    }
+
+    /**
+     * Resolves the terms lookup queries of the DLS query with the lookup documents from the terms lookup cache.
+     * Without a cache, the lookups are left to the search itself.
+     */
+    private void resolveTermsLookups(ActionListener<QueryBuilder> listener) {
+        if (documentAllowlist == null || documentAllowlist.isEmpty() || termsLookupCache == null || !termsLookupCache.isEnabled()) {
+            listener.onResponse(filterLevelQueryBuilder);
+            return;
+        }
+
+        QueryRewriteContext indicesRewriteContext = indicesService.getRewriteContext(System::currentTimeMillis);
+        QueryRewriteContext rewriteContext = new QueryRewriteContext(
+            indicesRewriteContext.getXContentRegistry(),
+            indicesRewriteContext.getWriteableRegistry(),
+            termsLookupCache.wrap(nodeClient),
+            System::currentTimeMillis
+        );
+
+        Rewriteable.rewriteAndFetch(
+            filterLevelQueryBuilder,
+            rewriteContext,
+            ContextPreservingActionListener.wrapPreservingContext(listener, threadContext)
+        );
     }
 
     private boolean handle(ClusterSearchShardsRequest request, StoredContext ctx) {
@@ -20,14 +20,11 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 
-import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterators;
 import org.apache.lucene.codecs.StoredFieldsReader;
@@ -37,67 +34,43 @@ import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.FieldInfos;
 import org.apache.lucene.index.Fields;
 import org.apache.lucene.index.FilterDirectoryReader;
-import org.apache.lucene.index.ImpactsEnum;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.index.PointValues;
-import org.apache.lucene.index.PostingsEnum;
 import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.index.StoredFieldVisitor;
 import org.apache.lucene.index.StoredFields;
-import org.apache.lucene.index.TermState;
 import org.apache.lucene.index.Terms;
 import org.apache.lucene.index.TermsEnum;
-import org.apache.lucene.search.DocIdSetIterator;
-import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
-import org.apache.lucene.search.ScoreMode;
-import org.apache.lucene.search.Scorer;
-import org.apache.lucene.search.Weight;
-import org.apache.lucene.util.AttributeSource;
-import org.apache.lucene.util.BitSetIterator;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
-import org.apache.lucene.util.FixedBitSet;
-import org.apache.lucene.util.automaton.CompiledAutomaton;
 
 import org.opensearch.ExceptionsHelper;
 import org.opensearch.cluster.service.ClusterService;
-import org.opensearch.common.collect.Tuple;
 import org.opensearch.common.lucene.index.SequentialStoredFieldsLeafReader;
 import org.opensearch.common.util.concurrent.ThreadContext;
-import org.opensearch.common.xcontent.XContentHelper;
-import org.opensearch.common.xcontent.XContentType;
-import org.opensearch.common.xcontent.support.XContentMapValues;
-import org.opensearch.core.common.bytes.BytesArray;
-import org.opensearch.core.common.bytes.BytesReference;
 import org.opensearch.core.index.shard.ShardId;
-import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.index.IndexService;
 import org.opensearch.security.auditlog.AuditLog;
 import org.opensearch.security.compliance.ComplianceConfig;
 import org.opensearch.security.compliance.FieldReadCallback;
-import org.opensearch.security.dlic.rest.support.Utils;
 import org.opensearch.security.support.ConfigConstants;
 import org.opensearch.security.support.HeaderHelper;
-import org.opensearch.security.support.MapUtils;
 import org.opensearch.security.support.SecurityUtils;
 import org.opensearch.security.support.WildcardMatcher;
 
 class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
 
     private static final String KEYWORD = ".keyword";
-    private static final String[] EMPTY_STRING_ARRAY = new String[0];
     private final Set<String> includesSet;
     private final Set<String> excludesSet;
-    private final FieldInfos flsFieldInfos;
+    private final FlsFieldFilter flsFieldFilter;
     private final boolean flsEnabled;
-    private String[] includes;
-    private String[] excludes;
     private boolean canOptimize = true;
-    private Function<Map<String, ?>, Map<String, Object>> filterFunction;
+    private final SourceRewriter sourceRewriter;
     private final IndexService indexService;
     private final ThreadContext threadContext;
     private final ClusterService clusterService;
@@ -106,6 +79,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
     private final ShardId shardId;
     private final boolean maskFields;
     private final Salt salt;
+    private final DlsBitsetCache dlsBitsetCache;
 
     private DlsGetEvaluator dge = null;
 
@@ -119,7 +93,8 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         final AuditLog auditlog,
         final Set<String> maskedFields,
         final ShardId shardId,
-        final Salt salt
+        final Salt salt,
+        final DlsBitsetCache dlsBitsetCache
     ) {
         super(delegate);
 
@@ -130,14 +105,15 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         this.clusterService = clusterService;
         this.auditlog = auditlog;
         this.salt = salt;
+        this.dlsBitsetCache = dlsBitsetCache;
         this.maskedFieldsMap = MaskedFieldsMap.extractMaskedFields(maskFields, maskedFields, salt);
 
         this.shardId = shardId;
         flsEnabled = includesExcludes != null && !includesExcludes.isEmpty();
+        SourceRewriter sourceRewriter = SourceRewriter.unfiltered();
 
         if (flsEnabled) {
 
-            final FieldInfos infos = delegate.getFieldInfos();
             this.includesSet = new HashSet<>(includesExcludes.size());
             this.excludesSet = new HashSet<>(includesExcludes.size());
 
@@ -156,110 +132,65 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
                 }
             }
 
-            int i = 0;
-            final FieldInfo[] fa = new FieldInfo[infos.size()];
+            this.flsFieldFilter = FlsFieldFilter.of(dlsBitsetCache, delegate, includesExcludes, includesSet, excludesSet, canOptimize);
 
-            if (canOptimize) {
-                if (!excludesSet.isEmpty()) {
-                    for (final FieldInfo info : infos) {
-                        if (!excludesSet.contains(info.name)) {
-                            fa[i++] = info;
-                        }
-                    }
-                } else {
-                    for (final String inc : includesSet) {
-                        FieldInfo f;
-                        if ((f = infos.fieldInfo(inc)) != null) {
-                            fa[i++] = f;
-                        }
-                    }
-                }
-            } else {
-                if (!excludesSet.isEmpty()) {
-                    WildcardMatcher matcher = WildcardMatcher.from(excludesSet);
-                    for (final FieldInfo info : infos) {
-                        if (!matcher.test(info.name)) {
-                            fa[i++] = info;
-                        }
-                    }
-
-                    this.excludes = excludesSet.toArray(EMPTY_STRING_ARRAY);
-
-                } else {
-                    WildcardMatcher matcher = WildcardMatcher.from(includesSet);
-                    for (final FieldInfo info : infos) {
-                        if (matcher.test(info.name)) {
-                            fa[i++] = info;
-                        }
-                    }
-
-                    this.includes = includesSet.toArray(EMPTY_STRING_ARRAY);
-                }
-
-                if (!excludesSet.isEmpty()) {
-                    filterFunction = XContentMapValues.filter(null, excludes);
-                } else {
-                    filterFunction = XContentMapValues.filter(includes, null);
-                }
-            }
-
-            final FieldInfo[] tmp = new FieldInfo[i];
-            System.arraycopy(fa, 0, tmp, 0, i);
-            this.flsFieldInfos = new FieldInfos(tmp);
+            sourceRewriter = canOptimize
+                ? SourceRewriter.topLevel(includesSet, excludesSet)
+                : SourceRewriter.wildcard(includesSet, excludesSet);
 
         } else {
             this.includesSet = null;
             this.excludesSet = null;
-            this.flsFieldInfos = null;
+            this.flsFieldFilter = null;
         }
 
-        try {
-            dge = new DlsGetEvaluator(dlsQuery, in, applyDlsHere());
-        } catch (IOException e) {
-            throw ExceptionsHelper.convertToOpenSearchException(e);
-        }
+        // masking is applied in the same pass as field level security
+        this.sourceRewriter = maskFields
+            ? sourceRewriter.withMaskedFields(field -> maskedFieldsMap.getMaskedField(field).orElse(null))
+            : sourceRewriter;
+
+        dge = new DlsGetEvaluator(dlsQuery, in, applyDlsHere(), dlsBitsetCache, includesExcludes, maskedFields);
     }
 
     private class DlsGetEvaluator {
-        private final Bits liveBits;
+        private final Query dlsQuery;
+        private final LeafReader in;
+        private final DlsBitsetCache dlsBitsetCache;
+        private final Set<String> includesExcludes;
+        private final Set<String> maskedFields;
+        private final boolean docLevel;
+        private volatile Bits liveBits;
         private final int numDocs;
         private final CacheHelper readerCacheHelper;
         private final boolean hasDeletions;
 
-        public DlsGetEvaluator(final Query dlsQuery, final LeafReader in, boolean applyDlsHere) throws IOException {
-            if (dlsQuery != null && applyDlsHere) {
-                // borrowed from Apache Lucene (Copyright Apache Software Foundation (ASF))
-                // https://github.com/apache/lucene-solr/blob/branch_6_3/lucene/misc/src/java/org/apache/lucene/index/PKIndexSplitter.java
-                final IndexSearcher searcher = new IndexSearcher(DlsFlsFilterLeafReader.this);
-                searcher.setQueryCache(null);
-                final Weight preserveWeight = searcher.rewrite(dlsQuery).createWeight(searcher, ScoreMode.COMPLETE_NO_SCORES, 1f);
-
-                final int maxDoc = in.maxDoc();
-                final FixedBitSet bits = new FixedBitSet(maxDoc);
-                final Scorer preserveScorer = preserveWeight.scorer(DlsFlsFilterLeafReader.this.getContext());
-
-                if (preserveScorer != null) {
-                    bits.or(preserveScorer.iterator());
-                }
-
-                if (in.hasDeletions()) {
-                    final Bits oldLiveDocs = in.getLiveDocs();
-                    assert oldLiveDocs != null;
-                    final DocIdSetIterator it = new BitSetIterator(bits, 0L);
-                    for (int i = it.nextDoc(); i != DocIdSetIterator.NO_MORE_DOCS; i = it.nextDoc()) {
-                        if (!oldLiveDocs.get(i)) {
-                            bits.clear(i);
-                        }
-                    }
-                }
+        public DlsGetEvaluator(
+            final Query dlsQuery,
+            final LeafReader in,
+            boolean applyDlsHere,
+            final DlsBitsetCache dlsBitsetCache,
+            final Set<String> includesExcludes,
+            final Set<String> maskedFields
+        ) {
+            this.in = in;
+            this.dlsBitsetCache = dlsBitsetCache;
+            this.includesExcludes = includesExcludes;
+            this.maskedFields = maskedFields;
 
-                liveBits = bits;
+            if (dlsQuery != null && applyDlsHere) {
+                // the dls live docs are evaluated when they are first needed, so segments which
+                // are never visited do not pay for the dls query
+                this.dlsQuery = dlsQuery;
+                docLevel = isGet();
+                liveBits = null;
                 numDocs = in.numDocs();
-                readerCacheHelper = null;
+                readerCacheHelper = dlsBitsetCache.getReaderCacheHelper(in, dlsQuery, includesExcludes, maskedFields);
                 hasDeletions = true;
 
             } else {
                 // no dls or handled in a different place
+                this.dlsQuery = null;
+                docLevel = false;
                 liveBits = in.getLiveDocs();
                 numDocs = in.numDocs();
                 readerCacheHelper = in.getReaderCacheHelper();
@@ -267,9 +198,38 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             }
         }
 
+        private Bits evaluateDls() {
+            try {
+                // gets only look at single documents, so they are checked one by one unless the
+                // segment's bitset is already known
+                final Bits bits = docLevel
+                    ? dlsBitsetCache.getDocBits(DlsFlsFilterLeafReader.this, in, dlsQuery, includesExcludes, maskedFields)
+                    : dlsBitsetCache.getBitSet(DlsFlsFilterLeafReader.this, in, dlsQuery, includesExcludes, maskedFields);
+
+                if (in.hasDeletions()) {
+                    final Bits oldLiveDocs = in.getLiveDocs();
+                    assert oldLiveDocs != null;
+                    // the cached bitset is shared, so deletions are applied on access
+                    return new DlsBitsetCache.LiveDocs(bits, oldLiveDocs);
+                }
+                return bits;
+            } catch (IOException e) {
+                throw ExceptionsHelper.convertToOpenSearchException(e);
+            }
+        }
+
         // return null means no hidden docs
         public Bits getLiveDocs() {
-            return liveBits;
+            Bits bits = liveBits;
+            if (bits == null && dlsQuery != null) {
+                synchronized (this) {
+                    bits = liveBits;
+                    if (bits == null) {
+                        liveBits = bits = evaluateDls();
+                    }
+                }
+            }
+            return bits;
         }
 
         public int numDocs() {
@@ -329,6 +289,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         private final Set<String> maskedFields;
         private final ShardId shardId;
         private final Salt salt;
+        private final DlsBitsetCache dlsBitsetCache;
 
         public DlsFlsSubReaderWrapper(
             final Set<String> includes,
@@ -339,7 +300,8 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             final AuditLog auditlog,
             final Set<String> maskedFields,
             ShardId shardId,
-            final Salt salt
+            final Salt salt,
+            final DlsBitsetCache dlsBitsetCache
         ) {
             this.includes = includes;
             this.dlsQuery = dlsQuery;
@@ -350,6 +312,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             this.maskedFields = maskedFields;
             this.shardId = shardId;
             this.salt = salt;
+            this.dlsBitsetCache = dlsBitsetCache;
         }
 
         @Override
@@ -364,7 +327,8 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
                 auditlog,
                 maskedFields,
                 shardId,
-                salt
+                salt,
+                dlsBitsetCache
             );
         }
 
@@ -381,6 +345,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         private final Set<String> maskedFields;
         private final ShardId shardId;
         private final Salt salt;
+        private final DlsBitsetCache dlsBitsetCache;
 
         public DlsFlsDirectoryReader(
             final DirectoryReader in,
@@ -392,7 +357,8 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             final AuditLog auditlog,
             final Set<String> maskedFields,
             ShardId shardId,
-            final Salt salt
+            final Salt salt,
+            final DlsBitsetCache dlsBitsetCache
         ) throws IOException {
             super(
                 in,
@@ -405,7 +371,8 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
                     auditlog,
                     maskedFields,
                     shardId,
-                    salt
+                    salt,
+                    dlsBitsetCache
                 )
             );
             this.includes = includes;
@@ -417,6 +384,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             this.maskedFields = maskedFields;
             this.shardId = shardId;
             this.salt = salt;
+            this.dlsBitsetCache = dlsBitsetCache;
         }
 
         @Override
@@ -431,10 +399,21 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
                 auditlog,
                 maskedFields,
                 shardId,
-                salt
+                salt,
+                dlsBitsetCache
             );
         }
 
+        /**
+         * Returns a cache helper with a key of its own which notifies its close listeners, with that key, when the
+         * reader of {@code in} is closed. Lucene does not allow to create cache keys outside of its own helpers.
+         */
+        static CacheHelper derivedCacheHelper(final CacheHelper in) {
+            return new DelegatingCacheHelper(in);
+        }
+
+        // OpenSearch requires the key of the wrapped reader and notifies caches with it when the reader is closed,
+        // so caches keyed by the top level reader, like global ordinals, are shared with unrestricted users
         @Override
         public CacheHelper getReaderCacheHelper() {
             return in.getReaderCacheHelper();
@@ -502,21 +481,15 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         if (complianceConfig != null && complianceConfig.readHistoryEnabledForIndex(indexService.index().getName())) {
             visitor = new ComplianceAwareStoredFieldVisitor(visitor);
         }
-        if (maskFields) {
-            visitor = new HashingStoredFieldVisitor(visitor);
-        }
-        if (flsEnabled) {
-            visitor = new FlsStoredFieldVisitor(visitor);
+        if (flsEnabled || maskFields) {
+            visitor = new FlsMaskingStoredFieldVisitor(visitor);
         }
         return visitor;
     }
 
     private void finishVisitor(StoredFieldVisitor visitor) {
-        if (visitor instanceof FlsStoredFieldVisitor) {
-            visitor = ((FlsStoredFieldVisitor) visitor).delegate;
-        }
-        if (visitor instanceof HashingStoredFieldVisitor) {
-            visitor = ((HashingStoredFieldVisitor) visitor).delegate;
+        if (visitor instanceof FlsMaskingStoredFieldVisitor) {
+            visitor = ((FlsMaskingStoredFieldVisitor) visitor).delegate;
         }
         if (visitor instanceof ComplianceAwareStoredFieldVisitor) {
             ((ComplianceAwareStoredFieldVisitor) visitor).finished();
@@ -543,7 +516,16 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             return true;
         }
 
-        return flsFieldInfos.fieldInfo(name) != null;
+        return flsFieldFilter.isAllowed(name);
+    }
+
+    private boolean isFls(final FieldInfo fieldInfo) {
+
+        if (!flsEnabled) {
+            return true;
+        }
+
+        return flsFieldFilter.isAllowed(fieldInfo);
     }
 
     @Override
@@ -553,7 +535,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             return in.getFieldInfos();
         }
 
-        return flsFieldInfos;
+        return flsFieldFilter.getFieldInfos();
     }
 
     private class ComplianceAwareStoredFieldVisitor extends StoredFieldVisitor {
@@ -630,83 +612,11 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
 
     }
 
-    private class FlsStoredFieldVisitor extends StoredFieldVisitor {
-
-        private final StoredFieldVisitor delegate;
-
-        public FlsStoredFieldVisitor(final StoredFieldVisitor delegate) {
-            super();
-            this.delegate = delegate;
-        }
-
-        @Override
-        public void binaryField(final FieldInfo fieldInfo, final byte[] value) throws IOException {
-
-            if (fieldInfo.name.equals("_source")) {
-                Map<String, Object> filteredSource = Utils.byteArrayToMutableJsonMap(value);
-
-                if (!canOptimize) {
-                    filteredSource = filterFunction.apply(filteredSource);
-                } else {
-                    if (!excludesSet.isEmpty()) {
-                        filteredSource.keySet().removeAll(excludesSet);
-                    } else {
-                        filteredSource.keySet().retainAll(includesSet);
-                    }
-                }
-
-                delegate.binaryField(fieldInfo, Utils.jsonMapToByteArray(filteredSource));
-            } else {
-                delegate.binaryField(fieldInfo, value);
-            }
-        }
-
-        @Override
-        public Status needsField(final FieldInfo fieldInfo) throws IOException {
-            return isFls(fieldInfo.name) ? delegate.needsField(fieldInfo) : Status.NO;
-        }
-
-        @Override
-        public int hashCode() {
-            return delegate.hashCode();
-        }
-
-        @Override
-        public void intField(final FieldInfo fieldInfo, final int value) throws IOException {
-            delegate.intField(fieldInfo, value);
-        }
-
-        @Override
-        public void longField(final FieldInfo fieldInfo, final long value) throws IOException {
-            delegate.longField(fieldInfo, value);
-        }
-
-        @Override
-        public void floatField(final FieldInfo fieldInfo, final float value) throws IOException {
-            delegate.floatField(fieldInfo, value);
-        }
-
-        @Override
-        public void doubleField(final FieldInfo fieldInfo, final double value) throws IOException {
-            delegate.doubleField(fieldInfo, value);
-        }
-
-        @Override
-        public boolean equals(final Object obj) {
-            return delegate.equals(obj);
-        }
-
-        @Override
-        public String toString() {
-            return delegate.toString();
-        }
-    }
-
-    private class HashingStoredFieldVisitor extends StoredFieldVisitor {
+    private class FlsMaskingStoredFieldVisitor extends StoredFieldVisitor {
 
         private final StoredFieldVisitor delegate;
 
-        public HashingStoredFieldVisitor(final StoredFieldVisitor delegate) {
+        public FlsMaskingStoredFieldVisitor(final StoredFieldVisitor delegate) {
             super();
             this.delegate = delegate;
         }
@@ -715,16 +625,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         public void binaryField(final FieldInfo fieldInfo, final byte[] value) throws IOException {
 
             if (fieldInfo.name.equals("_source")) {
-                final BytesReference bytesRef = new BytesArray(value);
-                final Tuple<XContentType, Map<String, Object>> bytesRefTuple = XContentHelper.convertToMap(
-                    bytesRef,
-                    false,
-                    XContentType.JSON
-                );
-                Map<String, Object> filteredSource = bytesRefTuple.v2();
-                MapUtils.deepTraverseMap(filteredSource, HASH_CB);
-                final XContentBuilder xBuilder = XContentBuilder.builder(bytesRefTuple.v1().xContent()).map(filteredSource);
-                delegate.binaryField(fieldInfo, BytesReference.toBytes(BytesReference.bytes(xBuilder)));
+                delegate.binaryField(fieldInfo, sourceRewriter.rewrite(value));
             } else {
                 delegate.binaryField(fieldInfo, value);
             }
@@ -732,7 +633,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
 
         @Override
         public Status needsField(final FieldInfo fieldInfo) throws IOException {
-            return delegate.needsField(fieldInfo);
+            return isFls(fieldInfo) ? delegate.needsField(fieldInfo) : Status.NO;
         }
 
         @Override
@@ -771,47 +672,6 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         }
     }
 
-    private final MapUtils.Callback HASH_CB = new HashingCallback();
-
-    private class HashingCallback implements MapUtils.Callback {
-        @SuppressWarnings({ "rawtypes", "unchecked" })
-        @Override
-        public void call(String key, Map<String, Object> map, List<String> stack) {
-            Object v = map.get(key);
-
-            if (v instanceof List) {
-                final String field = stack.isEmpty() ? key : Joiner.on('.').join(stack) + "." + key;
-                final MaskedField mf = maskedFieldsMap.getMaskedField(field).orElse(null);
-                if (mf != null) {
-                    final List listField = (List) v;
-                    for (ListIterator iterator = listField.listIterator(); iterator.hasNext();) {
-                        final Object listFieldItem = iterator.next();
-
-                        if (listFieldItem instanceof String) {
-                            iterator.set(mf.mask(((String) listFieldItem)));
-                        } else if (listFieldItem instanceof byte[]) {
-                            iterator.set(mf.mask(((byte[]) listFieldItem)));
-                        }
-                    }
-                }
-            }
-
-            if (v != null && (v instanceof String || v instanceof byte[])) {
-
-                final String field = stack.isEmpty() ? key : Joiner.on('.').join(stack) + "." + key;
-                final MaskedField mf = maskedFieldsMap.getMaskedField(field).orElse(null);
-                if (mf != null) {
-                    if (v instanceof String) {
-                        map.replace(key, mf.mask(((String) v)));
-                    } else {
-                        map.replace(key, mf.mask(((byte[]) v)));
-                    }
-                }
-            }
-        }
-
-    }
-
     @Override
     public Fields getTermVectors(final int docID) throws IOException {
         final Fields fields = in.getTermVectors(docID);
@@ -840,7 +700,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
 
             @Override
             public int size() {
-                return flsFieldInfos.size();
+                return flsFieldFilter.getFieldInfos().size();
             }
 
         };
@@ -906,7 +766,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         return isFls(field) ? wrapSortedDocValues(field, in.getSortedDocValues(field)) : null;
     }
 
-    private SortedDocValues wrapSortedDocValues(final String field, final SortedDocValues sortedDocValues) {
+    private SortedDocValues wrapSortedDocValues(final String field, final SortedDocValues sortedDocValues) throws IOException {
 
         final MaskedFieldsMap maskedFieldsMap;
 
@@ -914,63 +774,7 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
             final MaskedField mf = maskedFieldsMap.getMaskedField(handleKeyword(field)).orElse(null);
 
             if (mf != null) {
-                return new SortedDocValues() {
-
-                    @Override
-                    public int lookupTerm(BytesRef key) throws IOException {
-                        return sortedDocValues.lookupTerm(key);
-                    }
-
-                    @Override
-                    public TermsEnum termsEnum() throws IOException {
-                        return new MaskedTermsEnum(sortedDocValues.termsEnum(), mf);
-                    }
-
-                    @Override
-                    public TermsEnum intersect(CompiledAutomaton automaton) throws IOException {
-                        return new MaskedTermsEnum(sortedDocValues.intersect(automaton), mf);
-                    }
-
-                    @Override
-                    public int nextDoc() throws IOException {
-                        return sortedDocValues.nextDoc();
-                    }
-
-                    @Override
-                    public int docID() {
-                        return sortedDocValues.docID();
-                    }
-
-                    @Override
-                    public long cost() {
-                        return sortedDocValues.cost();
-                    }
-
-                    @Override
-                    public int advance(int target) throws IOException {
-                        return sortedDocValues.advance(target);
-                    }
-
-                    @Override
-                    public boolean advanceExact(int target) throws IOException {
-                        return sortedDocValues.advanceExact(target);
-                    }
-
-                    @Override
-                    public int ordValue() throws IOException {
-                        return sortedDocValues.ordValue();
-                    }
-
-                    @Override
-                    public BytesRef lookupOrd(int ord) throws IOException {
-                        return mf.mask(sortedDocValues.lookupOrd(ord));
-                    }
-
-                    @Override
-                    public int getValueCount() {
-                        return sortedDocValues.getValueCount();
-                    }
-                };
+                return MaskedOrdinals.wrap(dlsBitsetCache, in, field, sortedDocValues, mf, salt);
             }
         }
         return sortedDocValues;
@@ -986,76 +790,16 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         return isFls(field) ? wrapSortedSetDocValues(field, in.getSortedSetDocValues(field)) : null;
     }
 
-    private SortedSetDocValues wrapSortedSetDocValues(final String field, final SortedSetDocValues sortedSetDocValues) {
+    private SortedSetDocValues wrapSortedSetDocValues(final String field, final SortedSetDocValues sortedSetDocValues)
+        throws IOException {
 
         final MaskedFieldsMap maskedFieldsMap;
 
         if (sortedSetDocValues != null && ((maskedFieldsMap = getRuntimeMaskedFieldInfo()) != null)) {
-            MaskedField mf = maskedFieldsMap.getMaskedField(handleKeyword(field)).orElse(null);
+            final MaskedField mf = maskedFieldsMap.getMaskedField(handleKeyword(field)).orElse(null);
 
             if (mf != null) {
-                return new SortedSetDocValues() {
-
-                    @Override
-                    public long lookupTerm(BytesRef key) throws IOException {
-                        return sortedSetDocValues.lookupTerm(key);
-                    }
-
-                    @Override
-                    public TermsEnum termsEnum() throws IOException {
-                        return new MaskedTermsEnum(sortedSetDocValues.termsEnum(), mf);
-                    }
-
-                    @Override
-                    public TermsEnum intersect(CompiledAutomaton automaton) throws IOException {
-                        return new MaskedTermsEnum(sortedSetDocValues.intersect(automaton), mf);
-                    }
-
-                    @Override
-                    public int nextDoc() throws IOException {
-                        return sortedSetDocValues.nextDoc();
-                    }
-
-                    @Override
-                    public int docID() {
-                        return sortedSetDocValues.docID();
-                    }
-
-                    @Override
-                    public long cost() {
-                        return sortedSetDocValues.cost();
-                    }
-
-                    @Override
-                    public int advance(int target) throws IOException {
-                        return sortedSetDocValues.advance(target);
-                    }
-
-                    @Override
-                    public boolean advanceExact(int target) throws IOException {
-                        return sortedSetDocValues.advanceExact(target);
-                    }
-
-                    @Override
-                    public long nextOrd() throws IOException {
-                        return sortedSetDocValues.nextOrd();
-                    }
-
-                    @Override
-                    public int docValueCount() {
-                        return sortedSetDocValues.docValueCount();
-                    }
-
-                    @Override
-                    public BytesRef lookupOrd(long ord) throws IOException {
-                        return mf.mask(sortedSetDocValues.lookupOrd(ord));
-                    }
-
-                    @Override
-                    public long getValueCount() {
-                        return sortedSetDocValues.getValueCount();
-                    }
-                };
+                return MaskedOrdinals.wrap(dlsBitsetCache, in, field, sortedSetDocValues, mf, salt);
             }
         }
         return sortedSetDocValues;
@@ -1225,84 +969,6 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         return field;
     }
 
-    private static class MaskedTermsEnum extends TermsEnum {
-
-        private final TermsEnum delegate;
-        private final MaskedField mf;
-
-        public MaskedTermsEnum(TermsEnum delegate, MaskedField mf) {
-            super();
-            this.delegate = delegate;
-            this.mf = mf;
-        }
-
-        @Override
-        public BytesRef next() throws IOException {
-            return delegate.next(); // no masking here
-        }
-
-        @Override
-        public AttributeSource attributes() {
-            return delegate.attributes();
-        }
-
-        @Override
-        public boolean seekExact(BytesRef text) throws IOException {
-            return delegate.seekExact(text);
-        }
-
-        @Override
-        public SeekStatus seekCeil(BytesRef text) throws IOException {
-            return delegate.seekCeil(text);
-        }
-
-        @Override
-        public void seekExact(long ord) throws IOException {
-            delegate.seekExact(ord);
-        }
-
-        @Override
-        public void seekExact(BytesRef term, TermState state) throws IOException {
-            delegate.seekExact(term, state);
-        }
-
-        @Override
-        public BytesRef term() throws IOException {
-            return mf.mask(delegate.term());
-        }
-
-        @Override
-        public long ord() throws IOException {
-            return delegate.ord();
-        }
-
-        @Override
-        public int docFreq() throws IOException {
-            return delegate.docFreq();
-        }
-
-        @Override
-        public long totalTermFreq() throws IOException {
-            return delegate.totalTermFreq();
-        }
-
-        @Override
-        public PostingsEnum postings(PostingsEnum reuse, int flags) throws IOException {
-            return delegate.postings(reuse, flags);
-        }
-
-        @Override
-        public ImpactsEnum impacts(int flags) throws IOException {
-            return delegate.impacts(flags);
-        }
-
-        @Override
-        public TermState termState() throws IOException {
-            return delegate.termState();
-        }
-
-    }
-
     @Override
     public StoredFields storedFields() throws IOException {
         ensureOpen();
@@ -1317,6 +983,11 @@ class DlsFlsFilterLeafReader extends SequentialStoredFieldsLeafReader {
         return threadContext.getTransient("_opendistro_security_issuggest") == Boolean.TRUE;
     }
 
+    private boolean isGet() {
+        final String action = getRuntimeActionName();
+        return action != null && (action.startsWith("indices:data/read/get") || action.startsWith("indices:data/read/mget"));
+    }
+
     private boolean applyDlsHere() {
         if (isSuggest()) {
             // we need to apply it here
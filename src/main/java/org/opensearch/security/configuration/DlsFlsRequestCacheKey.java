@@ -0,0 +1,183 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.bouncycastle.util.encoders.Hex;
+
+import org.opensearch.Version;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.core.common.ParsingException;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.search.SearchExtBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.security.securityconf.EvaluatedDlsFlsConfig;
+
+/**
+ * Search extension which carries a fingerprint of the DLS queries, FLS rules and field masking rules a search
+ * is executed with.
+ * <p>
+ * Search extensions are part of the shard request cache key, so searches of users with identical restrictions
+ * share cache entries while searches with different restrictions never do. The extension is attached by the
+ * DLS/FLS valve only and cannot be supplied in a request body; one sent by a transport caller is removed.
+ * <p>
+ * Whether a search can be cached at all is left to the shard: the DLS queries are built with the query shard
+ * context of the search, so DLS queries which use {@code now}, scripts or random scoring make it uncacheable
+ * the same way they would in the search query itself.
+ */
+public class DlsFlsRequestCacheKey extends SearchExtBuilder {
+
+    public static final String NAME = "_plugins_security_dls_fls";
+
+    private final String fingerprint;
+
+    DlsFlsRequestCacheKey(final String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public DlsFlsRequestCacheKey(final StreamInput in) throws IOException {
+        this.fingerprint = in.readString();
+    }
+
+    public static DlsFlsRequestCacheKey fromXContent(final XContentParser parser) {
+        throw new ParsingException(parser.getTokenLocation(), "[" + NAME + "] is reserved and cannot be set in a search request");
+    }
+
+    /**
+     * Tells whether all nodes of the cluster can read the extension. Nodes of an older version do not know it and
+     * would fail to deserialize the shard requests carrying it.
+     */
+    static boolean isSupported(final Version minNodeVersion) {
+        return minNodeVersion.onOrAfter(Version.CURRENT);
+    }
+
+    /**
+     * Replaces any fingerprint attached to the request with the one of {@code dlsFlsConfig}.
+     */
+    static void attach(final SearchRequest request, final EvaluatedDlsFlsConfig dlsFlsConfig) {
+        SearchSourceBuilder source = request.source();
+        if (source == null) {
+            source = new SearchSourceBuilder();
+            request.source(source);
+        }
+
+        final List<SearchExtBuilder> ext = withoutFingerprint(source);
+        ext.add(new DlsFlsRequestCacheKey(fingerprint(dlsFlsConfig)));
+        source.ext(ext);
+    }
+
+    /**
+     * Removes a fingerprint attached to the request by someone else than the valve.
+     */
+    static void remove(final SearchRequest request) {
+        final SearchSourceBuilder source = request.source();
+        if (source == null || source.ext().isEmpty()) {
+            return;
+        }
+        final List<SearchExtBuilder> ext = withoutFingerprint(source);
+        if (ext.size() != source.ext().size()) {
+            source.ext(ext);
+        }
+    }
+
+    private static List<SearchExtBuilder> withoutFingerprint(final SearchSourceBuilder source) {
+        final List<SearchExtBuilder> ext = new ArrayList<>(source.ext().size() + 1);
+        for (final SearchExtBuilder builder : source.ext()) {
+            if (!NAME.equals(builder.getWriteableName())) {
+                ext.add(builder);
+            }
+        }
+        return ext;
+    }
+
+    static String fingerprint(final EvaluatedDlsFlsConfig dlsFlsConfig) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        update(digest, "dls", dlsFlsConfig.getDlsQueriesByIndex());
+        update(digest, "fls", dlsFlsConfig.getFlsByIndex());
+        update(digest, "masked_fields", dlsFlsConfig.getFieldMaskingByIndex());
+        return new String(Hex.encode(digest.digest()), StandardCharsets.UTF_8);
+    }
+
+    private static void update(final MessageDigest digest, final String section, final Map<String, Set<String>> rulesByIndex) {
+        update(digest, section);
+        // the order of the maps and sets is not stable across requests, so the rules are hashed in sorted order
+        for (final Map.Entry<String, Set<String>> entry : new TreeMap<>(rulesByIndex).entrySet()) {
+            update(digest, entry.getKey());
+            final Set<String> rules = new TreeSet<>(entry.getValue());
+            update(digest, Integer.toString(rules.size()));
+            for (final String rule : rules) {
+                update(digest, rule);
+            }
+        }
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // length prefixed, so that different splits of the same characters do not collide
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public String getWriteableName() {
+        return NAME;
+    }
+
+    @Override
+    public void writeTo(final StreamOutput out) throws IOException {
+        out.writeString(fingerprint);
+    }
+
+    @Override
+    public XContentBuilder toXContent(final XContentBuilder builder, final Params params) throws IOException {
+        return builder.field(NAME, fingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+        return fingerprint.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DlsFlsRequestCacheKey)) {
+            return false;
+        }
+        return fingerprint.equals(((DlsFlsRequestCacheKey) o).fingerprint);
+    }
+}
@@ -30,7 +30,6 @@ import org.opensearch.action.ActionRequest;
 import org.opensearch.core.action.ActionListener;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
 import org.opensearch.search.internal.SearchContext;
-import org.opensearch.search.query.QuerySearchResult;
 import org.opensearch.security.resolver.IndexResolverReplacer.Resolved;
 import org.opensearch.security.securityconf.EvaluatedDlsFlsConfig;
 import org.opensearch.threadpool.ThreadPool;
@@ -47,8 +46,6 @@ public interface DlsFlsRequestValve {
 
     void handleSearchContext(SearchContext context, ThreadPool threadPool, NamedXContentRegistry namedXContentRegistry);
 
-    void onQueryPhase(QuerySearchResult queryResult);
-
     public static class NoopDlsFlsRequestValve implements DlsFlsRequestValve {
 
         @Override
@@ -66,11 +63,6 @@ public interface DlsFlsRequestValve {
         public void handleSearchContext(SearchContext context, ThreadPool threadPool, NamedXContentRegistry namedXContentRegistry) {
 
         }
-
-        @Override
-        public void onQueryPhase(QuerySearchResult queryResult) {
-
-        }
     }
 
 }
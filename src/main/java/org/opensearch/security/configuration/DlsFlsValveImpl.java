@@ -12,28 +12,19 @@
 package org.opensearch.security.configuration;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-import java.util.Comparator;
-import java.util.List;
+import java.util.Collection;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.function.Consumer;
-import java.util.stream.StreamSupport;
+import java.util.function.Supplier;
 
-import com.google.common.collect.ImmutableList;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.ConstantScoreQuery;
-import org.apache.lucene.util.BytesRef;
 
 import org.opensearch.OpenSearchException;
 import org.opensearch.OpenSearchSecurityException;
-import org.opensearch.SpecialPermission;
 import org.opensearch.action.ActionRequest;
 import org.opensearch.action.DocWriteRequest;
 import org.opensearch.action.RealtimeRequest;
@@ -55,22 +46,13 @@ import org.opensearch.core.rest.RestStatus;
 import org.opensearch.core.xcontent.MediaTypeRegistry;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
 import org.opensearch.index.query.ParsedQuery;
-import org.opensearch.search.DocValueFormat;
 import org.opensearch.search.aggregations.AggregationBuilder;
 import org.opensearch.search.aggregations.AggregatorFactories;
-import org.opensearch.search.aggregations.BucketOrder;
-import org.opensearch.search.aggregations.InternalAggregation;
-import org.opensearch.search.aggregations.InternalAggregations;
-import org.opensearch.search.aggregations.bucket.MultiBucketsAggregation;
 import org.opensearch.search.aggregations.bucket.sampler.DiversifiedAggregationBuilder;
-import org.opensearch.search.aggregations.bucket.terms.InternalTerms;
 import org.opensearch.search.aggregations.bucket.terms.SignificantTermsAggregationBuilder;
-import org.opensearch.search.aggregations.bucket.terms.StringTerms;
-import org.opensearch.search.aggregations.bucket.terms.StringTerms.Bucket;
 import org.opensearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.search.internal.SearchContext;
-import org.opensearch.search.query.QuerySearchResult;
 import org.opensearch.security.OpenSearchSecurityPlugin;
 import org.opensearch.security.resolver.IndexResolverReplacer.Resolved;
 import org.opensearch.security.securityconf.EvaluatedDlsFlsConfig;
@@ -78,6 +60,7 @@ import org.opensearch.security.support.Base64Helper;
 import org.opensearch.security.support.ConfigConstants;
 import org.opensearch.security.support.HeaderHelper;
 import org.opensearch.security.support.SecurityUtils;
+import org.opensearch.security.support.WildcardMatcher;
 import org.opensearch.threadpool.ThreadPool;
 
 public class DlsFlsValveImpl implements DlsFlsRequestValve {
@@ -91,6 +74,8 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
     private final Mode mode;
     private final DlsQueryParser dlsQueryParser;
     private final IndexNameExpressionResolver resolver;
+    private final WildcardMatcher requestCacheIndices;
+    private final TermsLookupCache termsLookupCache;
 
     public DlsFlsValveImpl(
         Settings settings,
@@ -98,7 +83,8 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
         ClusterService clusterService,
         IndexNameExpressionResolver resolver,
         NamedXContentRegistry namedXContentRegistry,
-        ThreadContext threadContext
+        ThreadContext threadContext,
+        Supplier<DlsQueryParser.Templates> dlsQueryTemplates
     ) {
         super();
         this.nodeClient = nodeClient;
@@ -106,7 +92,9 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
         this.resolver = resolver;
         this.threadContext = threadContext;
         this.mode = Mode.get(settings);
-        this.dlsQueryParser = new DlsQueryParser(namedXContentRegistry);
+        this.dlsQueryParser = new DlsQueryParser(namedXContentRegistry, dlsQueryTemplates);
+        this.requestCacheIndices = WildcardMatcher.from(settings.getAsList(ConfigConstants.SECURITY_DLS_FLS_REQUEST_CACHE_INDICES));
+        this.termsLookupCache = new TermsLookupCache(settings);
     }
 
     /**
@@ -136,6 +124,12 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
             );
         }
 
+        if (request instanceof SearchRequest
+            && threadContext.getHeader(ConfigConstants.OPENDISTRO_SECURITY_FILTER_LEVEL_DLS_DONE) == null) {
+            // only the valve may attach a cache key fingerprint, one of a caller would share cache entries of other restrictions
+            DlsFlsRequestCacheKey.remove((SearchRequest) request);
+        }
+
         if (evaluatedDlsFlsConfig == null || evaluatedDlsFlsConfig.isEmpty()) {
             return true;
         }
@@ -192,31 +186,20 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
 
             SearchRequest searchRequest = ((SearchRequest) request);
 
-            // When we encounter a terms or sampler aggregation with masked fields activated we forcibly
-            // need to switch off global ordinals because field masking can break ordering
-            // CS-SUPPRESS-SINGLE: RegexpSingleline Ignore term inside of url
-            // https://www.elastic.co/guide/en/elasticsearch/reference/master/eager-global-ordinals.html#_avoiding_global_ordinal_loading
-            // CS-ENFORCE-SINGLE
+            // Global ordinals are cached per top level reader, which is shared by users with and without
+            // field masking, so terms and sampler aggregations on masked fields must not use them.
             if (evaluatedDlsFlsConfig.hasFieldMasking()) {
 
                 if (searchRequest.source() != null && searchRequest.source().aggregations() != null) {
-                    for (AggregationBuilder aggregationBuilder : searchRequest.source().aggregations().getAggregatorFactories()) {
-                        if (aggregationBuilder instanceof TermsAggregationBuilder) {
-                            ((TermsAggregationBuilder) aggregationBuilder).executionHint(MAP_EXECUTION_HINT);
-                        }
-
-                        if (aggregationBuilder instanceof SignificantTermsAggregationBuilder) {
-                            ((SignificantTermsAggregationBuilder) aggregationBuilder).executionHint(MAP_EXECUTION_HINT);
-                        }
-
-                        if (aggregationBuilder instanceof DiversifiedAggregationBuilder) {
-                            ((DiversifiedAggregationBuilder) aggregationBuilder).executionHint(MAP_EXECUTION_HINT);
-                        }
-                    }
+                    forceMapExecutionHint(searchRequest.source().aggregations().getAggregatorFactories());
                 }
             }
 
-            if (!evaluatedDlsFlsConfig.hasFls() && !evaluatedDlsFlsConfig.hasDls() && searchRequest.source().aggregations() != null) {
+            if (isRequestCacheEnabled(resolved)) {
+                DlsFlsRequestCacheKey.attach(searchRequest, filteredDlsFlsConfig);
+            } else if (!evaluatedDlsFlsConfig.hasFls()
+                && !evaluatedDlsFlsConfig.hasDls()
+                && searchRequest.source().aggregations() != null) {
 
                 boolean cacheable = true;
 
@@ -334,6 +317,7 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
                 OpenSearchSecurityPlugin.GuiceHolder.getIndicesService(),
                 resolver,
                 dlsQueryParser,
+                termsLookupCache,
                 threadContext
             );
         } else {
@@ -341,6 +325,36 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
         }
     }
 
+    /**
+     * Sets the "map" execution hint on all terms, significant terms and diversified sampler aggregations,
+     * including those nested as sub-aggregations at any depth.
+     */
+    static void forceMapExecutionHint(final Collection<AggregationBuilder> aggregationBuilders) {
+        for (AggregationBuilder aggregationBuilder : aggregationBuilders) {
+            if (aggregationBuilder instanceof TermsAggregationBuilder) {
+                ((TermsAggregationBuilder) aggregationBuilder).executionHint(MAP_EXECUTION_HINT);
+            }
+
+            if (aggregationBuilder instanceof SignificantTermsAggregationBuilder) {
+                ((SignificantTermsAggregationBuilder) aggregationBuilder).executionHint(MAP_EXECUTION_HINT);
+            }
+
+            if (aggregationBuilder instanceof DiversifiedAggregationBuilder) {
+                ((DiversifiedAggregationBuilder) aggregationBuilder).executionHint(MAP_EXECUTION_HINT);
+            }
+
+            forceMapExecutionHint(aggregationBuilder.getSubAggregations());
+        }
+    }
+
+    private boolean isRequestCacheEnabled(Resolved resolved) {
+        // remote clusters may not know the cache key extension
+        return !resolved.isLocalAll()
+            && resolved.getRemoteIndices().isEmpty()
+            && requestCacheIndices.matchAll(resolved.getAllIndices())
+            && DlsFlsRequestCacheKey.isSupported(clusterService.state().nodes().getMinNodeVersion());
+    }
+
     @Override
     public void handleSearchContext(SearchContext context, ThreadPool threadPool, NamedXContentRegistry namedXContentRegistry) {
         try {
@@ -363,6 +377,8 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
                 final Set<String> unparsedDlsQueries = queries.get(dlsEval);
 
                 if (unparsedDlsQueries != null && !unparsedDlsQueries.isEmpty()) {
+                    // built with the context of the search, so DLS queries which are not cacheable keep the
+                    // shard request cache from caching the search
                     BooleanQuery.Builder queryBuilder = dlsQueryParser.parse(
                         unparsedDlsQueries,
                         context.getQueryShardContext(),
@@ -384,50 +400,6 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
         }
     }
 
-    @Override
-    public void onQueryPhase(QuerySearchResult queryResult) {
-        InternalAggregations aggregations = queryResult.aggregations().expand();
-        assert aggregations != null;
-
-        queryResult.aggregations(
-            InternalAggregations.from(
-                StreamSupport.stream(aggregations.spliterator(), false)
-                    .map(aggregation -> aggregateBuckets((InternalAggregation) aggregation))
-                    .collect(ImmutableList.toImmutableList())
-            )
-        );
-    }
-
-    private static InternalAggregation aggregateBuckets(InternalAggregation aggregation) {
-        if (aggregation instanceof StringTerms) {
-            StringTerms stringTerms = (StringTerms) aggregation;
-            List<Bucket> buckets = stringTerms.getBuckets();
-            if (buckets.size() > 1) {
-                buckets = mergeBuckets(buckets, StringTermsGetter.getReduceOrder(stringTerms).comparator());
-                aggregation = stringTerms.create(buckets);
-            }
-        }
-        return aggregation;
-    }
-
-    private static List<StringTerms.Bucket> mergeBuckets(
-        List<StringTerms.Bucket> buckets,
-        Comparator<MultiBucketsAggregation.Bucket> comparator
-    ) {
-        if (log.isDebugEnabled()) {
-            log.debug("Merging buckets: {}", buckets.stream().map(b -> b.getKeyAsString()).collect(ImmutableList.toImmutableList()));
-        }
-        buckets.sort(comparator);
-        BucketMerger merger = new BucketMerger(comparator, buckets.size());
-        buckets.stream().forEach(merger);
-        buckets = merger.getBuckets();
-
-        if (log.isDebugEnabled()) {
-            log.debug("New buckets: {}", buckets.stream().map(b -> b.getKeyAsString()).collect(ImmutableList.toImmutableList()));
-        }
-        return buckets;
-    }
-
     private void setDlsHeaders(EvaluatedDlsFlsConfig dlsFls, ActionRequest request) {
         if (!dlsFls.getDlsQueriesByIndex().isEmpty()) {
             Map<String, Set<String>> dlsQueries = dlsFls.getDlsQueriesByIndex();
@@ -580,124 +552,6 @@ public class DlsFlsValveImpl implements DlsFlsRequestValve {
         }
     }
 
-    private static class BucketMerger implements Consumer<Bucket> {
-        private Comparator<MultiBucketsAggregation.Bucket> comparator;
-        private StringTerms.Bucket bucket = null;
-        private int mergeCount;
-        private long mergedDocCount;
-        private long mergedDocCountError;
-        private boolean showDocCountError = true;
-        private final ImmutableList.Builder<StringTerms.Bucket> builder;
-
-        BucketMerger(Comparator<MultiBucketsAggregation.Bucket> comparator, int size) {
-            this.comparator = Objects.requireNonNull(comparator);
-            builder = ImmutableList.builderWithExpectedSize(size);
-        }
-
-        private void finalizeBucket() {
-            if (mergeCount == 1) {
-                builder.add(this.bucket);
-            } else {
-                builder.add(
-                    new StringTerms.Bucket(
-                        StringTermsGetter.getTerm(bucket),
-                        mergedDocCount,
-                        (InternalAggregations) bucket.getAggregations(),
-                        showDocCountError,
-                        mergedDocCountError,
-                        StringTermsGetter.getDocValueFormat(bucket)
-                    )
-                );
-            }
-        }
-
-        private void merge(StringTerms.Bucket bucket) {
-            if (this.bucket != null && (bucket == null || comparator.compare(this.bucket, bucket) != 0)) {
-                finalizeBucket();
-                this.bucket = null;
-                mergeCount = 0;
-                mergedDocCount = 0;
-                mergedDocCountError = 0;
-                showDocCountError = true;
-            }
-        }
-
-        public List<StringTerms.Bucket> getBuckets() {
-            merge(null);
-            return builder.build();
-        }
-
-        @Override
-        public void accept(StringTerms.Bucket bucket) {
-            merge(bucket);
-            mergeCount++;
-            mergedDocCount += bucket.getDocCount();
-            if (showDocCountError) {
-                try {
-                    mergedDocCountError += bucket.getDocCountError();
-                } catch (IllegalStateException e) {
-                    showDocCountError = false;
-                }
-            }
-            this.bucket = bucket;
-        }
-    }
-
-    private static class StringTermsGetter {
-        private static final Field REDUCE_ORDER = getField(InternalTerms.class, "reduceOrder");
-        private static final Field TERM_BYTES = getField(StringTerms.Bucket.class, "termBytes");
-        private static final Field FORMAT = getField(InternalTerms.Bucket.class, "format");
-
-        private StringTermsGetter() {}
-
-        private static <T> Field getFieldPrivileged(Class<T> cls, String name) {
-            try {
-                final Field field = cls.getDeclaredField(name);
-                field.setAccessible(true);
-                return field;
-            } catch (NoSuchFieldException | SecurityException e) {
-                log.error("Failed to get class {} declared field {}", cls.getSimpleName(), name, e);
-                if (e instanceof RuntimeException) {
-                    throw (RuntimeException) e;
-                } else {
-                    throw new RuntimeException(e);
-                }
-            }
-        }
-
-        @SuppressWarnings("removal")
-        private static <T> Field getField(Class<T> cls, String name) {
-            SpecialPermission.check();
-            return AccessController.doPrivileged((PrivilegedAction<Field>) () -> getFieldPrivileged(cls, name));
-        }
-
-        @SuppressWarnings("unchecked")
-        private static <T, C> T getFieldValue(Field field, C c) {
-            try {
-                return (T) field.get(c);
-            } catch (IllegalArgumentException | IllegalAccessException e) {
-                log.error("Exception while getting value {} of class {}", field.getName(), c.getClass().getSimpleName(), e);
-                if (e instanceof RuntimeException) {
-                    throw (RuntimeException) e;
-                } else {
-                    throw new RuntimeException(e);
-                }
-            }
-        }
-
-        public static BucketOrder getReduceOrder(StringTerms stringTerms) {
-            return getFieldValue(REDUCE_ORDER, stringTerms);
-        }
-
-        public static BytesRef getTerm(StringTerms.Bucket bucket) {
-            return getFieldValue(TERM_BYTES, bucket);
-        }
-
-        public static DocValueFormat getDocValueFormat(StringTerms.Bucket bucket) {
-            return getFieldValue(FORMAT, bucket);
-        }
-    }
-
     public static enum Mode {
         ADAPTIVE,
         LUCENE_LEVEL,
@@ -11,11 +11,19 @@
 
 package org.opensearch.security.configuration;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -40,6 +48,7 @@ import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryShardContext;
 import org.opensearch.index.query.TermsQueryBuilder;
 import org.opensearch.security.queries.QueryBuilderTraverser;
+import org.opensearch.security.securityconf.UserAttributeTemplate;
 
 public final class DlsQueryParser {
 
@@ -63,11 +72,26 @@ public final class DlsQueryParser {
         .maximumSize(10000)
         .expireAfterWrite(4, TimeUnit.HOURS)
         .build();
+    // compiled by template, as the substituted queries differ for every user
+    private static Cache<UserAttributeTemplate, DlsQueryTemplate> compiledTemplateCache = CacheBuilder.newBuilder()
+        .maximumSize(10000)
+        .expireAfterWrite(4, TimeUnit.HOURS)
+        .build();
 
     private final NamedXContentRegistry namedXContentRegistry;
+    private final Supplier<Templates> templates;
 
     public DlsQueryParser(NamedXContentRegistry namedXContentRegistry) {
+        this(namedXContentRegistry, () -> Templates.EMPTY);
+    }
+
+    /**
+     * @param templates supplies the DLS queries with user attribute placeholders of the current security configuration.
+     *                  Queries substituted from one of these templates are built from the compiled template instead of being parsed.
+     */
+    public DlsQueryParser(NamedXContentRegistry namedXContentRegistry, Supplier<Templates> templates) {
         this.namedXContentRegistry = namedXContentRegistry;
+        this.templates = templates;
     }
 
     public BooleanQuery.Builder parse(Set<String> unparsedDlsQueries, QueryShardContext queryShardContext) {
@@ -117,6 +141,11 @@ public final class DlsQueryParser {
     }
 
     public QueryBuilder parse(String unparsedDlsQuery) {
+        final QueryBuilder bound = bindTemplate(unparsedDlsQuery);
+        if (bound != null) {
+            return bound;
+        }
+
         try {
             final QueryBuilder qb = parsedQueryCache.get(unparsedDlsQuery, new Callable<QueryBuilder>() {
 
@@ -138,6 +167,32 @@ public final class DlsQueryParser {
         }
     }
 
+    private QueryBuilder bindTemplate(String unparsedDlsQuery) {
+        final Templates current = templates.get();
+        if (current == null) {
+            return null;
+        }
+        for (UserAttributeTemplate template : current.candidates(unparsedDlsQuery)) {
+            final String[] values = template.extract(unparsedDlsQuery);
+            if (values == null) {
+                continue;
+            }
+            try {
+                final DlsQueryTemplate compiled = compiledTemplateCache.get(
+                    template,
+                    () -> DlsQueryTemplate.compile(template, namedXContentRegistry)
+                );
+                final QueryBuilder qb = compiled.bind(values);
+                if (qb != null) {
+                    return qb;
+                }
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Error while compiling " + template, e.getCause());
+            }
+        }
+        return null;
+    }
+
     boolean containsTermLookupQuery(Set<String> unparsedQueries) {
         for (String query : unparsedQueries) {
             if (containsTermLookupQuery(query)) {
@@ -171,4 +226,59 @@ public final class DlsQueryParser {
         }
     }
 
+    /**
+     * DLS queries with user attribute placeholders, indexed by the literal prefix preceding their first placeholder.
+     * A substituted query starts with the prefix of the template it was substituted from, so only the templates
+     * registered under one of its prefixes need to be tried.
+     */
+    public static final class Templates {
+
+        public static final Templates EMPTY = new Templates(Collections.emptyMap(), new int[0]);
+
+        private final Map<String, List<UserAttributeTemplate>> byPrefix;
+        // distinct prefix lengths, longest first
+        private final int[] prefixLengths;
+
+        private Templates(final Map<String, List<UserAttributeTemplate>> byPrefix, final int[] prefixLengths) {
+            this.byPrefix = byPrefix;
+            this.prefixLengths = prefixLengths;
+        }
+
+        public static Templates of(final Collection<UserAttributeTemplate> dlsQueryTemplates) {
+            if (dlsQueryTemplates.isEmpty()) {
+                return EMPTY;
+            }
+            final Map<String, List<UserAttributeTemplate>> byPrefix = new HashMap<>();
+            final Set<Integer> prefixLengths = new TreeSet<>(Collections.reverseOrder());
+            for (UserAttributeTemplate template : dlsQueryTemplates) {
+                if (!template.hasPlaceholders()) {
+                    continue;
+                }
+                final String prefix = template.getPrefix();
+                byPrefix.computeIfAbsent(prefix, k -> new ArrayList<>()).add(template);
+                prefixLengths.add(prefix.length());
+            }
+            return new Templates(byPrefix, prefixLengths.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        List<UserAttributeTemplate> candidates(final String unparsedDlsQuery) {
+            List<UserAttributeTemplate> result = Collections.emptyList();
+            for (int length : prefixLengths) {
+                if (length > unparsedDlsQuery.length()) {
+                    continue;
+                }
+                final List<UserAttributeTemplate> matching = byPrefix.get(unparsedDlsQuery.substring(0, length));
+                if (matching == null) {
+                    continue;
+                }
+                if (result.isEmpty()) {
+                    result = matching;
+                } else {
+                    result = new ArrayList<>(result);
+                    result.addAll(matching);
+                }
+            }
+            return result;
+        }
+    }
 }
@@ -0,0 +1,263 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.core.xcontent.DeprecationHandler;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.index.query.AbstractQueryBuilder;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.ConstantScoreQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.TermQueryBuilder;
+import org.opensearch.index.query.TermsQueryBuilder;
+import org.opensearch.indices.TermsLookup;
+import org.opensearch.security.securityconf.UserAttributeTemplate;
+
+/**
+ * A DLS query with user attribute placeholders, parsed once into a query builder tree in which the placeholders
+ * are slots. The query of a user is built by putting the values substituted for the placeholders into the slots,
+ * without parsing the substituted query again. Parts of the tree without slots are shared by all users.
+ * <p>
+ * Slots are supported in the values of term queries and terms queries and in terms lookups, inside bool and
+ * constant score queries. Templates with placeholders anywhere else, like in field names or outside of JSON
+ * strings, cannot be bound and are parsed per user.
+ */
+final class DlsQueryTemplate {
+
+    private static final Logger log = LogManager.getLogger(DlsQueryTemplate.class);
+
+    // marks the slots in the parsed template, followed by the placeholder number and another marker
+    private static final char SLOT = '\u0000';
+    private static final String ESCAPED_SLOT = "\\u0000";
+
+    private static final DlsQueryTemplate UNBOUND = new DlsQueryTemplate(null);
+
+    private final Node root;
+
+    private DlsQueryTemplate(final Node root) {
+        this.root = root;
+    }
+
+    static DlsQueryTemplate compile(final UserAttributeTemplate template, final NamedXContentRegistry namedXContentRegistry) {
+        if (!template.hasPlaceholders() || template.getTemplate().contains(ESCAPED_SLOT)) {
+            return UNBOUND;
+        }
+
+        final String source = template.substitute(i -> ESCAPED_SLOT + i + ESCAPED_SLOT);
+        try (
+            XContentParser parser = JsonXContent.jsonXContent.createParser(
+                namedXContentRegistry,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION,
+                source
+            )
+        ) {
+            final BitSet slots = new BitSet();
+            final Node root = compile(AbstractQueryBuilder.parseInnerQueryBuilder(parser), slots);
+            // every placeholder must end up in a slot, otherwise it influenced parsing in a way the tree does not show
+            if (root != null && slots.cardinality() == template.getPlaceholderCount()) {
+                return new DlsQueryTemplate(root);
+            }
+        } catch (Exception e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Cannot compile DLS query template " + template, e);
+            }
+        }
+        return UNBOUND;
+    }
+
+    /**
+     * Builds the query for the given placeholder values, or returns null if the values cannot be bound. Values
+     * containing characters which are special inside of JSON strings are not bound, as the substituted query
+     * would not parse to the same strings.
+     */
+    QueryBuilder bind(final String[] values) {
+        if (root == null) {
+            return null;
+        }
+        for (final String value : values) {
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c == '"' || c == '\\' || c < 0x20) {
+                    return null;
+                }
+            }
+        }
+        return root.bind(values);
+    }
+
+    private interface Node {
+        QueryBuilder bind(String[] values);
+    }
+
+    private static Node compile(final QueryBuilder query, final BitSet slots) {
+        if (query.toString().indexOf(ESCAPED_SLOT) < 0) {
+            return values -> query;
+        }
+
+        if (query instanceof BoolQueryBuilder) {
+            return compileBool((BoolQueryBuilder) query, slots);
+        } else if (query instanceof ConstantScoreQueryBuilder) {
+            final ConstantScoreQueryBuilder constantScore = (ConstantScoreQueryBuilder) query;
+            final Node inner = compile(constantScore.innerQuery(), slots);
+            if (inner == null || hasSlot(constantScore.queryName())) {
+                return null;
+            }
+            return values -> new ConstantScoreQueryBuilder(inner.bind(values)).boost(constantScore.boost())
+                .queryName(constantScore.queryName());
+        } else if (query instanceof TermQueryBuilder) {
+            final TermQueryBuilder term = (TermQueryBuilder) query;
+            if (!(term.value() instanceof String) || hasSlot(term.fieldName()) || hasSlot(term.queryName())) {
+                return null;
+            }
+            final Text value = Text.compile((String) term.value(), slots);
+            return values -> new TermQueryBuilder(term.fieldName(), value.bind(values)).caseInsensitive(term.caseInsensitive())
+                .boost(term.boost())
+                .queryName(term.queryName());
+        } else if (query instanceof TermsQueryBuilder) {
+            return compileTerms((TermsQueryBuilder) query, slots);
+        }
+        return null;
+    }
+
+    private static Node compileBool(final BoolQueryBuilder bool, final BitSet slots) {
+        if (hasSlot(bool.minimumShouldMatch()) || hasSlot(bool.queryName())) {
+            return null;
+        }
+        final List<Node> must = compile(bool.must(), slots);
+        final List<Node> filter = compile(bool.filter(), slots);
+        final List<Node> should = compile(bool.should(), slots);
+        final List<Node> mustNot = compile(bool.mustNot(), slots);
+        if (must == null || filter == null || should == null || mustNot == null) {
+            return null;
+        }
+
+        return values -> {
+            final BoolQueryBuilder result = new BoolQueryBuilder();
+            must.forEach(clause -> result.must(clause.bind(values)));
+            filter.forEach(clause -> result.filter(clause.bind(values)));
+            should.forEach(clause -> result.should(clause.bind(values)));
+            mustNot.forEach(clause -> result.mustNot(clause.bind(values)));
+            return result.minimumShouldMatch(bool.minimumShouldMatch())
+                .adjustPureNegative(bool.adjustPureNegative())
+                .boost(bool.boost())
+                .queryName(bool.queryName());
+        };
+    }
+
+    private static List<Node> compile(final List<QueryBuilder> clauses, final BitSet slots) {
+        final List<Node> result = new ArrayList<>(clauses.size());
+        for (final QueryBuilder clause : clauses) {
+            final Node node = compile(clause, slots);
+            if (node == null) {
+                return null;
+            }
+            result.add(node);
+        }
+        return result;
+    }
+
+    private static Node compileTerms(final TermsQueryBuilder terms, final BitSet slots) {
+        if (hasSlot(terms.fieldName()) || hasSlot(terms.queryName())) {
+            return null;
+        }
+
+        final TermsLookup lookup = terms.termsLookup();
+        if (lookup != null) {
+            final Text index = Text.compile(lookup.index(), slots);
+            final Text id = Text.compile(lookup.id(), slots);
+            final Text path = Text.compile(lookup.path(), slots);
+            final Text routing = Text.compile(lookup.routing(), slots);
+            return values -> new TermsQueryBuilder(
+                terms.fieldName(),
+                new TermsLookup(index.bind(values), id.bind(values), path.bind(values)).routing(routing.bind(values))
+            ).boost(terms.boost()).queryName(terms.queryName());
+        }
+
+        final List<Object> termValues = terms.values();
+        final Text[] texts = new Text[termValues.size()];
+        for (int i = 0; i < texts.length; i++) {
+            if (termValues.get(i) instanceof String) {
+                texts[i] = Text.compile((String) termValues.get(i), slots);
+            }
+        }
+        return values -> {
+            final List<Object> bound = new ArrayList<>(texts.length);
+            for (int i = 0; i < texts.length; i++) {
+                bound.add(texts[i] != null ? texts[i].bind(values) : termValues.get(i));
+            }
+            return new TermsQueryBuilder(terms.fieldName(), bound).boost(terms.boost()).queryName(terms.queryName());
+        };
+    }
+
+    private static boolean hasSlot(final String value) {
+        return value != null && value.indexOf(SLOT) >= 0;
+    }
+
+    /**
+     * A string of the parsed template, split into literals and slots.
+     */
+    private static final class Text {
+        // literals[i] precedes slots[i], the last literal follows the last slot
+        private final String[] literals;
+        private final int[] slots;
+
+        private Text(final String[] literals, final int[] slots) {
+            this.literals = literals;
+            this.slots = slots;
+        }
+
+        static Text compile(final String value, final BitSet usedSlots) {
+            if (!hasSlot(value)) {
+                return new Text(new String[] { value }, new int[0]);
+            }
+
+            final List<String> literals = new ArrayList<>();
+            final List<Integer> slots = new ArrayList<>();
+            int literalStart = 0;
+            int start = value.indexOf(SLOT);
+            while (start >= 0) {
+                final int end = value.indexOf(SLOT, start + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated slot in " + value);
+                }
+                final int slot = Integer.parseInt(value.substring(start + 1, end));
+                literals.add(value.substring(literalStart, start));
+                slots.add(slot);
+                usedSlots.set(slot);
+                literalStart = end + 1;
+                start = value.indexOf(SLOT, literalStart);
+            }
+            literals.add(value.substring(literalStart));
+            return new Text(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        String bind(final String[] values) {
+            if (slots.length == 0) {
+                return literals[0];
+            }
+            final StringBuilder result = new StringBuilder();
+            for (int i = 0; i < slots.length; i++) {
+                result.append(literals[i]).append(values[slots[i]]);
+            }
+            return result.append(literals[slots.length]).toString();
+        }
+    }
+}
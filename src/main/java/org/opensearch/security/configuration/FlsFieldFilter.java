@@ -0,0 +1,187 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.lucene.util.RamUsageEstimator;
+
+import org.opensearch.security.support.WildcardMatcher;
+
+/**
+ * The fields of a segment which are visible under a set of FLS rules, as a bitset over the field numbers.
+ * <p>
+ * Filters are shared by all readers of a segment core with the same FLS rules. They are kept in the
+ * {@link DlsBitsetCache} and dropped when the segment is closed.
+ */
+final class FlsFieldFilter implements Accountable {
+
+    private static final long BASE_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(FlsFieldFilter.class)
+        + RamUsageEstimator.shallowSizeOfInstance(FieldInfos.class);
+    // the field infos are shared with the segment; per field the filtered infos hold a reference and a map entry
+    private static final long RAM_BYTES_PER_FIELD = 2L * RamUsageEstimator.NUM_BYTES_OBJECT_REF + 32;
+
+    private final FieldInfos source;
+    private final FixedBitSet allowed;
+    private final FieldInfos fieldInfos;
+    private final long ramBytesUsed;
+
+    private FlsFieldFilter(final FieldInfos source, final FixedBitSet allowed) {
+        this.source = source;
+        this.allowed = allowed;
+
+        final FieldInfo[] permitted = new FieldInfo[allowed.cardinality()];
+        int i = 0;
+        for (final FieldInfo info : source) {
+            if (isAllowed(info)) {
+                permitted[i++] = info;
+            }
+        }
+        this.fieldInfos = new FieldInfos(permitted);
+        this.ramBytesUsed = BASE_RAM_BYTES_USED + allowed.ramBytesUsed() + RamUsageEstimator.shallowSizeOf(permitted)
+            + permitted.length * RAM_BYTES_PER_FIELD;
+    }
+
+    /**
+     * Returns the filter for the fields of {@code reader}. The includes and excludes must be derived from
+     * {@code includesExcludes}, which is the cache key; {@code canOptimize} tells that none of them contains
+     * a wildcard or a path.
+     */
+    static FlsFieldFilter of(
+        final DlsBitsetCache cache,
+        final LeafReader reader,
+        final Set<String> includesExcludes,
+        final Set<String> includes,
+        final Set<String> excludes,
+        final boolean canOptimize
+    ) {
+        final FieldInfos infos = reader.getFieldInfos();
+        final IndexReader.CacheHelper coreCacheHelper = reader.getCoreCacheHelper();
+        if (coreCacheHelper == null) {
+            return create(infos, includes, excludes, canOptimize);
+        }
+
+        final Key key = new Key(coreCacheHelper.getKey(), includesExcludes);
+        FlsFieldFilter filter = cache.get(key);
+        // doc values updates can add fields to a segment without changing its core
+        if (filter == null || filter.source != infos) {
+            filter = create(infos, includes, excludes, canOptimize);
+            cache.put(coreCacheHelper, key, filter);
+        }
+        return filter;
+    }
+
+    static FlsFieldFilter create(
+        final FieldInfos infos,
+        final Set<String> includes,
+        final Set<String> excludes,
+        final boolean canOptimize
+    ) {
+        final FixedBitSet allowed = new FixedBitSet(maxFieldNumber(infos) + 1);
+
+        if (canOptimize) {
+            if (!excludes.isEmpty()) {
+                for (final FieldInfo info : infos) {
+                    if (!excludes.contains(info.name)) {
+                        allowed.set(info.number);
+                    }
+                }
+            } else {
+                for (final String include : includes) {
+                    final FieldInfo info = infos.fieldInfo(include);
+                    if (info != null) {
+                        allowed.set(info.number);
+                    }
+                }
+            }
+        } else {
+            if (!excludes.isEmpty()) {
+                final WildcardMatcher matcher = WildcardMatcher.from(excludes);
+                for (final FieldInfo info : infos) {
+                    if (!matcher.test(info.name)) {
+                        allowed.set(info.number);
+                    }
+                }
+            } else {
+                final WildcardMatcher matcher = WildcardMatcher.from(includes);
+                for (final FieldInfo info : infos) {
+                    if (matcher.test(info.name)) {
+                        allowed.set(info.number);
+                    }
+                }
+            }
+        }
+
+        return new FlsFieldFilter(infos, allowed);
+    }
+
+    boolean isAllowed(final FieldInfo info) {
+        return info.number < allowed.length() && allowed.get(info.number);
+    }
+
+    boolean isAllowed(final String field) {
+        final FieldInfo info = source.fieldInfo(field);
+        return info != null && allowed.get(info.number);
+    }
+
+    FieldInfos getFieldInfos() {
+        return fieldInfos;
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        return ramBytesUsed;
+    }
+
+    private static int maxFieldNumber(final FieldInfos infos) {
+        int max = -1;
+        for (final FieldInfo info : infos) {
+            max = Math.max(max, info.number);
+        }
+        return max;
+    }
+
+    private static final class Key extends DlsBitsetCache.SegmentKey {
+        private final Set<String> includesExcludes;
+        private final int hashCode;
+
+        private Key(final IndexReader.CacheKey coreKey, final Set<String> includesExcludes) {
+            super(coreKey);
+            this.includesExcludes = includesExcludes;
+            this.hashCode = Objects.hash(coreKey, includesExcludes);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return coreKey == other.coreKey && Objects.equals(includesExcludes, other.includesExcludes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -16,8 +16,11 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.regex.Pattern;
 
 import com.google.common.base.Splitter;
 import org.apache.lucene.util.BytesRef;
@@ -31,6 +34,8 @@ public class MaskedField {
     private List<RegexReplacement> regexReplacements;
     private final byte[] defaultSalt;
 
+    private static final ThreadLocal<Digests> DIGESTS = ThreadLocal.withInitial(Digests::new);
+
     public MaskedField(final String value, final Salt salt) {
         this.defaultSalt = salt.getSalt16();
         final List<String> tokens = Splitter.on("::").splitToList(Objects.requireNonNull(value));
@@ -135,65 +140,112 @@ public class MaskedField {
     }
 
     private byte[] customHash(byte[] in) {
+        return customHash(in, 0, in.length);
+    }
+
+    private byte[] customHash(byte[] in, int offset, int length) {
         if (algo != null) {
             try {
-                MessageDigest digest = MessageDigest.getInstance(algo);
-                return Hex.encode(digest.digest(in));
+                final MessageDigest digest = DIGESTS.get().messageDigest(algo);
+                digest.reset();
+                digest.update(in, offset, length);
+                return Hex.encode(digest.digest());
             } catch (NoSuchAlgorithmException e) {
                 throw new IllegalArgumentException(e);
             }
         } else if (regexReplacements != null) {
-            String cur = new String(in, StandardCharsets.UTF_8);
-            for (RegexReplacement rr : regexReplacements) {
-                cur = cur.replaceAll(rr.getRegex(), rr.getReplacement());
-            }
-            return cur.getBytes(StandardCharsets.UTF_8);
-
+            return replace(new String(in, offset, length, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
         } else {
             throw new IllegalArgumentException();
         }
     }
 
     private BytesRef customHash(BytesRef in) {
-        final BytesRef copy = BytesRef.deepCopyOf(in);
-        return new BytesRef(customHash(copy.bytes));
+        return new BytesRef(customHash(in.bytes, in.offset, in.length));
     }
 
     private String customHash(String in) {
+        if (algo == null && regexReplacements != null) {
+            return replace(in);
+        }
         return new String(customHash(in.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
     }
 
+    private String replace(String in) {
+        String cur = in;
+        for (RegexReplacement rr : regexReplacements) {
+            cur = rr.getPattern().matcher(cur).replaceAll(rr.getReplacement());
+        }
+        return cur;
+    }
+
     private byte[] blake2bHash(byte[] in) {
-        final Blake2bDigest hash = new Blake2bDigest(null, 32, null, defaultSalt);
-        hash.update(in, 0, in.length);
+        return blake2bHash(in, 0, in.length);
+    }
+
+    private byte[] blake2bHash(byte[] in, int offset, int length) {
+        final Blake2bDigest hash = DIGESTS.get().blake2b(defaultSalt);
+        hash.reset();
+        hash.update(in, offset, length);
         final byte[] out = new byte[hash.getDigestSize()];
         hash.doFinal(out, 0);
         return Hex.encode(out);
     }
 
     private BytesRef blake2bHash(BytesRef in) {
-        final BytesRef copy = BytesRef.deepCopyOf(in);
-        return new BytesRef(blake2bHash(copy.bytes));
+        return new BytesRef(blake2bHash(in.bytes, in.offset, in.length));
     }
 
     private String blake2bHash(String in) {
         return new String(blake2bHash(in.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
     }
 
+    /**
+     * Digests are expensive to set up, so each thread keeps one per salt or algorithm and resets it between values.
+     */
+    private static final class Digests {
+        private byte[] blake2bSalt;
+        private Blake2bDigest blake2b;
+        private final Map<String, MessageDigest> messageDigests = new HashMap<>();
+
+        private Blake2bDigest blake2b(final byte[] salt) {
+            if (blake2b == null || blake2bSalt != salt) {
+                blake2b = new Blake2bDigest(null, 32, null, salt);
+                blake2bSalt = salt;
+            }
+            return blake2b;
+        }
+
+        private MessageDigest messageDigest(final String algo) throws NoSuchAlgorithmException {
+            MessageDigest digest = messageDigests.get(algo);
+            if (digest == null) {
+                digest = MessageDigest.getInstance(algo);
+                messageDigests.put(algo, digest);
+            }
+            return digest;
+        }
+    }
+
     private static class RegexReplacement {
         private final String regex;
         private final String replacement;
+        private final Pattern pattern;
 
         public RegexReplacement(String regex, String replacement) {
             super();
             this.regex = regex.substring(1).substring(0, regex.length() - 2);
             this.replacement = replacement;
+            this.pattern = Pattern.compile(this.regex);
         }
 
         public String getRegex() {
             return regex;
         }
 
+        public Pattern getPattern() {
+            return pattern;
+        }
+
         public String getReplacement() {
             return replacement;
         }
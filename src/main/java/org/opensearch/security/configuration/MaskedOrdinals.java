@@ -0,0 +1,328 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefHash;
+import org.apache.lucene.util.RamUsageEstimator;
+
+/**
+ * The ordinals of a masked doc values field of a segment.
+ * <p>
+ * Masking does not preserve the order of terms and may map different terms to the same value, so the masked
+ * terms are sorted and deduplicated once per segment and the original ordinals are mapped onto them. The
+ * wrapped doc values are then proper ordinal based doc values, so segment ordinals follow the order of the
+ * masked terms and each masked value has a single ordinal. Global ordinals are still not built for masked
+ * fields: they are cached per top level reader, which users with and without masking share, so
+ * {@link DlsFlsValveImpl} forces the "map" execution hint on aggregations when field masking applies.
+ * Mappings are cached in the {@link DlsBitsetCache} per segment core, field and masking rule, and are dropped
+ * when the segment is closed.
+ */
+final class MaskedOrdinals implements Accountable {
+
+    private final BytesRefHash terms;
+    private final int[] sortedIds;
+    private final int[] ordMap;
+
+    private MaskedOrdinals(final BytesRefHash terms, final int[] sortedIds, final int[] ordMap) {
+        this.terms = terms;
+        this.sortedIds = sortedIds;
+        this.ordMap = ordMap;
+    }
+
+    static SortedSetDocValues wrap(
+        final DlsBitsetCache cache,
+        final LeafReader reader,
+        final String field,
+        final SortedSetDocValues values,
+        final MaskedField maskedField,
+        final Salt salt
+    ) throws IOException {
+        return new MaskedSortedSetDocValues(values, get(cache, reader, field, values.termsEnum(), maskedField, salt));
+    }
+
+    static SortedDocValues wrap(
+        final DlsBitsetCache cache,
+        final LeafReader reader,
+        final String field,
+        final SortedDocValues values,
+        final MaskedField maskedField,
+        final Salt salt
+    ) throws IOException {
+        return new MaskedSortedDocValues(values, get(cache, reader, field, values.termsEnum(), maskedField, salt));
+    }
+
+    private static MaskedOrdinals get(
+        final DlsBitsetCache cache,
+        final LeafReader reader,
+        final String field,
+        final TermsEnum termsEnum,
+        final MaskedField maskedField,
+        final Salt salt
+    ) throws IOException {
+        final IndexReader.CacheHelper coreCacheHelper = reader.getCoreCacheHelper();
+        final FieldInfo fieldInfo = reader.getFieldInfos().fieldInfo(field);
+        if (coreCacheHelper == null || fieldInfo == null) {
+            return build(termsEnum, maskedField);
+        }
+
+        // doc values updates change the values of a field without changing the segment core
+        final Key key = new Key(coreCacheHelper.getKey(), field, fieldInfo.getDocValuesGen(), maskedField, salt);
+        MaskedOrdinals ordinals = cache.get(key);
+        if (ordinals == null) {
+            ordinals = build(termsEnum, maskedField);
+            cache.put(coreCacheHelper, key, ordinals);
+        }
+        return ordinals;
+    }
+
+    static MaskedOrdinals build(final TermsEnum termsEnum, final MaskedField maskedField) throws IOException {
+        final BytesRefHash terms = new BytesRefHash();
+        int[] ids = new int[16];
+        int count = 0;
+
+        for (BytesRef term = termsEnum.next(); term != null; term = termsEnum.next()) {
+            int id = terms.add(maskedField.mask(term));
+            if (id < 0) {
+                id = -id - 1;
+            }
+            ids = ArrayUtil.grow(ids, count + 1);
+            ids[count++] = id;
+        }
+
+        final int[] sortedIds = terms.sort();
+        final int[] rank = new int[terms.size()];
+        for (int i = 0; i < rank.length; i++) {
+            rank[sortedIds[i]] = i;
+        }
+        final int[] ordMap = new int[count];
+        for (int ord = 0; ord < count; ord++) {
+            ordMap[ord] = rank[ids[ord]];
+        }
+        return new MaskedOrdinals(terms, Arrays.copyOf(sortedIds, rank.length), ordMap);
+    }
+
+    int getValueCount() {
+        return sortedIds.length;
+    }
+
+    int map(final long ord) {
+        return ordMap[(int) ord];
+    }
+
+    BytesRef lookupOrd(final long ord) {
+        return terms.get(sortedIds[(int) ord], new BytesRef());
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        return terms.ramBytesUsed() + RamUsageEstimator.sizeOf(sortedIds) + RamUsageEstimator.sizeOf(ordMap);
+    }
+
+    private static final class MaskedSortedSetDocValues extends SortedSetDocValues {
+        private final SortedSetDocValues in;
+        private final MaskedOrdinals ordinals;
+        private long[] ords = new long[8];
+        private int ordCount;
+        private int ordIndex;
+        private int loadedDoc = -1;
+
+        private MaskedSortedSetDocValues(final SortedSetDocValues in, final MaskedOrdinals ordinals) {
+            this.in = in;
+            this.ordinals = ordinals;
+        }
+
+        private void load() throws IOException {
+            final int doc = in.docID();
+            if (loadedDoc == doc) {
+                return;
+            }
+            // masked ordinals of a document have to be returned in order and without duplicates
+            final int count = in.docValueCount();
+            ords = ArrayUtil.grow(ords, count);
+            for (int i = 0; i < count; i++) {
+                ords[i] = ordinals.map(in.nextOrd());
+            }
+            Arrays.sort(ords, 0, count);
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (unique == 0 || ords[unique - 1] != ords[i]) {
+                    ords[unique++] = ords[i];
+                }
+            }
+            ordCount = unique;
+            ordIndex = 0;
+            loadedDoc = doc;
+        }
+
+        @Override
+        public long nextOrd() throws IOException {
+            load();
+            return ordIndex < ordCount ? ords[ordIndex++] : NO_MORE_ORDS;
+        }
+
+        @Override
+        public int docValueCount() {
+            try {
+                load();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return ordCount;
+        }
+
+        @Override
+        public BytesRef lookupOrd(final long ord) {
+            return ordinals.lookupOrd(ord);
+        }
+
+        @Override
+        public long getValueCount() {
+            return ordinals.getValueCount();
+        }
+
+        @Override
+        public boolean advanceExact(final int target) throws IOException {
+            // the target may be the current document, whose ordinals have to be returned again
+            loadedDoc = -1;
+            return in.advanceExact(target);
+        }
+
+        @Override
+        public int docID() {
+            return in.docID();
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            loadedDoc = -1;
+            return in.nextDoc();
+        }
+
+        @Override
+        public int advance(final int target) throws IOException {
+            loadedDoc = -1;
+            return in.advance(target);
+        }
+
+        @Override
+        public long cost() {
+            return in.cost();
+        }
+    }
+
+    private static final class MaskedSortedDocValues extends SortedDocValues {
+        private final SortedDocValues in;
+        private final MaskedOrdinals ordinals;
+
+        private MaskedSortedDocValues(final SortedDocValues in, final MaskedOrdinals ordinals) {
+            this.in = in;
+            this.ordinals = ordinals;
+        }
+
+        @Override
+        public int ordValue() throws IOException {
+            return ordinals.map(in.ordValue());
+        }
+
+        @Override
+        public BytesRef lookupOrd(final int ord) {
+            return ordinals.lookupOrd(ord);
+        }
+
+        @Override
+        public int getValueCount() {
+            return ordinals.getValueCount();
+        }
+
+        @Override
+        public boolean advanceExact(final int target) throws IOException {
+            return in.advanceExact(target);
+        }
+
+        @Override
+        public int docID() {
+            return in.docID();
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return in.nextDoc();
+        }
+
+        @Override
+        public int advance(final int target) throws IOException {
+            return in.advance(target);
+        }
+
+        @Override
+        public long cost() {
+            return in.cost();
+        }
+    }
+
+    private static final class Key extends DlsBitsetCache.SegmentKey {
+        private final String field;
+        private final long docValuesGen;
+        private final MaskedField maskedField;
+        private final Salt salt;
+        private final int hashCode;
+
+        private Key(
+            final IndexReader.CacheKey coreKey,
+            final String field,
+            final long docValuesGen,
+            final MaskedField maskedField,
+            final Salt salt
+        ) {
+            super(coreKey);
+            this.field = field;
+            this.docValuesGen = docValuesGen;
+            this.maskedField = maskedField;
+            this.salt = salt;
+            this.hashCode = Objects.hash(coreKey, field, docValuesGen, maskedField);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return coreKey == other.coreKey
+                && docValuesGen == other.docValuesGen
+                && field.equals(other.field)
+                && maskedField.equals(other.maskedField)
+                && Arrays.equals(salt.getSalt16(), other.salt.getSalt16());
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -63,6 +63,7 @@ public class SecurityFlsDlsIndexSearcherWrapper extends SecurityIndexSearcherWra
     private final LongSupplier nowInMillis;
     private final DlsQueryParser dlsQueryParser;
     private final Salt salt;
+    private final DlsBitsetCache dlsBitsetCache;
 
     public SecurityFlsDlsIndexSearcherWrapper(
         final IndexService indexService,
@@ -72,14 +73,15 @@ public class SecurityFlsDlsIndexSearcherWrapper extends SecurityIndexSearcherWra
         final AuditLog auditlog,
         final ComplianceIndexingOperationListener ciol,
         final PrivilegesEvaluator evaluator,
-        final Salt salt
+        final Salt salt,
+        final DlsBitsetCache dlsBitsetCache
     ) {
         super(indexService, settings, adminDNs, evaluator);
         ciol.setIs(indexService);
         this.clusterService = clusterService;
         this.indexService = indexService;
         this.auditlog = auditlog;
-        this.dlsQueryParser = new DlsQueryParser(indexService.xContentRegistry());
+        this.dlsQueryParser = new DlsQueryParser(indexService.xContentRegistry(), evaluator::getDlsQueryTemplates);
         final boolean allowNowinDlsQueries = settings.getAsBoolean(ConfigConstants.SECURITY_UNSUPPORTED_ALLOW_NOW_IN_DLS, false);
         if (allowNowinDlsQueries) {
             nowInMillis = () -> System.currentTimeMillis();
@@ -88,6 +90,7 @@ public class SecurityFlsDlsIndexSearcherWrapper extends SecurityIndexSearcherWra
         }
         log.debug("FLS/DLS {} enabled for index {}", this, indexService.index().getName());
         this.salt = salt;
+        this.dlsBitsetCache = dlsBitsetCache;
     }
 
     @SuppressWarnings("unchecked")
@@ -150,7 +153,8 @@ public class SecurityFlsDlsIndexSearcherWrapper extends SecurityIndexSearcherWra
             auditlog,
             maskedFields,
             shardId,
-            salt
+            salt,
+            dlsBitsetCache
         );
     }
 }
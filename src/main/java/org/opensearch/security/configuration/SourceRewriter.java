@@ -0,0 +1,423 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.lucene.util.automaton.Automata;
+import org.apache.lucene.util.automaton.Automaton;
+import org.apache.lucene.util.automaton.CharacterRunAutomaton;
+import org.apache.lucene.util.automaton.Operations;
+
+import org.opensearch.common.regex.Regex;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.xcontent.DeprecationHandler;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.core.xcontent.XContentParser.Token;
+
+/**
+ * Applies field level security and field masking to a JSON {@code _source} in a single pass, by streaming its tokens
+ * from a parser to a generator instead of parsing the document into a map.
+ *
+ * For field level security, permitted subtrees are copied and excluded ones are skipped. Wildcard patterns have the
+ * same semantics as in {@code XContentMapValues.filter()}: a pattern matches the full dotted path of a field, a matching
+ * object is included or excluded with all its children, and objects or arrays which are empty after filtering are only
+ * kept if they were included explicitly. Without wildcards or dotted paths only the top-level keys are compared.
+ *
+ * Masked fields are looked up by the dotted path of string values and of arrays of strings. Like before, strings in
+ * objects nested in arrays are not masked.
+ */
+final class SourceRewriter {
+
+    // output buffers larger than this are not kept for reuse by the thread
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+    private static final ThreadLocal<ReusableByteArrayOutputStream> BUFFER = ThreadLocal.withInitial(
+        ReusableByteArrayOutputStream::new
+    );
+    // the masked field of at most this many distinct paths is remembered
+    private static final int MAX_MEMOIZED_PATHS = 1024;
+
+    private final Set<String> topLevelIncludes;
+    private final Set<String> topLevelExcludes;
+    private final CharacterRunAutomaton include;
+    private final CharacterRunAutomaton exclude;
+    private final CharacterRunAutomaton matchAll;
+    private final Function<String, MaskedField> maskedFields;
+    private final Map<String, Optional<MaskedField>> maskedFieldsByPath = new ConcurrentHashMap<>();
+
+    private SourceRewriter(
+        final Set<String> topLevelIncludes,
+        final Set<String> topLevelExcludes,
+        final CharacterRunAutomaton include,
+        final CharacterRunAutomaton exclude,
+        final Function<String, MaskedField> maskedFields
+    ) {
+        this.topLevelIncludes = topLevelIncludes;
+        this.topLevelExcludes = topLevelExcludes;
+        this.include = include;
+        this.exclude = exclude;
+        this.matchAll = include == null ? null : new CharacterRunAutomaton(Automata.makeAnyString());
+        this.maskedFields = maskedFields;
+    }
+
+    /**
+     * Keeps all fields.
+     */
+    static SourceRewriter unfiltered() {
+        return new SourceRewriter(null, null, null, null, null);
+    }
+
+    /**
+     * Keeps only the top-level keys contained in {@code includes}, or removes the top-level keys contained in
+     * {@code excludes} if that is not empty.
+     */
+    static SourceRewriter topLevel(final Set<String> includes, final Set<String> excludes) {
+        return excludes.isEmpty()
+            ? new SourceRewriter(includes, null, null, null, null)
+            : new SourceRewriter(null, excludes, null, null, null);
+    }
+
+    /**
+     * Keeps the fields whose paths match any of the {@code includes}, or removes the fields whose paths match any of
+     * the {@code excludes} if that is not empty.
+     */
+    static SourceRewriter wildcard(final Set<String> includes, final Set<String> excludes) {
+        final CharacterRunAutomaton include = excludes.isEmpty()
+            ? new CharacterRunAutomaton(matchFieldAndChildren(includes))
+            : new CharacterRunAutomaton(Automata.makeAnyString());
+        final CharacterRunAutomaton exclude = excludes.isEmpty()
+            ? new CharacterRunAutomaton(Automata.makeEmpty())
+            : new CharacterRunAutomaton(matchFieldAndChildren(excludes));
+        return new SourceRewriter(null, null, include, exclude, null);
+    }
+
+    /**
+     * Returns a rewriter which additionally masks the values of the fields for whose path the given function returns
+     * a masked field.
+     */
+    SourceRewriter withMaskedFields(final Function<String, MaskedField> maskedFields) {
+        return new SourceRewriter(topLevelIncludes, topLevelExcludes, include, exclude, maskedFields);
+    }
+
+    private static Automaton matchFieldAndChildren(final Set<String> patterns) {
+        final Automaton automaton = Regex.simpleMatchToAutomaton(patterns.toArray(new String[0]));
+        return Operations.union(
+            automaton,
+            Operations.concatenate(Arrays.asList(automaton, Automata.makeChar('.'), Automata.makeAnyString()))
+        );
+    }
+
+    byte[] rewrite(final byte[] source) throws IOException {
+        final ReusableByteArrayOutputStream out = BUFFER.get();
+        try {
+            try (
+                XContentParser parser = XContentType.JSON.xContent()
+                    .createParser(NamedXContentRegistry.EMPTY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, source);
+                XContentBuilder builder = new XContentBuilder(XContentType.JSON.xContent(), out)
+            ) {
+                if (parser.nextToken() != Token.START_OBJECT) {
+                    throw new IOException("_source is not an object but " + parser.currentToken());
+                }
+                final Rewrite rewrite = new Rewrite(parser, builder);
+                builder.startObject();
+                if (include != null) {
+                    rewrite.filterObject(include, 0, 0, true);
+                } else if (topLevelIncludes != null || topLevelExcludes != null) {
+                    rewrite.filterTopLevel();
+                } else {
+                    rewrite.copyObject();
+                }
+                builder.endObject();
+            }
+            return out.toByteArray();
+        } finally {
+            if (out.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                BUFFER.remove();
+            } else {
+                out.reset();
+            }
+        }
+    }
+
+    private MaskedField maskedField(final String path) {
+        Optional<MaskedField> maskedField = maskedFieldsByPath.get(path);
+        if (maskedField == null) {
+            maskedField = Optional.ofNullable(maskedFields.apply(path));
+            if (maskedFieldsByPath.size() < MAX_MEMOIZED_PATHS) {
+                maskedFieldsByPath.put(path, maskedField);
+            }
+        }
+        return maskedField.orElse(null);
+    }
+
+    private static int step(final CharacterRunAutomaton automaton, final String key, int state) {
+        for (int i = 0; state != -1 && i < key.length(); i++) {
+            state = automaton.step(state, key.charAt(i));
+        }
+        return state;
+    }
+
+    /**
+     * Rewrites a single document. Objects and arrays which may turn out to be empty are only written once their first
+     * permitted value is found.
+     */
+    private final class Rewrite {
+        private final XContentParser parser;
+        private final XContentBuilder builder;
+        // the dotted path of the current field, only maintained if fields are masked
+        private final StringBuilder path = new StringBuilder();
+        // the objects and arrays which were entered, and whether each is an array; null names are array elements
+        private final List<String> names = new ArrayList<>();
+        private final List<Boolean> arrays = new ArrayList<>();
+        // the number of entered objects and arrays which were already written, these are always the outermost ones
+        private int written;
+
+        private Rewrite(final XContentParser parser, final XContentBuilder builder) {
+            this.parser = parser;
+            this.builder = builder;
+        }
+
+        private void filterTopLevel() throws IOException {
+            while (parser.nextToken() == Token.FIELD_NAME) {
+                final String key = parser.currentName();
+                parser.nextToken();
+                if (topLevelExcludes != null ? !topLevelExcludes.contains(key) : topLevelIncludes.contains(key)) {
+                    final int parentLength = enterPath(key);
+                    builder.field(key);
+                    copyValue(true);
+                    exitPath(parentLength);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        // the parser is positioned on the start of the object, which is already entered
+        private void filterObject(
+            final CharacterRunAutomaton include,
+            final int includeState,
+            final int excludeState,
+            final boolean maskable
+        ) throws IOException {
+            while (parser.nextToken() == Token.FIELD_NAME) {
+                final String key = parser.currentName();
+                final Token token = parser.nextToken();
+                final int parentLength = enterPath(key);
+                filterField(key, token, include, includeState, excludeState, maskable);
+                exitPath(parentLength);
+            }
+        }
+
+        private void filterField(
+            final String key,
+            final Token token,
+            final CharacterRunAutomaton include,
+            final int includeState,
+            final int excludeState,
+            final boolean maskable
+        ) throws IOException {
+            final int keyIncludeState = step(include, key, includeState);
+            if (keyIncludeState == -1) {
+                parser.skipChildren();
+                return;
+            }
+            final int keyExcludeState = step(exclude, key, excludeState);
+            if (keyExcludeState != -1 && exclude.isAccept(keyExcludeState)) {
+                parser.skipChildren();
+                return;
+            }
+
+            final boolean included = include.isAccept(keyIncludeState);
+            CharacterRunAutomaton subInclude = include;
+            int subIncludeState = keyIncludeState;
+            if (included) {
+                if (keyExcludeState == -1 || exclude.step(keyExcludeState, '.') == -1) {
+                    // no exclude can match any of the children
+                    writePending();
+                    builder.field(key);
+                    copyValue(maskable);
+                    return;
+                }
+                // all children are included, unless they are excluded
+                subInclude = matchAll;
+                subIncludeState = 0;
+            }
+
+            if (token == Token.START_OBJECT) {
+                subIncludeState = subInclude.step(subIncludeState, '.');
+                if (subIncludeState == -1) {
+                    parser.skipChildren();
+                    return;
+                }
+                enter(key, false, included);
+                final int subExcludeState = keyExcludeState == -1 ? -1 : exclude.step(keyExcludeState, '.');
+                filterObject(subInclude, subIncludeState, subExcludeState, maskable);
+                exit();
+            } else if (token == Token.START_ARRAY) {
+                enter(key, true, included);
+                filterArray(subInclude, subIncludeState, keyExcludeState, maskable);
+                exit();
+            } else if (included) {
+                writePending();
+                builder.field(key);
+                copyValue(maskable);
+            }
+        }
+
+        // the parser is positioned on the start of the array, which is already entered
+        private void filterArray(
+            final CharacterRunAutomaton include,
+            final int includeState,
+            final int excludeState,
+            final boolean maskable
+        ) throws IOException {
+            final boolean included = include.isAccept(includeState);
+            Token token;
+            while ((token = parser.nextToken()) != Token.END_ARRAY) {
+                if (token == Token.START_OBJECT) {
+                    enter(null, false, false);
+                    final int elementExcludeState = excludeState == -1 ? -1 : exclude.step(excludeState, '.');
+                    filterObject(include, include.step(includeState, '.'), elementExcludeState, false);
+                    exit();
+                } else if (token == Token.START_ARRAY) {
+                    enter(null, true, false);
+                    filterArray(include, includeState, excludeState, false);
+                    exit();
+                } else if (included) {
+                    writePending();
+                    copyValue(maskable);
+                }
+            }
+        }
+
+        // the parser is positioned on the start of the object, which is already written
+        private void copyObject() throws IOException {
+            while (parser.nextToken() == Token.FIELD_NAME) {
+                final String key = parser.currentName();
+                parser.nextToken();
+                final int parentLength = enterPath(key);
+                builder.field(key);
+                copyValue(true);
+                exitPath(parentLength);
+            }
+        }
+
+        // copies the value the parser is positioned on, masking it if it is a string or an array of strings
+        private void copyValue(final boolean maskable) throws IOException {
+            if (maskedFields == null || !maskable) {
+                builder.copyCurrentStructure(parser);
+                return;
+            }
+
+            switch (parser.currentToken()) {
+                case START_OBJECT:
+                    builder.startObject();
+                    copyObject();
+                    builder.endObject();
+                    break;
+                case START_ARRAY:
+                    builder.startArray();
+                    Token token;
+                    while ((token = parser.nextToken()) != Token.END_ARRAY) {
+                        if (token == Token.VALUE_STRING) {
+                            copyValue(true);
+                        } else {
+                            builder.copyCurrentStructure(parser);
+                        }
+                    }
+                    builder.endArray();
+                    break;
+                case VALUE_STRING:
+                    final MaskedField maskedField = maskedField(path.toString());
+                    if (maskedField != null) {
+                        builder.value(maskedField.mask(parser.text()));
+                    } else {
+                        builder.copyCurrentStructure(parser);
+                    }
+                    break;
+                default:
+                    builder.copyCurrentStructure(parser);
+            }
+        }
+
+        private int enterPath(final String key) {
+            final int parentLength = path.length();
+            if (maskedFields != null) {
+                if (parentLength > 0) {
+                    path.append('.');
+                }
+                path.append(key);
+            }
+            return parentLength;
+        }
+
+        private void exitPath(final int parentLength) {
+            path.setLength(parentLength);
+        }
+
+        private void enter(final String name, final boolean array, final boolean keepIfEmpty) throws IOException {
+            names.add(name);
+            arrays.add(array);
+            if (keepIfEmpty) {
+                writePending();
+            }
+        }
+
+        private void writePending() throws IOException {
+            for (; written < names.size(); written++) {
+                if (names.get(written) != null) {
+                    builder.field(names.get(written));
+                }
+                if (arrays.get(written)) {
+                    builder.startArray();
+                } else {
+                    builder.startObject();
+                }
+            }
+        }
+
+        private void exit() throws IOException {
+            final int last = names.size() - 1;
+            if (written > last) {
+                if (arrays.get(last)) {
+                    builder.endArray();
+                } else {
+                    builder.endObject();
+                }
+                written = last;
+            }
+            names.remove(last);
+            arrays.remove(last);
+        }
+    }
+
+    private static final class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+        private ReusableByteArrayOutputStream() {
+            super(8192);
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionType;
+import org.opensearch.action.get.GetAction;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.client.Client;
+import org.opensearch.client.FilterClient;
+import org.opensearch.common.lucene.uid.Versions;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.action.ActionResponse;
+import org.opensearch.security.support.ConfigConstants;
+
+/**
+ * Short lived cache of the documents fetched for terms lookup queries (TLQ) in DLS queries.
+ * <p>
+ * Filter-level DLS resolves the lookups of a DLS query before executing the search. Without this cache, every
+ * request fetches the lookup documents again. Lookups of the same document that are in flight at the same time
+ * are coalesced into a single get request. The fetched documents do not depend on the user: lookup documents are
+ * readable through the document allow list by every user whose DLS query refers to them.
+ */
+public class TermsLookupCache {
+
+    public static final TimeValue DEFAULT_TTL = TimeValue.timeValueSeconds(1);
+
+    private static final long MAX_WEIGHT = 32L * 1024 * 1024;
+
+    private final Cache<Key, GetResponse> cache;
+    private final ConcurrentMap<Key, PendingLookup> pending = new ConcurrentHashMap<>();
+
+    TermsLookupCache(final Settings settings) {
+        final TimeValue ttl = settings.getAsTime(ConfigConstants.SECURITY_DLS_TLQ_CACHE_TTL, DEFAULT_TTL);
+        if (ttl.millis() > 0) {
+            this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl.millis(), TimeUnit.MILLISECONDS)
+                .maximumWeight(MAX_WEIGHT)
+                .weigher((Key key, GetResponse response) -> response.isSourceEmpty() ? 1 : response.getSourceInternal().length())
+                .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Returns a client which serves the get requests of terms lookups from this cache.
+     */
+    Client wrap(final Client client) {
+        return new FilterClient(client) {
+            @Override
+            protected <Request extends ActionRequest, Response extends ActionResponse> void doExecute(
+                ActionType<Response> action,
+                Request request,
+                ActionListener<Response> listener
+            ) {
+                if (action == GetAction.INSTANCE && isCacheable((GetRequest) request)) {
+                    @SuppressWarnings("unchecked")
+                    final ActionListener<GetResponse> getListener = (ActionListener<GetResponse>) listener;
+                    lookup((GetRequest) request, getListener, in());
+                } else {
+                    super.doExecute(action, request, listener);
+                }
+            }
+        };
+    }
+
+    private static boolean isCacheable(final GetRequest request) {
+        return request.storedFields() == null && request.fetchSourceContext() == null && request.version() == Versions.MATCH_ANY;
+    }
+
+    private void lookup(final GetRequest request, final ActionListener<GetResponse> listener, final Client client) {
+        final Key key = new Key(request.index(), request.id(), request.routing());
+        final GetResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            listener.onResponse(cached);
+            return;
+        }
+
+        final PendingLookup lookup = new PendingLookup(listener);
+        final PendingLookup existing = pending.putIfAbsent(key, lookup);
+        if (existing != null) {
+            if (existing.add(listener)) {
+                return;
+            }
+            // the lookup completed in the meantime, the response is cached unless it failed
+            lookup(request, listener, client);
+            return;
+        }
+
+        client.get(request, new ActionListener<GetResponse>() {
+            @Override
+            public void onResponse(final GetResponse response) {
+                cache.put(key, response);
+                pending.remove(key, lookup);
+                for (final ActionListener<GetResponse> waiting : lookup.complete()) {
+                    waiting.onResponse(response);
+                }
+            }
+
+            @Override
+            public void onFailure(final Exception e) {
+                pending.remove(key, lookup);
+                for (final ActionListener<GetResponse> waiting : lookup.complete()) {
+                    waiting.onFailure(e);
+                }
+            }
+        });
+    }
+
+    long count() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    private static final class PendingLookup {
+        private final List<ActionListener<GetResponse>> listeners = new ArrayList<>(1);
+        private boolean completed;
+
+        private PendingLookup(final ActionListener<GetResponse> listener) {
+            listeners.add(listener);
+        }
+
+        synchronized boolean add(final ActionListener<GetResponse> listener) {
+            if (completed) {
+                return false;
+            }
+            listeners.add(listener);
+            return true;
+        }
+
+        synchronized List<ActionListener<GetResponse>> complete() {
+            completed = true;
+            return listeners;
+        }
+    }
+
+    private static final class Key {
+        private final String index;
+        private final String id;
+        private final String routing;
+
+        private Key(final String index, final String id, final String routing) {
+            this.index = index;
+            this.id = id;
+            this.routing = routing;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return index.equals(other.index) && id.equals(other.id) && Objects.equals(routing, other.routing);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, id, routing);
+        }
+    }
+}
@@ -70,6 +70,7 @@ public class RestApiAdminPrivilegesEvaluator {
         .put(Endpoint.ROLESMAPPING, action -> buildEndpointPermission(Endpoint.ROLESMAPPING))
         .put(Endpoint.TENANTS, action -> buildEndpointPermission(Endpoint.TENANTS))
         .put(Endpoint.SSL, action -> buildEndpointActionPermission(Endpoint.SSL, action))
+        .put(Endpoint.STATS, action -> buildEndpointPermission(Endpoint.STATS))
         .build();
 
     private final ThreadContext threadContext;
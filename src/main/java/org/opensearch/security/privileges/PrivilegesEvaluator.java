@@ -36,6 +36,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.apache.logging.log4j.LogManager;
@@ -61,6 +62,7 @@ import org.opensearch.action.bulk.BulkItemRequest;
 import org.opensearch.action.bulk.BulkRequest;
 import org.opensearch.action.bulk.BulkShardRequest;
 import org.opensearch.action.delete.DeleteAction;
+import org.opensearch.action.get.GetAction;
 import org.opensearch.action.get.GetRequest;
 import org.opensearch.action.get.MultiGetAction;
 import org.opensearch.action.index.IndexAction;
@@ -85,6 +87,7 @@ import org.opensearch.script.mustache.RenderSearchTemplateAction;
 import org.opensearch.security.auditlog.AuditLog;
 import org.opensearch.security.configuration.ClusterInfoHolder;
 import org.opensearch.security.configuration.ConfigurationRepository;
+import org.opensearch.security.configuration.DlsQueryParser;
 import org.opensearch.security.resolver.IndexResolverReplacer;
 import org.opensearch.security.resolver.IndexResolverReplacer.Resolved;
 import org.opensearch.security.securityconf.ConfigModel;
@@ -132,6 +135,10 @@ public class PrivilegesEvaluator {
 
     private final ClusterInfoHolder clusterInfoHolder;
     private ConfigModel configModel;
+    private final int securityRolesCacheMaxSize;
+    private final boolean fastPathEnabled;
+    private volatile SecurityRolesCache securityRolesCache;
+    private CacheStats retiredSecurityRolesCacheStats = new CacheStats(0, 0, 0, 0, 0, 0);
     private final IndexResolverReplacer irr;
     private final SnapshotRestoreEvaluator snapshotRestoreEvaluator;
     private final SecurityIndexAccessEvaluator securityIndexAccessEvaluator;
@@ -180,10 +187,24 @@ public class PrivilegesEvaluator {
         this.namedXContentRegistry = namedXContentRegistry;
         this.dlsFlsEnabled = dlsFlsEnabled;
         this.dfmEmptyOverwritesAll = settings.getAsBoolean(ConfigConstants.SECURITY_DFM_EMPTY_OVERRIDES_ALL, false);
+        this.securityRolesCacheMaxSize = settings.getAsInt(
+            ConfigConstants.SECURITY_PRIVILEGES_ROLES_CACHE_MAX_SIZE,
+            SecurityRolesCache.DEFAULT_MAX_SIZE
+        );
+        this.fastPathEnabled = settings.getAsBoolean(ConfigConstants.SECURITY_PRIVILEGES_FAST_PATH_ENABLED, true);
     }
 
     @Subscribe
     public void onConfigModelChanged(ConfigModel configModel) {
+        final SecurityRolesCache newCache = configModel == null
+            ? null
+            : new SecurityRolesCache(configModel.getSecurityRoles(), securityRolesCacheMaxSize);
+        synchronized (this) {
+            if (securityRolesCache != null) {
+                retiredSecurityRolesCacheStats = retiredSecurityRolesCacheStats.plus(securityRolesCache.stats());
+            }
+            securityRolesCache = newCache;
+        }
         this.configModel = configModel;
     }
 
@@ -193,7 +214,21 @@ public class PrivilegesEvaluator {
     }
 
     private SecurityRoles getSecurityRoles(Set<String> roles) {
-        return configModel.getSecurityRoles().filter(roles);
+        return securityRolesCache.get(roles);
+    }
+
+    /**
+     * Statistics of the cache of security roles filtered by mapped roles, accumulated over all config reloads
+     */
+    public synchronized CacheStats getSecurityRolesCacheStats() {
+        return securityRolesCache == null
+            ? retiredSecurityRolesCacheStats
+            : retiredSecurityRolesCacheStats.plus(securityRolesCache.stats());
+    }
+
+    public long getSecurityRolesCacheSize() {
+        final SecurityRolesCache cache = securityRolesCache;
+        return cache == null ? 0 : cache.size();
     }
 
     public boolean hasRestAdminPermissions(final User user, final TransportAddress remoteAddress, final String permissions) {
@@ -248,8 +283,6 @@ public class PrivilegesEvaluator {
             action0 = PutMappingAction.NAME;
         }
 
-        final PrivilegesEvaluatorResponse presponse = new PrivilegesEvaluatorResponse();
-
         final TransportAddress caller = threadContext.getTransient(ConfigConstants.OPENDISTRO_SECURITY_REMOTE_ADDRESS);
         Set<String> mappedRoles = (injectedRoles == null) ? mapRoles(user, caller) : injectedRoles;
         final String injectedRolesValidationString = threadContext.getTransient(
@@ -258,6 +291,7 @@ public class PrivilegesEvaluator {
         if (injectedRolesValidationString != null) {
             HashSet<String> injectedRolesValidationSet = new HashSet<>(Arrays.asList(injectedRolesValidationString.split(",")));
             if (!mappedRoles.containsAll(injectedRolesValidationSet)) {
+                final PrivilegesEvaluatorResponse presponse = new PrivilegesEvaluatorResponse();
                 presponse.allowed = false;
                 presponse.missingSecurityRoles.addAll(injectedRolesValidationSet);
                 log.info("Roles {} are not mapped to the user {}", injectedRolesValidationSet, user);
@@ -265,7 +299,6 @@ public class PrivilegesEvaluator {
             }
             mappedRoles = ImmutableSet.copyOf(injectedRolesValidationSet);
         }
-        presponse.resolvedSecurityRoles.addAll(mappedRoles);
         final SecurityRoles securityRoles = getSecurityRoles(mappedRoles);
 
         // Add the security roles for this user so that they can be used for DLS parameter substitution.
@@ -279,6 +312,16 @@ public class PrivilegesEvaluator {
             log.debug("Mapped roles: {}", mappedRoles.toString());
         }
 
+        if (fastPathEnabled && isUnrestrictedSingleIndexRead(user, action0, request, securityRoles)) {
+            if (isDebugEnabled) {
+                log.debug("Allowed because we have unrestricted permissions for {} on a single concrete index", action0);
+            }
+            return PrivilegesEvaluatorResponse.allowedUnrestricted(mappedRoles);
+        }
+
+        final PrivilegesEvaluatorResponse presponse = new PrivilegesEvaluatorResponse();
+        presponse.resolvedSecurityRoles.addAll(mappedRoles);
+
         if (request instanceof BulkRequest && (Strings.isNullOrEmpty(user.getRequestedTenant()))) {
             // Shortcut for bulk actions. The details are checked on the lower level of the BulkShardRequests (Action
             // indices:data/write/bulk[s]).
@@ -579,6 +622,58 @@ public class PrivilegesEvaluator {
 
     }
 
+    /**
+     * Shortcut for get and search requests on a single, concrete index which is neither a system, hidden, protected
+     * nor dashboards index and has no aliases. If the user has unrestricted permissions for such an index, none of the
+     * special cases handled by the full evaluation apply, so that resolving the request can be skipped. In all
+     * other cases, including missing permissions, the request is evaluated as usual.
+     */
+    private boolean isUnrestrictedSingleIndexRead(
+        final User user,
+        final String action,
+        final ActionRequest request,
+        final SecurityRoles securityRoles
+    ) {
+        final String index;
+        if (request instanceof GetRequest && GetAction.NAME.equals(action)) {
+            index = ((GetRequest) request).index();
+        } else if (request instanceof SearchRequest && SearchAction.NAME.equals(action)) {
+            final SearchRequest searchRequest = (SearchRequest) request;
+            if (searchRequest.indices().length != 1 || searchRequest.pointInTimeBuilder() != null) {
+                return false;
+            }
+            index = searchRequest.indices()[0];
+        } else {
+            return false;
+        }
+
+        if (index == null || index.isEmpty() || index.charAt(0) == '.' || !Strings.isNullOrEmpty(user.getRequestedTenant())) {
+            return false;
+        }
+
+        if (privilegesInterceptor.getClass() != PrivilegesInterceptor.class
+            && dcm.isDashboardsMultitenancyEnabled()
+            && index.startsWith(dcm.getDashboardsIndexname())) {
+            return false;
+        }
+
+        // only concrete indices are found by name; aliases, data streams, wildcards and date math are not
+        final IndexMetadata indexMetadata = clusterService.state().metadata().index(index);
+        if (indexMetadata == null
+            || indexMetadata.getState() != IndexMetadata.State.OPEN
+            || indexMetadata.isSystem()
+            || IndexMetadata.INDEX_HIDDEN_SETTING.get(indexMetadata.getSettings())
+            || !indexMetadata.getAliases().isEmpty()) {
+            return false;
+        }
+
+        if (!securityIndexAccessEvaluator.isRegularIndex(index) || !protectedIndexAccessEvaluator.isRegularIndex(index)) {
+            return false;
+        }
+
+        return securityRoles.impliesUnrestrictedIndexPermission(index, action, user, resolver, clusterService);
+    }
+
     public Set<String> mapRoles(final User user, final TransportAddress caller) {
         return this.configModel.mapSecurityRoles(user, caller);
     }
@@ -592,6 +687,11 @@ public class PrivilegesEvaluator {
         return configModel.getAllConfiguredTenantNames();
     }
 
+    public DlsQueryParser.Templates getDlsQueryTemplates() {
+        final ConfigModel configModel = this.configModel;
+        return configModel != null ? configModel.getDlsQueryTemplates() : DlsQueryParser.Templates.EMPTY;
+    }
+
     public boolean multitenancyEnabled() {
         return privilegesInterceptor.getClass() != PrivilegesInterceptor.class && dcm.isDashboardsMultitenancyEnabled();
     }
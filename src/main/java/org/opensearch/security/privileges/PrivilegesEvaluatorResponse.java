@@ -26,6 +26,7 @@
 
 package org.opensearch.security.privileges;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -34,15 +35,45 @@ import org.opensearch.security.resolver.IndexResolverReplacer.Resolved;
 import org.opensearch.security.securityconf.EvaluatedDlsFlsConfig;
 
 public class PrivilegesEvaluatorResponse {
+
     boolean allowed = false;
-    Set<String> missingPrivileges = new HashSet<String>();
-    Set<String> missingSecurityRoles = new HashSet<>();
-    Set<String> resolvedSecurityRoles = new HashSet<>();
+    final Set<String> missingPrivileges;
+    final Set<String> missingSecurityRoles;
+    final Set<String> resolvedSecurityRoles;
     EvaluatedDlsFlsConfig evaluatedDlsFlsConfig;
     PrivilegesEvaluatorResponseState state = PrivilegesEvaluatorResponseState.PENDING;
     Resolved resolved;
     CreateIndexRequestBuilder createIndexRequestBuilder;
 
+    public PrivilegesEvaluatorResponse() {
+        this(new HashSet<>(), new HashSet<>(), new HashSet<>());
+    }
+
+    private PrivilegesEvaluatorResponse(
+        final Set<String> missingPrivileges,
+        final Set<String> missingSecurityRoles,
+        final Set<String> resolvedSecurityRoles
+    ) {
+        this.missingPrivileges = missingPrivileges;
+        this.missingSecurityRoles = missingSecurityRoles;
+        this.resolvedSecurityRoles = resolvedSecurityRoles;
+    }
+
+    /**
+     * Response for requests which are allowed without any DLS/FLS restriction and which did not need to be resolved.
+     * It only wraps the given roles, which must not be modified afterwards, and is complete, so it is never modified.
+     */
+    static PrivilegesEvaluatorResponse allowedUnrestricted(final Set<String> resolvedSecurityRoles) {
+        final PrivilegesEvaluatorResponse response = new PrivilegesEvaluatorResponse(
+            Collections.emptySet(),
+            Collections.emptySet(),
+            Collections.unmodifiableSet(resolvedSecurityRoles)
+        );
+        response.allowed = true;
+        response.evaluatedDlsFlsConfig = EvaluatedDlsFlsConfig.EMPTY;
+        return response.markComplete();
+    }
+
     public Resolved getResolved() {
         return resolved;
     }
@@ -67,6 +67,14 @@ public class ProtectedIndexAccessEvaluator {
         this.deniedActionMatcher = WildcardMatcher.from(indexDeniedActionPatterns);
     }
 
+    /**
+     * Checks if the given concrete index is not a protected index, so that a request on only this index is not
+     * subject to any of the checks of this evaluator
+     */
+    boolean isRegularIndex(final String index) {
+        return !protectedIndexEnabled || !indexMatcher.test(index);
+    }
+
     public PrivilegesEvaluatorResponse evaluate(
         final ActionRequest request,
         final Task task,
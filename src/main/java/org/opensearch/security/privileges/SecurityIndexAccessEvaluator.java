@@ -108,6 +108,14 @@ public class SecurityIndexAccessEvaluator {
         );
     }
 
+    /**
+     * Checks if the given concrete index is neither the security index nor a system index, so that a request on only
+     * this index is not subject to any of the checks of this evaluator
+     */
+    boolean isRegularIndex(final String index) {
+        return !superAdminAccessOnlyIndexMatcher.test(index) && !(isSystemIndexEnabled && systemIndexMatcher.test(index));
+    }
+
     private static List<String> deniedActionPatterns() {
         final List<String> securityIndexDeniedActionPatternsList = new ArrayList<>();
         securityIndexDeniedActionPatternsList.add("indices:data/write*");
@@ -0,0 +1,61 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.privileges;
+
+import java.util.Set;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
+
+import org.opensearch.security.securityconf.SecurityRoles;
+
+/**
+ * Caches the {@link SecurityRoles} filtered down to a set of mapped roles. An instance is bound to the
+ * roles of a single config model; a config reload replaces the whole instance, so that entries computed
+ * from an outdated model can never be returned.
+ */
+public class SecurityRolesCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final SecurityRoles securityRoles;
+    private final Cache<Set<String>, SecurityRoles> cache;
+
+    SecurityRolesCache(final SecurityRoles securityRoles, final int maxSize) {
+        this.securityRoles = securityRoles;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+    }
+
+    /**
+     * Returns the security roles restricted to the given role names. The returned instance is shared
+     * between all users having the same set of mapped roles.
+     */
+    SecurityRoles get(final Set<String> roles) {
+        SecurityRoles filtered = cache.getIfPresent(roles);
+        if (filtered == null) {
+            filtered = securityRoles.filter(roles);
+            // the key is copied as the passed set might be mutable and the copy is shared by all users with these roles
+            cache.put(ImmutableSet.copyOf(roles), filtered);
+        }
+        return filtered;
+    }
+
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    long size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.rest;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.BytesRestResponse;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.security.auditlog.AuditLog;
+import org.opensearch.security.dlic.rest.api.Endpoint;
+import org.opensearch.security.dlic.rest.api.RestApiAdminPrivilegesEvaluator;
+import org.opensearch.security.privileges.PrivilegesEvaluator;
+
+import static org.opensearch.rest.RestRequest.Method.GET;
+import static org.opensearch.security.dlic.rest.api.Responses.forbidden;
+import static org.opensearch.security.dlic.rest.support.Utils.addRoutesPrefix;
+
+/**
+ * Exposes internal statistics of the security plugin on the local node. Like the other security management
+ * endpoints, it requires a super admin or the REST admin permission restapi:admin/stats.
+ */
+public class SecurityStatsAction extends BaseRestHandler {
+    private static final List<Route> routes = addRoutesPrefix(ImmutableList.of(new Route(GET, "/stats")), "/_plugins/_security");
+
+    private final PrivilegesEvaluator evaluator;
+    private final AuditLog auditLog;
+    private final RestApiAdminPrivilegesEvaluator restApiAdminPrivilegesEvaluator;
+
+    public SecurityStatsAction(
+        final PrivilegesEvaluator evaluator,
+        final AuditLog auditLog,
+        final RestApiAdminPrivilegesEvaluator restApiAdminPrivilegesEvaluator
+    ) {
+        super();
+        this.evaluator = evaluator;
+        this.auditLog = auditLog;
+        this.restApiAdminPrivilegesEvaluator = restApiAdminPrivilegesEvaluator;
+    }
+
+    @Override
+    public List<Route> routes() {
+        return routes;
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        if (!restApiAdminPrivilegesEvaluator.isCurrentUserAdminFor(Endpoint.STATS)) {
+            return channel -> forbidden(channel, "Access denied");
+        }
+        return channel -> {
+            try (XContentBuilder builder = channel.newBuilder()) {
+                builder.startObject();
+                builder.startObject("privileges");
+                addCacheStats(builder, "roles_cache", evaluator.getSecurityRolesCacheStats(), evaluator.getSecurityRolesCacheSize());
+                builder.endObject();
+                builder.startObject("audit");
+                auditLog.addStats(builder);
+                builder.endObject();
+                builder.endObject();
+                channel.sendResponse(new BytesRestResponse(RestStatus.OK, builder));
+            }
+        };
+    }
+
+    private static void addCacheStats(final XContentBuilder builder, final String name, final CacheStats stats, final long size)
+        throws IOException {
+        builder.startObject(name);
+        builder.field("size", size);
+        builder.field("hit_count", stats.hitCount());
+        builder.field("miss_count", stats.missCount());
+        builder.field("eviction_count", stats.evictionCount());
+        builder.field("hit_rate", stats.hitRate());
+        builder.endObject();
+    }
+
+    @Override
+    public String getName() {
+        return "OpenSearch Security Stats";
+    }
+}
@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.opensearch.core.common.transport.TransportAddress;
+import org.opensearch.security.configuration.DlsQueryParser;
 import org.opensearch.security.user.User;
 
 public abstract class ConfigModel {
@@ -41,4 +42,6 @@ public abstract class ConfigModel {
     public abstract SecurityRoles getSecurityRoles();
 
     public abstract Set<String> getAllConfiguredTenantNames();
+
+    public abstract DlsQueryParser.Templates getDlsQueryTemplates();
 }
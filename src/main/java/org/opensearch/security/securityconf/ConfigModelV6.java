@@ -54,6 +54,7 @@ import org.opensearch.common.settings.Settings;
 import org.opensearch.common.util.set.Sets;
 import org.opensearch.core.common.transport.TransportAddress;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.security.configuration.DlsQueryParser;
 import org.opensearch.security.resolver.IndexResolverReplacer.Resolved;
 import org.opensearch.security.securityconf.impl.SecurityDynamicConfiguration;
 import org.opensearch.security.securityconf.impl.v6.ActionGroupsV6;
@@ -104,6 +105,10 @@ public class ConfigModelV6 extends ConfigModel {
         roleMappingHolder = new RoleMappingHolder(rolesmapping, dcm.getHostsResolverMode());
     }
 
+    public DlsQueryParser.Templates getDlsQueryTemplates() {
+        return DlsQueryParser.Templates.EMPTY;
+    }
+
     public Set<String> getAllConfiguredTenantNames() {
         final Set<String> configuredTenants = new HashSet<>();
         for (Entry<String, RoleV6> securityRole : roles.getCEntries().entrySet()) {
@@ -449,6 +454,18 @@ public class ConfigModelV6 extends ConfigModel {
             return new EvaluatedDlsFlsConfig(dlsQueries, flsFields, maskedFieldsMap);
         }
 
+        @Override
+        public boolean impliesUnrestrictedIndexPermission(
+            String index,
+            String action,
+            User user,
+            IndexNameExpressionResolver resolver,
+            ClusterService cs
+        ) {
+            // not supported for the legacy config model; requests are always resolved
+            return false;
+        }
+
         public boolean hasExplicitIndexPermission(
             Resolved resolved,
             User user,
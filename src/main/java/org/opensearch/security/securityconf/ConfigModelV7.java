@@ -17,6 +17,7 @@
 
 package org.opensearch.security.securityconf;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,29 +29,38 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MultimapBuilder.SetMultimapBuilder;
 import com.google.common.collect.SetMultimap;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.util.Strings;
 
 import org.opensearch.ExceptionsHelper;
+import org.opensearch.action.bulk.BulkAction;
+import org.opensearch.action.delete.DeleteAction;
+import org.opensearch.action.get.GetAction;
+import org.opensearch.action.get.MultiGetAction;
+import org.opensearch.action.index.IndexAction;
+import org.opensearch.action.search.SearchAction;
 import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.action.update.UpdateAction;
+import org.opensearch.cluster.ClusterState;
 import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.collect.Tuple;
@@ -58,6 +68,7 @@ import org.opensearch.common.settings.Settings;
 import org.opensearch.common.util.set.Sets;
 import org.opensearch.core.common.transport.TransportAddress;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.security.configuration.DlsQueryParser;
 import org.opensearch.security.resolver.IndexResolverReplacer.Resolved;
 import org.opensearch.security.securityconf.impl.SecurityDynamicConfiguration;
 import org.opensearch.security.securityconf.impl.v7.ActionGroupsV7;
@@ -74,14 +85,26 @@ import static org.opensearch.cluster.metadata.IndexAbstraction.Type.DATA_STREAM;
 
 public class ConfigModelV7 extends ConfigModel {
 
+    public static final int DEFAULT_ROLES_MAPPING_CACHE_MAX_SIZE = 10000;
+    public static final int DEFAULT_DLS_FLS_CACHE_MAX_SIZE = 1000;
+
+    // number of roles built by a single task when the config model is loaded
+    private static final int RELOAD_BATCH_SIZE = 100;
+    // reloads taking longer than this are logged at info level, faster ones at debug level
+    private static final long SLOW_RELOAD_THRESHOLD_MS = 1000;
+    private static final Pattern ATTRIBUTE_TENANT_PATTERN = Pattern.compile("^\\$\\{attr");
+
     protected final Logger log = LogManager.getLogger(this.getClass());
     private ConfigConstants.RolesMappingResolution rolesMappingResolution;
     private ActionGroupResolver agr = null;
     private SecurityRoles securityRoles = null;
     private TenantHolder tenantHolder;
+    private DlsQueryParser.Templates dlsQueryTemplates;
     private RoleMappingHolder roleMappingHolder;
     private SecurityDynamicConfiguration<RoleV7> roles;
     private SecurityDynamicConfiguration<TenantV7> tenants;
+    private final ResolvedIndexPatternCache resolvedIndexPatternCache;
+    private final Cache<DlsFlsCacheKey, EvaluatedDlsFlsConfig> dlsFlsCache;
 
     public ConfigModelV7(
         SecurityDynamicConfiguration<RoleV7> roles,
@@ -91,9 +114,48 @@ public class ConfigModelV7 extends ConfigModel {
         DynamicConfigModel dcm,
         Settings opensearchSettings
     ) {
+        this(roles, rolemappings, actiongroups, tenants, dcm, opensearchSettings, new ResolvedIndexPatternCache(opensearchSettings));
+    }
+
+    public ConfigModelV7(
+        SecurityDynamicConfiguration<RoleV7> roles,
+        SecurityDynamicConfiguration<RoleMappingsV7> rolemappings,
+        SecurityDynamicConfiguration<ActionGroupsV7> actiongroups,
+        SecurityDynamicConfiguration<TenantV7> tenants,
+        DynamicConfigModel dcm,
+        Settings opensearchSettings,
+        ResolvedIndexPatternCache resolvedIndexPatternCache
+    ) {
+        this(roles, rolemappings, actiongroups, tenants, dcm, opensearchSettings, resolvedIndexPatternCache, null, null);
+    }
+
+    /**
+     * Builds the config model, reusing the parts of the previous model whose configuration did not change.
+     *
+     * @param previous the model which is replaced by this one, or null to build everything from scratch. The new model
+     *                 does not keep a reference to it.
+     * @param executor the executor to rebuild roles and tenants on, or null to build them on the calling thread
+     */
+    public ConfigModelV7(
+        SecurityDynamicConfiguration<RoleV7> roles,
+        SecurityDynamicConfiguration<RoleMappingsV7> rolemappings,
+        SecurityDynamicConfiguration<ActionGroupsV7> actiongroups,
+        SecurityDynamicConfiguration<TenantV7> tenants,
+        DynamicConfigModel dcm,
+        Settings opensearchSettings,
+        ResolvedIndexPatternCache resolvedIndexPatternCache,
+        ConfigModelV7 previous,
+        Executor executor
+    ) {
 
         this.roles = roles;
         this.tenants = tenants;
+        this.resolvedIndexPatternCache = resolvedIndexPatternCache;
+        final int dlsFlsCacheMaxSize = opensearchSettings.getAsInt(
+            ConfigConstants.SECURITY_PRIVILEGES_DLS_FLS_CACHE_MAX_SIZE,
+            DEFAULT_DLS_FLS_CACHE_MAX_SIZE
+        );
+        this.dlsFlsCache = CacheBuilder.newBuilder().maximumSize(dlsFlsCacheMaxSize).build();
 
         try {
             rolesMappingResolution = ConfigConstants.RolesMappingResolution.valueOf(
@@ -107,16 +169,65 @@ public class ConfigModelV7 extends ConfigModel {
             rolesMappingResolution = ConfigConstants.RolesMappingResolution.MAPPING_ONLY;
         }
 
+        final long start = System.nanoTime();
         agr = reloadActionGroups(actiongroups);
-        securityRoles = reload(roles);
-        tenantHolder = new TenantHolder(roles, tenants);
-        roleMappingHolder = new RoleMappingHolder(rolemappings, dcm.getHostsResolverMode());
+        final long actionGroupsLoaded = System.nanoTime();
+
+        final Set<String> unchangedRoles = unchangedRoles(previous);
+        securityRoles = reload(roles, previous, unchangedRoles, executor);
+        dlsQueryTemplates = DlsQueryParser.Templates.of(collectDlsQueryTemplates(securityRoles));
+        final long rolesLoaded = System.nanoTime();
+
+        final boolean tenantsUnchanged = previous != null
+            && previous.tenantHolder.tenantsMM != null
+            && previous.tenants.getCEntries().keySet().equals(tenants.getCEntries().keySet());
+        tenantHolder = new TenantHolder(
+            roles,
+            tenants,
+            tenantsUnchanged ? previous.tenantHolder.tenantsMM : null,
+            tenantsUnchanged ? unchangedRoles : Collections.emptySet(),
+            executor
+        );
+        final long tenantsLoaded = System.nanoTime();
+
+        final String hostResolverMode = dcm.getHostsResolverMode();
+        final boolean roleMappingsUnchanged = previous != null
+            && previous.roleMappingHolder.isReusableFor(rolemappings, hostResolverMode, rolesMappingResolution);
+        if (roleMappingsUnchanged) {
+            roleMappingHolder = new RoleMappingHolder(previous.roleMappingHolder, rolemappings);
+        } else {
+            roleMappingHolder = new RoleMappingHolder(
+                rolemappings,
+                hostResolverMode,
+                opensearchSettings.getAsInt(ConfigConstants.SECURITY_ROLES_MAPPING_CACHE_MAX_SIZE, DEFAULT_ROLES_MAPPING_CACHE_MAX_SIZE)
+            );
+        }
+        final long end = System.nanoTime();
+        final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(end - start);
+
+        log.log(
+            elapsedMs >= SLOW_RELOAD_THRESHOLD_MS ? Level.INFO : Level.DEBUG,
+            "Security config model loaded in {} ms (action groups: {} ms, roles: {} ms with {} of {} reused, tenants: {} ms, "
+                + "roles mapping: {} ms, reused: {})",
+            elapsedMs,
+            TimeUnit.NANOSECONDS.toMillis(actionGroupsLoaded - start),
+            TimeUnit.NANOSECONDS.toMillis(rolesLoaded - actionGroupsLoaded),
+            unchangedRoles.size(),
+            roles.getCEntries().size(),
+            TimeUnit.NANOSECONDS.toMillis(tenantsLoaded - rolesLoaded),
+            TimeUnit.NANOSECONDS.toMillis(end - tenantsLoaded),
+            roleMappingsUnchanged
+        );
     }
 
     public Set<String> getAllConfiguredTenantNames() {
         return Collections.unmodifiableSet(tenants.getCEntries().keySet());
     }
 
+    public DlsQueryParser.Templates getDlsQueryTemplates() {
+        return dlsQueryTemplates;
+    }
+
     public SecurityRoles getSecurityRoles() {
         return securityRoles;
     }
@@ -128,13 +239,21 @@ public class ConfigModelV7 extends ConfigModel {
     private ActionGroupResolver reloadActionGroups(SecurityDynamicConfiguration<ActionGroupsV7> actionGroups) {
         return new ActionGroupResolver() {
 
+            // action groups are referred to by many roles, so each is resolved only once per config model
+            private final Map<String, Set<String>> resolvedGroups = new ConcurrentHashMap<>();
+
             private Set<String> getGroupMembers(final String groupname) {
 
                 if (actionGroups == null) {
                     return Collections.emptySet();
                 }
 
-                return Collections.unmodifiableSet(resolve(actionGroups, groupname));
+                Set<String> members = resolvedGroups.get(groupname);
+                if (members == null) {
+                    members = Collections.unmodifiableSet(resolve(actionGroups, groupname));
+                    resolvedGroups.put(groupname, members);
+                }
+                return members;
             }
 
             @SuppressWarnings("unchecked")
@@ -197,92 +316,198 @@ public class ConfigModelV7 extends ConfigModel {
         };
     }
 
-    private SecurityRoles reload(SecurityDynamicConfiguration<RoleV7> settings) {
+    private SecurityRoles reload(
+        final SecurityDynamicConfiguration<RoleV7> settings,
+        final ConfigModelV7 previous,
+        final Set<String> unchangedRoles,
+        final Executor executor
+    ) {
 
-        final Set<Future<SecurityRole>> futures = new HashSet<>(5000);
-        final ExecutorService execs = Executors.newFixedThreadPool(10);
+        final SecurityRoles _securityRoles = new SecurityRoles(settings.getCEntries().size(), dlsFlsCache);
+        final Set<String> reused = new HashSet<>(unchangedRoles.size());
+        if (!unchangedRoles.isEmpty()) {
+            for (SecurityRole securityRole : previous.securityRoles.roles) {
+                if (unchangedRoles.contains(securityRole.getName())) {
+                    _securityRoles.addSecurityRole(securityRole);
+                    reused.add(securityRole.getName());
+                }
+            }
+        }
 
-        for (Entry<String, RoleV7> securityRole : settings.getCEntries().entrySet()) {
+        final List<Entry<String, RoleV7>> changedRoles = settings.getCEntries()
+            .entrySet()
+            .stream()
+            .filter(role -> !reused.contains(role.getKey()))
+            .collect(Collectors.toList());
 
-            Future<SecurityRole> future = execs.submit(new Callable<SecurityRole>() {
+        for (SecurityRole securityRole : parallelMap(changedRoles, this::buildSecurityRole, executor)) {
+            _securityRoles.addSecurityRole(securityRole);
+        }
 
-                @Override
-                public SecurityRole call() throws Exception {
-                    SecurityRole.Builder _securityRole = new SecurityRole.Builder(securityRole.getKey());
+        return _securityRoles;
+    }
 
-                    if (securityRole.getValue() == null) {
-                        return null;
-                    }
+    private static Set<UserAttributeTemplate> collectDlsQueryTemplates(final SecurityRoles securityRoles) {
+        final Set<UserAttributeTemplate> result = new HashSet<>();
+        for (SecurityRole role : securityRoles.roles) {
+            for (IndexPattern ip : role.getIpatterns()) {
+                if (ip.dlsQueryTemplate.hasPlaceholders()) {
+                    result.add(ip.dlsQueryTemplate);
+                }
+            }
+        }
+        return result;
+    }
 
-                    final Set<String> permittedClusterActions = agr.resolvedActions(securityRole.getValue().getCluster_permissions());
-                    _securityRole.addClusterPerms(permittedClusterActions);
+    private SecurityRole buildSecurityRole(final Entry<String, RoleV7> role) {
+        SecurityRole.Builder _securityRole = new SecurityRole.Builder(role.getKey());
 
-                    /*for(RoleV7.Tenant tenant: securityRole.getValue().getTenant_permissions()) {
+        if (role.getValue() == null) {
+            return null;
+        }
 
-                        //if(tenant.equals(user.getName())) {
-                        //    continue;
-                        //}
+        final Set<String> permittedClusterActions = agr.resolvedActions(role.getValue().getCluster_permissions());
+        _securityRole.addClusterPerms(permittedClusterActions);
 
-                        if(isTenantsRw(tenant)) {
-                            _securityRole.addTenant(new Tenant(tenant.getKey(), true));
-                        } else {
-                            _securityRole.addTenant(new Tenant(tenant.getKey(), false));
-                        }
-                    }*/
+        /*for(RoleV7.Tenant tenant: role.getValue().getTenant_permissions()) {
 
-                    for (final Index permittedAliasesIndex : securityRole.getValue().getIndex_permissions()) {
+            //if(tenant.equals(user.getName())) {
+            //    continue;
+            //}
 
-                        final String dls = permittedAliasesIndex.getDls();
-                        final List<String> fls = permittedAliasesIndex.getFls();
-                        final List<String> maskedFields = permittedAliasesIndex.getMasked_fields();
+            if(isTenantsRw(tenant)) {
+                _securityRole.addTenant(new Tenant(tenant.getKey(), true));
+            } else {
+                _securityRole.addTenant(new Tenant(tenant.getKey(), false));
+            }
+        }*/
 
-                        for (String pat : permittedAliasesIndex.getIndex_patterns()) {
-                            IndexPattern _indexPattern = new IndexPattern(pat);
-                            _indexPattern.setDlsQuery(dls);
-                            _indexPattern.addFlsFields(fls);
-                            _indexPattern.addMaskedFields(maskedFields);
-                            _indexPattern.addPerm(agr.resolvedActions(permittedAliasesIndex.getAllowed_actions()));
+        for (final Index permittedAliasesIndex : role.getValue().getIndex_permissions()) {
 
-                            /*for(Entry<String, List<String>> type: permittedAliasesIndex.getValue().getTypes(-).entrySet()) {
-                                TypePerm typePerm = new TypePerm(type.getKey());
-                                final List<String> perms = type.getValue();
-                                typePerm.addPerms(agr.resolvedActions(perms));
-                                _indexPattern.addTypePerms(typePerm);
-                            }*/
+            final String dls = permittedAliasesIndex.getDls();
+            final List<String> fls = permittedAliasesIndex.getFls();
+            final List<String> maskedFields = permittedAliasesIndex.getMasked_fields();
 
-                            _securityRole.addIndexPattern(_indexPattern);
+            for (String pat : permittedAliasesIndex.getIndex_patterns()) {
+                IndexPattern _indexPattern = new IndexPattern(pat, resolvedIndexPatternCache);
+                _indexPattern.setDlsQuery(dls);
+                _indexPattern.addFlsFields(fls);
+                _indexPattern.addMaskedFields(maskedFields);
+                _indexPattern.addPerm(agr.resolvedActions(permittedAliasesIndex.getAllowed_actions()));
 
-                        }
+                /*for(Entry<String, List<String>> type: permittedAliasesIndex.getValue().getTypes(-).entrySet()) {
+                    TypePerm typePerm = new TypePerm(type.getKey());
+                    final List<String> perms = type.getValue();
+                    typePerm.addPerms(agr.resolvedActions(perms));
+                    _indexPattern.addTypePerms(typePerm);
+                }*/
 
-                    }
+                _securityRole.addIndexPattern(_indexPattern);
 
-                    return _securityRole.build();
-                }
-            });
+            }
 
-            futures.add(future);
         }
 
-        execs.shutdown();
-        try {
-            execs.awaitTermination(30, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Thread interrupted (1) while loading roles");
-            return null;
+        return _securityRole.build();
+    }
+
+    /**
+     * Returns the names of the roles whose definition and resolved action groups did not change since the previous
+     * model, and whose {@link SecurityRole} can therefore be reused.
+     */
+    private Set<String> unchangedRoles(final ConfigModelV7 previous) {
+        if (previous == null || previous.securityRoles == null || previous.resolvedIndexPatternCache != resolvedIndexPatternCache) {
+            return Collections.emptySet();
+        }
+
+        final Set<String> unchangedRoles = new HashSet<>();
+        for (Entry<String, RoleV7> role : roles.getCEntries().entrySet()) {
+            final RoleV7 previousRole = previous.roles.getCEntries().get(role.getKey());
+            if (role.getValue() != null
+                && previousRole != null
+                && isSameRole(previousRole, role.getValue())
+                && hasSameResolvedActions(previous.agr, role.getValue())) {
+                unchangedRoles.add(role.getKey());
+            }
         }
+        return unchangedRoles;
+    }
 
-        try {
-            SecurityRoles _securityRoles = new SecurityRoles(futures.size());
-            for (Future<SecurityRole> future : futures) {
-                _securityRoles.addSecurityRole(future.get());
+    private static boolean isSameRole(final RoleV7 previous, final RoleV7 current) {
+        if (previous == current) {
+            return true;
+        }
+        if (!Objects.equals(previous.getCluster_permissions(), current.getCluster_permissions())
+            || previous.getIndex_permissions().size() != current.getIndex_permissions().size()
+            || previous.getTenant_permissions().size() != current.getTenant_permissions().size()) {
+            return false;
+        }
+        for (int i = 0; i < current.getIndex_permissions().size(); i++) {
+            final Index previousIndex = previous.getIndex_permissions().get(i);
+            final Index currentIndex = current.getIndex_permissions().get(i);
+            if (!Objects.equals(previousIndex.getIndex_patterns(), currentIndex.getIndex_patterns())
+                || !Objects.equals(previousIndex.getDls(), currentIndex.getDls())
+                || !Objects.equals(previousIndex.getFls(), currentIndex.getFls())
+                || !Objects.equals(previousIndex.getMasked_fields(), currentIndex.getMasked_fields())
+                || !Objects.equals(previousIndex.getAllowed_actions(), currentIndex.getAllowed_actions())) {
+                return false;
+            }
+        }
+        for (int i = 0; i < current.getTenant_permissions().size(); i++) {
+            final RoleV7.Tenant previousTenant = previous.getTenant_permissions().get(i);
+            final RoleV7.Tenant currentTenant = current.getTenant_permissions().get(i);
+            if (!Objects.equals(previousTenant.getTenant_patterns(), currentTenant.getTenant_patterns())
+                || !Objects.equals(previousTenant.getAllowed_actions(), currentTenant.getAllowed_actions())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // an unchanged role still has to be rebuilt if any of the action groups it refers to changed
+    private boolean hasSameResolvedActions(final ActionGroupResolver previousAgr, final RoleV7 role) {
+        if (!previousAgr.resolvedActions(role.getCluster_permissions()).equals(agr.resolvedActions(role.getCluster_permissions()))) {
+            return false;
+        }
+        for (Index index : role.getIndex_permissions()) {
+            if (!previousAgr.resolvedActions(index.getAllowed_actions()).equals(agr.resolvedActions(index.getAllowed_actions()))) {
+                return false;
             }
+        }
+        for (RoleV7.Tenant tenant : role.getTenant_permissions()) {
+            if (!previousAgr.resolvedActions(tenant.getAllowed_actions()).equals(agr.resolvedActions(tenant.getAllowed_actions()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the function to all inputs. With an executor, the inputs are split into batches which are processed on
+     * the executor, except for the first one, which is processed by the calling thread.
+     */
+    private <T, R> List<R> parallelMap(final List<T> inputs, final Function<T, R> function, final Executor executor) {
+        if (executor == null || inputs.size() <= RELOAD_BATCH_SIZE) {
+            return inputs.stream().map(function).collect(Collectors.toList());
+        }
+
+        final List<CompletableFuture<List<R>>> batches = new ArrayList<>();
+        for (int i = RELOAD_BATCH_SIZE; i < inputs.size(); i += RELOAD_BATCH_SIZE) {
+            final List<T> batch = inputs.subList(i, Math.min(i + RELOAD_BATCH_SIZE, inputs.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> batch.stream().map(function).collect(Collectors.toList()), executor));
+        }
 
-            return _securityRoles;
+        final List<R> results = new ArrayList<>(inputs.size());
+        inputs.subList(0, RELOAD_BATCH_SIZE).forEach(input -> results.add(function.apply(input)));
+        try {
+            for (CompletableFuture<List<R>> batch : batches) {
+                results.addAll(batch.get());
+            }
+            return results;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.error("Thread interrupted (2) while loading roles");
-            return null;
+            log.error("Thread interrupted while loading roles");
+            throw ExceptionsHelper.convertToOpenSearchException(e);
         } catch (ExecutionException e) {
             log.error("Error while updating roles: {}", e.getCause(), e.getCause());
             throw ExceptionsHelper.convertToOpenSearchException(e);
@@ -297,8 +522,22 @@ public class ConfigModelV7 extends ConfigModel {
 
         final Set<SecurityRole> roles;
 
+        // cluster permissions of all roles merged into a single matcher, computed on first use
+        private volatile WildcardMatcher clusterPerms;
+        private volatile WildcardMatcher explicitClusterPerms;
+        private volatile Boolean containsDlsFlsConfig;
+        private volatile ImmutableSet<String> roleNames;
+
+        // evaluated DLS/FLS configs shared by all role sets of the config model, null if not cached
+        private final Cache<DlsFlsCacheKey, EvaluatedDlsFlsConfig> dlsFlsCache;
+
         private SecurityRoles(int roleCount) {
+            this(roleCount, null);
+        }
+
+        private SecurityRoles(int roleCount, Cache<DlsFlsCacheKey, EvaluatedDlsFlsConfig> dlsFlsCache) {
             roles = new HashSet<>(roleCount);
+            this.dlsFlsCache = dlsFlsCache;
         }
 
         private SecurityRoles addSecurityRole(SecurityRole securityRole) {
@@ -342,7 +581,7 @@ public class ConfigModelV7 extends ConfigModel {
         }
 
         public SecurityRoles filter(Set<String> keep) {
-            final SecurityRoles retVal = new SecurityRoles(roles.size());
+            final SecurityRoles retVal = new SecurityRoles(roles.size(), dlsFlsCache);
             for (SecurityRole sr : roles) {
                 if (keep.contains(sr.getName())) {
                     retVal.addSecurityRole(sr);
@@ -368,6 +607,31 @@ public class ConfigModelV7 extends ConfigModel {
                 return EvaluatedDlsFlsConfig.EMPTY;
             }
 
+            if (dlsFlsCache == null) {
+                return evaluateDlsFls(user, dfmEmptyOverwritesAll, resolver, cs);
+            }
+
+            // the evaluated config only depends on the roles, the user attributes substituted into them and the cluster metadata
+            final DlsFlsCacheKey key = new DlsFlsCacheKey(
+                roleNames(),
+                substitutedPatterns(user),
+                cs.state().metadata().version(),
+                dfmEmptyOverwritesAll
+            );
+            EvaluatedDlsFlsConfig result = dlsFlsCache.getIfPresent(key);
+            if (result == null) {
+                result = evaluateDlsFls(user, dfmEmptyOverwritesAll, resolver, cs);
+                dlsFlsCache.put(key, result);
+            }
+            return result;
+        }
+
+        private EvaluatedDlsFlsConfig evaluateDlsFls(
+            User user,
+            boolean dfmEmptyOverwritesAll,
+            IndexNameExpressionResolver resolver,
+            ClusterService cs
+        ) {
             Map<String, Set<String>> dlsQueriesByIndex = new HashMap<String, Set<String>>();
             Map<String, Set<String>> flsFields = new HashMap<String, Set<String>>();
             Map<String, Set<String>> maskedFieldsMap = new HashMap<String, Set<String>>();
@@ -455,6 +719,37 @@ public class ConfigModelV7 extends ConfigModel {
             return new EvaluatedDlsFlsConfig(dlsQueriesByIndex, flsFields, maskedFieldsMap);
         }
 
+        private ImmutableSet<String> roleNames() {
+            ImmutableSet<String> result = roleNames;
+            if (result == null) {
+                result = roleNames = roles.stream().map(SecurityRole::getName).collect(ImmutableSet.toImmutableSet());
+            }
+            return result;
+        }
+
+        /**
+         * Returns the index patterns and DLS queries containing user attribute placeholders, each followed by its
+         * substitution for the given user. Users for which this list is equal get the same DLS/FLS config.
+         */
+        private List<String> substitutedPatterns(User user) {
+            List<String> result = null;
+            for (SecurityRole role : roles) {
+                for (IndexPattern ip : role.getIpatterns()) {
+                    if (ip.hasPlaceholders) {
+                        result = result == null ? new ArrayList<>() : result;
+                        result.add(ip.indexPattern);
+                        result.add(ip.getUnresolvedIndexPattern(user));
+                    }
+                    if (ip.dlsQueryTemplate.hasPlaceholders()) {
+                        result = result == null ? new ArrayList<>() : result;
+                        result.add(ip.dlsQuery);
+                        result.add(ip.getDlsQuery(user));
+                    }
+                }
+            }
+            return result == null ? Collections.emptyList() : result;
+        }
+
         // opensearchDashboards special only, terms eval
         public Set<String> getAllPermittedIndicesForDashboards(
             Resolved resolved,
@@ -486,7 +781,7 @@ public class ConfigModelV7 extends ConfigModel {
         // return true on success
         public boolean get(Resolved resolved, User user, String[] actions, IndexNameExpressionResolver resolver, ClusterService cs) {
             for (SecurityRole sr : roles) {
-                if (ConfigModelV7.impliesTypePerm(sr.getIpatterns(), resolved, user, actions, resolver, cs)) {
+                if (sr.impliesTypePerm(resolved, user, actions, resolver, cs)) {
                     return true;
                 }
             }
@@ -495,12 +790,34 @@ public class ConfigModelV7 extends ConfigModel {
 
         @Override
         public boolean impliesClusterPermissionPermission(String action) {
-            return roles.stream().filter(r -> r.impliesClusterPermission(action)).count() > 0;
+            WildcardMatcher matcher = clusterPerms;
+            if (matcher == null) {
+                matcher = clusterPerms = mergeClusterPerms(Function.identity());
+            }
+            return matcher.test(action);
         }
 
         @Override
         public boolean hasExplicitClusterPermissionPermission(String action) {
-            return roles.stream().map(r -> matchExplicitly(r.clusterPerms)).filter(m -> m.test(action)).count() > 0;
+            WildcardMatcher matcher = explicitClusterPerms;
+            if (matcher == null) {
+                matcher = explicitClusterPerms = mergeClusterPerms(SecurityRoles::matchExplicitly);
+            }
+            return matcher.test(action);
+        }
+
+        private WildcardMatcher mergeClusterPerms(final Function<WildcardMatcher, WildcardMatcher> matcherModification) {
+            final List<WildcardMatcher> matchers = new ArrayList<>(roles.size());
+            for (SecurityRole sr : roles) {
+                final WildcardMatcher matcher = matcherModification.apply(sr.clusterPerms);
+                if (matcher == WildcardMatcher.ANY) {
+                    return WildcardMatcher.ANY;
+                }
+                if (matcher != WildcardMatcher.NONE) {
+                    matchers.add(matcher);
+                }
+            }
+            return matchers.size() == 1 ? matchers.get(0) : WildcardMatcher.NONE.concat(matchers);
         }
 
         private static WildcardMatcher matchExplicitly(final WildcardMatcher matcher) {
@@ -547,12 +864,52 @@ public class ConfigModelV7 extends ConfigModel {
             IndexNameExpressionResolver resolver,
             ClusterService cs
         ) {
-            Set<IndexPattern> ipatterns = new HashSet<ConfigModelV7.IndexPattern>();
-            roles.stream().forEach(p -> ipatterns.addAll(p.getIpatterns()));
-            return ConfigModelV7.impliesTypePerm(ipatterns, resolved, user, actions, resolver, cs);
+            final boolean localAll = resolved.isLocalAll();
+            for (String index : resolved.getAllIndices()) {
+                for (String action : actions) {
+                    boolean permitted = false;
+                    for (SecurityRole sr : roles) {
+                        if (sr.impliesIndexAction(index, action, localAll, user, resolver, cs)) {
+                            permitted = true;
+                            break;
+                        }
+                    }
+                    if (!permitted) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean impliesUnrestrictedIndexPermission(
+            String index,
+            String action,
+            User user,
+            IndexNameExpressionResolver resolver,
+            ClusterService cs
+        ) {
+            if (containsDlsFlsConfig()) {
+                return false;
+            }
+            for (SecurityRole sr : roles) {
+                if (sr.impliesIndexAction(index, action, false, user, resolver, cs)) {
+                    return true;
+                }
+            }
+            return false;
         }
 
         private boolean containsDlsFlsConfig() {
+            Boolean result = containsDlsFlsConfig;
+            if (result == null) {
+                result = containsDlsFlsConfig = computeContainsDlsFlsConfig();
+            }
+            return result;
+        }
+
+        private boolean computeContainsDlsFlsConfig() {
             for (SecurityRole role : roles) {
                 for (IndexPattern ip : role.getIpatterns()) {
                     if (ip.hasDlsQuery() || ip.hasFlsFields() || ip.hasMaskedFields()) {
@@ -566,9 +923,30 @@ public class ConfigModelV7 extends ConfigModel {
     }
 
     public static class SecurityRole {
+
+        /**
+         * Index actions which are looked up on virtually every request. The index patterns granting these
+         * are computed eagerly when the role is built; other actions are added lazily on first use.
+         */
+        static final List<String> WELL_KNOWN_INDEX_ACTIONS = ImmutableList.of(
+            SearchAction.NAME,
+            GetAction.NAME,
+            MultiGetAction.NAME + "[shard]",
+            IndexAction.NAME,
+            BulkAction.NAME + "[s]",
+            DeleteAction.NAME,
+            UpdateAction.NAME,
+            "indices:admin/mappings/fields/get",
+            "indices:admin/shards/search_shards"
+        );
+
+        private static final IndexPattern[] NO_PATTERNS = new IndexPattern[0];
+
         private final String name;
         private final Set<IndexPattern> ipatterns;
         private final WildcardMatcher clusterPerms;
+        // action name -> index patterns whose allowed actions match it
+        private final Map<String, IndexPattern[]> ipatternsByAction = new ConcurrentHashMap<>();
 
         public static final class Builder {
             private final String name;
@@ -600,10 +978,59 @@ public class ConfigModelV7 extends ConfigModel {
             this.name = Objects.requireNonNull(name);
             this.ipatterns = ipatterns;
             this.clusterPerms = clusterPerms;
+            for (String action : WELL_KNOWN_INDEX_ACTIONS) {
+                getIpatternsForAction(action);
+            }
+        }
+
+        private IndexPattern[] getIpatternsForAction(final String action) {
+            IndexPattern[] matching = ipatternsByAction.get(action);
+            if (matching == null) {
+                matching = ipatterns.stream().filter(p -> p.getPerms().test(action)).toArray(IndexPattern[]::new);
+                if (matching.length == 0) {
+                    matching = NO_PATTERNS;
+                }
+                ipatternsByAction.putIfAbsent(action, matching);
+            }
+            return matching;
+        }
+
+        // return true if every requested index is covered by this role for every requested action
+        private boolean impliesTypePerm(
+            Resolved resolved,
+            User user,
+            String[] actions,
+            IndexNameExpressionResolver resolver,
+            ClusterService cs
+        ) {
+            final boolean localAll = resolved.isLocalAll();
+            for (String index : resolved.getAllIndices()) {
+                for (String action : actions) {
+                    if (!impliesIndexAction(index, action, localAll, user, resolver, cs)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
         }
 
-        private boolean impliesClusterPermission(String action) {
-            return clusterPerms.test(action);
+        private boolean impliesIndexAction(
+            String index,
+            String action,
+            boolean localAll,
+            User user,
+            IndexNameExpressionResolver resolver,
+            ClusterService cs
+        ) {
+            for (IndexPattern p : getIpatternsForAction(action)) {
+                if (localAll && !"*".equals(p.getUnresolvedIndexPattern(user))) {
+                    continue;
+                }
+                if (p.getIndexMatcher(user, resolver, cs).test(index)) {
+                    return true;
+                }
+            }
+            return false;
         }
 
         // get indices which are permitted for the given types and actions
@@ -630,8 +1057,7 @@ public class ConfigModelV7 extends ConfigModel {
                 // }
                 if (patternMatch) {
                     // resolved but can contain patterns for nonexistent indices
-                    final WildcardMatcher permitted = WildcardMatcher.from(p.attemptResolveIndexNames(user, resolver, cs)); // maybe they do
-                                                                                                                            // not exist
+                    final WildcardMatcher permitted = p.getIndexMatcher(user, resolver, cs); // maybe they do not exist
                     final Set<String> res = new HashSet<>();
                     if (!resolved.isLocalAll() && !resolved.getAllIndices().contains("*") && !resolved.getAllIndices().contains("_all")) {
                         // resolved but can contain patterns for nonexistent indices
@@ -724,14 +1150,27 @@ public class ConfigModelV7 extends ConfigModel {
     // sg roles
     public static class IndexPattern {
         private final String indexPattern;
+        private final UserAttributeTemplate indexPatternTemplate;
+        private final boolean hasPlaceholders;
         private String dlsQuery;
+        private UserAttributeTemplate dlsQueryTemplate = UserAttributeTemplate.compile(null);
         private final Set<String> fls = new HashSet<>();
         private final Set<String> maskedFields = new HashSet<>();
         private final Set<String> perms = new HashSet<>();
+        private volatile WildcardMatcher permsMatcher;
+        private volatile ResolvedIndexMatcher resolvedIndexMatcher;
+        private final ResolvedIndexPatternCache resolvedIndexPatternCache;
 
         public IndexPattern(String indexPattern) {
+            this(indexPattern, new ResolvedIndexPatternCache(Settings.EMPTY));
+        }
+
+        IndexPattern(String indexPattern, ResolvedIndexPatternCache resolvedIndexPatternCache) {
             super();
             this.indexPattern = Objects.requireNonNull(indexPattern);
+            this.indexPatternTemplate = UserAttributeTemplate.compile(indexPattern);
+            this.hasPlaceholders = indexPatternTemplate.hasPlaceholders();
+            this.resolvedIndexPatternCache = Objects.requireNonNull(resolvedIndexPatternCache);
         }
 
         public IndexPattern addFlsFields(List<String> flsFields) {
@@ -751,6 +1190,7 @@ public class ConfigModelV7 extends ConfigModel {
         public IndexPattern addPerm(Set<String> perms) {
             if (perms != null) {
                 this.perms.addAll(perms);
+                this.permsMatcher = null;
             }
             return this;
         }
@@ -758,6 +1198,7 @@ public class ConfigModelV7 extends ConfigModel {
         public IndexPattern setDlsQuery(String dlsQuery) {
             if (dlsQuery != null) {
                 this.dlsQuery = dlsQuery;
+                this.dlsQueryTemplate = UserAttributeTemplate.compile(dlsQuery);
             }
             return this;
         }
@@ -815,7 +1256,23 @@ public class ConfigModelV7 extends ConfigModel {
         }
 
         public String getUnresolvedIndexPattern(User user) {
-            return replaceProperties(indexPattern, user);
+            return indexPatternTemplate.expand(user);
+        }
+
+        /**
+         * Returns a matcher for the indices this pattern grants access to, including unresolved names.
+         * The matcher is reused for as long as getResolvedIndexPattern returns the same set of names.
+         */
+        WildcardMatcher getIndexMatcher(final User user, final IndexNameExpressionResolver resolver, final ClusterService cs) {
+            final Set<String> resolved = getResolvedIndexPattern(user, resolver, cs, true);
+            ResolvedIndexMatcher current = resolvedIndexMatcher;
+            if (current == null || current.indices != resolved) {
+                current = new ResolvedIndexMatcher(resolved, WildcardMatcher.from(resolved));
+                if (!hasPlaceholders) {
+                    resolvedIndexMatcher = current;
+                }
+            }
+            return current.matcher;
         }
 
         /** Finds the indices accessible to the user and resolves them to concrete names */
@@ -833,15 +1290,37 @@ public class ConfigModelV7 extends ConfigModel {
             final IndexNameExpressionResolver resolver,
             final ClusterService cs,
             final boolean appendUnresolved
+        ) {
+            return getResolvedIndexPattern(user, resolver, cs.state(), appendUnresolved);
+        }
+
+        private Set<String> getResolvedIndexPattern(
+            final User user,
+            final IndexNameExpressionResolver resolver,
+            final ClusterState state,
+            final boolean appendUnresolved
         ) {
             final String unresolved = getUnresolvedIndexPattern(user);
+            final ResolvedIndexPatternCache.Entry resolved = resolvedIndexPatternCache.get(
+                unresolved,
+                hasPlaceholders,
+                state,
+                pattern -> resolveConcreteIndices(pattern, resolver, state)
+            );
+            return appendUnresolved ? resolved.getConcreteIndicesAndPattern() : resolved.getConcreteIndices();
+        }
+
+        private static Set<String> resolveConcreteIndices(
+            final String unresolved,
+            final IndexNameExpressionResolver resolver,
+            final ClusterState state
+        ) {
             final ImmutableSet.Builder<String> resolvedIndices = new ImmutableSet.Builder<>();
 
             final WildcardMatcher matcher = WildcardMatcher.from(unresolved);
             boolean includeDataStreams = true;
             if (!(matcher instanceof WildcardMatcher.Exact)) {
-                final String[] aliasesAndDataStreamsForPermittedPattern = cs.state()
-                    .getMetadata()
+                final String[] aliasesAndDataStreamsForPermittedPattern = state.getMetadata()
                     .getIndicesLookup()
                     .entrySet()
                     .stream()
@@ -851,7 +1330,7 @@ public class ConfigModelV7 extends ConfigModel {
                     .toArray(String[]::new);
                 if (aliasesAndDataStreamsForPermittedPattern.length > 0) {
                     final String[] resolvedAliasesAndDataStreamIndices = resolver.concreteIndexNames(
-                        cs.state(),
+                        state,
                         IndicesOptions.lenientExpandOpen(),
                         includeDataStreams,
                         aliasesAndDataStreamsForPermittedPattern
@@ -862,7 +1341,7 @@ public class ConfigModelV7 extends ConfigModel {
 
             if (Strings.isNotBlank(unresolved)) {
                 final String[] resolvedIndicesFromPattern = resolver.concreteIndexNames(
-                    cs.state(),
+                    state,
                     IndicesOptions.lenientExpandOpen(),
                     includeDataStreams,
                     unresolved
@@ -870,14 +1349,11 @@ public class ConfigModelV7 extends ConfigModel {
                 resolvedIndices.addAll(Arrays.asList(resolvedIndicesFromPattern));
             }
 
-            if (appendUnresolved || resolvedIndices.build().isEmpty()) {
-                resolvedIndices.add(unresolved);
-            }
             return resolvedIndices.build();
         }
 
         public String getDlsQuery(User user) {
-            return replaceProperties(dlsQuery, user);
+            return dlsQueryTemplate.expand(user);
         }
 
         public boolean hasDlsQuery() {
@@ -901,11 +1377,26 @@ public class ConfigModelV7 extends ConfigModel {
         }
 
         public WildcardMatcher getPerms() {
-            return WildcardMatcher.from(perms);
+            WildcardMatcher matcher = permsMatcher;
+            if (matcher == null) {
+                matcher = WildcardMatcher.from(perms);
+                permsMatcher = matcher;
+            }
+            return matcher;
         }
 
     }
 
+    private static final class ResolvedIndexMatcher {
+        private final Set<String> indices;
+        private final WildcardMatcher matcher;
+
+        private ResolvedIndexMatcher(Set<String> indices, WildcardMatcher matcher) {
+            this.indices = indices;
+            this.matcher = matcher;
+        }
+    }
+
     /*public static class TypePerm {
         private final String typePattern;
         private final Set<String> perms = new HashSet<>();
@@ -1022,98 +1513,27 @@ public class ConfigModelV7 extends ConfigModel {
         }
     }
 
-    private static String replaceProperties(String orig, User user) {
-
-        if (user == null || orig == null) {
-            return orig;
-        }
-
-        orig = orig.replace("${user.name}", user.getName()).replace("${user_name}", user.getName());
-        orig = replaceRoles(orig, user);
-        orig = replaceSecurityRoles(orig, user);
-        for (Entry<String, String> entry : user.getCustomAttributesMap().entrySet()) {
-            if (entry == null || entry.getKey() == null || entry.getValue() == null) {
-                continue;
-            }
-            orig = orig.replace("${" + entry.getKey() + "}", entry.getValue());
-            orig = orig.replace("${" + entry.getKey().replace('.', '_') + "}", entry.getValue());
-        }
-        return orig;
-    }
-
-    private static String replaceRoles(final String orig, final User user) {
-        String retVal = orig;
-        if (orig.contains("${user.roles}") || orig.contains("${user_roles}")) {
-            final String commaSeparatedRoles = toQuotedCommaSeparatedString(user.getRoles());
-            retVal = orig.replace("${user.roles}", commaSeparatedRoles).replace("${user_roles}", commaSeparatedRoles);
-        }
-        return retVal;
-    }
-
-    private static String replaceSecurityRoles(final String orig, final User user) {
-        String retVal = orig;
-        if (orig.contains("${user.securityRoles}") || orig.contains("${user_securityRoles}")) {
-            final String commaSeparatedRoles = toQuotedCommaSeparatedString(user.getSecurityRoles());
-            retVal = orig.replace("${user.securityRoles}", commaSeparatedRoles).replace("${user_securityRoles}", commaSeparatedRoles);
-        }
-        return retVal;
-    }
-
-    private static String toQuotedCommaSeparatedString(final Set<String> roles) {
-        return Joiner.on(',').join(Iterables.transform(roles, s -> {
-            return new StringBuilder(s.length() + 2).append('"').append(s).append('"').toString();
-        }));
-    }
-
-    private static final class IndexMatcherAndPermissions {
-        private WildcardMatcher matcher;
-        private WildcardMatcher perms;
-
-        public IndexMatcherAndPermissions(Set<String> patterns, Set<String> perms) {
-            this.matcher = WildcardMatcher.from(patterns);
-            this.perms = WildcardMatcher.from(perms);
-        }
-
-        public boolean matches(String index, String action) {
-            return matcher.test(index) && perms.test(action);
-        }
-    }
-
-    private static boolean impliesTypePerm(
-        Set<IndexPattern> ipatterns,
-        Resolved resolved,
-        User user,
-        String[] requestedActions,
-        IndexNameExpressionResolver resolver,
-        ClusterService cs
-    ) {
-        Set<String> resolvedRequestedIndices = resolved.getAllIndices();
-        IndexMatcherAndPermissions[] indexMatcherAndPermissions;
-        if (resolved.isLocalAll()) {
-            indexMatcherAndPermissions = ipatterns.stream()
-                .filter(indexPattern -> "*".equals(indexPattern.getUnresolvedIndexPattern(user)))
-                .map(p -> new IndexMatcherAndPermissions(p.attemptResolveIndexNames(user, resolver, cs), p.perms))
-                .toArray(IndexMatcherAndPermissions[]::new);
-        } else {
-            indexMatcherAndPermissions = ipatterns.stream()
-                .map(p -> new IndexMatcherAndPermissions(p.attemptResolveIndexNames(user, resolver, cs), p.perms))
-                .toArray(IndexMatcherAndPermissions[]::new);
-        }
-        return resolvedRequestedIndices.stream()
-            .allMatch(
-                index -> Arrays.stream(requestedActions)
-                    .allMatch(action -> Arrays.stream(indexMatcherAndPermissions).anyMatch(ipap -> ipap.matches(index, action)))
-            );
-    }
-
     private class TenantHolder {
 
         private SetMultimap<String, Tuple<String, Boolean>> tenantsMM = null;
-
-        public TenantHolder(SecurityDynamicConfiguration<RoleV7> roles, SecurityDynamicConfiguration<TenantV7> definedTenants) {
-            final Set<Future<Tuple<String, Set<Tuple<String, Boolean>>>>> futures = new HashSet<>(roles.getCEntries().size());
-
-            final ExecutorService execs = Executors.newFixedThreadPool(10);
+        // tenant names referring to user attributes, like "${attr.jwt.department}"
+        private Map<String, UserAttributeTemplate> tenantTemplates = Collections.emptyMap();
+
+        /**
+         * @param previousTenants the tenants of the roles in the previous model, if the defined tenants did not change
+         * @param unchangedRoles  the roles whose tenants are taken from {@code previousTenants} instead of being resolved again
+         */
+        public TenantHolder(
+            SecurityDynamicConfiguration<RoleV7> roles,
+            SecurityDynamicConfiguration<TenantV7> definedTenants,
+            SetMultimap<String, Tuple<String, Boolean>> previousTenants,
+            Set<String> unchangedRoles,
+            Executor executor
+        ) {
+            final SetMultimap<String, Tuple<String, Boolean>> tenantsMM_ = SetMultimapBuilder.hashKeys(roles.getCEntries().size())
+                .hashSetValues(16)
+                .build();
+            final List<Entry<String, RoleV7>> changedRoles = new ArrayList<>();
 
             for (Entry<String, RoleV7> securityRole : roles.getCEntries().entrySet()) {
 
@@ -1121,82 +1541,63 @@ public class ConfigModelV7 extends ConfigModel {
                     continue;
                 }
 
-                Future<Tuple<String, Set<Tuple<String, Boolean>>>> future = execs.submit(
-                    new Callable<Tuple<String, Set<Tuple<String, Boolean>>>>() {
-                        @Override
-                        public Tuple<String, Set<Tuple<String, Boolean>>> call() throws Exception {
-                            final Set<Tuple<String, Boolean>> tuples = new HashSet<>();
-                            final List<RoleV7.Tenant> tenants = securityRole.getValue().getTenant_permissions();
-                            if (tenants != null) {
-
-                                for (RoleV7.Tenant tenant : tenants) {
-
-                                    // find Wildcarded tenant patterns
-                                    List<String> matchingTenants = WildcardMatcher.from(tenant.getTenant_patterns())
-                                        .getMatchAny(definedTenants.getCEntries().keySet(), Collectors.toList());
-                                    for (String matchingTenant : matchingTenants) {
-                                        tuples.add(
-                                            new Tuple<String, Boolean>(
-                                                matchingTenant,
-                                                agr.resolvedActions(tenant.getAllowed_actions()).contains("kibana:saved_objects/*/write")
-                                            )
-                                        );
-                                    }
-                                    // find parameter substitution specified tenant
-                                    Pattern parameterPattern = Pattern.compile("^\\$\\{attr");
-                                    List<String> matchingParameterTenantList = tenant.getTenant_patterns()
-                                        .stream()
-                                        .filter(parameterPattern.asPredicate())
-                                        .collect(Collectors.toList());
-                                    for (String matchingParameterTenant : matchingParameterTenantList) {
-                                        tuples.add(
-                                            new Tuple<String, Boolean>(
-                                                matchingParameterTenant,
-                                                agr.resolvedActions(tenant.getAllowed_actions()).contains("kibana:saved_objects/*/write")
-                                            )
-                                        );
-                                    }
-                                }
-                            }
-
-                            return new Tuple<String, Set<Tuple<String, Boolean>>>(securityRole.getKey(), tuples);
-                        }
-                    }
-                );
-
-                futures.add(future);
+                if (previousTenants != null && unchangedRoles.contains(securityRole.getKey())) {
+                    tenantsMM_.putAll(securityRole.getKey(), previousTenants.get(securityRole.getKey()));
+                } else {
+                    changedRoles.add(securityRole);
+                }
+            }
 
+            for (Tuple<String, Set<Tuple<String, Boolean>>> result : parallelMap(
+                changedRoles,
+                securityRole -> resolveTenants(securityRole, definedTenants),
+                executor
+            )) {
+                tenantsMM_.putAll(result.v1(), result.v2());
             }
 
-            execs.shutdown();
-            try {
-                execs.awaitTermination(30, TimeUnit.SECONDS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.error("Thread interrupted (1) while loading roles");
-                return;
+            final Map<String, UserAttributeTemplate> tenantTemplates_ = new HashMap<>();
+            for (Tuple<String, Boolean> tenant : tenantsMM_.values()) {
+                final UserAttributeTemplate template = UserAttributeTemplate.compile(tenant.v1());
+                if (template.hasPlaceholders()) {
+                    tenantTemplates_.put(tenant.v1(), template);
+                }
             }
 
-            try {
-                final SetMultimap<String, Tuple<String, Boolean>> tenantsMM_ = SetMultimapBuilder.hashKeys(futures.size())
-                    .hashSetValues(16)
-                    .build();
+            tenantTemplates = tenantTemplates_;
+            tenantsMM = tenantsMM_;
+        }
 
-                for (Future<Tuple<String, Set<Tuple<String, Boolean>>>> future : futures) {
-                    Tuple<String, Set<Tuple<String, Boolean>>> result = future.get();
-                    tenantsMM_.putAll(result.v1(), result.v2());
-                }
+        private Tuple<String, Set<Tuple<String, Boolean>>> resolveTenants(
+            final Entry<String, RoleV7> securityRole,
+            final SecurityDynamicConfiguration<TenantV7> definedTenants
+        ) {
+            final Set<Tuple<String, Boolean>> tuples = new HashSet<>();
+            final List<RoleV7.Tenant> tenants = securityRole.getValue().getTenant_permissions();
+            if (tenants != null) {
+
+                for (RoleV7.Tenant tenant : tenants) {
 
-                tenantsMM = tenantsMM_;
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.error("Thread interrupted (2) while loading roles");
-                return;
-            } catch (ExecutionException e) {
-                log.error("Error while updating roles: {}", e.getCause(), e.getCause());
-                throw ExceptionsHelper.convertToOpenSearchException(e);
+                    final boolean rw = agr.resolvedActions(tenant.getAllowed_actions()).contains("kibana:saved_objects/*/write");
+
+                    // find Wildcarded tenant patterns
+                    List<String> matchingTenants = WildcardMatcher.from(tenant.getTenant_patterns())
+                        .getMatchAny(definedTenants.getCEntries().keySet(), Collectors.toList());
+                    for (String matchingTenant : matchingTenants) {
+                        tuples.add(new Tuple<String, Boolean>(matchingTenant, rw));
+                    }
+                    // find parameter substitution specified tenant
+                    List<String> matchingParameterTenantList = tenant.getTenant_patterns()
+                        .stream()
+                        .filter(ATTRIBUTE_TENANT_PATTERN.asPredicate())
+                        .collect(Collectors.toList());
+                    for (String matchingParameterTenant : matchingParameterTenantList) {
+                        tuples.add(new Tuple<String, Boolean>(matchingParameterTenant, rw));
+                    }
+                }
             }
 
+            return new Tuple<String, Set<Tuple<String, Boolean>>>(securityRole.getKey(), tuples);
         }
 
         public Map<String, Boolean> mapTenants(final User user, Set<String> roles) {
@@ -1214,10 +1615,11 @@ public class ConfigModelV7 extends ConfigModel {
                 .filter(e -> !user.getName().equals(e.getValue().v1()))
                 .forEach(e -> {
 
-                    // replaceProperties for tenant name because
+                    // substitute the tenant name because
                     // at this point e.getValue().v1() can be in this form : "${attr.[internal|jwt|proxy|ldap].*}"
                     // let's substitute it with the eventual value of the user's attribute
-                    final String tenant = replaceProperties(e.getValue().v1(), user);
+                    final UserAttributeTemplate template = tenantTemplates.get(e.getValue().v1());
+                    final String tenant = template == null ? e.getValue().v1() : template.expand(user);
                     final boolean rw = e.getValue().v2();
 
                     if (rw || !result.containsKey(tenant)) { // RW outperforms RO
@@ -1244,26 +1646,36 @@ public class ConfigModelV7 extends ConfigModel {
 
     private class RoleMappingHolder {
 
-        private ListMultimap<String, String> users;
-        private ListMultimap<List<WildcardMatcher>, String> abars;
-        private ListMultimap<String, String> bars;
-        private ListMultimap<String, String> hosts;
+        private final SecurityDynamicConfiguration<RoleMappingsV7> rolemappings;
         private final String hostResolverMode;
 
-        private List<WildcardMatcher> userMatchers;
-        private List<WildcardMatcher> barMatchers;
-        private List<WildcardMatcher> hostMatchers;
-
-        private RoleMappingHolder(final SecurityDynamicConfiguration<RoleMappingsV7> rolemappings, final String hostResolverMode) {
+        private PatternIndex<String> users;
+        private PatternIndex<String> bars;
+        private PatternIndex<String> hosts;
+        private PatternIndex<Integer> abarPatterns;
+        // per and_backend_roles group the number of distinct patterns which need to match and the mapped roles
+        private int[] abarSizes;
+        private List<List<String>> abarRoles;
+
+        // roles mapped from user name and backend roles, which only change with the roles mapping
+        private final Cache<MappingKey, Set<String>> mappedRolesCache;
+
+        private RoleMappingHolder(
+            final SecurityDynamicConfiguration<RoleMappingsV7> rolemappings,
+            final String hostResolverMode,
+            final int cacheMaxSize
+        ) {
 
+            this.rolemappings = rolemappings;
             this.hostResolverMode = hostResolverMode;
+            this.mappedRolesCache = CacheBuilder.newBuilder().maximumSize(cacheMaxSize).build();
 
             if (roles != null) {
 
-                users = ArrayListMultimap.create();
-                abars = ArrayListMultimap.create();
-                bars = ArrayListMultimap.create();
-                hosts = ArrayListMultimap.create();
+                final ListMultimap<String, String> users = ArrayListMultimap.create();
+                final ListMultimap<Set<String>, String> abars = ArrayListMultimap.create();
+                final ListMultimap<String, String> bars = ArrayListMultimap.create();
+                final ListMultimap<String, String> hosts = ArrayListMultimap.create();
 
                 for (final Entry<String, RoleMappingsV7> roleMap : rolemappings.getCEntries().entrySet()) {
                     final String roleMapKey = roleMap.getKey();
@@ -1276,7 +1688,7 @@ public class ConfigModelV7 extends ConfigModel {
                     final Set<String> abar = new HashSet<>(roleMapValue.getAnd_backend_roles());
 
                     if (!abar.isEmpty()) {
-                        abars.put(WildcardMatcher.matchers(abar), roleMapKey);
+                        abars.put(abar, roleMapKey);
                     }
 
                     for (String bar : roleMapValue.getBackend_roles()) {
@@ -1288,18 +1700,117 @@ public class ConfigModelV7 extends ConfigModel {
                     }
                 }
 
-                userMatchers = WildcardMatcher.matchers(users.keySet());
-                barMatchers = WildcardMatcher.matchers(bars.keySet());
-                hostMatchers = WildcardMatcher.matchers(hosts.keySet());
+                this.users = new PatternIndex<>(users);
+                this.bars = new PatternIndex<>(bars);
+                this.hosts = new PatternIndex<>(hosts);
+
+                // the index of and_backend_roles maps each distinct pattern to the groups it is part of
+                final ListMultimap<String, Integer> abarGroups = ArrayListMultimap.create();
+                final List<Set<String>> groups = new ArrayList<>(abars.keySet());
+                abarSizes = new int[groups.size()];
+                abarRoles = new ArrayList<>(groups.size());
+                for (int i = 0; i < groups.size(); i++) {
+                    abarSizes[i] = groups.get(i).size();
+                    abarRoles.add(abars.get(groups.get(i)));
+                    for (String pattern : groups.get(i)) {
+                        abarGroups.put(pattern, i);
+                    }
+                }
+                this.abarPatterns = new PatternIndex<>(abarGroups);
             }
         }
 
+        // the mappings did not change, so the indices and the already mapped roles are taken over
+        private RoleMappingHolder(final RoleMappingHolder previous, final SecurityDynamicConfiguration<RoleMappingsV7> rolemappings) {
+            this.rolemappings = rolemappings;
+            this.hostResolverMode = previous.hostResolverMode;
+            this.mappedRolesCache = previous.mappedRolesCache;
+            this.users = previous.users;
+            this.bars = previous.bars;
+            this.hosts = previous.hosts;
+            this.abarPatterns = previous.abarPatterns;
+            this.abarSizes = previous.abarSizes;
+            this.abarRoles = previous.abarRoles;
+        }
+
+        private boolean isReusableFor(
+            final SecurityDynamicConfiguration<RoleMappingsV7> rolemappings,
+            final String hostResolverMode,
+            final ConfigConstants.RolesMappingResolution rolesMappingResolution
+        ) {
+            if (users == null
+                || !Objects.equals(this.hostResolverMode, hostResolverMode)
+                || ConfigModelV7.this.rolesMappingResolution != rolesMappingResolution) {
+                return false;
+            }
+            if (this.rolemappings == rolemappings) {
+                return true;
+            }
+
+            final Map<String, RoleMappingsV7> previousMappings = this.rolemappings.getCEntries();
+            if (!previousMappings.keySet().equals(rolemappings.getCEntries().keySet())) {
+                return false;
+            }
+            for (final Entry<String, RoleMappingsV7> roleMap : rolemappings.getCEntries().entrySet()) {
+                final RoleMappingsV7 previous = previousMappings.get(roleMap.getKey());
+                final RoleMappingsV7 current = roleMap.getValue();
+                if (!Objects.equals(previous.getUsers(), current.getUsers())
+                    || !Objects.equals(previous.getBackend_roles(), current.getBackend_roles())
+                    || !Objects.equals(previous.getAnd_backend_roles(), current.getAnd_backend_roles())
+                    || !Objects.equals(previous.getHosts(), current.getHosts())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         private Set<String> map(final User user, final TransportAddress caller) {
 
-            if (user == null || users == null || abars == null || bars == null || hosts == null) {
+            if (user == null || users == null || abarPatterns == null || bars == null || hosts == null) {
                 return Collections.emptySet();
             }
 
+            final MappingKey key = new MappingKey(user.getName(), user.getRoles(), user.getSecurityRoles());
+            Set<String> mappedRoles = mappedRolesCache.getIfPresent(key);
+            if (mappedRoles == null) {
+                mappedRoles = mapUserAndBackendRoles(user);
+                mappedRolesCache.put(key.copy(), mappedRoles);
+            }
+
+            if (caller == null
+                || hosts.isEmpty()
+                || ((rolesMappingResolution != ConfigConstants.RolesMappingResolution.BOTH
+                    && rolesMappingResolution != ConfigConstants.RolesMappingResolution.MAPPING_ONLY))) {
+                return mappedRoles;
+            }
+
+            // host based mappings are evaluated per request, as the resolved host name may change
+            final Set<String> securityRoles = new HashSet<>(mappedRoles);
+
+            // IPV4 or IPv6 (compressed and without scope identifiers)
+            final String ipAddress = caller.getAddress();
+
+            hosts.collect(ipAddress, securityRoles);
+
+            if (caller.address() != null
+                && (hostResolverMode.equalsIgnoreCase("ip-hostname") || hostResolverMode.equalsIgnoreCase("ip-hostname-lookup"))) {
+                final String hostName = caller.address().getHostString();
+
+                hosts.collect(hostName, securityRoles);
+            }
+
+            if (caller.address() != null && hostResolverMode.equalsIgnoreCase("ip-hostname-lookup")) {
+
+                final String resolvedHostName = caller.address().getHostName();
+
+                hosts.collect(resolvedHostName, securityRoles);
+            }
+
+            return Collections.unmodifiableSet(securityRoles);
+        }
+
+        private Set<String> mapUserAndBackendRoles(final User user) {
+
             final Set<String> securityRoles = new HashSet<>(user.getSecurityRoles());
 
             if (rolesMappingResolution == ConfigConstants.RolesMappingResolution.BOTH
@@ -1313,49 +1824,150 @@ public class ConfigModelV7 extends ConfigModel {
             if (((rolesMappingResolution == ConfigConstants.RolesMappingResolution.BOTH
                 || rolesMappingResolution == ConfigConstants.RolesMappingResolution.MAPPING_ONLY))) {
 
-                for (String p : WildcardMatcher.getAllMatchingPatterns(userMatchers, user.getName())) {
-                    securityRoles.addAll(users.get(p));
-                }
-                for (String p : WildcardMatcher.getAllMatchingPatterns(barMatchers, user.getRoles())) {
-                    securityRoles.addAll(bars.get(p));
+                users.collect(user.getName(), securityRoles);
+
+                for (String backendRole : user.getRoles()) {
+                    bars.collect(backendRole, securityRoles);
                 }
 
-                for (List<WildcardMatcher> patterns : abars.keySet()) {
-                    if (patterns.stream().allMatch(p -> p.matchAny(user.getRoles()))) {
-                        securityRoles.addAll(abars.get(patterns));
+                if (abarSizes.length > 0) {
+                    // a group matches if each of its patterns matches any of the backend roles
+                    final int[] matchedPatterns = new int[abarSizes.length];
+                    for (String pattern : abarPatterns.findMatchingPatterns(user.getRoles())) {
+                        for (int i : abarPatterns.get(pattern)) {
+                            if (++matchedPatterns[i] == abarSizes[i]) {
+                                securityRoles.addAll(abarRoles.get(i));
+                            }
+                        }
                     }
                 }
+            }
 
-                if (caller != null) {
-                    // IPV4 or IPv6 (compressed and without scope identifiers)
-                    final String ipAddress = caller.getAddress();
-
-                    for (String p : WildcardMatcher.getAllMatchingPatterns(hostMatchers, ipAddress)) {
-                        securityRoles.addAll(hosts.get(p));
-                    }
+            return ImmutableSet.copyOf(securityRoles);
+        }
+    }
 
-                    if (caller.address() != null
-                        && (hostResolverMode.equalsIgnoreCase("ip-hostname") || hostResolverMode.equalsIgnoreCase("ip-hostname-lookup"))) {
-                        final String hostName = caller.address().getHostString();
+    /**
+     * Index of role mapping patterns to the values they map to. Patterns without wildcards are looked up directly,
+     * the remaining ones are combined into a single matcher.
+     */
+    private static final class PatternIndex<V> {
+
+        private final ListMultimap<String, V> values;
+        private final Map<String, List<V>> exact = new HashMap<>();
+        // the pattern each of the combined wildcard matchers was built from
+        private final Map<WildcardMatcher, String> wildcardPatterns = new HashMap<>();
+        private final WildcardMatcher wildcards;
+
+        private PatternIndex(final ListMultimap<String, V> values) {
+            this.values = values;
+            for (String pattern : values.keySet()) {
+                final WildcardMatcher matcher = WildcardMatcher.from(pattern);
+                if (matcher instanceof WildcardMatcher.Exact) {
+                    exact.put(pattern, values.get(pattern));
+                } else {
+                    wildcardPatterns.put(matcher, pattern);
+                }
+            }
+            this.wildcards = WildcardMatcher.from(wildcardPatterns.keySet());
+        }
 
-                        for (String p : WildcardMatcher.getAllMatchingPatterns(hostMatchers, hostName)) {
-                            securityRoles.addAll(hosts.get(p));
-                        }
-                    }
+        boolean isEmpty() {
+            return values.isEmpty();
+        }
 
-                    if (caller.address() != null && hostResolverMode.equalsIgnoreCase("ip-hostname-lookup")) {
+        List<V> get(final String pattern) {
+            return values.get(pattern);
+        }
 
-                        final String resolvedHostName = caller.address().getHostName();
+        void collect(final String candidate, final Set<? super V> result) {
+            final List<V> exactValues = exact.get(candidate);
+            if (exactValues != null) {
+                result.addAll(exactValues);
+            }
+            wildcards.findAll(candidate).forEach(m -> result.addAll(values.get(wildcardPatterns.get(m))));
+        }
 
-                        for (String p : WildcardMatcher.getAllMatchingPatterns(hostMatchers, resolvedHostName)) {
-                            securityRoles.addAll(hosts.get(p));
-                        }
-                    }
+        Set<String> findMatchingPatterns(final Collection<String> candidates) {
+            final Set<String> patterns = new HashSet<>();
+            for (String candidate : candidates) {
+                if (exact.containsKey(candidate)) {
+                    patterns.add(candidate);
                 }
+                wildcards.findAll(candidate).forEach(m -> patterns.add(wildcardPatterns.get(m)));
             }
+            return patterns;
+        }
+    }
 
-            return Collections.unmodifiableSet(securityRoles);
+    private static final class DlsFlsCacheKey {
+        private final Set<String> roleNames;
+        private final List<String> substitutedPatterns;
+        private final long metadataVersion;
+        private final boolean dfmEmptyOverwritesAll;
+        private final int hashCode;
+
+        private DlsFlsCacheKey(
+            final Set<String> roleNames,
+            final List<String> substitutedPatterns,
+            final long metadataVersion,
+            final boolean dfmEmptyOverwritesAll
+        ) {
+            this.roleNames = roleNames;
+            this.substitutedPatterns = substitutedPatterns;
+            this.metadataVersion = metadataVersion;
+            this.dfmEmptyOverwritesAll = dfmEmptyOverwritesAll;
+            this.hashCode = Objects.hash(roleNames, substitutedPatterns, metadataVersion, dfmEmptyOverwritesAll);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final DlsFlsCacheKey that = (DlsFlsCacheKey) o;
+            return metadataVersion == that.metadataVersion
+                && dfmEmptyOverwritesAll == that.dfmEmptyOverwritesAll
+                && roleNames.equals(that.roleNames)
+                && substitutedPatterns.equals(that.substitutedPatterns);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 
+    private static final class MappingKey {
+        private final String userName;
+        private final Set<String> backendRoles;
+        private final Set<String> securityRoles;
+        private final int hashCode;
+
+        private MappingKey(final String userName, final Set<String> backendRoles, final Set<String> securityRoles) {
+            this.userName = userName;
+            this.backendRoles = backendRoles;
+            this.securityRoles = securityRoles;
+            this.hashCode = Objects.hash(userName, backendRoles, securityRoles);
+        }
+
+        // the sets of a user are views which might change, so the key stored in the cache is a copy
+        private MappingKey copy() {
+            return new MappingKey(userName, ImmutableSet.copyOf(backendRoles), ImmutableSet.copyOf(securityRoles));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final MappingKey that = (MappingKey) o;
+            return Objects.equals(userName, that.userName)
+                && backendRoles.equals(that.backendRoles)
+                && securityRoles.equals(that.securityRoles);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
         }
     }
 
@@ -130,6 +130,10 @@ public class DynamicConfigFactory implements Initializable, ConfigurationChangeL
     private final Path configPath;
     private final InternalAuthenticationBackend iab = new InternalAuthenticationBackend();
     private final ClusterInfoHolder cih;
+    private final ResolvedIndexPatternCache resolvedIndexPatternCache;
+    private final ThreadPool threadPool;
+    // the current model, parts of which are reused when the configuration is reloaded
+    private volatile ConfigModelV7 configModelV7;
 
     SecurityDynamicConfiguration<?> config;
 
@@ -140,12 +144,26 @@ public class DynamicConfigFactory implements Initializable, ConfigurationChangeL
         Client client,
         ThreadPool threadPool,
         ClusterInfoHolder cih
+    ) {
+        this(cr, opensearchSettings, configPath, client, threadPool, cih, new ResolvedIndexPatternCache(opensearchSettings));
+    }
+
+    public DynamicConfigFactory(
+        ConfigurationRepository cr,
+        final Settings opensearchSettings,
+        final Path configPath,
+        Client client,
+        ThreadPool threadPool,
+        ClusterInfoHolder cih,
+        ResolvedIndexPatternCache resolvedIndexPatternCache
     ) {
         super();
         this.cr = cr;
         this.opensearchSettings = opensearchSettings;
         this.configPath = configPath;
         this.cih = cih;
+        this.resolvedIndexPatternCache = resolvedIndexPatternCache;
+        this.threadPool = threadPool;
 
         if (opensearchSettings.getAsBoolean(ConfigConstants.SECURITY_UNSUPPORTED_LOAD_STATIC_RESOURCES, true)) {
             try {
@@ -279,18 +297,23 @@ public class DynamicConfigFactory implements Initializable, ConfigurationChangeL
                 (SecurityDynamicConfiguration<RoleV7>) roles,
                 (SecurityDynamicConfiguration<RoleMappingsV7>) rolesmapping
             );
-            cm = new ConfigModelV7(
+            configModelV7 = new ConfigModelV7(
                 (SecurityDynamicConfiguration<RoleV7>) roles,
                 (SecurityDynamicConfiguration<RoleMappingsV7>) rolesmapping,
                 (SecurityDynamicConfiguration<ActionGroupsV7>) actionGroups,
                 (SecurityDynamicConfiguration<TenantV7>) tenants,
                 dcm,
-                opensearchSettings
+                opensearchSettings,
+                resolvedIndexPatternCache,
+                configModelV7,
+                threadPool == null ? null : threadPool.generic()
             );
+            cm = configModelV7;
 
         } else {
 
             // rebuild v6 Models
+            configModelV7 = null;
             dcm = new DynamicConfigModelV6(getConfigV6(config), opensearchSettings, configPath, iab);
             ium = new InternalUsersModelV6((SecurityDynamicConfiguration<InternalUserV6>) internalusers);
             cm = new ConfigModelV6(
@@ -0,0 +1,236 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.securityconf;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.opensearch.cluster.ClusterChangedEvent;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.ClusterStateListener;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.cluster.metadata.Metadata;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.index.Index;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.security.support.WildcardMatcher;
+
+/**
+ * Caches the concrete indices an index pattern of a role resolves to. Entries are only valid for the
+ * cluster metadata version they were computed for. When the metadata changes only by creating or deleting
+ * plain indices, the entries are updated incrementally; any other change (aliases, data streams,
+ * index state) drops all entries so that they are lazily re-resolved against the full indices lookup.
+ *
+ * Patterns which were produced by user attribute substitution are kept in a separate, size bounded cache
+ * keyed on the substituted value, as the number of distinct values depends on the user population.
+ */
+public class ResolvedIndexPatternCache implements ClusterStateListener {
+
+    public static final int DEFAULT_SUBSTITUTED_PATTERNS_MAX_SIZE = 10000;
+
+    private static final Logger log = LogManager.getLogger(ResolvedIndexPatternCache.class);
+
+    private final Map<String, Entry> patterns = new ConcurrentHashMap<>();
+    private final Cache<String, Entry> substitutedPatterns;
+
+    public ResolvedIndexPatternCache(final Settings settings) {
+        final int maxSize = settings.getAsInt(
+            ConfigConstants.SECURITY_PRIVILEGES_SUBSTITUTED_PATTERN_CACHE_MAX_SIZE,
+            DEFAULT_SUBSTITUTED_PATTERNS_MAX_SIZE
+        );
+        this.substitutedPatterns = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Returns the resolution of the given pattern against the metadata of the given cluster state.
+     * The resolver function is only invoked if there is no valid cache entry.
+     */
+    Entry get(final String pattern, final boolean substituted, final ClusterState state, final Function<String, Set<String>> resolver) {
+        final long metadataVersion = state.getMetadata().version();
+
+        if (!isCacheable(pattern)) {
+            return new Entry(pattern, metadataVersion, ImmutableSet.copyOf(resolver.apply(pattern)));
+        }
+
+        final Map<String, Entry> map = substituted ? substitutedPatterns.asMap() : patterns;
+        Entry entry = map.get(pattern);
+        if (entry == null || entry.metadataVersion != metadataVersion) {
+            entry = new Entry(pattern, metadataVersion, ImmutableSet.copyOf(resolver.apply(pattern)));
+            map.put(pattern, entry);
+        }
+        return entry;
+    }
+
+    public void invalidateAll() {
+        patterns.clear();
+        substitutedPatterns.invalidateAll();
+    }
+
+    public long size() {
+        return patterns.size() + substitutedPatterns.size();
+    }
+
+    @Override
+    public void clusterChanged(final ClusterChangedEvent event) {
+        if (!event.metadataChanged() || size() == 0) {
+            return;
+        }
+
+        final Metadata previous = event.previousState().metadata();
+        final Metadata current = event.state().metadata();
+
+        if (!isIncrementalChange(event, previous, current)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Aliases, data streams or index states changed, invalidating {} resolved index patterns", size());
+            }
+            invalidateAll();
+            return;
+        }
+
+        final List<String> created = event.indicesCreated();
+        final Set<String> deleted = new HashSet<>();
+        for (Index index : event.indicesDeleted()) {
+            deleted.add(index.getName());
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Updating {} resolved index patterns; created: {}, deleted: {}", size(), created, deleted);
+        }
+
+        update(patterns, previous.version(), current.version(), created, deleted);
+        update(substitutedPatterns.asMap(), previous.version(), current.version(), created, deleted);
+    }
+
+    private static void update(
+        final Map<String, Entry> map,
+        final long previousVersion,
+        final long currentVersion,
+        final Collection<String> created,
+        final Set<String> deleted
+    ) {
+        for (Iterator<Map.Entry<String, Entry>> it = map.entrySet().iterator(); it.hasNext();) {
+            final Map.Entry<String, Entry> mapEntry = it.next();
+            final Entry entry = mapEntry.getValue();
+            if (entry.metadataVersion != previousVersion || !entry.incremental) {
+                // stale entry or one whose resolution cannot be derived from the delta
+                it.remove();
+                continue;
+            }
+            map.replace(mapEntry.getKey(), entry, entry.advance(currentVersion, created, deleted));
+        }
+    }
+
+    /**
+     * An incremental update is only safe if the change consists of created or deleted open, non-hidden indices
+     * without aliases, and no alias, data stream or index state was modified on the remaining indices.
+     */
+    private static boolean isIncrementalChange(final ClusterChangedEvent event, final Metadata previous, final Metadata current) {
+        if (!previous.dataStreams().equals(current.dataStreams())) {
+            return false;
+        }
+
+        final Set<String> created = new HashSet<>(event.indicesCreated());
+        for (String name : created) {
+            final IndexMetadata indexMetadata = current.index(name);
+            if (indexMetadata == null
+                || indexMetadata.getState() != IndexMetadata.State.OPEN
+                || isHidden(indexMetadata)
+                || !indexMetadata.getAliases().isEmpty()) {
+                return false;
+            }
+        }
+
+        for (IndexMetadata indexMetadata : current) {
+            final IndexMetadata before = previous.index(indexMetadata.getIndex());
+            if (before == indexMetadata || created.contains(indexMetadata.getIndex().getName())) {
+                continue;
+            }
+            if (before == null
+                || before.getState() != indexMetadata.getState()
+                || !before.getAliases().equals(indexMetadata.getAliases())
+                || isHidden(before) != isHidden(indexMetadata)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isHidden(final IndexMetadata indexMetadata) {
+        return IndexMetadata.INDEX_HIDDEN_SETTING.get(indexMetadata.getSettings());
+    }
+
+    private static boolean isCacheable(final String pattern) {
+        // date math expressions depend on the current time
+        return pattern != null && pattern.indexOf('<') < 0;
+    }
+
+    private static boolean isIncremental(final String pattern) {
+        // comma separated lists, exclusions and regular expressions are resolved differently by the
+        // IndexNameExpressionResolver than by a WildcardMatcher, so they cannot be updated from a delta
+        return pattern.indexOf(',') < 0 && !pattern.startsWith("-") && !(pattern.startsWith("/") && pattern.endsWith("/"));
+    }
+
+    static final class Entry {
+        private final String pattern;
+        private final long metadataVersion;
+        private final boolean incremental;
+        private final Set<String> concreteIndices;
+        private final Set<String> concreteIndicesAndPattern;
+
+        private Entry(String pattern, long metadataVersion, Set<String> concreteIndices) {
+            this.pattern = pattern;
+            this.metadataVersion = metadataVersion;
+            this.incremental = isIncremental(pattern);
+            this.concreteIndices = concreteIndices;
+            this.concreteIndicesAndPattern = ImmutableSet.<String>builder().addAll(concreteIndices).add(pattern).build();
+        }
+
+        /** The concrete indices; if none could be resolved, the unresolved pattern itself */
+        Set<String> getConcreteIndices() {
+            return concreteIndices.isEmpty() ? concreteIndicesAndPattern : concreteIndices;
+        }
+
+        /** The concrete indices and the unresolved pattern, which might refer to indices not existing yet */
+        Set<String> getConcreteIndicesAndPattern() {
+            return concreteIndicesAndPattern;
+        }
+
+        private Entry advance(final long metadataVersion, final Collection<String> created, final Set<String> deleted) {
+            final WildcardMatcher matcher = WildcardMatcher.from(pattern);
+            final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+            for (String index : concreteIndices) {
+                if (!deleted.contains(index)) {
+                    builder.add(index);
+                }
+            }
+            for (String index : created) {
+                if (matcher.test(index)) {
+                    builder.add(index);
+                }
+            }
+            return new Entry(pattern, metadataVersion, builder.build());
+        }
+    }
+}
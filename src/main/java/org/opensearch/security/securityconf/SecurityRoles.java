@@ -53,6 +53,18 @@ public interface SecurityRoles {
         ClusterService cs
     );
 
+    /**
+     * Determines if the action is granted on the given concrete index without any DLS, FLS or field masking restriction.
+     * This allows to skip resolving requests which only target a single index.
+     */
+    boolean impliesUnrestrictedIndexPermission(
+        String index,
+        String action,
+        User user,
+        IndexNameExpressionResolver resolver,
+        ClusterService cs
+    );
+
     Set<String> getRoleNames();
 
     Set<String> reduce(
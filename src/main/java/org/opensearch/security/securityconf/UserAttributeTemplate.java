@@ -0,0 +1,238 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.securityconf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import org.opensearch.security.user.User;
+
+/**
+ * A string from the security configuration, like an index pattern, a DLS query or a tenant name, which may refer to
+ * user attributes with {@code ${...}} placeholders. The string is split into literal and placeholder segments once
+ * when the configuration is loaded, so that it can be expanded for a user in a single pass.
+ *
+ * Supported placeholders are {@code ${user.name}}, {@code ${user.roles}}, {@code ${user.securityRoles}} and
+ * {@code ${<attribute>}} for custom attributes, each of which may also be written with underscores instead of dots.
+ * Placeholders which cannot be resolved for a user are kept as they are.
+ */
+public final class UserAttributeTemplate {
+
+    private static final String[] NO_PLACEHOLDERS = new String[0];
+
+    private final String template;
+    // literals[i] precedes placeholders[i], the last literal follows the last placeholder
+    private final String[] literals;
+    private final String[] placeholders;
+
+    private UserAttributeTemplate(final String template, final String[] literals, final String[] placeholders) {
+        this.template = template;
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    public static UserAttributeTemplate compile(final String template) {
+        if (template == null || !template.contains("${")) {
+            return new UserAttributeTemplate(template, null, NO_PLACEHOLDERS);
+        }
+
+        final List<String> literals = new ArrayList<>();
+        final List<String> placeholders = new ArrayList<>();
+        int literalStart = 0;
+        int start = template.indexOf("${");
+        while (start >= 0) {
+            final int end = template.indexOf('}', start + 2);
+            if (end < 0) {
+                break;
+            }
+            final int nested = template.indexOf("${", start + 2);
+            if (nested >= 0 && nested < end) {
+                // "${a${b}" only contains the placeholder ${b}
+                start = nested;
+                continue;
+            }
+            literals.add(template.substring(literalStart, start));
+            placeholders.add(template.substring(start + 2, end));
+            literalStart = end + 1;
+            start = template.indexOf("${", literalStart);
+        }
+
+        if (placeholders.isEmpty()) {
+            return new UserAttributeTemplate(template, null, NO_PLACEHOLDERS);
+        }
+        literals.add(template.substring(literalStart));
+        return new UserAttributeTemplate(template, literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public boolean hasPlaceholders() {
+        return placeholders.length > 0;
+    }
+
+    /**
+     * Returns the literal part of the template preceding its first placeholder, or the whole template if it has none.
+     */
+    public String getPrefix() {
+        return placeholders.length > 0 ? literals[0] : template;
+    }
+
+    /**
+     * Substitutes the placeholders with the attributes of the given user. Values are inserted as they are, and
+     * are not searched for further placeholders.
+     */
+    public String expand(final User user) {
+        if (user == null || placeholders.length == 0) {
+            return template;
+        }
+
+        final StringBuilder result = new StringBuilder(template.length() + 16 * placeholders.length);
+        for (int i = 0; i < placeholders.length; i++) {
+            result.append(literals[i]);
+            final String value = resolve(placeholders[i], user);
+            if (value != null) {
+                result.append(value);
+            } else {
+                result.append("${").append(placeholders[i]).append('}');
+            }
+        }
+        return result.append(literals[placeholders.length]).toString();
+    }
+
+    /**
+     * Substitutes the i-th placeholder with {@code values.apply(i)}.
+     */
+    public String substitute(final IntFunction<String> values) {
+        if (placeholders.length == 0) {
+            return template;
+        }
+
+        final StringBuilder result = new StringBuilder(template.length() + 8 * placeholders.length);
+        for (int i = 0; i < placeholders.length; i++) {
+            result.append(literals[i]).append(values.apply(i));
+        }
+        return result.append(literals[placeholders.length]).toString();
+    }
+
+    /**
+     * Splits a string expanded from this template into the values substituted for the placeholders, or returns null
+     * if the string cannot have been expanded from this template. Where a value could contain the literal following
+     * it, the shortest possible value is returned.
+     */
+    public String[] extract(final String expanded) {
+        if (placeholders.length == 0 || expanded == null) {
+            return null;
+        }
+
+        final String prefix = literals[0];
+        final String suffix = literals[placeholders.length];
+        final int end = expanded.length() - suffix.length();
+        if (end < prefix.length() || !expanded.startsWith(prefix) || !expanded.endsWith(suffix)) {
+            return null;
+        }
+
+        final String[] values = new String[placeholders.length];
+        int position = prefix.length();
+        for (int i = 0; i < placeholders.length - 1; i++) {
+            final String literal = literals[i + 1];
+            final int next = expanded.indexOf(literal, position);
+            if (next < 0 || next + literal.length() > end) {
+                return null;
+            }
+            values[i] = expanded.substring(position, next);
+            position = next + literal.length();
+        }
+        values[placeholders.length - 1] = expanded.substring(position, end);
+        return values;
+    }
+
+    public int getPlaceholderCount() {
+        return placeholders.length;
+    }
+
+    private static String resolve(final String placeholder, final User user) {
+        switch (placeholder) {
+            case "user.name":
+            case "user_name":
+                return user.getName();
+            case "user.roles":
+            case "user_roles":
+                return toQuotedCommaSeparatedString(user.getRoles());
+            case "user.securityRoles":
+            case "user_securityRoles":
+                return toQuotedCommaSeparatedString(user.getSecurityRoles());
+            default:
+                return resolveAttribute(placeholder, user.getCustomAttributesMap());
+        }
+    }
+
+    private static String resolveAttribute(final String placeholder, final Map<String, String> attributes) {
+        final String value = attributes.get(placeholder);
+        if (value != null || placeholder.indexOf('_') < 0) {
+            return value;
+        }
+        // attributes can also be referred to with underscores instead of dots, like ${attr_jwt_sub} for attr.jwt.sub
+        synchronized (attributes) {
+            for (Map.Entry<String, String> entry : attributes.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null && equalsWithDotsAsUnderscores(entry.getKey(), placeholder)) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean equalsWithDotsAsUnderscores(final String key, final String placeholder) {
+        if (key.length() != placeholder.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            final char c = key.charAt(i);
+            if ((c == '.' ? '_' : c) != placeholder.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String toQuotedCommaSeparatedString(final Set<String> values) {
+        final StringBuilder result = new StringBuilder();
+        for (String value : values) {
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            result.append('"').append(value).append('"');
+        }
+        return result.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || (o instanceof UserAttributeTemplate && Objects.equals(((UserAttributeTemplate) o).template, template));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(template);
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
@@ -151,6 +151,8 @@ public class ConfigConstants {
     public static final String SECURITY_AUDIT_CONFIG_ENDPOINTS = "plugins.security.audit.endpoints";
     public static final String SECURITY_AUDIT_THREADPOOL_SIZE = "plugins.security.audit.threadpool.size";
     public static final String SECURITY_AUDIT_THREADPOOL_MAX_QUEUE_LEN = "plugins.security.audit.threadpool.max_queue_len";
+    public static final String SECURITY_AUDIT_THREADPOOL_BACKPRESSURE = "plugins.security.audit.threadpool.backpressure";
+    public static final String SECURITY_AUDIT_THREADPOOL_BLOCK_TIMEOUT = "plugins.security.audit.threadpool.block_timeout";
     public static final String OPENDISTRO_SECURITY_AUDIT_LOG_REQUEST_BODY = "opendistro_security.audit.log_request_body";
     public static final String OPENDISTRO_SECURITY_AUDIT_RESOLVE_INDICES = "opendistro_security.audit.resolve_indices";
     public static final String OPENDISTRO_SECURITY_AUDIT_ENABLE_REST = "opendistro_security.audit.enable_rest";
@@ -177,6 +179,14 @@ public class ConfigConstants {
     public static final String SECURITY_AUDIT_OPENSEARCH_INDEX = "index";
     public static final String SECURITY_AUDIT_OPENSEARCH_TYPE = "type";
 
+    // Internal OpenSearch
+    public static final String SECURITY_AUDIT_OPENSEARCH_REFRESH_POLICY = "refresh_policy";
+    public static final String SECURITY_AUDIT_OPENSEARCH_BULK_ACTIONS = "bulk.actions";
+    public static final String SECURITY_AUDIT_OPENSEARCH_BULK_SIZE = "bulk.size";
+    public static final String SECURITY_AUDIT_OPENSEARCH_BULK_FLUSH_INTERVAL = "bulk.flush_interval";
+    public static final String SECURITY_AUDIT_OPENSEARCH_BULK_MAX_QUEUED = "bulk.max_queued";
+    public static final String SECURITY_AUDIT_OPENSEARCH_BULK_MAX_RETRIES = "bulk.max_retries";
+
     // External OpenSearch
     public static final String SECURITY_AUDIT_EXTERNAL_OPENSEARCH_HTTP_ENDPOINTS = "http_endpoints";
     public static final String SECURITY_AUDIT_EXTERNAL_OPENSEARCH_USERNAME = "username";
@@ -201,6 +211,15 @@ public class ConfigConstants {
     public static final String SECURITY_AUDIT_WEBHOOK_SSL_VERIFY = "webhook.ssl.verify";
     public static final String SECURITY_AUDIT_WEBHOOK_PEMTRUSTEDCAS_FILEPATH = "webhook.ssl.pemtrustedcas_filepath";
     public static final String SECURITY_AUDIT_WEBHOOK_PEMTRUSTEDCAS_CONTENT = "webhook.ssl.pemtrustedcas_content";
+    public static final String SECURITY_AUDIT_WEBHOOK_ASYNC = "webhook.async";
+    public static final String SECURITY_AUDIT_WEBHOOK_HTTP2 = "webhook.http2";
+    public static final String SECURITY_AUDIT_WEBHOOK_COMPRESSION = "webhook.compression";
+    public static final String SECURITY_AUDIT_WEBHOOK_BATCH_SIZE = "webhook.batch.size";
+    public static final String SECURITY_AUDIT_WEBHOOK_BATCH_FLUSH_INTERVAL = "webhook.batch.flush_interval";
+    public static final String SECURITY_AUDIT_WEBHOOK_MAX_CONNECTIONS = "webhook.max_connections";
+    public static final String SECURITY_AUDIT_WEBHOOK_MAX_INFLIGHT_REQUESTS = "webhook.max_inflight_requests";
+    public static final String SECURITY_AUDIT_WEBHOOK_MAX_QUEUED = "webhook.max_queued";
+    public static final String SECURITY_AUDIT_WEBHOOK_MAX_RETRIES = "webhook.max_retries";
 
     // Log4j
     public static final String SECURITY_AUDIT_LOG4J_LOGGER_NAME = "log4j.logger_name";
@@ -210,6 +229,13 @@ public class ConfigConstants {
     public static final String SECURITY_AUDIT_RETRY_COUNT = "plugins.security.audit.config.retry_count";
     public static final String SECURITY_AUDIT_RETRY_DELAY_MS = "plugins.security.audit.config.retry_delay_ms";
 
+    // spool
+    public static final String SECURITY_AUDIT_SPOOL_ENABLED = "plugins.security.audit.spool.enabled";
+    public static final String SECURITY_AUDIT_SPOOL_PATH = "plugins.security.audit.spool.path";
+    public static final String SECURITY_AUDIT_SPOOL_FSYNC = "plugins.security.audit.spool.fsync";
+    public static final String SECURITY_AUDIT_SPOOL_SEGMENT_SIZE = "plugins.security.audit.spool.segment_size";
+    public static final String SECURITY_AUDIT_SPOOL_MAX_SIZE = "plugins.security.audit.spool.max_size";
+
     public static final String SECURITY_KERBEROS_KRB5_FILEPATH = "plugins.security.kerberos.krb5_filepath";
     public static final String SECURITY_KERBEROS_ACCEPTOR_KEYTAB_FILEPATH = "plugins.security.kerberos.acceptor_keytab_filepath";
     public static final String SECURITY_KERBEROS_ACCEPTOR_PRINCIPAL = "plugins.security.kerberos.acceptor_principal";
@@ -259,6 +285,14 @@ public class ConfigConstants {
     public static final String SECURITY_SSL_CERT_RELOAD_ENABLED = "plugins.security.ssl_cert_reload_enabled";
     public static final String SECURITY_DISABLE_ENVVAR_REPLACEMENT = "plugins.security.disable_envvar_replacement";
     public static final String SECURITY_DFM_EMPTY_OVERRIDES_ALL = "plugins.security.dfm_empty_overrides_all";
+    public static final String SECURITY_PRIVILEGES_SUBSTITUTED_PATTERN_CACHE_MAX_SIZE =
+        "plugins.security.privileges.substituted_pattern_cache.max_size";
+    public static final String SECURITY_PRIVILEGES_ROLES_CACHE_MAX_SIZE = "plugins.security.privileges.roles_cache.max_size";
+    public static final String SECURITY_PRIVILEGES_FAST_PATH_ENABLED = "plugins.security.privileges.fast_path.enabled";
+    public static final String SECURITY_ROLES_MAPPING_CACHE_MAX_SIZE = "plugins.security.roles_mapping_cache.max_size";
+    public static final String SECURITY_PRIVILEGES_DLS_FLS_CACHE_MAX_SIZE = "plugins.security.privileges.dls_fls_cache.max_size";
+    public static final String SECURITY_DLS_BITSET_CACHE_SIZE = "plugins.security.dls.bitset_cache.size";
+    public static final String SECURITY_DLS_FLS_REQUEST_CACHE_INDICES = "plugins.security.dls_fls.request_cache.indices";
 
     public enum RolesMappingResolution {
         MAPPING_ONLY,
@@ -268,6 +302,7 @@ public class ConfigConstants {
 
     public static final String SECURITY_FILTER_SECURITYINDEX_FROM_ALL_REQUESTS = "plugins.security.filter_securityindex_from_all_requests";
     public static final String SECURITY_DLS_MODE = "plugins.security.dls.mode";
+    public static final String SECURITY_DLS_TLQ_CACHE_TTL = "plugins.security.dls.tlq_cache.ttl";
     // REST API
     public static final String SECURITY_RESTAPI_ROLES_ENABLED = "plugins.security.restapi.roles_enabled";
     public static final String SECURITY_RESTAPI_ADMIN_ENABLED = "plugins.security.restapi.admin.enabled";
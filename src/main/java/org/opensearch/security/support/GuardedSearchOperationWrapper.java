@@ -34,7 +34,7 @@ public interface GuardedSearchOperationWrapper {
 
     void validateReaderContext(final ReaderContext readerContext, final TransportRequest transportRequest);
 
-    void onQueryPhase(final SearchContext searchContext, final long tookInNanos);
+    default void onQueryPhase(final SearchContext searchContext, final long tookInNanos) {}
 
     default SearchOperationListener toListener() {
         return new InnerSearchOperationListener(this);
@@ -26,9 +26,13 @@
 
 package org.opensearch.security.support;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
@@ -40,9 +44,16 @@ import java.util.stream.Stream;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
+import org.apache.lucene.util.automaton.Automaton;
+import org.apache.lucene.util.automaton.CharacterRunAutomaton;
+import org.apache.lucene.util.automaton.Operations;
+import org.apache.lucene.util.automaton.TooComplexToDeterminizeException;
 
 public abstract class WildcardMatcher implements Predicate<String> {
 
+    // number of combined matchers from which on they are compiled into a CompiledPatternSet
+    static final int COMPILE_THRESHOLD = 64;
+
     public static final WildcardMatcher ANY = new WildcardMatcher() {
 
         @Override
@@ -167,7 +178,7 @@ public abstract class WildcardMatcher implements Predicate<String> {
         return from(pattern, true);
     }
 
-    // This may in future use more optimized techniques to combine multiple WildcardMatchers in a single automaton
+    // Large sets of matchers are compiled into a single automaton by the MatcherCombiner, see CompiledPatternSet
     public static <T> WildcardMatcher from(Stream<T> stream, boolean caseSensitive) {
         Collection<WildcardMatcher> matchers = stream.map(t -> {
             if (t == null) {
@@ -282,6 +293,13 @@ public abstract class WildcardMatcher implements Predicate<String> {
         return Optional.ofNullable(test(candidate) ? this : null);
     }
 
+    /**
+     * Returns all matchers this matcher is combined from which match the candidate, in their original order
+     */
+    public Stream<WildcardMatcher> findAll(final String candidate) {
+        return test(candidate) ? Stream.of(this) : Stream.empty();
+    }
+
     public static List<WildcardMatcher> matchers(Collection<String> patterns) {
         return patterns.stream().map(p -> WildcardMatcher.from(p, true)).collect(Collectors.toList());
     }
@@ -463,24 +481,40 @@ public abstract class WildcardMatcher implements Predicate<String> {
     private static final class MatcherCombiner extends WildcardMatcher {
 
         private final Collection<WildcardMatcher> wildcardMatchers;
+        private final CompiledPatternSet compiled;
         private final int hashCode;
 
         MatcherCombiner(Collection<WildcardMatcher> wildcardMatchers) {
             Preconditions.checkArgument(wildcardMatchers.size() > 1);
             this.wildcardMatchers = wildcardMatchers;
+            this.compiled = wildcardMatchers.size() >= COMPILE_THRESHOLD ? new CompiledPatternSet(wildcardMatchers) : null;
             hashCode = wildcardMatchers.hashCode();
         }
 
         @Override
         public boolean test(String candidate) {
+            if (compiled != null) {
+                return compiled.test(candidate);
+            }
             return wildcardMatchers.stream().anyMatch(m -> m.test(candidate));
         }
 
         @Override
         public Optional<WildcardMatcher> findFirst(final String candidate) {
+            if (compiled != null) {
+                return compiled.findAll(candidate).findFirst();
+            }
             return wildcardMatchers.stream().filter(m -> m.test(candidate)).findFirst();
         }
 
+        @Override
+        public Stream<WildcardMatcher> findAll(final String candidate) {
+            if (compiled != null) {
+                return compiled.findAll(candidate);
+            }
+            return wildcardMatchers.stream().filter(m -> m.test(candidate));
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -499,4 +533,204 @@ public abstract class WildcardMatcher implements Predicate<String> {
             return wildcardMatchers.toString();
         }
     }
+
+    // CompiledPatternSet indexes a large set of matchers so that a candidate does not need to be tested
+    // against each of them. Exact patterns are looked up in a hash map, patterns with wildcards are compiled
+    // into a single DFA answering whether any of them matches. Matching wildcard patterns are found by
+    // walking a trie of their literal prefixes, so that only patterns sharing a prefix with the candidate
+    // need to be verified. Regular expressions and other matchers are still tested one by one.
+    private static final class CompiledPatternSet {
+
+        private final WildcardMatcher[] matchers;
+        private final PatternGroup caseSensitive = new PatternGroup();
+        private final PatternGroup casefolded = new PatternGroup();
+        private final int[] uncompiled;
+
+        CompiledPatternSet(Collection<WildcardMatcher> wildcardMatchers) {
+            this.matchers = wildcardMatchers.toArray(new WildcardMatcher[0]);
+            final List<Integer> uncompiled = new ArrayList<>();
+            for (int i = 0; i < matchers.length; i++) {
+                final WildcardMatcher matcher = matchers[i];
+                if (matcher instanceof CasefoldingMatcher) {
+                    if (!casefolded.add(((CasefoldingMatcher) matcher).inner, i)) {
+                        uncompiled.add(i);
+                    }
+                } else if (!caseSensitive.add(matcher, i)) {
+                    uncompiled.add(i);
+                }
+            }
+            this.uncompiled = uncompiled.stream().mapToInt(Integer::intValue).toArray();
+            caseSensitive.build();
+            casefolded.build();
+        }
+
+        boolean test(String candidate) {
+            if (caseSensitive.test(candidate)) {
+                return true;
+            }
+            if (!casefolded.isEmpty() && casefolded.test(candidate.toLowerCase())) {
+                return true;
+            }
+            for (int i : uncompiled) {
+                if (matchers[i].test(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Stream<WildcardMatcher> findAll(String candidate) {
+            final BitSet matching = new BitSet(matchers.length);
+            caseSensitive.collect(candidate, matching);
+            if (!casefolded.isEmpty()) {
+                casefolded.collect(candidate.toLowerCase(), matching);
+            }
+            for (int i : uncompiled) {
+                if (matchers[i].test(candidate)) {
+                    matching.set(i);
+                }
+            }
+            return matching.stream().mapToObj(i -> matchers[i]);
+        }
+    }
+
+    // Exact and simple wildcard patterns which are matched against the same form of the candidate
+    private static final class PatternGroup {
+
+        private final Map<String, Integer> exact = new HashMap<>();
+        private final List<SimpleMatcher> wildcards = new ArrayList<>();
+        private final List<Integer> wildcardIds = new ArrayList<>();
+        private final PrefixNode prefixes = new PrefixNode();
+        private CharacterRunAutomaton automaton;
+
+        boolean add(WildcardMatcher matcher, int id) {
+            if (matcher instanceof Exact) {
+                exact.put(((Exact) matcher).pattern, id);
+                return true;
+            } else if (matcher instanceof SimpleMatcher) {
+                final String pattern = ((SimpleMatcher) matcher).pattern;
+                prefixes.add(pattern, wildcards.size());
+                wildcards.add((SimpleMatcher) matcher);
+                wildcardIds.add(id);
+                return true;
+            }
+            return false;
+        }
+
+        void build() {
+            if (wildcards.isEmpty()) {
+                return;
+            }
+            final List<Automaton> automata = new ArrayList<>(wildcards.size());
+            for (SimpleMatcher matcher : wildcards) {
+                automata.add(toAutomaton(matcher.pattern));
+            }
+            try {
+                final Automaton union = Operations.determinize(Operations.union(automata), Operations.DEFAULT_DETERMINIZE_WORK_LIMIT);
+                automaton = new CharacterRunAutomaton(union);
+            } catch (TooComplexToDeterminizeException e) {
+                // the prefix trie is used to find matching patterns instead
+                automaton = null;
+            }
+        }
+
+        boolean isEmpty() {
+            return exact.isEmpty() && wildcards.isEmpty();
+        }
+
+        boolean test(String candidate) {
+            if (exact.containsKey(candidate)) {
+                return true;
+            }
+            if (wildcards.isEmpty()) {
+                return false;
+            }
+            if (automaton != null) {
+                return run(automaton, candidate);
+            }
+            final BitSet matching = new BitSet();
+            collectWildcards(candidate, matching);
+            return !matching.isEmpty();
+        }
+
+        void collect(String candidate, BitSet matching) {
+            final Integer id = exact.get(candidate);
+            if (id != null) {
+                matching.set(id);
+            }
+            if (wildcards.isEmpty() || (automaton != null && !run(automaton, candidate))) {
+                return;
+            }
+            collectWildcards(candidate, matching);
+        }
+
+        private void collectWildcards(String candidate, BitSet matching) {
+            PrefixNode node = prefixes;
+            int i = 0;
+            while (node != null) {
+                for (int w : node.patterns) {
+                    if (wildcards.get(w).test(candidate)) {
+                        matching.set(wildcardIds.get(w));
+                    }
+                }
+                node = i < candidate.length() ? node.child(candidate.charAt(i++)) : null;
+            }
+        }
+
+        // runs the automaton on UTF-16 code units, as SimpleMatcher does
+        private static boolean run(CharacterRunAutomaton automaton, String candidate) {
+            int state = 0;
+            for (int i = 0; i < candidate.length() && state != -1; i++) {
+                state = automaton.step(state, candidate.charAt(i));
+            }
+            return state != -1 && automaton.isAccept(state);
+        }
+
+        private static Automaton toAutomaton(String pattern) {
+            final Automaton.Builder builder = new Automaton.Builder();
+            int state = builder.createState();
+            for (int i = 0; i < pattern.length(); i++) {
+                final char c = pattern.charAt(i);
+                if (c == '*') {
+                    builder.addTransition(state, state, Character.MIN_VALUE, Character.MAX_VALUE);
+                } else {
+                    final int next = builder.createState();
+                    if (c == '?') {
+                        builder.addTransition(state, next, Character.MIN_VALUE, Character.MAX_VALUE);
+                    } else {
+                        builder.addTransition(state, next, c);
+                    }
+                    state = next;
+                }
+            }
+            builder.setAccept(state, true);
+            return builder.finish();
+        }
+    }
+
+    // Trie of the literal prefixes of wildcard patterns, i.e. the part before the first wildcard
+    private static final class PrefixNode {
+
+        private static final int[] EMPTY = new int[0];
+
+        private final Map<Character, PrefixNode> children = new HashMap<>();
+        private int[] patterns = EMPTY;
+
+        void add(String pattern, int w) {
+            PrefixNode node = this;
+            for (int i = 0; i < pattern.length(); i++) {
+                final char c = pattern.charAt(i);
+                if (c == '*' || c == '?') {
+                    break;
+                }
+                node = node.children.computeIfAbsent(c, k -> new PrefixNode());
+            }
+            node.patterns = Arrays.copyOf(node.patterns, node.patterns.length + 1);
+            node.patterns[node.patterns.length - 1] = w;
+        }
+
+        PrefixNode child(char c) {
+            return children.isEmpty() ? null : children.get(c);
+        }
+    }
 }
@@ -26,7 +26,11 @@
 
 package org.opensearch.security;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.bouncycastle.crypto.generators.OpenBSDBCrypt;
@@ -107,6 +111,40 @@ public class UtilTests {
         assertTrue(!WildcardMatcher.from("ABC").test("abc"));
     }
 
+    @Test
+    public void testLargeWildcardMatcherSets() {
+        final List<WildcardMatcher> matchers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            matchers.add(wc("user" + i));
+            matchers.add(wc("team" + i + "-*"));
+            matchers.add(iwc("*-Dept" + i));
+        }
+        matchers.add(wc("a*?"));
+        matchers.add(wc("/svc_\\d+/"));
+        final WildcardMatcher combined = WildcardMatcher.from(matchers);
+
+        for (String candidate : Arrays.asList(
+            "user7",
+            "user100",
+            "team12-",
+            "team12-admins",
+            "team1",
+            "sales-dept42",
+            "sales-DEPT42",
+            "sales-dept420",
+            "ab",
+            "a",
+            "svc_12",
+            "svc_",
+            ""
+        )) {
+            final List<WildcardMatcher> expected = matchers.stream().filter(m -> m.test(candidate)).collect(Collectors.toList());
+            assertEquals(candidate, !expected.isEmpty(), combined.test(candidate));
+            assertEquals(candidate, expected, combined.findAll(candidate).collect(Collectors.toList()));
+            assertEquals(candidate, expected.stream().findFirst(), combined.findFirst(candidate));
+        }
+    }
+
     @Test
     public void testEnvReplace() {
         Settings settings = Settings.EMPTY;
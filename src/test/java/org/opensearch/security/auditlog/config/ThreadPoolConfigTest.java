@@ -16,6 +16,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 
 import static org.junit.Assert.assertEquals;
 
@@ -83,4 +84,28 @@ public class ThreadPoolConfigTest {
         assertEquals(8, config.getThreadPoolSize());
         assertEquals(50, config.getThreadPoolMaxQueueLen());
     }
+
+    @Test
+    public void testBackpressureFromSettings() {
+        // arrange
+        Settings settings = Settings.builder()
+            .put("plugins.security.audit.threadpool.backpressure", "drop_oldest")
+            .put("plugins.security.audit.threadpool.block_timeout", "5ms")
+            .build();
+
+        // assert
+        ThreadPoolConfig config = ThreadPoolConfig.getConfig(settings);
+        assertEquals(ThreadPoolConfig.BackpressurePolicy.DROP_OLDEST, config.getBackpressurePolicy());
+        assertEquals(TimeValue.timeValueMillis(5), config.getBlockTimeout());
+        assertEquals(ThreadPoolConfig.BackpressurePolicy.FALLBACK, ThreadPoolConfig.getConfig(Settings.EMPTY).getBackpressurePolicy());
+    }
+
+    @Test
+    public void testIncorrectBackpressureThrowsException() {
+        // arrange
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Incorrect backpressure policy: wait configured for audit logging.");
+        // act
+        ThreadPoolConfig.getConfig(Settings.builder().put("plugins.security.audit.threadpool.backpressure", "wait").build());
+    }
 }
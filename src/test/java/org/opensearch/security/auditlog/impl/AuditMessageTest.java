@@ -26,13 +26,19 @@ import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.collect.Tuple;
 import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.common.xcontent.json.JsonXContent;
 import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.DeprecationHandler;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentParser;
 import org.opensearch.security.auditlog.AuditLog;
 import org.opensearch.security.auditlog.config.AuditConfig;
 import org.opensearch.security.securityconf.impl.CType;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -155,4 +161,32 @@ public class AuditMessageTest {
         message.addSecurityConfigTupleToRequestBody(new Tuple<>(XContentType.JSON, ref), internalUsersDocId);
         assertEquals("Hash in tuple is __HASH__", message.getAsMap().get(AuditMessage.REQUEST_BODY));
     }
+
+    @Test
+    public void testJsonIsSerializedOnce() throws Exception {
+        message.addAction("indices:data/read/search");
+        message.addIndices(new String[] { "index-1", "index-2" });
+
+        final BytesReference json = message.toJsonBytes();
+        assertSame(json, message.toJsonBytes());
+        assertEquals(json.utf8ToString(), message.toJson());
+        try (
+            XContentParser parser = JsonXContent.jsonXContent.createParser(
+                NamedXContentRegistry.EMPTY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION,
+                json.streamInput()
+            )
+        ) {
+            final Map<String, Object> parsed = parser.map();
+            assertEquals("AUTHENTICATED", parsed.get(AuditMessage.CATEGORY));
+            assertEquals("indices:data/read/search", parsed.get(AuditMessage.TRANSPORT_ACTION));
+            assertEquals(List.of("index-1", "index-2"), parsed.get(AuditMessage.INDICES));
+            assertEquals(message.getAsMap().keySet(), parsed.keySet());
+        }
+
+        // a changed message is serialized again
+        message.addPrivilege("indices:data/read/search");
+        assertNotSame(json, message.toJsonBytes());
+        assertEquals("indices:data/read/search", message.getAsMap().get(AuditMessage.PRIVILEGE));
+    }
 }
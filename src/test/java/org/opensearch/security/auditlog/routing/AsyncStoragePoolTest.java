@@ -0,0 +1,239 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.routing;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.core.xcontent.DeprecationHandler;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.security.auditlog.config.ThreadPoolConfig;
+import org.opensearch.security.auditlog.config.ThreadPoolConfig.BackpressurePolicy;
+import org.opensearch.security.auditlog.helper.MockAuditMessageFactory;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+import org.opensearch.security.auditlog.sink.AuditLogSink;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class AsyncStoragePoolTest {
+
+    @Test
+    public void testRingBufferIsBounded() {
+        final AuditRingBuffer buffer = new AuditRingBuffer(3);
+        assertThat(buffer.capacity(), is(4));
+
+        final AuditMessage[] messages = new AuditMessage[5];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = MockAuditMessageFactory.validAuditMessage();
+        }
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(messages[i]), is(true));
+        }
+        assertThat(buffer.offer(messages[4]), is(false));
+        assertThat(buffer.size(), is(4));
+
+        assertThat(buffer.poll(), sameInstance(messages[0]));
+        assertThat(buffer.offer(messages[4]), is(true));
+
+        final AuditMessage[] batch = new AuditMessage[8];
+        assertThat(buffer.drainTo(batch), is(4));
+        assertThat(batch[3], sameInstance(messages[4]));
+        assertThat(buffer.poll(), nullValue());
+    }
+
+    @Test
+    public void testMessagesAreStoredOnTheirSinks() throws Exception {
+        final AsyncStoragePool pool = new AsyncStoragePool(new ThreadPoolConfig(2, 16));
+        final BlockingSink first = new BlockingSink("first", 0);
+        final BlockingSink second = new BlockingSink("second", 0);
+
+        for (int i = 0; i < 100; i++) {
+            pool.submit(MockAuditMessageFactory.validAuditMessage(), i % 2 == 0 ? first : second);
+            if (i % 10 == 0) {
+                // keeps the queues from overflowing
+                Thread.sleep(5);
+            }
+        }
+        pool.close();
+
+        assertThat(first.stored, hasSize(50));
+        assertThat(second.stored, hasSize(50));
+        assertThat(stats(pool).get("threads"), equalTo(2));
+    }
+
+    @Test
+    public void testOverflowIsStoredOnFallbackSinkByDefault() throws Exception {
+        final AsyncStoragePool pool = new AsyncStoragePool(new ThreadPoolConfig(1, 2));
+        final BlockingSink fallbackSink = new BlockingSink("fallback", 0);
+        final BlockingSink sink = new BlockingSink("sink", 1, fallbackSink);
+        final AuditMessage[] messages = submitWhileBlocked(pool, sink);
+
+        // the overflowing messages are stored on the calling thread
+        assertThat(fallbackSink.stored, contains(messages[3], messages[4]));
+
+        sink.release();
+        pool.close();
+
+        assertThat(sink.stored, contains(messages[0], messages[1], messages[2]));
+        assertThat(sinkStats(pool).get("fallback"), equalTo(2));
+        assertThat(sinkStats(pool).get("dropped"), equalTo(0));
+    }
+
+    @Test
+    public void testDropNewDoesNotUseFallbackSink() throws Exception {
+        final AsyncStoragePool pool = new AsyncStoragePool(
+            new ThreadPoolConfig(1, 2, BackpressurePolicy.DROP_NEW, TimeValue.timeValueMillis(100))
+        );
+        final BlockingSink fallbackSink = new BlockingSink("fallback", 0);
+        final BlockingSink sink = new BlockingSink("sink", 1, fallbackSink);
+        submitWhileBlocked(pool, sink);
+
+        sink.release();
+        pool.close();
+
+        assertThat(fallbackSink.stored, hasSize(0));
+        assertThat(sinkStats(pool).get("dropped"), equalTo(2));
+    }
+
+    @Test
+    public void testDropNewCountsDroppedMessages() throws Exception {
+        final AsyncStoragePool pool = new AsyncStoragePool(
+            new ThreadPoolConfig(1, 2, BackpressurePolicy.DROP_NEW, TimeValue.timeValueMillis(100))
+        );
+        final BlockingSink sink = new BlockingSink("sink", 1);
+        final AuditMessage[] messages = submitWhileBlocked(pool, sink);
+
+        sink.release();
+        pool.close();
+
+        assertThat(sink.stored, contains(messages[0], messages[1], messages[2]));
+        assertThat(sinkStats(pool).get("dropped"), equalTo(2));
+    }
+
+    @Test
+    public void testDropOldestKeepsNewestMessages() throws Exception {
+        final AsyncStoragePool pool = new AsyncStoragePool(
+            new ThreadPoolConfig(1, 2, BackpressurePolicy.DROP_OLDEST, TimeValue.timeValueMillis(100))
+        );
+        final BlockingSink sink = new BlockingSink("sink", 1);
+        final AuditMessage[] messages = submitWhileBlocked(pool, sink);
+
+        sink.release();
+        pool.close();
+
+        assertThat(sink.stored, contains(messages[0], messages[3], messages[4]));
+        assertThat(sinkStats(pool).get("dropped"), equalTo(2));
+    }
+
+    @Test
+    public void testBlockWaitsForTimeout() throws Exception {
+        final AsyncStoragePool pool = new AsyncStoragePool(
+            new ThreadPoolConfig(1, 2, BackpressurePolicy.BLOCK, TimeValue.timeValueMillis(20))
+        );
+        final BlockingSink sink = new BlockingSink("sink", 1);
+
+        final long start = System.nanoTime();
+        submitWhileBlocked(pool, sink);
+        assertThat(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40), is(true));
+
+        sink.release();
+        pool.close();
+        assertThat(sink.stored, hasSize(3));
+        assertThat(sinkStats(pool).get("dropped"), equalTo(2));
+    }
+
+    /**
+     * Submits five messages while the storage thread is blocked on the first one, so that two of them do not fit
+     * into the queue.
+     */
+    private static AuditMessage[] submitWhileBlocked(final AsyncStoragePool pool, final BlockingSink sink) throws Exception {
+        final AuditMessage[] messages = new AuditMessage[5];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = MockAuditMessageFactory.validAuditMessage();
+        }
+        pool.submit(messages[0], sink);
+        assertThat(sink.blocked.await(10, TimeUnit.SECONDS), is(true));
+        for (int i = 1; i < messages.length; i++) {
+            pool.submit(messages[i], sink);
+        }
+        return messages;
+    }
+
+    private static Map<String, Object> stats(final AsyncStoragePool pool) throws Exception {
+        try (XContentBuilder builder = JsonXContent.contentBuilder()) {
+            builder.startObject();
+            pool.addStats(builder);
+            builder.endObject();
+            try (
+                XContentParser parser = JsonXContent.jsonXContent.createParser(
+                    NamedXContentRegistry.EMPTY,
+                    DeprecationHandler.THROW_UNSUPPORTED_OPERATION,
+                    builder.toString()
+                )
+            ) {
+                return parser.map();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> sinkStats(final AsyncStoragePool pool) throws Exception {
+        return (Map<String, Object>) ((Map<String, Object>) stats(pool).get("sinks")).get("sink");
+    }
+
+    private static final class BlockingSink extends AuditLogSink {
+        private final List<AuditMessage> stored = new CopyOnWriteArrayList<>();
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch released;
+
+        private BlockingSink(final String name, final int blocking) {
+            this(name, blocking, null);
+        }
+
+        private BlockingSink(final String name, final int blocking, final AuditLogSink fallbackSink) {
+            super(name, Settings.EMPTY, null, fallbackSink);
+            this.released = new CountDownLatch(blocking);
+        }
+
+        @Override
+        protected boolean doStore(final AuditMessage msg) {
+            blocked.countDown();
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stored.add(msg);
+            return true;
+        }
+
+        private void release() {
+            released.countDown();
+        }
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.sink;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.impl.HttpProcessors;
+import org.apache.hc.core5.http.impl.bootstrap.HttpServer;
+import org.apache.hc.core5.http.impl.bootstrap.ServerBootstrap;
+import org.apache.hc.core5.http.io.HttpRequestHandler;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.security.auditlog.helper.LoggingSink;
+import org.opensearch.security.auditlog.helper.MockAuditMessageFactory;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+import org.opensearch.security.support.ConfigConstants;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class AsyncWebhookSenderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private RecordingHandler handler;
+    private String url;
+    private final List<AuditMessage> failed = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() throws Exception {
+        handler = new RecordingHandler();
+        final int port = findFreePort();
+        server = ServerBootstrap.bootstrap()
+            .setListenerPort(port)
+            .setHttpProcessor(HttpProcessors.server("Test/1.1"))
+            .register("*", handler)
+            .create();
+        server.start();
+        url = "http://localhost:" + port + "/endpoint";
+    }
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testJsonMessagesAreBatched() throws Exception {
+        final AsyncWebhookSender sender = sender(Settings.builder().put("webhook.batch.size", 3).put("webhook.batch.flush_interval", "1h"));
+        for (int i = 0; i < 4; i++) {
+            assertThat(sender.send(message("action-" + i), true, url, "{\"n\":" + i + "}", ContentType.APPLICATION_JSON, true), is(true));
+        }
+        // the incomplete batch is sent when the sender is closed
+        sender.close();
+
+        assertThat(handler.requests, hasSize(2));
+        assertThat(handler.requests.get(0).body, equalTo("{\"n\":0}\n{\"n\":1}\n{\"n\":2}\n"));
+        assertThat(handler.requests.get(0).contentType, containsString("application/x-ndjson"));
+        assertThat(handler.requests.get(1).body, equalTo("{\"n\":3}\n"));
+        assertThat(failed, empty());
+    }
+
+    @Test
+    public void testLingeringBatchIsFlushed() throws Exception {
+        final AsyncWebhookSender sender = sender(
+            Settings.builder().put("webhook.batch.size", 100).put("webhook.batch.flush_interval", "50ms")
+        );
+        sender.send(message("first"), true, url, "{}", ContentType.APPLICATION_JSON, true);
+        sender.send(message("second"), true, url, "{}", ContentType.APPLICATION_JSON, true);
+        handler.awaitRequests(1);
+
+        assertThat(handler.requests.get(0).body, equalTo("{}\n{}\n"));
+        sender.close();
+        assertThat(handler.requests, hasSize(1));
+    }
+
+    @Test
+    public void testMessagesWhichAreNotBatchableAreSentAlone() throws Exception {
+        final AsyncWebhookSender sender = sender(Settings.builder().put("webhook.batch.size", 10));
+        sender.send(message("text"), true, url, "some text", ContentType.TEXT_PLAIN, false);
+        sender.send(message("get"), false, url + "?a=b", "", ContentType.TEXT_PLAIN, false);
+        sender.close();
+
+        assertThat(handler.requests, hasSize(2));
+        final List<String> methods = new ArrayList<>();
+        for (final RecordedRequest request : handler.requests) {
+            methods.add(request.method);
+            if (request.method.equals("POST")) {
+                assertThat(request.body, equalTo("some text"));
+            } else {
+                assertThat(request.uri, equalTo("/endpoint?a=b"));
+            }
+        }
+        assertThat(methods.contains("GET") && methods.contains("POST"), is(true));
+    }
+
+    @Test
+    public void testPayloadIsCompressed() throws Exception {
+        final AsyncWebhookSender sender = sender(Settings.builder().put("webhook.compression", true));
+        sender.send(message("compressed"), true, url, "{\"compressed\":true}", ContentType.APPLICATION_JSON, true);
+        sender.close();
+
+        assertThat(handler.requests, hasSize(1));
+        assertThat(handler.requests.get(0).contentEncoding, equalTo("gzip"));
+        assertThat(handler.requests.get(0).body, equalTo("{\"compressed\":true}"));
+    }
+
+    @Test
+    public void testServerErrorsAreRetried() throws Exception {
+        handler.statuses.add(503);
+        handler.statuses.add(429);
+        final AsyncWebhookSender sender = sender(Settings.builder().put("webhook.max_retries", 3));
+        sender.send(message("retried"), true, url, "{}", ContentType.APPLICATION_JSON, true);
+        sender.close();
+
+        assertThat(handler.requests, hasSize(3));
+        assertThat(failed, empty());
+        final String stats = stats(sender);
+        assertThat(stats, containsString("\"retried_requests\":2"));
+        assertThat(stats, containsString("\"sent_messages\":1"));
+    }
+
+    @Test
+    public void testUndeliveredMessagesAreHandedToFailureHandler() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            handler.statuses.add(500);
+        }
+        final CountDownLatch handled = new CountDownLatch(1);
+        final AsyncWebhookSender sender = new AsyncWebhookSender(
+            "test",
+            Settings.builder().put("webhook.max_retries", 1).build(),
+            startClient(),
+            msg -> {
+                failed.add(msg);
+                handled.countDown();
+            }
+        );
+        final AuditMessage msg = message("failing");
+        sender.send(msg, true, url, "{}", ContentType.APPLICATION_JSON, true);
+        assertThat(handled.await(10, TimeUnit.SECONDS), is(true));
+        sender.close();
+
+        assertThat(handler.requests, hasSize(2));
+        assertThat(failed, hasSize(1));
+        assertThat(failed.get(0), is(msg));
+        assertThat(stats(sender), containsString("\"failed_messages\":1"));
+    }
+
+    @Test
+    public void testClientErrorsAreNotRetried() throws Exception {
+        handler.statuses.add(400);
+        final CountDownLatch handled = new CountDownLatch(1);
+        final AsyncWebhookSender sender = new AsyncWebhookSender("test", Settings.EMPTY, startClient(), msg -> handled.countDown());
+        sender.send(message("bad request"), true, url, "{}", ContentType.APPLICATION_JSON, true);
+        assertThat(handled.await(10, TimeUnit.SECONDS), is(true));
+        sender.close();
+
+        assertThat(handler.requests, hasSize(1));
+    }
+
+    @Test
+    public void testMessagesAreRejectedWhenQueueIsFull() throws Exception {
+        handler.blocked = new CountDownLatch(1);
+        final AsyncWebhookSender sender = sender(Settings.builder().put("webhook.max_queued", 1));
+        final AuditMessage rejected = message("rejected");
+        assertThat(sender.send(message("queued"), true, url, "{}", ContentType.APPLICATION_JSON, true), is(true));
+        assertThat(sender.send(rejected, true, url, "{}", ContentType.APPLICATION_JSON, true), is(false));
+        // without a spool the rejected message goes to the failure handler right away
+        assertThat(failed, contains(rejected));
+        handler.blocked.countDown();
+        sender.close();
+
+        assertThat(handler.requests, hasSize(1));
+        assertThat(stats(sender), containsString("\"rejected_messages\":1"));
+        assertThat(stats(sender), containsString("\"overflow_messages\":1"));
+        assertThat(sender.send(message("closed"), true, url, "{}", ContentType.APPLICATION_JSON, true), is(false));
+    }
+
+    @Test
+    public void testRejectedMessagesAreSpooledAndReplayed() throws Exception {
+        handler.blocked = new CountDownLatch(1);
+        final AuditSpool spool = spool();
+        final AsyncWebhookSender sender = sender(Settings.builder().put("webhook.max_queued", 2));
+        sender.setSpool(spool, msg -> sender.send(msg, true, url, "{\"replayed\":true}", ContentType.APPLICATION_JSON, true));
+
+        sender.send(message("first"), true, url, "{}", ContentType.APPLICATION_JSON, true);
+        sender.send(message("second"), true, url, "{}", ContentType.APPLICATION_JSON, true);
+        assertThat(sender.send(message("third"), true, url, "{}", ContentType.APPLICATION_JSON, true), is(false));
+        assertThat(spool.isEmpty(), is(false));
+
+        handler.blocked.countDown();
+        handler.awaitRequests(3);
+        sender.close();
+
+        assertThat(handler.requests, hasSize(3));
+        assertThat(handler.requests.get(2).body, equalTo("{\"replayed\":true}"));
+        assertThat(spool.isEmpty(), is(true));
+        final String stats = stats(sender);
+        assertThat(stats, containsString("\"spooled_messages\":1"));
+        assertThat(stats, containsString("\"replayed_messages\":1"));
+        spool.close();
+    }
+
+    @Test
+    public void testUndeliveredMessagesAreSpooled() throws Exception {
+        handler.statuses.add(400);
+        final AuditSpool spool = spool();
+        final AsyncWebhookSender sender = sender(Settings.builder());
+        sender.setSpool(spool, msg -> true);
+        sender.send(message("bad request"), true, url, "{}", ContentType.APPLICATION_JSON, true);
+        sender.close();
+
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (spool.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(spool.isEmpty(), is(false));
+        assertThat(failed, empty());
+        spool.close();
+    }
+
+    @Test
+    public void testSinkDoesNotBlockCallerWhenQueueIsFull() throws Exception {
+        handler.blocked = new CountDownLatch(1);
+        final LoggingSink fallback = new LoggingSink("fallback", Settings.EMPTY, null, null);
+        final Settings settings = Settings.builder()
+            .put("path.home", ".")
+            .put("plugins.security.audit.config.webhook.url", url)
+            .put("plugins.security.audit.config.webhook.format", "json")
+            .put("plugins.security.audit.config.webhook.async", true)
+            .put("plugins.security.audit.config.webhook.max_queued", 1)
+            .put("plugins.security.audit.config.retry_count", 5)
+            .put("plugins.security.audit.config.retry_delay_ms", 1000)
+            .build();
+        final WebhookSink sink = new WebhookSink("webhook", settings, ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT, null, fallback);
+        assertThat(sink.isHandlingBackpressure(), is(true));
+        sink.setSpool(spool());
+
+        final long start = System.nanoTime();
+        sink.store(message("queued"));
+        sink.store(message("spooled"));
+        // neither retried nor replayed on the calling thread
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(1000L));
+        assertThat(sink.getSpool().isEmpty(), is(false));
+        assertThat(fallback.messages, empty());
+
+        handler.blocked.countDown();
+        sink.close();
+        sink.getSpool().close();
+    }
+
+    @Test
+    public void testSinkStoresOnFallbackWhenQueueIsFullWithoutSpool() throws Exception {
+        handler.blocked = new CountDownLatch(1);
+        final LoggingSink fallback = new LoggingSink("fallback", Settings.EMPTY, null, null);
+        final Settings settings = Settings.builder()
+            .put("path.home", ".")
+            .put("plugins.security.audit.config.webhook.url", url)
+            .put("plugins.security.audit.config.webhook.format", "json")
+            .put("plugins.security.audit.config.webhook.async", true)
+            .put("plugins.security.audit.config.webhook.max_queued", 1)
+            .build();
+        final WebhookSink sink = new WebhookSink("webhook", settings, ConfigConstants.SECURITY_AUDIT_CONFIG_DEFAULT, null, fallback);
+
+        sink.store(message("queued"));
+        final AuditMessage rejected = message("rejected");
+        sink.store(rejected);
+
+        assertThat(fallback.messages, hasSize(1));
+        assertThat(fallback.messages.get(0), is(rejected));
+
+        handler.blocked.countDown();
+        sink.close();
+    }
+
+    private AsyncWebhookSender sender(final Settings.Builder settings) throws Exception {
+        return new AsyncWebhookSender("test", settings.build(), startClient(), failed::add);
+    }
+
+    private AuditSpool spool() throws IOException {
+        return new AuditSpool(folder.newFolder().toPath(), 1024 * 1024, 4 * 1024 * 1024, AuditSpool.FsyncPolicy.NEVER);
+    }
+
+    private static CloseableHttpAsyncClient startClient() {
+        final CloseableHttpAsyncClient client = HttpAsyncClients.custom().disableAutomaticRetries().build();
+        client.start();
+        return client;
+    }
+
+    private static AuditMessage message(final String action) {
+        final AuditMessage msg = MockAuditMessageFactory.validAuditMessage();
+        msg.addAction(action);
+        return msg;
+    }
+
+    private static String stats(final AsyncWebhookSender sender) throws IOException {
+        final XContentBuilder builder = JsonXContent.contentBuilder().startObject();
+        sender.addStats(builder);
+        return BytesReference.bytes(builder.endObject()).utf8ToString();
+    }
+
+    private static int findFreePort() {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to find free port", e);
+        }
+    }
+
+    private static final class RecordedRequest {
+        private final String method;
+        private final String uri;
+        private final String contentType;
+        private final String contentEncoding;
+        private final String body;
+
+        private RecordedRequest(
+            final String method,
+            final String uri,
+            final String contentType,
+            final String contentEncoding,
+            final String body
+        ) {
+            this.method = method;
+            this.uri = uri;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+            this.body = body;
+        }
+    }
+
+    private static final class RecordingHandler implements HttpRequestHandler {
+        private final List<RecordedRequest> requests = Collections.synchronizedList(new ArrayList<>());
+        private final Deque<Integer> statuses = new ArrayDeque<>();
+        private volatile CountDownLatch blocked;
+
+        @Override
+        public void handle(final ClassicHttpRequest request, final ClassicHttpResponse response, final HttpContext context)
+            throws IOException {
+            final Header contentType = request.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+            final Header contentEncoding = request.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+            byte[] body = request.getEntity() == null ? new byte[0] : EntityUtils.toByteArray(request.getEntity());
+            if (contentEncoding != null && "gzip".equals(contentEncoding.getValue())) {
+                try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                    body = in.readAllBytes();
+                }
+            }
+            if (blocked != null) {
+                try {
+                    blocked.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            requests.add(
+                new RecordedRequest(
+                    request.getMethod(),
+                    request.getRequestUri(),
+                    contentType == null ? null : contentType.getValue(),
+                    contentEncoding == null ? null : contentEncoding.getValue(),
+                    new String(body, StandardCharsets.UTF_8)
+                )
+            );
+            synchronized (statuses) {
+                final Integer status = statuses.poll();
+                response.setCode(status == null ? 200 : status);
+            }
+        }
+
+        private void awaitRequests(final int count) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (requests.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.sink;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.security.auditlog.helper.LoggingSink;
+import org.opensearch.security.auditlog.helper.MockAuditMessageFactory;
+import org.opensearch.security.auditlog.impl.AuditMessage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class AuditSpoolTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecordsAreReplayedInOrder() throws Exception {
+        final AuditSpool spool = spool(folder.getRoot().toPath(), 64);
+        for (int i = 0; i < 10; i++) {
+            assertThat(spool.append(record(i)), is(true));
+        }
+        assertThat(spool.isEmpty(), is(false));
+        assertThat(segments(folder.getRoot().toPath()).size() > 1, is(true));
+
+        assertThat(replay(spool, 4), contains("0", "1", "2", "3"));
+        // a record is returned again until it has been replayed
+        assertThat(spool.peek().utf8ToString(), equalTo("4"));
+        assertThat(replay(spool, 10), contains("4", "5", "6", "7", "8", "9"));
+        assertThat(spool.isEmpty(), is(true));
+
+        spool.close();
+        assertThat(segments(folder.getRoot().toPath()), empty());
+    }
+
+    @Test
+    public void testReplayContinuesAfterRestart() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+        AuditSpool spool = spool(directory, 64);
+        for (int i = 0; i < 6; i++) {
+            spool.append(record(i));
+        }
+        assertThat(replay(spool, 2), contains("0", "1"));
+        spool.close();
+
+        spool = spool(directory, 64);
+        spool.append(record(6));
+        assertThat(replay(spool, 10), contains("2", "3", "4", "5", "6"));
+        spool.close();
+    }
+
+    @Test
+    public void testTruncatedRecordIsSkipped() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+        AuditSpool spool = spool(directory, 1024);
+        spool.append(record(0));
+        spool.append(record(1));
+        spool.close();
+
+        // simulates a node which stopped while writing the second record
+        final Path segment = segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(segment) - 1);
+        }
+
+        spool = spool(directory, 1024);
+        assertThat(replay(spool, 10), contains("0"));
+        assertThat(spool.isEmpty(), is(true));
+        spool.close();
+    }
+
+    @Test
+    public void testOldestSegmentsAreDroppedWhenFull() throws Exception {
+        final AuditSpool spool = new AuditSpool(folder.getRoot().toPath(), 20, 40, AuditSpool.FsyncPolicy.ALWAYS);
+        for (int i = 0; i < 10; i++) {
+            assertThat(spool.append(record(i)), is(true));
+        }
+        // two records per segment, at most two segments
+        assertThat(replay(spool, 10), contains("6", "7", "8", "9"));
+        assertThat(spool.append(new BytesArray(new byte[20])), is(false));
+        spool.close();
+    }
+
+    @Test
+    public void testFailedMessagesAreSpooledAndReplayed() throws Exception {
+        final LoggingSink fallback = new LoggingSink("fallback", Settings.EMPTY, null, null);
+        final ToggleSink sink = new ToggleSink(fallback);
+        sink.setSpool(spool(folder.getRoot().toPath(), 1024));
+
+        final AuditMessage first = MockAuditMessageFactory.validAuditMessage();
+        final AuditMessage second = MockAuditMessageFactory.validAuditMessage();
+        final AuditMessage third = MockAuditMessageFactory.validAuditMessage();
+        first.addAction("first");
+        second.addAction("second");
+        third.addAction("third");
+
+        sink.available = false;
+        sink.store(first);
+        // the sink is not tried again before the retry delay
+        sink.store(second);
+        assertThat(sink.attempts, is(1));
+        assertThat(fallback.messages, empty());
+
+        sink.available = true;
+        Thread.sleep(600);
+        sink.store(third);
+        assertThat(sink.stored, hasSize(3));
+        assertThat(sink.stored.get(0).getAsMap().get(AuditMessage.TRANSPORT_ACTION), equalTo("first"));
+        assertThat(sink.stored.get(0).getCategory(), equalTo(first.getCategory()));
+        assertThat(sink.stored.get(1).getAsMap().get(AuditMessage.TRANSPORT_ACTION), equalTo("second"));
+        assertThat(sink.stored.get(2), is(third));
+        assertThat(sink.getSpool().isEmpty(), is(true));
+        assertThat(sink.getSpool().peek(), nullValue());
+        sink.getSpool().close();
+    }
+
+    @Test
+    public void testMessagesAreCountedWhenSpoolAndFallbackFail() throws Exception {
+        final ToggleSink fallback = new ToggleSink(null);
+        final ToggleSink sink = new ToggleSink(fallback);
+        sink.setSpool(new AuditSpool(folder.getRoot().toPath(), 20, 40, AuditSpool.FsyncPolicy.ALWAYS));
+
+        sink.store(MockAuditMessageFactory.validAuditMessage());
+        sink.store(MockAuditMessageFactory.validAuditMessage());
+
+        assertThat(fallback.attempts, is(2));
+        assertThat(sink.getDroppedMessages(), is(2L));
+        assertThat(fallback.getDroppedMessages(), is(0L));
+        sink.getSpool().close();
+    }
+
+    private static AuditSpool spool(final Path directory, final long segmentSize) throws Exception {
+        return new AuditSpool(directory, segmentSize, 1024 * 1024, AuditSpool.FsyncPolicy.SEGMENT);
+    }
+
+    private static BytesReference record(final int i) {
+        return new BytesArray(String.valueOf(i));
+    }
+
+    private static List<String> replay(final AuditSpool spool, final int max) {
+        final List<String> replayed = new ArrayList<>();
+        BytesReference record;
+        while (replayed.size() < max && (record = spool.peek()) != null) {
+            replayed.add(record.utf8ToString());
+            spool.advance();
+        }
+        return replayed;
+    }
+
+    private static List<Path> segments(final Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static final class ToggleSink extends AuditLogSink {
+        private final List<AuditMessage> stored = new ArrayList<>();
+        private boolean available;
+        private int attempts;
+
+        private ToggleSink(final AuditLogSink fallbackSink) {
+            super("toggle", Settings.builder().put("plugins.security.audit.config.retry_delay_ms", 500).build(), null, fallbackSink);
+        }
+
+        @Override
+        protected boolean doStore(final AuditMessage msg) {
+            attempts++;
+            if (available) {
+                stored.add(msg);
+            }
+            return available;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.auditlog.sink;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.support.WriteRequest.RefreshPolicy;
+import org.opensearch.client.Client;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.concurrency.OpenSearchRejectedExecutionException;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.security.auditlog.helper.LoggingSink;
+import org.opensearch.security.auditlog.helper.MockAuditMessageFactory;
+import org.opensearch.threadpool.ThreadPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InternalOpenSearchSinkTest {
+
+    private final List<BulkRequest> bulkRequests = new ArrayList<>();
+    private final List<ActionListener<BulkResponse>> bulkListeners = new ArrayList<>();
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private Client client;
+    private ThreadPool threadPool;
+    private LoggingSink fallback;
+
+    @Before
+    public void setUp() {
+        client = mock(Client.class);
+        doAnswer(invocation -> {
+            bulkRequests.add(invocation.getArgument(0));
+            bulkListeners.add(invocation.getArgument(1));
+            return null;
+        }).when(client).bulk(any(BulkRequest.class), any());
+
+        threadPool = mock(ThreadPool.class);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+        when(threadPool.schedule(any(Runnable.class), any(TimeValue.class), anyString())).thenAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            return null;
+        });
+
+        fallback = new LoggingSink("fallback", Settings.EMPTY, null, null);
+    }
+
+    @Test
+    public void testMessagesAreBatched() {
+        final InternalOpenSearchSink sink = sink(Settings.builder().put("bulk.actions", 2).build());
+
+        for (int i = 0; i < 3; i++) {
+            sink.store(MockAuditMessageFactory.validAuditMessage());
+        }
+
+        assertThat(bulkRequests, hasSize(1));
+        assertThat(bulkRequests.get(0).numberOfActions(), is(2));
+        assertThat(bulkRequests.get(0).getRefreshPolicy(), is(RefreshPolicy.NONE));
+
+        // the flush of the first batch is obsolete, the second one sends the remaining message
+        assertThat(scheduled, hasSize(2));
+        scheduled.get(0).run();
+        assertThat(bulkRequests, hasSize(1));
+        scheduled.get(1).run();
+        assertThat(bulkRequests, hasSize(2));
+        assertThat(bulkRequests.get(1).numberOfActions(), is(1));
+    }
+
+    @Test
+    public void testFailedItemsAreRetried() {
+        final InternalOpenSearchSink sink = sink(Settings.builder().put("bulk.actions", 3).put("refresh_policy", "wait_for").build());
+
+        for (int i = 0; i < 3; i++) {
+            sink.store(MockAuditMessageFactory.validAuditMessage());
+        }
+        assertThat(bulkRequests.get(0).getRefreshPolicy(), is(RefreshPolicy.WAIT_UNTIL));
+
+        bulkListeners.get(0)
+            .onResponse(
+                new BulkResponse(
+                    new BulkItemResponse[] { success(0), failure(1, RestStatus.TOO_MANY_REQUESTS), failure(2, RestStatus.BAD_REQUEST) },
+                    1
+                )
+            );
+
+        // the rejected item is sent again, the invalid one goes to the fallback sink
+        assertThat(fallback.messages, hasSize(1));
+        scheduled.get(scheduled.size() - 1).run();
+        assertThat(bulkRequests, hasSize(2));
+        assertThat(bulkRequests.get(1).numberOfActions(), is(1));
+
+        bulkListeners.get(1).onResponse(new BulkResponse(new BulkItemResponse[] { success(0) }, 1));
+        assertThat(fallback.messages, hasSize(1));
+    }
+
+    @Test
+    public void testMessagesAreRejectedWhenQueueIsFull() {
+        final InternalOpenSearchSink sink = sink(Settings.builder().put("bulk.actions", 1).put("bulk.max_queued", 1).build());
+
+        sink.store(MockAuditMessageFactory.validAuditMessage());
+        sink.store(MockAuditMessageFactory.validAuditMessage());
+
+        assertThat(bulkRequests, hasSize(1));
+        assertThat(fallback.messages, hasSize(1));
+
+        bulkListeners.get(0).onFailure(new IllegalStateException("unavailable"));
+        for (int retry = 0; retry < 3; retry++) {
+            scheduled.get(scheduled.size() - 1).run();
+            bulkListeners.get(bulkListeners.size() - 1).onFailure(new IllegalStateException("unavailable"));
+        }
+        assertThat(bulkRequests, hasSize(4));
+        assertThat(fallback.messages, hasSize(2));
+
+        sink.store(MockAuditMessageFactory.validAuditMessage());
+        assertThat(bulkRequests, hasSize(5));
+        assertThat(fallback.messages.size(), equalTo(2));
+    }
+
+    @Test
+    public void testRejectedRetryGoesToFallbackSink() {
+        final InternalOpenSearchSink sink = sink(Settings.builder().put("bulk.actions", 1).put("bulk.max_queued", 1).build());
+        when(threadPool.schedule(any(Runnable.class), any(TimeValue.class), anyString())).thenThrow(
+            new OpenSearchRejectedExecutionException("shutting down")
+        );
+
+        sink.store(MockAuditMessageFactory.validAuditMessage());
+        bulkListeners.get(0).onFailure(new IllegalStateException("unavailable"));
+
+        assertThat(fallback.messages, hasSize(1));
+        // the message is no longer counted as queued
+        sink.store(MockAuditMessageFactory.validAuditMessage());
+        assertThat(bulkRequests, hasSize(2));
+        assertThat(fallback.messages, hasSize(1));
+    }
+
+    private InternalOpenSearchSink sink(final Settings sinkSettings) {
+        final Settings settings = Settings.builder().put(sinkSettings, false).normalizePrefix("sink.").build();
+        return new InternalOpenSearchSink("default", settings, "sink", null, client, threadPool, fallback);
+    }
+
+    private static BulkItemResponse success(final int id) {
+        return new BulkItemResponse(
+            id,
+            DocWriteRequest.OpType.INDEX,
+            new IndexResponse(new ShardId("security-auditlog", "_na_", 0), "id", 1, 1, 1, true)
+        );
+    }
+
+    private static BulkItemResponse failure(final int id, final RestStatus status) {
+        return new BulkItemResponse(
+            id,
+            DocWriteRequest.OpType.INDEX,
+            new BulkItemResponse.Failure("security-auditlog", "id", new IllegalStateException(status.name()), status)
+        );
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.breaker.CircuitBreakingException;
+import org.opensearch.core.common.breaker.NoopCircuitBreaker;
+import org.opensearch.security.support.ConfigConstants;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class DlsBitsetCacheTest {
+
+    private static final Query DEPT_A = new TermQuery(new Term("dept", "a"));
+    private static final Query DEPT_B = new TermQuery(new Term("dept", "b"));
+
+    private final DlsBitsetCache cache = new DlsBitsetCache(
+        Settings.builder().put(ConfigConstants.SECURITY_DLS_BITSET_CACHE_SIZE, "1mb").build()
+    );
+    private Directory directory;
+    private DirectoryReader reader;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (String dept : new String[] { "a", "b", "a", "c" }) {
+                final Document document = new Document();
+                document.add(new StringField("dept", dept, Field.Store.NO));
+                writer.addDocument(document);
+            }
+        }
+        reader = DirectoryReader.open(directory);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Test
+    public void testBitsetIsSharedForSameSegmentAndQuery() throws IOException {
+        final LeafReader leaf = leaf();
+        final FixedBitSet bits = cache.getBitSet(leaf, leaf, DEPT_A, null, null);
+
+        assertThat(bits.cardinality(), is(2));
+        assertThat(bits.get(0) && bits.get(2), is(true));
+        assertThat(cache.getBitSet(leaf, leaf, new TermQuery(new Term("dept", "a")), null, null), sameInstance(bits));
+        assertThat(cache.getBitSet(leaf, leaf, DEPT_B, null, null), not(sameInstance(bits)));
+        assertThat(cache.getBitSet(leaf, leaf, DEPT_A, ImmutableSet.of("dept"), null), not(sameInstance(bits)));
+        assertThat(cache.count(), is(3L));
+    }
+
+    @Test
+    public void testEntriesAreDroppedWhenSegmentIsClosed() throws IOException {
+        final LeafReader leaf = leaf();
+        cache.getBitSet(leaf, leaf, DEPT_A, null, null);
+        cache.getBitSet(leaf, leaf, DEPT_B, null, null);
+        assertThat(cache.count(), is(2L));
+
+        reader.close();
+        reader = DirectoryReader.open(directory);
+
+        assertThat(cache.count(), is(0L));
+    }
+
+    @Test
+    public void testBitsetIsNotCachedWhenBreakerTrips() throws IOException {
+        cache.setCircuitBreaker(new NoopCircuitBreaker(DlsBitsetCache.BREAKER_NAME) {
+            @Override
+            public double addEstimateBytesAndMaybeBreak(long bytes, String label) throws CircuitBreakingException {
+                throw new CircuitBreakingException("tripped", bytes, 0, getDurability());
+            }
+        });
+        final LeafReader leaf = leaf();
+
+        assertThat(cache.getBitSet(leaf, leaf, DEPT_A, null, null).cardinality(), is(2));
+        assertThat(cache.count(), is(0L));
+    }
+
+    @Test
+    public void testBitsetIsNotKeptWhenSegmentIsClosedConcurrently() throws IOException {
+        final ClosingLeafReader leaf = new ClosingLeafReader(leaf());
+        // the segment is closed after its listener is registered but before the bitset is cached
+        cache.setCircuitBreaker(new NoopCircuitBreaker(DlsBitsetCache.BREAKER_NAME) {
+            @Override
+            public double addEstimateBytesAndMaybeBreak(long bytes, String label) {
+                leaf.closeCore();
+                return 0;
+            }
+        });
+
+        assertThat(cache.getBitSet(leaf, leaf, DEPT_A, null, null).cardinality(), is(2));
+        assertThat(cache.count(), is(0L));
+    }
+
+    @Test
+    public void testReaderCacheHelperIsDerivedFromDlsQuery() {
+        final LeafReader leaf = leaf();
+        final IndexReader.CacheHelper helper = cache.getReaderCacheHelper(leaf, DEPT_A, null, null);
+
+        assertThat(helper.getKey(), not(sameInstance(leaf.getReaderCacheHelper().getKey())));
+        assertThat(cache.getReaderCacheHelper(leaf, DEPT_A, null, null).getKey(), sameInstance(helper.getKey()));
+        assertThat(cache.getReaderCacheHelper(leaf, DEPT_B, null, null).getKey(), not(sameInstance(helper.getKey())));
+    }
+
+    @Test
+    public void testReaderCacheHelperForwardsCloseOfWrappedReader() throws IOException {
+        final LeafReader leaf = leaf();
+        final IndexReader.CacheHelper helper = cache.getReaderCacheHelper(leaf, DEPT_A, null, null);
+        final AtomicReference<IndexReader.CacheKey> closed = new AtomicReference<>();
+        helper.addClosedListener(closed::set);
+
+        reader.close();
+
+        assertThat(closed.get(), sameInstance(helper.getKey()));
+    }
+
+    @Test
+    public void testDocBitsMatchSingleDocuments() throws IOException {
+        final LeafReader leaf = leaf();
+        final Bits bits = cache.getDocBits(leaf, leaf, DEPT_A, null, null);
+
+        assertThat(bits, instanceOf(DlsBitsetCache.QueryBits.class));
+        assertThat(bits.length(), is(4));
+        assertThat(bits.get(2), is(true));
+        assertThat(bits.get(3), is(false));
+        assertThat(bits.get(0), is(true));
+        assertThat(bits.get(1), is(false));
+        assertThat(cache.getDocBits(leaf, leaf, new TermQuery(new Term("dept", "x")), null, null).get(0), is(false));
+        assertThat(cache.count(), is(0L));
+
+        final FixedBitSet cached = cache.getBitSet(leaf, leaf, DEPT_A, null, null);
+        assertThat(cache.getDocBits(leaf, leaf, DEPT_A, null, null), sameInstance(cached));
+    }
+
+    @Test
+    public void testLiveDocsApplyDeletions() {
+        final FixedBitSet dlsBits = new FixedBitSet(4);
+        dlsBits.set(0);
+        dlsBits.set(2);
+        final FixedBitSet liveDocs = new FixedBitSet(4);
+        liveDocs.set(0, 4);
+        liveDocs.clear(2);
+
+        final DlsBitsetCache.LiveDocs bits = new DlsBitsetCache.LiveDocs(dlsBits, liveDocs);
+
+        assertThat(bits.length(), equalTo(4));
+        assertThat(bits.get(0), is(true));
+        assertThat(bits.get(1), is(false));
+        assertThat(bits.get(2), is(false));
+    }
+
+    private LeafReader leaf() {
+        return reader.leaves().get(0).reader();
+    }
+
+    private static final class ClosingLeafReader extends FilterLeafReader {
+        private IndexReader.ClosedListener coreClosedListener;
+
+        private ClosingLeafReader(final LeafReader in) {
+            super(in);
+        }
+
+        private void closeCore() {
+            try {
+                coreClosedListener.onClose(in.getCoreCacheHelper().getKey());
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        @Override
+        public CacheHelper getCoreCacheHelper() {
+            return new CacheHelper() {
+                @Override
+                public IndexReader.CacheKey getKey() {
+                    return in.getCoreCacheHelper().getKey();
+                }
+
+                @Override
+                public void addClosedListener(final IndexReader.ClosedListener listener) {
+                    coreClosedListener = listener;
+                }
+            };
+        }
+
+        @Override
+        public CacheHelper getReaderCacheHelper() {
+            return in.getReaderCacheHelper();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.apache.lucene.search.TotalHits;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.action.get.MultiGetAction;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.action.get.MultiGetResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.action.support.PlainActionFuture;
+import org.opensearch.client.Client;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.ParseField;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.index.shard.ShardId;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.IdsQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.TermQueryBuilder;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.search.SearchShardTarget;
+import org.opensearch.security.resolver.IndexResolverReplacer.Resolved;
+import org.opensearch.security.securityconf.EvaluatedDlsFlsConfig;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DlsFilterLevelActionHandlerTest {
+
+    private static final NamedXContentRegistry REGISTRY = new NamedXContentRegistry(
+        ImmutableList.of(
+            new NamedXContentRegistry.Entry(
+                QueryBuilder.class,
+                new ParseField(TermQueryBuilder.NAME),
+                (p, c) -> TermQueryBuilder.fromXContent(p)
+            )
+        )
+    );
+    private static final String DLS_QUERY = "{\"term\": {\"dept\": \"sales\"}}";
+
+    private final ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+    private final List<SearchRequest> searches = new ArrayList<>();
+    // the documents visible with DLS by concrete index
+    private final Map<String, Set<String>> visible = new HashMap<>();
+    private final Map<String, String> aliases = new HashMap<>();
+    private final Set<String> failing = new HashSet<>();
+    private Client client;
+
+    @Before
+    public void setUp() {
+        client = mock(Client.class);
+        doAnswer(invocation -> {
+            final SearchRequest request = invocation.getArgument(0);
+            final ActionListener<SearchResponse> listener = invocation.getArgument(1);
+            searches.add(request);
+            final String index = request.indices()[0];
+            if (failing.contains(index)) {
+                listener.onFailure(new IllegalStateException(index + " is unavailable"));
+                return null;
+            }
+            final String concreteIndex = aliases.getOrDefault(index, index);
+            final Set<String> visibleIds = visible.getOrDefault(concreteIndex, Collections.emptySet());
+            final SearchHit[] hits = requestedIds(request).stream().filter(visibleIds::contains).map(id -> {
+                final SearchHit hit = new SearchHit(0, id, Collections.emptyMap(), Collections.emptyMap());
+                hit.shard(new SearchShardTarget("node", new ShardId(concreteIndex, "_na_", 0), null, null));
+                return hit;
+            }).toArray(SearchHit[]::new);
+            final SearchResponse response = mock(SearchResponse.class);
+            when(response.getHits()).thenReturn(new SearchHits(hits, new TotalHits(hits.length, TotalHits.Relation.EQUAL_TO), 1f));
+            listener.onResponse(response);
+            return null;
+        }).when(client).search(any(SearchRequest.class), any());
+    }
+
+    @Test
+    public void testMultiGetWithMoreIdsThanTheDefaultSearchSize() {
+        visible.put("index_a", ids("a", 0, 15));
+
+        final MultiGetRequest request = new MultiGetRequest();
+        ids("a", 0, 15).forEach(id -> request.add("index_a", id));
+        final MultiGetResponse response = handle(request, ImmutableSet.of("index_a"), ImmutableSet.of());
+
+        assertThat(searches.size(), is(1));
+        assertThat(searches.get(0).source().size(), is(15));
+        assertThat(found(response).size(), is(15));
+        assertThat(responseIds(response), equalTo(requestIds(request)));
+    }
+
+    @Test
+    public void testMultiGetOverMixedIndicesKeepsTheItemOrder() {
+        visible.put("index_a", ImmutableSet.of("a1", "a3"));
+        visible.put("index_b", ImmutableSet.of("b1"));
+
+        final MultiGetRequest request = new MultiGetRequest().add("index_a", "a1")
+            .add("index_b", "b1")
+            .add("index_a", "a2")
+            .add("index_b", "b2")
+            .add("index_a", "a3");
+        final MultiGetResponse response = handle(request, ImmutableSet.of("index_a", "index_b"), ImmutableSet.of());
+
+        assertThat(searches.stream().map(s -> s.indices()[0]).collect(Collectors.toList()), contains("index_a", "index_b"));
+        assertThat(responseIds(response), equalTo(requestIds(request)));
+        assertThat(found(response), containsInAnyOrder("index_a/a1", "index_b/b1", "index_a/a3"));
+        for (MultiGetItemResponse item : response.getResponses()) {
+            assertThat(item.isFailed(), is(false));
+        }
+    }
+
+    @Test
+    public void testMultiGetWithFailingIndexOnlyFailsItsItems() {
+        visible.put("index_a", ImmutableSet.of("a1", "a2"));
+        failing.add("index_b");
+
+        final MultiGetRequest request = new MultiGetRequest().add("index_a", "a1")
+            .add("index_b", "b1")
+            .add("index_a", "a2")
+            .add("index_b", "b2");
+        final MultiGetResponse response = handle(request, ImmutableSet.of("index_a", "index_b"), ImmutableSet.of());
+
+        final MultiGetItemResponse[] items = response.getResponses();
+        assertThat(items[0].isFailed(), is(false));
+        assertThat(items[1].isFailed(), is(true));
+        assertThat(items[1].getFailure().getIndex(), is("index_b"));
+        assertThat(items[1].getFailure().getId(), is("b1"));
+        assertThat(items[2].isFailed(), is(false));
+        assertThat(items[3].isFailed(), is(true));
+        assertThat(found(response), contains("index_a/a1", "index_a/a2"));
+    }
+
+    @Test
+    public void testMultiGetThroughAliasFindsTheDocumentsOfTheConcreteIndex() {
+        visible.put("index_a", ImmutableSet.of("a1"));
+        aliases.put("alias_a", "index_a");
+
+        final MultiGetRequest request = new MultiGetRequest().add("alias_a", "a1").add("alias_a", "a2");
+        final MultiGetResponse response = handle(request, ImmutableSet.of("index_a"), ImmutableSet.of("alias_a"));
+
+        assertThat(searches.size(), is(1));
+        assertThat(searches.get(0).indices()[0], is("alias_a"));
+        final MultiGetItemResponse[] items = response.getResponses();
+        assertThat(items[0].isFailed(), is(false));
+        assertThat(items[0].getResponse().isExists(), is(true));
+        assertThat(items[0].getResponse().getIndex(), is("index_a"));
+        assertThat(items[1].isFailed(), is(false));
+        assertThat(items[1].getResponse().isExists(), is(false));
+    }
+
+    private MultiGetResponse handle(final MultiGetRequest request, final ImmutableSet<String> indices, final ImmutableSet<String> aliases) {
+        final Map<String, Set<String>> dlsQueries = new HashMap<>();
+        for (String index : indices) {
+            dlsQueries.put(index, ImmutableSet.of(DLS_QUERY));
+        }
+        final EvaluatedDlsFlsConfig config = new EvaluatedDlsFlsConfig(dlsQueries, Collections.emptyMap(), Collections.emptyMap());
+        final ImmutableSet<String> requested = request.getItems()
+            .stream()
+            .map(MultiGetRequest.Item::index)
+            .collect(ImmutableSet.toImmutableSet());
+        final Resolved resolved = new Resolved(aliases, indices, requested, ImmutableSet.of(), IndicesOptions.strictExpandOpen());
+        final PlainActionFuture<MultiGetResponse> future = PlainActionFuture.newFuture();
+
+        final boolean proceed = DlsFilterLevelActionHandler.handle(
+            MultiGetAction.NAME,
+            request,
+            future,
+            config,
+            resolved,
+            client,
+            null,
+            null,
+            null,
+            new DlsQueryParser(REGISTRY),
+            null,
+            threadContext
+        );
+
+        assertThat(proceed, is(false));
+        return future.actionGet();
+    }
+
+    private static Set<String> ids(final String prefix, final int from, final int to) {
+        return IntStream.range(from, to).mapToObj(i -> prefix + i).collect(ImmutableSet.toImmutableSet());
+    }
+
+    private static List<String> requestedIds(final SearchRequest request) {
+        final BoolQueryBuilder query = (BoolQueryBuilder) request.source().query();
+        final IdsQueryBuilder idsQuery = (IdsQueryBuilder) query.must().get(0);
+        return new ArrayList<>(idsQuery.ids());
+    }
+
+    private static List<String> requestIds(final MultiGetRequest request) {
+        return request.getItems().stream().map(item -> item.index() + "/" + item.id()).collect(Collectors.toList());
+    }
+
+    private static List<String> responseIds(final MultiGetResponse response) {
+        final List<String> ids = new ArrayList<>();
+        for (MultiGetItemResponse item : response.getResponses()) {
+            ids.add(item.getIndex() + "/" + item.getId());
+        }
+        return ids;
+    }
+
+    private static List<String> found(final MultiGetResponse response) {
+        final List<String> found = new ArrayList<>();
+        for (MultiGetItemResponse item : response.getResponses()) {
+            if (!item.isFailed() && item.getResponse().isExists()) {
+                found.add(item.getIndex() + "/" + item.getId());
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import org.opensearch.Version;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.core.common.ParsingException;
+import org.opensearch.core.xcontent.DeprecationHandler;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.search.SearchExtBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.security.securityconf.EvaluatedDlsFlsConfig;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThrows;
+
+public class DlsFlsRequestCacheKeyTest {
+
+    private static final String DLS = "{\"term\": {\"dept\": \"a\"}}";
+
+    @Test
+    public void testFingerprintDoesNotDependOnOrder() {
+        final Set<String> fls = new LinkedHashSet<>();
+        fls.add("name");
+        fls.add("~secret");
+        final Set<String> reversed = new LinkedHashSet<>();
+        reversed.add("~secret");
+        reversed.add("name");
+
+        final Map<String, Set<String>> dls = ImmutableMap.of("logs-*", ImmutableSet.of(DLS));
+
+        assertThat(
+            DlsFlsRequestCacheKey.fingerprint(config(dls, ImmutableMap.of("logs-*", fls))),
+            equalTo(DlsFlsRequestCacheKey.fingerprint(config(dls, ImmutableMap.of("logs-*", reversed))))
+        );
+    }
+
+    @Test
+    public void testFingerprintDependsOnRules() {
+        final String fingerprint = DlsFlsRequestCacheKey.fingerprint(
+            config(ImmutableMap.of("logs-*", ImmutableSet.of(DLS)), Collections.emptyMap())
+        );
+
+        final String otherDls = "{\"term\": {\"dept\": \"b\"}}";
+        assertThat(
+            DlsFlsRequestCacheKey.fingerprint(config(ImmutableMap.of("logs-*", ImmutableSet.of(otherDls)), Collections.emptyMap())),
+            not(equalTo(fingerprint))
+        );
+        assertThat(
+            DlsFlsRequestCacheKey.fingerprint(config(Collections.emptyMap(), ImmutableMap.of("logs-*", ImmutableSet.of(DLS)))),
+            not(equalTo(fingerprint))
+        );
+        assertThat(
+            DlsFlsRequestCacheKey.fingerprint(config(ImmutableMap.of("logs-1", ImmutableSet.of(DLS)), Collections.emptyMap())),
+            not(equalTo(fingerprint))
+        );
+    }
+
+    @Test
+    public void testAttachReplacesExistingFingerprint() throws IOException {
+        final SearchRequest request = new SearchRequest();
+        request.source(new SearchSourceBuilder().ext(Collections.singletonList(new DlsFlsRequestCacheKey("spoofed"))));
+        final EvaluatedDlsFlsConfig config = config(ImmutableMap.of("logs-*", ImmutableSet.of(DLS)), Collections.emptyMap());
+
+        DlsFlsRequestCacheKey.attach(request, config);
+
+        final List<SearchExtBuilder> ext = request.source().ext();
+        assertThat(ext, hasSize(1));
+        final DlsFlsRequestCacheKey key = (DlsFlsRequestCacheKey) ext.get(0);
+        assertThat(key.getFingerprint(), equalTo(DlsFlsRequestCacheKey.fingerprint(config)));
+
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            key.writeTo(out);
+            assertThat(new DlsFlsRequestCacheKey(out.bytes().streamInput()), equalTo(key));
+        }
+    }
+
+    @Test
+    public void testFingerprintCannotBeParsedFromRequest() throws IOException {
+        try (
+            XContentParser parser = JsonXContent.jsonXContent.createParser(
+                NamedXContentRegistry.EMPTY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION,
+                "\"abc\""
+            )
+        ) {
+            assertThrows(ParsingException.class, () -> DlsFlsRequestCacheKey.fromXContent(parser));
+        }
+    }
+
+    @Test
+    public void testRemoveDropsFingerprintOfCaller() {
+        final SearchExtBuilder other = new DlsFlsRequestCacheKey("other") {
+            @Override
+            public String getWriteableName() {
+                return "other";
+            }
+        };
+        final SearchRequest request = new SearchRequest();
+        request.source(new SearchSourceBuilder().ext(ImmutableList.of(new DlsFlsRequestCacheKey("spoofed"), other)));
+
+        DlsFlsRequestCacheKey.remove(request);
+
+        assertThat(request.source().ext(), contains(other));
+
+        final SearchRequest withoutSource = new SearchRequest();
+        DlsFlsRequestCacheKey.remove(withoutSource);
+        assertThat(withoutSource.source(), nullValue());
+    }
+
+    @Test
+    public void testFingerprintIsOnlySupportedWhenAllNodesKnowIt() {
+        assertThat(DlsFlsRequestCacheKey.isSupported(Version.CURRENT), is(true));
+        assertThat(DlsFlsRequestCacheKey.isSupported(Version.V_2_11_0), is(false));
+    }
+
+    private static EvaluatedDlsFlsConfig config(final Map<String, Set<String>> dls, final Map<String, Set<String>> fls) {
+        return new EvaluatedDlsFlsConfig(dls, fls, Collections.emptyMap());
+    }
+}
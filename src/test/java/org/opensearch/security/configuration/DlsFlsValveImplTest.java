@@ -0,0 +1,52 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import org.junit.Test;
+
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.aggregations.AggregatorFactories;
+import org.opensearch.search.aggregations.bucket.filter.FilterAggregationBuilder;
+import org.opensearch.search.aggregations.bucket.sampler.DiversifiedAggregationBuilder;
+import org.opensearch.search.aggregations.bucket.terms.SignificantTermsAggregationBuilder;
+import org.opensearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class DlsFlsValveImplTest {
+
+    @Test
+    public void testMapExecutionHintIsForcedOnNestedAggregations() {
+        final TermsAggregationBuilder topLevel = new TermsAggregationBuilder("top").field("ip_source.keyword")
+            .executionHint("global_ordinals");
+        final TermsAggregationBuilder nested = new TermsAggregationBuilder("nested").field("ip_source.keyword")
+            .executionHint("global_ordinals");
+        final SignificantTermsAggregationBuilder significant = new SignificantTermsAggregationBuilder("significant").field(
+            "ip_source.keyword"
+        ).executionHint("global_ordinals");
+        final DiversifiedAggregationBuilder sampler = new DiversifiedAggregationBuilder("sampler").field("ip_source.keyword")
+            .executionHint("global_ordinals");
+        final FilterAggregationBuilder filter = new FilterAggregationBuilder("filter", QueryBuilders.matchAllQuery());
+
+        topLevel.subAggregation(nested);
+        filter.subAggregation(sampler.subAggregation(significant));
+        final AggregatorFactories.Builder aggregations = new AggregatorFactories.Builder().addAggregator(topLevel).addAggregator(filter);
+
+        DlsFlsValveImpl.forceMapExecutionHint(aggregations.getAggregatorFactories());
+
+        assertThat(topLevel.executionHint(), is("map"));
+        assertThat(nested.executionHint(), is("map"));
+        assertThat(sampler.executionHint(), is("map"));
+        assertThat(significant.executionHint(), is("map"));
+    }
+}
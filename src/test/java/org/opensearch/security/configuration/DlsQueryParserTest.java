@@ -0,0 +1,147 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import org.opensearch.common.CheckedFunction;
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.core.ParseField;
+import org.opensearch.core.xcontent.DeprecationHandler;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.index.query.AbstractQueryBuilder;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.MatchQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.TermQueryBuilder;
+import org.opensearch.index.query.TermsQueryBuilder;
+import org.opensearch.security.securityconf.UserAttributeTemplate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class DlsQueryParserTest {
+
+    private static final NamedXContentRegistry REGISTRY = new NamedXContentRegistry(
+        ImmutableList.of(
+            query(BoolQueryBuilder.NAME, BoolQueryBuilder::fromXContent),
+            query(TermQueryBuilder.NAME, TermQueryBuilder::fromXContent),
+            query(TermsQueryBuilder.NAME, TermsQueryBuilder::fromXContent),
+            query(MatchQueryBuilder.NAME, MatchQueryBuilder::fromXContent)
+        )
+    );
+
+    private static final String TEMPLATE = "{\"bool\": {\"filter\": [{\"term\": {\"tenant\": \"t-${attr.jwt.tenant}\"}}, "
+        + "{\"terms\": {\"dept\": [\"${attr.jwt.dept}\", \"shared\"]}}, "
+        + "{\"terms\": {\"id\": {\"index\": \"users\", \"id\": \"${user.name}\", \"path\": \"ids\"}}}], "
+        + "\"must_not\": [{\"term\": {\"hidden\": true}}], \"minimum_should_match\": \"1\"}}";
+
+    @Test
+    public void testBoundQueryEqualsParsedQuery() throws Exception {
+        final UserAttributeTemplate template = UserAttributeTemplate.compile(TEMPLATE);
+        final DlsQueryParser parser = parser(template);
+
+        final String alice = template.substitute(i -> new String[] { "a", "sales", "alice" }[i]);
+        final String bob = template.substitute(i -> new String[] { "b", "hr", "bob" }[i]);
+
+        assertThat(DlsQueryTemplate.compile(template, REGISTRY).bind(new String[] { "a", "sales", "alice" }), notNullValue());
+
+        final QueryBuilder aliceQuery = parser.parse(alice);
+        final QueryBuilder bobQuery = parser.parse(bob);
+        assertThat(aliceQuery, equalTo(parseJson(alice)));
+        assertThat(bobQuery, equalTo(parseJson(bob)));
+        assertThat(aliceQuery, not(equalTo(bobQuery)));
+
+        // clauses without placeholders are shared by all users
+        assertThat(((BoolQueryBuilder) aliceQuery).mustNot().get(0), sameInstance(((BoolQueryBuilder) bobQuery).mustNot().get(0)));
+    }
+
+    @Test
+    public void testValuesWithJsonSpecialCharactersAreNotBound() throws Exception {
+        final UserAttributeTemplate template = UserAttributeTemplate.compile("{\"term\": {\"tenant\": \"${attr.jwt.tenant}\"}}");
+        final DlsQueryTemplate compiled = DlsQueryTemplate.compile(template, REGISTRY);
+
+        assertThat(compiled.bind(new String[] { "a" }), equalTo(parseJson("{\"term\": {\"tenant\": \"a\"}}")));
+        assertThat(compiled.bind(new String[] { "a\\u0062" }), nullValue());
+        assertThat(compiled.bind(new String[] { "a\"" }), nullValue());
+
+        final String escaped = "{\"term\": {\"tenant\": \"a\\u0062\"}}";
+        assertThat(parser(template).parse(escaped), equalTo(parseJson(escaped)));
+    }
+
+    @Test
+    public void testUnsupportedTemplatesAreNotBound() {
+        for (final String unsupported : ImmutableList.of(
+            "{\"match\": {\"tenant\": \"${attr.jwt.tenant}\"}}",
+            "{\"term\": {\"${attr.jwt.field}\": \"a\"}}",
+            "{\"terms\": {\"roles\": [${user.roles}]}}"
+        )) {
+            final DlsQueryTemplate compiled = DlsQueryTemplate.compile(UserAttributeTemplate.compile(unsupported), REGISTRY);
+            assertThat(unsupported, compiled.bind(new String[] { "a" }), nullValue());
+        }
+    }
+
+    @Test
+    public void testTemplatesAreLookedUpByPrefix() {
+        final UserAttributeTemplate tenant = UserAttributeTemplate.compile("{\"term\": {\"tenant\": \"${attr.jwt.tenant}\"}}");
+        final UserAttributeTemplate dept = UserAttributeTemplate.compile("{\"term\": {\"dept\": \"${attr.jwt.dept}\"}}");
+        final UserAttributeTemplate user = UserAttributeTemplate.compile("{\"term\": {\"tenant\": \"u-${user.name}\"}}");
+        final DlsQueryParser.Templates templates = DlsQueryParser.Templates.of(ImmutableList.of(tenant, dept, user));
+
+        assertThat(templates.candidates("{\"term\": {\"dept\": \"sales\"}}"), contains(dept));
+        assertThat(templates.candidates("{\"term\": {\"tenant\": \"u-alice\"}}"), containsInAnyOrder(tenant, user));
+        assertThat(templates.candidates("{\"match\": {\"dept\": \"sales\"}}"), empty());
+        assertThat(DlsQueryParser.Templates.EMPTY.candidates("{\"term\": {\"dept\": \"sales\"}}"), empty());
+    }
+
+    @Test
+    public void testParsersUseTheirOwnTemplates() throws Exception {
+        final UserAttributeTemplate template = UserAttributeTemplate.compile(TEMPLATE);
+        final String alice = template.substitute(i -> new String[] { "a", "sales", "alice" }[i]);
+
+        final QueryBuilder bound = parser(template).parse(alice);
+        final QueryBuilder parsed = new DlsQueryParser(REGISTRY).parse(alice);
+        assertThat(bound, equalTo(parsed));
+        assertThat(bound, not(sameInstance(parsed)));
+    }
+
+    private static DlsQueryParser parser(final UserAttributeTemplate template) {
+        final DlsQueryParser.Templates templates = DlsQueryParser.Templates.of(ImmutableList.of(template));
+        return new DlsQueryParser(REGISTRY, () -> templates);
+    }
+
+    private static NamedXContentRegistry.Entry query(
+        final String name,
+        final CheckedFunction<XContentParser, QueryBuilder, IOException> parser
+    ) {
+        return new NamedXContentRegistry.Entry(QueryBuilder.class, new ParseField(name), (p, c) -> parser.apply(p));
+    }
+
+    private static QueryBuilder parseJson(final String json) throws Exception {
+        try (
+            XContentParser parser = JsonXContent.jsonXContent.createParser(REGISTRY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, json)
+        ) {
+            return AbstractQueryBuilder.parseInnerQueryBuilder(parser);
+        }
+    }
+}
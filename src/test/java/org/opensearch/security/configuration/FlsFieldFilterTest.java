@@ -0,0 +1,155 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.breaker.NoopCircuitBreaker;
+import org.opensearch.security.support.ConfigConstants;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class FlsFieldFilterTest {
+
+    private final DlsBitsetCache cache = new DlsBitsetCache(
+        Settings.builder().put(ConfigConstants.SECURITY_DLS_BITSET_CACHE_SIZE, "1mb").build()
+    );
+    private Directory directory;
+    private DirectoryReader reader;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            final Document document = new Document();
+            for (String field : new String[] { "name", "name.keyword", "address.city", "address.street", "secret" }) {
+                document.add(new StringField(field, "value", Field.Store.YES));
+            }
+            writer.addDocument(document);
+        }
+        reader = DirectoryReader.open(directory);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Test
+    public void testSimpleIncludesAndExcludes() {
+        final FlsFieldFilter includes = FlsFieldFilter.create(
+            leaf().getFieldInfos(),
+            ImmutableSet.of("name", "nope"),
+            ImmutableSet.of(),
+            true
+        );
+        assertThat(fieldNames(includes), equalTo(ImmutableSet.of("name")));
+        assertThat(includes.isAllowed("name"), is(true));
+        assertThat(includes.isAllowed("secret"), is(false));
+        assertThat(includes.isAllowed("nope"), is(false));
+
+        final FlsFieldFilter excludes = FlsFieldFilter.create(
+            leaf().getFieldInfos(),
+            ImmutableSet.of(),
+            ImmutableSet.of("secret", "secret.keyword"),
+            true
+        );
+        assertThat(fieldNames(excludes), equalTo(ImmutableSet.of("name", "name.keyword", "address.city", "address.street")));
+        assertThat(excludes.isAllowed(leaf().getFieldInfos().fieldInfo("secret")), is(false));
+        assertThat(excludes.isAllowed(leaf().getFieldInfos().fieldInfo("name")), is(true));
+    }
+
+    @Test
+    public void testWildcardIncludesAndExcludes() {
+        final FlsFieldFilter includes = FlsFieldFilter.create(
+            leaf().getFieldInfos(),
+            ImmutableSet.of("address.*"),
+            ImmutableSet.of(),
+            false
+        );
+        assertThat(fieldNames(includes), equalTo(ImmutableSet.of("address.city", "address.street")));
+
+        final FlsFieldFilter excludes = FlsFieldFilter.create(leaf().getFieldInfos(), ImmutableSet.of(), ImmutableSet.of("name*"), false);
+        assertThat(fieldNames(excludes), equalTo(ImmutableSet.of("address.city", "address.street", "secret")));
+        assertThat(excludes.isAllowed("name.keyword"), is(false));
+    }
+
+    @Test
+    public void testFilterIsSharedPerSegmentAndRules() {
+        final Set<String> rules = ImmutableSet.of("name");
+        final FlsFieldFilter filter = FlsFieldFilter.of(cache, leaf(), rules, rules, ImmutableSet.of(), true);
+
+        assertThat(FlsFieldFilter.of(cache, leaf(), ImmutableSet.of("name"), rules, ImmutableSet.of(), true), sameInstance(filter));
+        assertThat(
+            FlsFieldFilter.of(cache, leaf(), ImmutableSet.of("~secret"), ImmutableSet.of(), ImmutableSet.of("secret"), true),
+            not(sameInstance(filter))
+        );
+        assertThat(cache.count(), is(2L));
+    }
+
+    @Test
+    public void testFiltersAreChargedToBreakerAndDroppedWhenSegmentIsClosed() throws IOException {
+        final AtomicLong used = new AtomicLong();
+        cache.setCircuitBreaker(new NoopCircuitBreaker(DlsBitsetCache.BREAKER_NAME) {
+            @Override
+            public double addEstimateBytesAndMaybeBreak(long bytes, String label) {
+                return used.addAndGet(bytes);
+            }
+
+            @Override
+            public long addWithoutBreaking(long bytes) {
+                return used.addAndGet(bytes);
+            }
+        });
+        final Set<String> rules = ImmutableSet.of("name");
+        final FlsFieldFilter filter = FlsFieldFilter.of(cache, leaf(), rules, rules, ImmutableSet.of(), true);
+        assertThat(used.get(), is(filter.ramBytesUsed()));
+
+        reader.close();
+        reader = DirectoryReader.open(directory);
+
+        assertThat(cache.count(), is(0L));
+        assertThat(used.get(), is(0L));
+    }
+
+    private LeafReader leaf() {
+        return reader.leaves().get(0).reader();
+    }
+
+    private static Set<String> fieldNames(final FlsFieldFilter filter) {
+        return StreamSupport.stream(filter.getFieldInfos().spliterator(), false).map(info -> info.name).collect(Collectors.toSet());
+    }
+}
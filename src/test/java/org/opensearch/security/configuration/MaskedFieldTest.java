@@ -0,0 +1,84 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.apache.lucene.util.BytesRef;
+import org.junit.Test;
+import org.bouncycastle.crypto.digests.Blake2bDigest;
+import org.bouncycastle.util.encoders.Hex;
+
+import org.opensearch.common.settings.Settings;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+public class MaskedFieldTest {
+
+    private static final Salt SALT = Salt.from(Settings.EMPTY);
+    private static final Salt OTHER_SALT = new Salt("abcdefghijklmnop".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    public void testDefaultHashIsBlake2b() {
+        final MaskedField field = new MaskedField("ip", SALT);
+
+        assertThat(field.mask("10.0.0.1"), equalTo(blake2b("10.0.0.1", SALT)));
+        // the digest of the thread is reused, so hashing again must not depend on the previous value
+        assertThat(field.mask("10.0.0.2"), equalTo(blake2b("10.0.0.2", SALT)));
+        assertThat(field.mask("10.0.0.1"), equalTo(blake2b("10.0.0.1", SALT)));
+        assertThat(new MaskedField("ip", OTHER_SALT).mask("10.0.0.1"), equalTo(blake2b("10.0.0.1", OTHER_SALT)));
+        assertThat(field.mask("10.0.0.1"), not(equalTo(blake2b("10.0.0.1", OTHER_SALT))));
+    }
+
+    @Test
+    public void testCustomAlgorithm() throws Exception {
+        final MaskedField field = new MaskedField("ip::SHA-256", SALT);
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+        for (String value : new String[] { "a", "bb", "a" }) {
+            final String expected = new String(Hex.encode(digest.digest(value.getBytes(StandardCharsets.UTF_8))), StandardCharsets.UTF_8);
+            assertThat(field.mask(value), equalTo(expected));
+        }
+    }
+
+    @Test
+    public void testRegexReplacements() {
+        final MaskedField field = new MaskedField("ip::/\\d+\\./::x.::/x\\.x/::y", SALT);
+
+        assertThat(field.mask("10.0.0.1"), equalTo("y.x.1"));
+        assertThat(field.mask("10.0.0.1".getBytes(StandardCharsets.UTF_8)), equalTo("y.x.1".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testBytesRefSlicesAreHashedInPlace() {
+        final byte[] backing = "xx10.0.0.1yy".getBytes(StandardCharsets.UTF_8);
+        final BytesRef slice = new BytesRef(backing, 2, 8);
+
+        for (String definition : new String[] { "ip", "ip::SHA-1", "ip::/0/::o" }) {
+            final MaskedField field = new MaskedField(definition, SALT);
+            assertThat(definition, field.mask(slice), equalTo(new BytesRef(field.mask("10.0.0.1"))));
+        }
+        assertThat(new String(backing, StandardCharsets.UTF_8), equalTo("xx10.0.0.1yy"));
+    }
+
+    private static String blake2b(final String value, final Salt salt) {
+        final Blake2bDigest digest = new Blake2bDigest(null, 32, null, salt.getSalt16());
+        final byte[] in = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(in, 0, in.length);
+        final byte[] out = new byte[digest.getDigestSize()];
+        digest.doFinal(out, 0);
+        return new String(Hex.encode(out), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.security.support.ConfigConstants;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class MaskedOrdinalsTest {
+
+    private static final Salt SALT = Salt.from(Settings.EMPTY);
+
+    private final DlsBitsetCache cache = new DlsBitsetCache(
+        Settings.builder().put(ConfigConstants.SECURITY_DLS_BITSET_CACHE_SIZE, "1mb").build()
+    );
+    private Directory directory;
+    private DirectoryReader reader;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (String[] values : new String[][] { { "a1", "b2" }, { "c3" }, { "a1", "a9", "c3" } }) {
+                final Document document = new Document();
+                for (String value : values) {
+                    document.add(new SortedSetDocValuesField("tags", new BytesRef(value)));
+                }
+                document.add(new SortedDocValuesField("tag", new BytesRef(values[values.length - 1])));
+                writer.addDocument(document);
+            }
+        }
+        reader = DirectoryReader.open(directory);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Test
+    public void testMaskedTermsAreSortedAndUnique() throws IOException {
+        final MaskedField field = new MaskedField("tags::/\\d/::x", SALT);
+        final SortedSetDocValues values = MaskedOrdinals.wrap(cache, leaf(), "tags", leaf().getSortedSetDocValues("tags"), field, SALT);
+
+        assertThat(values.getValueCount(), is(3L));
+        assertThat(terms(values), equalTo(ImmutableList.of("ax", "bx", "cx")));
+
+        assertThat(values.advanceExact(0), is(true));
+        assertThat(ords(values), equalTo(ImmutableList.of(0L, 1L)));
+        assertThat(values.advanceExact(2), is(true));
+        // a1 and a9 are masked to the same value, which a document must only report once
+        assertThat(values.docValueCount(), is(2));
+        assertThat(ords(values), equalTo(ImmutableList.of(0L, 2L)));
+        assertThat(values.lookupTerm(new BytesRef("cx")), is(2L));
+    }
+
+    @Test
+    public void testOrdinalsAreReturnedAgainWhenAdvancingToTheSameDocument() throws IOException {
+        final MaskedField field = new MaskedField("tags::/\\d/::x", SALT);
+        final SortedSetDocValues values = MaskedOrdinals.wrap(cache, leaf(), "tags", leaf().getSortedSetDocValues("tags"), field, SALT);
+
+        assertThat(values.advanceExact(2), is(true));
+        assertThat(ords(values), equalTo(ImmutableList.of(0L, 2L)));
+        assertThat(values.advanceExact(2), is(true));
+        assertThat(values.docValueCount(), is(2));
+        assertThat(ords(values), equalTo(ImmutableList.of(0L, 2L)));
+    }
+
+    @Test
+    public void testHashedTermsAreSorted() throws IOException {
+        final MaskedField field = new MaskedField("tags", SALT);
+        final SortedSetDocValues values = MaskedOrdinals.wrap(cache, leaf(), "tags", leaf().getSortedSetDocValues("tags"), field, SALT);
+
+        final List<String> terms = terms(values);
+        assertThat(terms.size(), is(4));
+        final List<String> sorted = new ArrayList<>(terms);
+        sorted.sort(null);
+        assertThat(terms, equalTo(sorted));
+
+        assertThat(values.advanceExact(1), is(true));
+        assertThat(values.lookupOrd(values.nextOrd()).utf8ToString(), equalTo(field.mask("c3")));
+        assertThat(values.nextOrd(), is(SortedSetDocValues.NO_MORE_ORDS));
+    }
+
+    @Test
+    public void testOrdinalsAreSharedPerSegmentAndDroppedWhenSegmentIsClosed() throws IOException {
+        final MaskedField field = new MaskedField("tags::/\\d/::x", SALT);
+        MaskedOrdinals.wrap(cache, leaf(), "tags", leaf().getSortedSetDocValues("tags"), field, SALT);
+        MaskedOrdinals.wrap(cache, leaf(), "tags", leaf().getSortedSetDocValues("tags"), new MaskedField("tags::/\\d/::x", SALT), SALT);
+        MaskedOrdinals.wrap(cache, leaf(), "tags", leaf().getSortedSetDocValues("tags"), new MaskedField("tags", SALT), SALT);
+        assertThat(cache.count(), is(2L));
+
+        reader.close();
+        reader = DirectoryReader.open(directory);
+
+        assertThat(cache.count(), is(0L));
+    }
+
+    @Test
+    public void testSortedDocValuesAreMapped() throws IOException {
+        final MaskedField field = new MaskedField("tag::/\\d/::x", SALT);
+        final SortedDocValues values = MaskedOrdinals.wrap(cache, leaf(), "tag", leaf().getSortedDocValues("tag"), field, SALT);
+
+        assertThat(values.getValueCount(), is(2));
+        assertThat(values.advanceExact(0), is(true));
+        assertThat(values.lookupOrd(values.ordValue()).utf8ToString(), equalTo("bx"));
+        assertThat(values.advanceExact(1), is(true));
+        assertThat(values.ordValue(), is(1));
+        assertThat(values.advanceExact(2), is(true));
+        assertThat(values.ordValue(), is(1));
+    }
+
+    private LeafReader leaf() {
+        return reader.leaves().get(0).reader();
+    }
+
+    private static List<String> terms(final SortedSetDocValues values) throws IOException {
+        final List<String> terms = new ArrayList<>();
+        for (long ord = 0; ord < values.getValueCount(); ord++) {
+            terms.add(values.lookupOrd(ord).utf8ToString());
+        }
+        return terms;
+    }
+
+    private static List<Long> ords(final SortedSetDocValues values) throws IOException {
+        final List<Long> ords = new ArrayList<>();
+        for (long ord = values.nextOrd(); ord != SortedSetDocValues.NO_MORE_ORDS; ord = values.nextOrd()) {
+            ords.add(ord);
+        }
+        return ords;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.common.xcontent.support.XContentMapValues;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class SourceRewriterTest {
+
+    private static final Salt SALT = Salt.from(Settings.EMPTY);
+
+    private static final String SOURCE = "{"
+        + "\"name\":\"alice\","
+        + "\"secret\":\"s3cr3t\","
+        + "\"age\":42,"
+        + "\"score\":1.5,"
+        + "\"active\":true,"
+        + "\"nothing\":null,"
+        + "\"empty\":{},"
+        + "\"tags\":[\"a\",\"b\"],"
+        + "\"address\":{\"street\":\"main\",\"city\":\"berlin\",\"geo\":{\"lat\":1,\"lon\":2}},"
+        + "\"contacts\":[{\"type\":\"mail\",\"value\":\"a@b.c\"},{\"type\":\"phone\"},[{\"value\":\"nested\"}],\"plain\"],"
+        + "\"user.secret\":\"dotted\""
+        + "}";
+
+    @Test
+    public void testTopLevelIncludesAndExcludes() throws IOException {
+        assertThat(
+            rewrite(SourceRewriter.topLevel(ImmutableSet.of("name", "address"), ImmutableSet.of())),
+            equalTo(expected(ImmutableSet.of("name", "address"), ImmutableSet.of()))
+        );
+        assertThat(
+            rewrite(SourceRewriter.topLevel(ImmutableSet.of(), ImmutableSet.of("secret", "contacts"))),
+            equalTo(expected(ImmutableSet.of(), ImmutableSet.of("secret", "contacts")))
+        );
+    }
+
+    @Test
+    public void testWildcardIncludesMatchMapFiltering() throws IOException {
+        for (Set<String> includes : ImmutableSet.<Set<String>>of(
+            ImmutableSet.of("na*"),
+            ImmutableSet.of("address.city"),
+            ImmutableSet.of("address.*"),
+            ImmutableSet.of("*.lat", "tags"),
+            ImmutableSet.of("contacts.value"),
+            ImmutableSet.of("contacts"),
+            ImmutableSet.of("empty", "nothing"),
+            ImmutableSet.of("*secret"),
+            ImmutableSet.of("does.not.exist")
+        )) {
+            final SourceRewriter rewriter = SourceRewriter.wildcard(includes, ImmutableSet.of());
+            assertThat(includes.toString(), rewrite(rewriter), equalTo(expected(includes, ImmutableSet.of())));
+        }
+    }
+
+    @Test
+    public void testWildcardExcludesMatchMapFiltering() throws IOException {
+        for (Set<String> excludes : ImmutableSet.<Set<String>>of(
+            ImmutableSet.of("*secret"),
+            ImmutableSet.of("address.geo.lat"),
+            ImmutableSet.of("address.*", "tags"),
+            ImmutableSet.of("contacts.value"),
+            ImmutableSet.of("contacts.*"),
+            ImmutableSet.of("a*"),
+            ImmutableSet.of("*")
+        )) {
+            final SourceRewriter rewriter = SourceRewriter.wildcard(ImmutableSet.of(), excludes);
+            assertThat(excludes.toString(), rewrite(rewriter), equalTo(expected(ImmutableSet.of(), excludes)));
+        }
+    }
+
+    @Test
+    public void testFilteredSourceKeepsFieldOrder() throws IOException {
+        final byte[] filtered = SourceRewriter.wildcard(ImmutableSet.of(), ImmutableSet.of("b*"))
+            .rewrite("{\"z\":1.5,\"b\":{\"c\":1},\"a\":12345678901234567890}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(new String(filtered, StandardCharsets.UTF_8), equalTo("{\"z\":1.5,\"a\":12345678901234567890}"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMaskedFieldsAreHashed() throws IOException {
+        final MaskedField secret = new MaskedField("secret", SALT);
+        final MaskedField city = new MaskedField("address.city", SALT);
+        final MaskedField tags = new MaskedField("tags", SALT);
+        final MaskedField contacts = new MaskedField("contacts", SALT);
+        final Map<String, MaskedField> maskedFields = Map.of("secret", secret, "address.city", city, "tags", tags, "contacts", contacts);
+
+        final Map<String, Object> source = rewrite(SourceRewriter.unfiltered().withMaskedFields(maskedFields::get));
+        final Map<String, Object> expected = expected(ImmutableSet.of(), ImmutableSet.of());
+        expected.put("secret", secret.mask("s3cr3t"));
+        ((Map<String, Object>) expected.get("address")).put("city", city.mask("berlin"));
+        expected.put("tags", List.of(tags.mask("a"), tags.mask("b")));
+        // only strings directly inside an array are masked, objects and arrays within it are left as they are
+        ((List<Object>) expected.get("contacts")).set(3, contacts.mask("plain"));
+
+        assertThat(source, equalTo(expected));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMaskingIsAppliedToFilteredSource() throws IOException {
+        final MaskedField street = new MaskedField("address.street", SALT);
+        final MaskedField name = new MaskedField("name", SALT);
+        final Map<String, MaskedField> maskedFields = Map.of("address.street", street, "name", name);
+
+        final Map<String, Object> source = rewrite(
+            SourceRewriter.wildcard(ImmutableSet.of(), ImmutableSet.of("address.geo", "secret")).withMaskedFields(maskedFields::get)
+        );
+        final Map<String, Object> expected = expected(ImmutableSet.of(), ImmutableSet.of("address.geo", "secret"));
+        expected.put("name", name.mask("alice"));
+        ((Map<String, Object>) expected.get("address")).put("street", street.mask("main"));
+
+        assertThat(source, equalTo(expected));
+    }
+
+    @Test
+    public void testMaskingOnlyTouchesStrings() throws IOException {
+        final MaskedField age = new MaskedField("age", SALT);
+        final byte[] rewritten = SourceRewriter.topLevel(ImmutableSet.of("age", "name"), ImmutableSet.of())
+            .withMaskedFields(field -> age)
+            .rewrite("{\"age\":42,\"name\":\"alice\",\"other\":\"x\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(
+            new String(rewritten, StandardCharsets.UTF_8),
+            equalTo("{\"age\":42,\"name\":\"" + age.mask("alice") + "\"}")
+        );
+    }
+
+    private static Map<String, Object> rewrite(final SourceRewriter rewriter) throws IOException {
+        final byte[] rewritten = rewriter.rewrite(SOURCE.getBytes(StandardCharsets.UTF_8));
+        return XContentHelper.convertToMap(XContentType.JSON.xContent(), new String(rewritten, StandardCharsets.UTF_8), false);
+    }
+
+    private static Map<String, Object> expected(final Set<String> includes, final Set<String> excludes) {
+        final Map<String, Object> source = XContentHelper.convertToMap(XContentType.JSON.xContent(), SOURCE, false);
+        if (includes.isEmpty() && excludes.isEmpty()) {
+            return source;
+        }
+        final boolean topLevel = includes.stream().noneMatch(SourceRewriterTest::isPath)
+            && excludes.stream().noneMatch(SourceRewriterTest::isPath);
+        if (topLevel) {
+            if (excludes.isEmpty()) {
+                source.keySet().retainAll(includes);
+            } else {
+                source.keySet().removeAll(excludes);
+            }
+            return source;
+        }
+        return excludes.isEmpty()
+            ? XContentMapValues.filter(source, includes.toArray(new String[0]), null)
+            : XContentMapValues.filter(source, null, excludes.toArray(new String[0]));
+    }
+
+    private static boolean isPath(final String pattern) {
+        return pattern.indexOf('.') > -1 || pattern.indexOf('*') > -1;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.client.Client;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.index.get.GetResult;
+import org.opensearch.security.support.ConfigConstants;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TermsLookupCacheTest {
+
+    private final List<ActionListener<GetResponse>> executed = new ArrayList<>();
+    private Client client;
+
+    @Before
+    public void setUp() {
+        client = mock(Client.class);
+        when(client.settings()).thenReturn(Settings.EMPTY);
+        doAnswer(invocation -> {
+            executed.add(invocation.getArgument(1));
+            return null;
+        }).when(client).get(any(GetRequest.class), any());
+    }
+
+    @Test
+    public void testConcurrentLookupsAreCoalescedAndCached() {
+        final TermsLookupCache cache = new TermsLookupCache(Settings.EMPTY);
+        final Client cachingClient = cache.wrap(client);
+        final AtomicReference<GetResponse> first = new AtomicReference<>();
+        final AtomicReference<GetResponse> second = new AtomicReference<>();
+
+        cachingClient.get(new GetRequest("lookup", "1"), ActionListener.wrap(first::set, e -> {}));
+        cachingClient.get(new GetRequest("lookup", "1"), ActionListener.wrap(second::set, e -> {}));
+        assertThat(executed, hasSize(1));
+
+        final GetResponse response = response("lookup", "1");
+        executed.get(0).onResponse(response);
+        assertThat(first.get(), sameInstance(response));
+        assertThat(second.get(), sameInstance(response));
+
+        final AtomicReference<GetResponse> cached = new AtomicReference<>();
+        cachingClient.get(new GetRequest("lookup", "1"), ActionListener.wrap(cached::set, e -> {}));
+        assertThat(cached.get(), sameInstance(response));
+        assertThat(executed, hasSize(1));
+
+        cachingClient.get(new GetRequest("lookup", "1").routing("r"), ActionListener.wrap(r -> {}, e -> {}));
+        assertThat(executed, hasSize(2));
+    }
+
+    @Test
+    public void testFailuresAreNotCached() {
+        final TermsLookupCache cache = new TermsLookupCache(Settings.EMPTY);
+        final Client cachingClient = cache.wrap(client);
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        cachingClient.get(new GetRequest("lookup", "1"), ActionListener.wrap(r -> {}, failure::set));
+        final IllegalStateException e = new IllegalStateException("unavailable");
+        executed.get(0).onFailure(e);
+
+        assertThat(failure.get(), sameInstance(e));
+        assertThat(cache.count(), is(0L));
+
+        cachingClient.get(new GetRequest("lookup", "1"), ActionListener.wrap(r -> {}, x -> {}));
+        assertThat(executed, hasSize(2));
+    }
+
+    @Test
+    public void testCacheCanBeDisabled() {
+        final TermsLookupCache cache = new TermsLookupCache(
+            Settings.builder().put(ConfigConstants.SECURITY_DLS_TLQ_CACHE_TTL, "0s").build()
+        );
+
+        assertThat(cache.isEnabled(), is(false));
+        assertThat(cache.count(), is(0L));
+    }
+
+    private static GetResponse response(final String index, final String id) {
+        return new GetResponse(new GetResult(index, id, 0, 1, 1, true, new BytesArray("{\"users\":[\"a\"]}"), null, null));
+    }
+}
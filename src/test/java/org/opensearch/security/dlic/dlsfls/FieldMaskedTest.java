@@ -184,6 +184,80 @@ public class FieldMaskedTest extends AbstractDlsFlsTest {
 
     }
 
+    @Test
+    public void testMaskedAggregationsDoNotShareGlobalOrdinals() throws Exception {
+
+        setup();
+
+        // every document is refreshed on its own, so the index consists of several segments
+        String query = "{"
+            + "\"aggs\" : {"
+            + "\"ips\" : { \"terms\" : { \"field\" : \"ip_source.keyword\", \"execution_hint\": \"global_ordinals\" } }"
+            + "}"
+            + "}";
+
+        HttpResponse res;
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(
+                HttpStatus.SC_OK,
+                (res = rh.executePostRequest("/deals/_search?pretty&size=0", query, encodeBasicHeader("user_masked", "password")))
+                    .getStatusCode()
+            );
+            Assert.assertTrue(res.getBody().contains("\"doc_count\" : 30"));
+            Assert.assertFalse(res.getBody().contains("100.100"));
+            Assert.assertFalse(res.getBody().contains("200.100"));
+            Assert.assertTrue(res.getBody().contains("87873bdb698e5f0f60e0b02b76dad1ec11b2787c628edbc95b7ff0e82274b140"));
+
+            Assert.assertEquals(
+                HttpStatus.SC_OK,
+                (res = rh.executePostRequest("/deals/_search?pretty&size=0", query, encodeBasicHeader("admin", "admin"))).getStatusCode()
+            );
+            Assert.assertTrue(res.getBody().contains("\"doc_count\" : 30"));
+            Assert.assertTrue(res.getBody().contains("100.100.1.1"));
+            Assert.assertTrue(res.getBody().contains("200.100.1.1"));
+            Assert.assertFalse(res.getBody().contains("87873bdb698e5f0f60e0b02b76dad1ec11b2787c628edbc95b7ff0e82274b140"));
+        }
+    }
+
+    @Test
+    public void testMaskedSubAggregationsDoNotShareGlobalOrdinals() throws Exception {
+
+        setup();
+
+        // the masked field is aggregated in a sub-aggregation, which must not use global ordinals either
+        String query = "{"
+            + "\"aggs\" : {"
+            + "\"customers\" : { \"terms\" : { \"field\" : \"customer.name.keyword\" },"
+            + "\"aggs\" : {"
+            + "\"ips\" : { \"terms\" : { \"field\" : \"ip_source.keyword\", \"execution_hint\": \"global_ordinals\" } }"
+            + "}"
+            + "}"
+            + "}"
+            + "}";
+
+        HttpResponse res;
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(
+                HttpStatus.SC_OK,
+                (res = rh.executePostRequest("/deals/_search?pretty&size=0", query, encodeBasicHeader("user_masked", "password")))
+                    .getStatusCode()
+            );
+            Assert.assertTrue(res.getBody().contains("\"doc_count\" : 30"));
+            Assert.assertFalse(res.getBody().contains("100.100"));
+            Assert.assertFalse(res.getBody().contains("200.100"));
+            Assert.assertTrue(res.getBody().contains("87873bdb698e5f0f60e0b02b76dad1ec11b2787c628edbc95b7ff0e82274b140"));
+
+            Assert.assertEquals(
+                HttpStatus.SC_OK,
+                (res = rh.executePostRequest("/deals/_search?pretty&size=0", query, encodeBasicHeader("admin", "admin"))).getStatusCode()
+            );
+            Assert.assertTrue(res.getBody().contains("\"doc_count\" : 30"));
+            Assert.assertTrue(res.getBody().contains("100.100.1.1"));
+            Assert.assertTrue(res.getBody().contains("200.100.1.1"));
+            Assert.assertFalse(res.getBody().contains("87873bdb698e5f0f60e0b02b76dad1ec11b2787c628edbc95b7ff0e82274b140"));
+        }
+    }
+
     @Test
     public void testMaskedSearch() throws Exception {
 
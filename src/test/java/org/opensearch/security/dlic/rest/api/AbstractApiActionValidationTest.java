@@ -133,6 +133,7 @@ public abstract class AbstractApiActionValidationTest {
             "restapi:admin/rolesmapping",
             "restapi:admin/ssl/certs/info",
             "restapi:admin/ssl/certs/reload",
+            "restapi:admin/stats",
             "restapi:admin/tenants"
         );
     }
@@ -404,6 +404,7 @@ public class EndpointValidatorTest {
             "restapi:admin/rolesmapping",
             "restapi:admin/ssl/certs/info",
             "restapi:admin/ssl/certs/reload",
+            "restapi:admin/stats",
             "restapi:admin/tenants"
         );
     }
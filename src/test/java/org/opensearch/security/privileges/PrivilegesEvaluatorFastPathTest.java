@@ -0,0 +1,304 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.privileges;
+
+import java.io.IOException;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.Version;
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.get.GetAction;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.search.SearchAction;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.metadata.AliasMetadata;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
+import org.opensearch.cluster.metadata.Metadata;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.search.builder.PointInTimeBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.security.DefaultObjectMapper;
+import org.opensearch.security.auditlog.NullAuditLog;
+import org.opensearch.security.configuration.ClusterInfoHolder;
+import org.opensearch.security.resolver.IndexResolverReplacer;
+import org.opensearch.security.securityconf.ConfigModelV7;
+import org.opensearch.security.securityconf.DynamicConfigModel;
+import org.opensearch.security.securityconf.impl.CType;
+import org.opensearch.security.securityconf.impl.SecurityDynamicConfiguration;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.security.user.User;
+import org.opensearch.threadpool.ThreadPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks which get and search requests {@link PrivilegesEvaluator#evaluate} allows without resolving them. The
+ * full evaluation is detected by the index resolver, which fails every request it is asked to resolve.
+ */
+public class PrivilegesEvaluatorFastPathTest {
+
+    private static final Settings SETTINGS = Settings.builder()
+        .put(ConfigConstants.SECURITY_CONFIG_INDEX_NAME, "security_config")
+        .put(ConfigConstants.SECURITY_SYSTEM_INDICES_ENABLED_KEY, true)
+        .putList(ConfigConstants.SECURITY_SYSTEM_INDICES_KEY, "configured_system_index")
+        .put(ConfigConstants.SECURITY_PROTECTED_INDICES_ENABLED_KEY, true)
+        .putList(ConfigConstants.SECURITY_PROTECTED_INDICES_KEY, "protected_index")
+        .build();
+
+    private final ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+    private ClusterService clusterService;
+    private IndexResolverReplacer irr;
+    private DynamicConfigModel dcm;
+    private User user;
+
+    @Before
+    public void setUp() {
+        clusterService = mock(ClusterService.class);
+        when(clusterService.state()).thenReturn(clusterState());
+        irr = mock(IndexResolverReplacer.class);
+        when(irr.resolveRequest(any())).thenThrow(new FullEvaluation());
+        dcm = mock(DynamicConfigModel.class);
+        when(dcm.isDashboardsMultitenancyEnabled()).thenReturn(true);
+        when(dcm.getDashboardsIndexname()).thenReturn("dashboards");
+        user = new User("reader");
+    }
+
+    @Test
+    public void testUnrestrictedSingleIndexIsAllowedWithoutResolving() throws IOException {
+        final PrivilegesEvaluator evaluator = evaluator(SETTINGS);
+
+        final PrivilegesEvaluatorResponse get = evaluate(evaluator, "reader", GetAction.NAME, new GetRequest("index"));
+        final PrivilegesEvaluatorResponse search = evaluate(evaluator, "reader", SearchAction.NAME, new SearchRequest("index"));
+
+        assertThat(get.isAllowed(), is(true));
+        assertThat(get.isComplete(), is(true));
+        assertThat(get.getResolvedSecurityRoles(), equalTo(Set.of("reader")));
+        assertThat(get.evaluatedDlsFlsConfig.isEmpty(), is(true));
+        assertThat(get.getMissingPrivileges().isEmpty(), is(true));
+        // the shortcut does not copy the roles into a mutable set
+        assertThrows(UnsupportedOperationException.class, () -> get.resolvedSecurityRoles.add("other"));
+        assertThrows(UnsupportedOperationException.class, () -> get.missingPrivileges.add("other"));
+        assertThat(search.isAllowed(), is(true));
+        assertThat(search, not(sameInstance(get)));
+        verifyNoInteractions(irr);
+    }
+
+    @Test
+    public void testRolesWithDlsFlsOrMaskingAreFullyEvaluated() throws IOException {
+        final PrivilegesEvaluator evaluator = evaluator(SETTINGS);
+
+        for (String role : new String[] { "dls_reader", "fls_reader", "masking_reader" }) {
+            assertFullEvaluation(evaluator, role, SearchAction.NAME, new SearchRequest("index"));
+        }
+        // a restricted role is not lifted by an unrestricted one
+        assertFullEvaluation(evaluator, Set.of("reader", "dls_reader"), SearchAction.NAME, new SearchRequest("index"));
+    }
+
+    @Test
+    public void testMissingPermissionsAreFullyEvaluated() throws IOException {
+        assertFullEvaluation(evaluator(SETTINGS), "other_reader", SearchAction.NAME, new SearchRequest("index"));
+    }
+
+    @Test
+    public void testSpecialIndicesAreFullyEvaluated() throws IOException {
+        final PrivilegesEvaluator evaluator = evaluator(SETTINGS);
+
+        for (String index : new String[] {
+            "aliased_index",
+            "alias",
+            "closed_index",
+            "hidden_index",
+            "system_index",
+            "configured_system_index",
+            "protected_index",
+            "security_config",
+            ".dot_index",
+            "dashboards",
+            "missing_index",
+            "index*" }) {
+            assertFullEvaluation(evaluator, "reader", SearchAction.NAME, new SearchRequest(index));
+            assertFullEvaluation(evaluator, "reader", GetAction.NAME, new GetRequest(index));
+        }
+    }
+
+    @Test
+    public void testOtherRequestsAreFullyEvaluated() throws IOException {
+        final PrivilegesEvaluator evaluator = evaluator(SETTINGS);
+
+        assertFullEvaluation(evaluator, "reader", SearchAction.NAME, new SearchRequest("index", "other_index"));
+        assertFullEvaluation(evaluator, "reader", SearchAction.NAME, new SearchRequest());
+        final SearchRequest pitSearch = new SearchRequest("index").source(
+            new SearchSourceBuilder().pointInTimeBuilder(new PointInTimeBuilder("pit").setKeepAlive(TimeValue.timeValueMinutes(1)))
+        );
+        assertFullEvaluation(evaluator, "reader", SearchAction.NAME, pitSearch);
+        // the action decides, not the type of the request
+        assertFullEvaluation(evaluator, "reader", "indices:data/read/search/template", new SearchRequest("index"));
+    }
+
+    @Test
+    public void testRequestedTenantIsFullyEvaluated() throws IOException {
+        user.setRequestedTenant("tenant");
+
+        assertFullEvaluation(evaluator(SETTINGS), "reader", SearchAction.NAME, new SearchRequest("index"));
+    }
+
+    @Test
+    public void testFastPathCanBeDisabled() throws IOException {
+        final Settings settings = Settings.builder()
+            .put(SETTINGS)
+            .put(ConfigConstants.SECURITY_PRIVILEGES_FAST_PATH_ENABLED, false)
+            .build();
+
+        assertFullEvaluation(evaluator(settings), "reader", SearchAction.NAME, new SearchRequest("index"));
+    }
+
+    private void assertFullEvaluation(
+        final PrivilegesEvaluator evaluator,
+        final String role,
+        final String action,
+        final ActionRequest request
+    ) {
+        assertFullEvaluation(evaluator, Set.of(role), action, request);
+    }
+
+    private void assertFullEvaluation(
+        final PrivilegesEvaluator evaluator,
+        final Set<String> roles,
+        final String action,
+        final ActionRequest request
+    ) {
+        assertThrows(FullEvaluation.class, () -> evaluator.evaluate(user, action, request, null, roles));
+        verify(irr).resolveRequest(same(request));
+    }
+
+    private PrivilegesEvaluatorResponse evaluate(
+        final PrivilegesEvaluator evaluator,
+        final String role,
+        final String action,
+        final ActionRequest request
+    ) {
+        return evaluator.evaluate(user, action, request, null, Set.of(role));
+    }
+
+    private PrivilegesEvaluator evaluator(final Settings settings) throws IOException {
+        final ThreadPool threadPool = mock(ThreadPool.class);
+        when(threadPool.getThreadContext()).thenReturn(threadContext);
+        final IndexNameExpressionResolver resolver = new IndexNameExpressionResolver(threadContext);
+        // a multi tenancy interceptor, so that the dashboards index is taken into account
+        final PrivilegesInterceptor privilegesInterceptor = new PrivilegesInterceptor(resolver, clusterService, null, threadPool) {
+        };
+        final PrivilegesEvaluator evaluator = new PrivilegesEvaluator(
+            clusterService,
+            threadPool,
+            null,
+            resolver,
+            new NullAuditLog(),
+            settings,
+            privilegesInterceptor,
+            new ClusterInfoHolder("cluster"),
+            irr,
+            true,
+            null
+        );
+        evaluator.onConfigModelChanged(
+            new ConfigModelV7(
+                rolesConfig(),
+                emptyConfig(CType.ROLESMAPPING, "rolesmapping"),
+                emptyConfig(CType.ACTIONGROUPS, "actiongroups"),
+                emptyConfig(CType.TENANTS, "tenants"),
+                dcm,
+                settings
+            )
+        );
+        evaluator.onDynamicConfigModelChanged(dcm);
+        return evaluator;
+    }
+
+    private static ClusterState clusterState() {
+        final Metadata metadata = Metadata.builder()
+            .put(index("index"))
+            .put(index("other_index"))
+            .put(index("aliased_index").putAlias(AliasMetadata.builder("alias")))
+            .put(index("closed_index").state(IndexMetadata.State.CLOSE))
+            .put(index("hidden_index", Settings.builder().put(IndexMetadata.SETTING_INDEX_HIDDEN, true)))
+            .put(index("system_index").system(true))
+            .put(index("configured_system_index"))
+            .put(index("protected_index"))
+            .put(index("security_config"))
+            .put(index(".dot_index"))
+            .put(index("dashboards"))
+            .build();
+        return ClusterState.builder(ClusterName.DEFAULT).metadata(metadata).build();
+    }
+
+    private static IndexMetadata.Builder index(final String name) {
+        return index(name, Settings.builder());
+    }
+
+    private static IndexMetadata.Builder index(final String name, final Settings.Builder settings) {
+        return IndexMetadata.builder(name)
+            .settings(settings.put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT))
+            .numberOfShards(1)
+            .numberOfReplicas(0);
+    }
+
+    private static <T> SecurityDynamicConfiguration<T> rolesConfig() throws IOException {
+        final ObjectNode rolesNode = DefaultObjectMapper.objectMapper.createObjectNode();
+        rolesNode.set("_meta", meta("roles"));
+        role(rolesNode, "reader", "*");
+        role(rolesNode, "other_reader", "other_*");
+        role(rolesNode, "dls_reader", "*").put("dls", "{\"term\": {\"dept\": \"sales\"}}");
+        role(rolesNode, "fls_reader", "*").putArray("fls").add("public_*");
+        role(rolesNode, "masking_reader", "*").putArray("masked_fields").add("secret");
+        return SecurityDynamicConfiguration.fromNode(rolesNode, CType.ROLES, 2, 0, 0);
+    }
+
+    private static ObjectNode role(final ObjectNode rolesNode, final String name, final String indexPattern) {
+        final ObjectNode indexPermission = rolesNode.putObject(name).putArray("index_permissions").addObject();
+        indexPermission.putArray("index_patterns").add(indexPattern);
+        indexPermission.putArray("allowed_actions").add("indices:data/read/*");
+        return indexPermission;
+    }
+
+    private static <T> SecurityDynamicConfiguration<T> emptyConfig(final CType type, final String metaType) throws IOException {
+        final ObjectNode node = DefaultObjectMapper.objectMapper.createObjectNode();
+        node.set("_meta", meta(metaType));
+        return SecurityDynamicConfiguration.fromNode(node, type, 2, 0, 0);
+    }
+
+    private static ObjectNode meta(final String type) {
+        return DefaultObjectMapper.objectMapper.createObjectNode().put("type", type).put("config_version", 2);
+    }
+
+    private static final class FullEvaluation extends RuntimeException {}
+}
@@ -159,6 +159,22 @@ public class SecurityIndexAccessEvaluatorTest {
         verifyNoMoreInteractions(auditLog, irr, request, task, presponse, log);
     }
 
+    @Test
+    public void testIsRegularIndex() {
+        evaluator = new SecurityIndexAccessEvaluator(
+            Settings.builder()
+                .put(ConfigConstants.SECURITY_SYSTEM_INDICES_KEY, TEST_SYSTEM_INDEX)
+                .put(ConfigConstants.SECURITY_SYSTEM_INDICES_ENABLED_KEY, true)
+                .build(),
+            auditLog,
+            irr
+        );
+
+        assertThat(evaluator.isRegularIndex(TEST_INDEX), is(true));
+        assertThat(evaluator.isRegularIndex(TEST_SYSTEM_INDEX), is(false));
+        assertThat(evaluator.isRegularIndex(SECURITY_INDEX), is(false));
+    }
+
     @Test
     public void testUnprotectedActionOnRegularIndex_systemIndexDisabled() {
         setup(false, false, TEST_INDEX, false);
@@ -0,0 +1,64 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.privileges;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import org.opensearch.security.securityconf.SecurityRoles;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SecurityRolesCacheTest {
+
+    @Test
+    public void testFilteredRolesAreSharedBetweenEqualRoleSets() {
+        final SecurityRoles allRoles = mock(SecurityRoles.class);
+        final SecurityRoles filtered = mock(SecurityRoles.class);
+        when(allRoles.filter(ImmutableSet.of("role1", "role2"))).thenReturn(filtered);
+
+        final SecurityRolesCache cache = new SecurityRolesCache(allRoles, 10);
+        final Set<String> mappedRoles = new HashSet<>(ImmutableSet.of("role1", "role2"));
+
+        assertThat(cache.get(mappedRoles), sameInstance(filtered));
+        assertThat(cache.get(ImmutableSet.of("role2", "role1")), sameInstance(filtered));
+
+        verify(allRoles, times(1)).filter(ImmutableSet.of("role1", "role2"));
+        assertThat(cache.stats().hitCount(), is(1L));
+        assertThat(cache.stats().missCount(), is(1L));
+        assertThat(cache.size(), is(1L));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        final SecurityRoles allRoles = mock(SecurityRoles.class);
+        when(allRoles.filter(any())).thenReturn(mock(SecurityRoles.class));
+        final SecurityRolesCache cache = new SecurityRolesCache(allRoles, 2);
+
+        cache.get(ImmutableSet.of("role1"));
+        cache.get(ImmutableSet.of("role2"));
+        cache.get(ImmutableSet.of("role3"));
+
+        assertThat(cache.size(), is(2L));
+        assertThat(cache.stats().evictionCount(), is(1L));
+    }
+}
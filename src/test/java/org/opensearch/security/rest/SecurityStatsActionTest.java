@@ -0,0 +1,117 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.rest;
+
+import com.google.common.cache.CacheStats;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.rest.BytesRestResponse;
+import org.opensearch.rest.RestChannel;
+import org.opensearch.security.DefaultObjectMapper;
+import org.opensearch.security.auditlog.AuditLog;
+import org.opensearch.security.configuration.AdminDNs;
+import org.opensearch.security.dlic.rest.api.RestApiAdminPrivilegesEvaluator;
+import org.opensearch.security.privileges.PrivilegesEvaluator;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.security.user.User;
+import org.opensearch.security.util.FakeRestRequest;
+
+import org.mockito.ArgumentCaptor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SecurityStatsActionTest {
+
+    private static final String STATS_PERMISSION = "restapi:admin/stats";
+
+    private final ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+    private final User user = new User("user");
+    private PrivilegesEvaluator evaluator;
+    private AdminDNs adminDns;
+
+    @Before
+    public void setUp() {
+        evaluator = mock(PrivilegesEvaluator.class);
+        when(evaluator.getSecurityRolesCacheStats()).thenReturn(new CacheStats(3, 1, 1, 0, 0, 0));
+        adminDns = mock(AdminDNs.class);
+        threadContext.putTransient(ConfigConstants.OPENDISTRO_SECURITY_USER, user);
+    }
+
+    @Test
+    public void testUserWithoutPermissionIsForbidden() throws Exception {
+        final BytesRestResponse response = stats(true);
+
+        assertThat(response.status(), is(RestStatus.FORBIDDEN));
+        assertThat(json(response).get("privileges"), nullValue());
+    }
+
+    @Test
+    public void testPermissionIsIgnoredWhenRestApiAdminIsDisabled() throws Exception {
+        when(evaluator.hasRestAdminPermissions(eq(user), any(), eq(STATS_PERMISSION))).thenReturn(true);
+
+        assertThat(stats(false).status(), is(RestStatus.FORBIDDEN));
+    }
+
+    @Test
+    public void testUserWithPermissionGetsTheStats() throws Exception {
+        when(evaluator.hasRestAdminPermissions(eq(user), any(), eq(STATS_PERMISSION))).thenReturn(true);
+
+        final BytesRestResponse response = stats(true);
+
+        assertThat(response.status(), is(RestStatus.OK));
+        assertThat(json(response).at("/privileges/roles_cache/hit_count").asInt(), is(3));
+    }
+
+    @Test
+    public void testSuperAdminGetsTheStats() throws Exception {
+        when(adminDns.isAdmin(user)).thenReturn(true);
+
+        final BytesRestResponse response = stats(false);
+
+        assertThat(response.status(), is(RestStatus.OK));
+        assertThat(json(response).get("audit"), notNullValue());
+    }
+
+    private BytesRestResponse stats(final boolean restApiAdminEnabled) throws Exception {
+        final SecurityStatsAction action = new SecurityStatsAction(
+            evaluator,
+            mock(AuditLog.class),
+            new RestApiAdminPrivilegesEvaluator(threadContext, evaluator, adminDns, restApiAdminEnabled)
+        );
+        final RestChannel channel = mock(RestChannel.class);
+        when(channel.newBuilder()).thenReturn(XContentFactory.jsonBuilder());
+
+        action.handleRequest(new FakeRestRequest(), channel, null);
+
+        final ArgumentCaptor<BytesRestResponse> response = ArgumentCaptor.forClass(BytesRestResponse.class);
+        verify(channel).sendResponse(response.capture());
+        return response.getValue();
+    }
+
+    private static JsonNode json(final BytesRestResponse response) throws Exception {
+        return DefaultObjectMapper.readTree(response.content().utf8ToString());
+    }
+}
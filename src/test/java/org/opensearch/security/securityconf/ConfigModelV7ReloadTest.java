@@ -0,0 +1,158 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.securityconf;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.ImmutableSet;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.security.DefaultObjectMapper;
+import org.opensearch.security.securityconf.impl.CType;
+import org.opensearch.security.securityconf.impl.SecurityDynamicConfiguration;
+import org.opensearch.security.user.User;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConfigModelV7ReloadTest {
+
+    private final ResolvedIndexPatternCache resolvedIndexPatternCache = new ResolvedIndexPatternCache(Settings.EMPTY);
+
+    @Test
+    public void testUnchangedRolesAreReused() throws IOException {
+        final ConfigModelV7 previous = configModel(roles("cluster:monitor/*"), actionGroups("indices:data/read/*"), null);
+        final ConfigModelV7 current = configModel(roles("cluster:monitor/health"), actionGroups("indices:data/read/*"), previous);
+
+        assertThat(role(current, "reader"), sameInstance(role(previous, "reader")));
+        assertThat(role(current, "monitor"), not(sameInstance(role(previous, "monitor"))));
+        final SecurityRoles monitor = current.getSecurityRoles().filter(ImmutableSet.of("monitor"));
+        assertThat(monitor.impliesClusterPermissionPermission("cluster:monitor/health"), is(true));
+        assertThat(monitor.impliesClusterPermissionPermission("cluster:monitor/stats"), is(false));
+    }
+
+    @Test
+    public void testRolesReferringToChangedActionGroupsAreRebuilt() throws IOException {
+        final ConfigModelV7 previous = configModel(roles("cluster:monitor/*"), actionGroups("indices:data/read/*"), null);
+        final ConfigModelV7 current = configModel(roles("cluster:monitor/*"), actionGroups("indices:data/*"), previous);
+
+        assertThat(role(current, "reader"), not(sameInstance(role(previous, "reader"))));
+        assertThat(role(current, "monitor"), sameInstance(role(previous, "monitor")));
+    }
+
+    @Test
+    public void testMappingsAndTenantsAreTakenOverWhenUnchanged() throws IOException {
+        final ConfigModelV7 previous = configModel(roles("cluster:monitor/*"), actionGroups("indices:data/read/*"), null);
+        final ConfigModelV7 current = configModel(roles("cluster:monitor/*"), actionGroups("indices:data/read/*"), previous);
+        final User alice = new User("alice");
+
+        assertThat(current.mapSecurityRoles(alice, null), equalTo(ImmutableSet.of("reader")));
+        assertThat(current.mapTenants(alice, ImmutableSet.of("reader")), hasEntry("team", false));
+    }
+
+    @Test
+    public void testRolesAreBuiltOnExecutor() throws IOException {
+        final ObjectNode rolesNode = DefaultObjectMapper.objectMapper.createObjectNode();
+        rolesNode.set("_meta", SecurityRolesPermissionsTest.meta("roles"));
+        for (int i = 0; i < 250; i++) {
+            rolesNode.putObject("role_" + i).putArray("cluster_permissions").add("cluster:monitor/" + i);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final ConfigModelV7 configModel = new ConfigModelV7(
+                SecurityDynamicConfiguration.fromNode(rolesNode, CType.ROLES, 2, 0, 0),
+                SecurityRolesPermissionsTest.createRoleMappingsConfig(),
+                SecurityRolesPermissionsTest.createActionGroupsConfig(),
+                SecurityRolesPermissionsTest.createTenantsConfig(),
+                dcm(),
+                Settings.EMPTY,
+                resolvedIndexPatternCache,
+                null,
+                executor
+            );
+
+            assertThat(configModel.getSecurityRoles().getRoleNames().size(), is(250));
+            final SecurityRoles lastRole = configModel.getSecurityRoles().filter(ImmutableSet.of("role_249"));
+            assertThat(lastRole.impliesClusterPermissionPermission("cluster:monitor/249"), is(true));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private ConfigModelV7 configModel(final ObjectNode rolesNode, final ObjectNode actionGroupsNode, final ConfigModelV7 previous)
+        throws IOException {
+        final ObjectNode rolesMappingNode = DefaultObjectMapper.objectMapper.createObjectNode();
+        rolesMappingNode.set("_meta", SecurityRolesPermissionsTest.meta("rolesmapping"));
+        rolesMappingNode.putObject("reader").putArray("users").add("alice");
+        final ObjectNode tenantsNode = DefaultObjectMapper.objectMapper.createObjectNode();
+        tenantsNode.set("_meta", SecurityRolesPermissionsTest.meta("tenants"));
+        tenantsNode.putObject("team");
+
+        return new ConfigModelV7(
+            SecurityDynamicConfiguration.fromNode(rolesNode, CType.ROLES, 2, 0, 0),
+            SecurityDynamicConfiguration.fromNode(rolesMappingNode, CType.ROLESMAPPING, 2, 0, 0),
+            SecurityDynamicConfiguration.fromNode(actionGroupsNode, CType.ACTIONGROUPS, 2, 0, 0),
+            SecurityDynamicConfiguration.fromNode(tenantsNode, CType.TENANTS, 2, 0, 0),
+            dcm(),
+            Settings.EMPTY,
+            resolvedIndexPatternCache,
+            previous,
+            null
+        );
+    }
+
+    private static ObjectNode roles(final String monitorPermission) {
+        final ObjectNode rolesNode = DefaultObjectMapper.objectMapper.createObjectNode();
+        rolesNode.set("_meta", SecurityRolesPermissionsTest.meta("roles"));
+        final ObjectNode reader = rolesNode.putObject("reader");
+        final ObjectNode indexPermission = reader.putArray("index_permissions").addObject();
+        indexPermission.putArray("index_patterns").add("logs-*");
+        indexPermission.putArray("allowed_actions").add("read_logs");
+        final ObjectNode tenantPermission = reader.putArray("tenant_permissions").addObject();
+        tenantPermission.putArray("tenant_patterns").add("team");
+        tenantPermission.putArray("allowed_actions").add("kibana_all_read");
+        rolesNode.putObject("monitor").putArray("cluster_permissions").add(monitorPermission);
+        return rolesNode;
+    }
+
+    private static ObjectNode actionGroups(final String readLogsAction) {
+        final ObjectNode actionGroupsNode = DefaultObjectMapper.objectMapper.createObjectNode();
+        actionGroupsNode.set("_meta", SecurityRolesPermissionsTest.meta("actiongroups"));
+        actionGroupsNode.putObject("read_logs").putArray("allowed_actions").add(readLogsAction);
+        return actionGroupsNode;
+    }
+
+    private static DynamicConfigModel dcm() {
+        final DynamicConfigModel dcm = mock(DynamicConfigModel.class);
+        when(dcm.getHostsResolverMode()).thenReturn("ip-only");
+        return dcm;
+    }
+
+    private static ConfigModelV7.SecurityRole role(final ConfigModelV7 configModel, final String name) {
+        return ((ConfigModelV7.SecurityRoles) configModel.getSecurityRoles()).getRoles()
+            .stream()
+            .filter(role -> role.getName().equals(name))
+            .findFirst()
+            .orElseThrow();
+    }
+}
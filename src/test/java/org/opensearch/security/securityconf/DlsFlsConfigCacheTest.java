@@ -0,0 +1,114 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.securityconf;
+
+import java.io.IOException;
+
+import com.google.common.collect.ImmutableSet;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.opensearch.Version;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
+import org.opensearch.cluster.metadata.Metadata;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.security.DefaultObjectMapper;
+import org.opensearch.security.securityconf.impl.CType;
+import org.opensearch.security.securityconf.impl.SecurityDynamicConfiguration;
+import org.opensearch.security.user.User;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DlsFlsConfigCacheTest {
+
+    private final IndexNameExpressionResolver resolver = new IndexNameExpressionResolver(new ThreadContext(Settings.EMPTY));
+    private final ClusterService clusterService = mock(ClusterService.class);
+
+    private SecurityRoles securityRoles;
+
+    @Before
+    public void setup() throws IOException {
+        final ObjectNode rolesNode = DefaultObjectMapper.objectMapper.createObjectNode();
+        rolesNode.set("_meta", SecurityRolesPermissionsTest.meta("roles"));
+        final ObjectNode dlsRole = rolesNode.putObject("dls_role").putArray("index_permissions").addObject();
+        dlsRole.putArray("index_patterns").add("logs-*");
+        dlsRole.put("dls", "{\"term\":{\"owner\":\"${user.name}\"}}");
+        dlsRole.putArray("allowed_actions").add("indices:data/read/*");
+        final ObjectNode flsRole = rolesNode.putObject("fls_role").putArray("index_permissions").addObject();
+        flsRole.putArray("index_patterns").add("logs-*");
+        flsRole.putArray("fls").add("public_*");
+        flsRole.putArray("allowed_actions").add("indices:data/read/*");
+
+        final DynamicConfigModel dcm = mock(DynamicConfigModel.class);
+        when(dcm.getHostsResolverMode()).thenReturn("ip-only");
+        final ConfigModel configModel = new ConfigModelV7(
+            SecurityDynamicConfiguration.fromNode(rolesNode, CType.ROLES, 2, 0, 0),
+            SecurityRolesPermissionsTest.createRoleMappingsConfig(),
+            SecurityRolesPermissionsTest.createActionGroupsConfig(),
+            SecurityRolesPermissionsTest.createTenantsConfig(),
+            dcm,
+            Settings.EMPTY
+        );
+        securityRoles = configModel.getSecurityRoles().filter(ImmutableSet.of("dls_role", "fls_role"));
+        when(clusterService.state()).thenReturn(clusterState(1));
+    }
+
+    @Test
+    public void testEvaluatedConfigIsSharedBetweenEqualSubstitutions() {
+        final EvaluatedDlsFlsConfig alice = getDlsFls(new User("alice"));
+
+        assertThat(alice.getDlsQueriesByIndex().get("logs-1"), contains("{\"term\":{\"owner\":\"alice\"}}"));
+        assertThat(alice.getFlsByIndex().get("logs-1"), contains("public_*"));
+        assertThat(getDlsFls(new User("alice")), sameInstance(alice));
+        assertThat(getDlsFls(new User("bob")).getDlsQueriesByIndex().get("logs-1"), contains("{\"term\":{\"owner\":\"bob\"}}"));
+    }
+
+    @Test
+    public void testEvaluatedConfigIsRecomputedOnMetadataChange() {
+        final EvaluatedDlsFlsConfig before = getDlsFls(new User("alice"));
+
+        when(clusterService.state()).thenReturn(clusterState(2));
+        final EvaluatedDlsFlsConfig after = getDlsFls(new User("alice"));
+
+        assertThat(after, not(sameInstance(before)));
+        assertThat(after.getFlsByIndex().keySet(), equalTo(ImmutableSet.of("logs-1", "logs-2")));
+    }
+
+    private EvaluatedDlsFlsConfig getDlsFls(final User user) {
+        return securityRoles.getDlsFls(user, false, resolver, clusterService, null);
+    }
+
+    private static ClusterState clusterState(final int indices) {
+        final Metadata.Builder metadata = Metadata.builder().version(indices);
+        for (int i = 1; i <= indices; i++) {
+            metadata.put(
+                IndexMetadata.builder("logs-" + i)
+                    .settings(Settings.builder().put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT))
+                    .numberOfShards(1)
+                    .numberOfReplicas(0)
+            );
+        }
+        return ClusterState.builder(ClusterName.DEFAULT).metadata(metadata).build();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.securityconf;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import org.opensearch.cluster.ClusterChangedEvent;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.metadata.AliasMetadata;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.cluster.metadata.Metadata;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.index.Index;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ResolvedIndexPatternCacheTest {
+
+    private final ResolvedIndexPatternCache cache = new ResolvedIndexPatternCache(Settings.EMPTY);
+    private final AtomicInteger resolutions = new AtomicInteger();
+
+    @Test
+    public void testResolvesOncePerMetadataVersion() {
+        final ClusterState state = clusterState(metadata(1, index("logs-1")));
+
+        assertThat(cache.get("logs-*", false, state, resolver("logs-1")).getConcreteIndices(), contains("logs-1"));
+        assertThat(cache.get("logs-*", false, state, resolver("logs-1")).getConcreteIndices(), contains("logs-1"));
+        assertThat(resolutions.get(), is(1));
+
+        final ClusterState newState = clusterState(metadata(2, index("logs-1"), index("logs-2")));
+        assertThat(cache.get("logs-*", false, newState, resolver("logs-1", "logs-2")).getConcreteIndices(), contains("logs-1", "logs-2"));
+        assertThat(resolutions.get(), is(2));
+    }
+
+    @Test
+    public void testUnresolvedPatternIsAppended() {
+        final ClusterState state = clusterState(metadata(1));
+
+        final ResolvedIndexPatternCache.Entry entry = cache.get("logs-*", true, state, resolver());
+        assertThat(entry.getConcreteIndices(), contains("logs-*"));
+        assertThat(entry.getConcreteIndicesAndPattern(), contains("logs-*"));
+    }
+
+    @Test
+    public void testIncrementalUpdateOnIndexCreationAndDeletion() {
+        final Metadata previous = metadata(1, index("logs-1"), index("other"));
+        cache.get("logs-*", false, clusterState(previous), resolver("logs-1"));
+        cache.get("${attr.internal.tenant}-logs", true, clusterState(previous), resolver());
+
+        final Metadata current = metadata(2, index("logs-2"), index("other"));
+        cache.clusterChanged(event(previous, current, Collections.singletonList("logs-2"), Collections.singletonList("logs-1")));
+
+        assertThat(cache.size(), is(2L));
+        assertThat(cache.get("logs-*", false, clusterState(current), resolver("unexpected")).getConcreteIndices(), contains("logs-2"));
+        assertThat(resolutions.get(), is(2));
+    }
+
+    @Test
+    public void testAliasChangeInvalidates() {
+        final Metadata previous = metadata(1, index("logs-1"));
+        cache.get("logs-*", false, clusterState(previous), resolver("logs-1"));
+
+        final IndexMetadata aliased = index("logs-1");
+        when(aliased.getAliases()).thenReturn(ImmutableMap.of("alias", mock(AliasMetadata.class)));
+        final Metadata current = metadata(2, aliased);
+        cache.clusterChanged(event(previous, current, Collections.emptyList(), Collections.emptyList()));
+
+        assertThat(cache.size(), is(0L));
+    }
+
+    private Function<String, Set<String>> resolver(final String... indices) {
+        return pattern -> {
+            resolutions.incrementAndGet();
+            return ImmutableSet.copyOf(indices);
+        };
+    }
+
+    private static IndexMetadata index(final String name) {
+        final IndexMetadata indexMetadata = mock(IndexMetadata.class);
+        when(indexMetadata.getIndex()).thenReturn(new Index(name, name));
+        when(indexMetadata.getState()).thenReturn(IndexMetadata.State.OPEN);
+        when(indexMetadata.getSettings()).thenReturn(Settings.EMPTY);
+        when(indexMetadata.getAliases()).thenReturn(ImmutableMap.of());
+        return indexMetadata;
+    }
+
+    private static Metadata metadata(final long version, final IndexMetadata... indices) {
+        final List<IndexMetadata> indexList = Arrays.asList(indices);
+        final Metadata metadata = mock(Metadata.class);
+        when(metadata.version()).thenReturn(version);
+        when(metadata.dataStreams()).thenReturn(ImmutableMap.of());
+        when(metadata.iterator()).thenAnswer(invocation -> indexList.iterator());
+        for (IndexMetadata indexMetadata : indices) {
+            when(metadata.index(indexMetadata.getIndex().getName())).thenReturn(indexMetadata);
+            when(metadata.index(indexMetadata.getIndex())).thenReturn(indexMetadata);
+        }
+        return metadata;
+    }
+
+    private static ClusterState clusterState(final Metadata metadata) {
+        final ClusterState state = mock(ClusterState.class);
+        when(state.getMetadata()).thenReturn(metadata);
+        when(state.metadata()).thenReturn(metadata);
+        return state;
+    }
+
+    private static ClusterChangedEvent event(
+        final Metadata previous,
+        final Metadata current,
+        final List<String> created,
+        final List<String> deleted
+    ) {
+        final ClusterState previousState = clusterState(previous);
+        final ClusterState currentState = clusterState(current);
+        final ClusterChangedEvent event = mock(ClusterChangedEvent.class);
+        when(event.metadataChanged()).thenReturn(true);
+        when(event.previousState()).thenReturn(previousState);
+        when(event.state()).thenReturn(currentState);
+        when(event.indicesCreated()).thenReturn(created);
+        final List<Index> deletedIndices = deleted.stream().map(name -> new Index(name, name)).collect(Collectors.toList());
+        when(event.indicesDeleted()).thenReturn(deletedIndices);
+        return event;
+    }
+}
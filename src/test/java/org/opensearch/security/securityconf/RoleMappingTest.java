@@ -0,0 +1,116 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.securityconf;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Test;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.transport.TransportAddress;
+import org.opensearch.security.DefaultObjectMapper;
+import org.opensearch.security.securityconf.impl.CType;
+import org.opensearch.security.securityconf.impl.SecurityDynamicConfiguration;
+import org.opensearch.security.support.ConfigConstants;
+import org.opensearch.security.user.User;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RoleMappingTest {
+
+    @Test
+    public void testMapsUsersAndBackendRoles() throws IOException {
+        final ConfigModel configModel = configModel(
+            Settings.EMPTY,
+            mapping("exact_user", "users", "alice"),
+            mapping("wildcard_user", "users", "ali*"),
+            mapping("exact_backend_role", "backend_roles", "ldap_admins"),
+            mapping("wildcard_backend_role", "backend_roles", "ldap_*"),
+            mapping("all_backend_roles", "and_backend_roles", "ldap_*", "sales"),
+            mapping("unmatched_backend_roles", "and_backend_roles", "ldap_admins", "hr")
+        );
+
+        assertThat(
+            configModel.mapSecurityRoles(user("alice", "ldap_admins", "sales"), null),
+            containsInAnyOrder("exact_user", "wildcard_user", "exact_backend_role", "wildcard_backend_role", "all_backend_roles")
+        );
+        assertThat(configModel.mapSecurityRoles(user("alfred", "ldap_users"), null), containsInAnyOrder("wildcard_backend_role"));
+        assertThat(configModel.mapSecurityRoles(user("bob", "hr"), null), empty());
+    }
+
+    @Test
+    public void testMappedRolesAreMemoizedPerUserAndBackendRoles() throws IOException {
+        final ConfigModel configModel = configModel(Settings.EMPTY, mapping("backend_role", "backend_roles", "ldap_*"));
+
+        final User user = user("alice", "ldap_admins");
+        final Set<String> mappedRoles = configModel.mapSecurityRoles(user, null);
+        assertThat(configModel.mapSecurityRoles(user("alice", "ldap_admins"), null), sameInstance(mappedRoles));
+
+        user.addRole("hr");
+        user.addSecurityRoles(Arrays.asList("injected"));
+        assertThat(configModel.mapSecurityRoles(user, null), containsInAnyOrder("backend_role", "injected"));
+    }
+
+    @Test
+    public void testMapsHostsPerRequest() throws IOException {
+        final ConfigModel configModel = configModel(
+            Settings.builder().put(ConfigConstants.SECURITY_ROLES_MAPPING_RESOLUTION, "BOTH").build(),
+            mapping("local_host", "hosts", "127.0.0.*"),
+            mapping("backend_role", "backend_roles", "ldap_*")
+        );
+
+        final TransportAddress caller = new TransportAddress(InetAddress.getLoopbackAddress(), 9300);
+        assertThat(
+            configModel.mapSecurityRoles(user("alice", "ldap_admins"), caller),
+            containsInAnyOrder("local_host", "backend_role", "ldap_admins")
+        );
+        assertThat(configModel.mapSecurityRoles(user("alice", "ldap_admins"), null), containsInAnyOrder("backend_role", "ldap_admins"));
+    }
+
+    private static User user(final String name, final String... backendRoles) {
+        return new User(name, ImmutableSet.copyOf(backendRoles), null);
+    }
+
+    private static ObjectNode mapping(final String role, final String field, final String... values) {
+        final ObjectNode mapping = DefaultObjectMapper.objectMapper.createObjectNode();
+        mapping.set(field, DefaultObjectMapper.objectMapper.valueToTree(Arrays.asList(values)));
+        return mapping.put("description", role);
+    }
+
+    private static ConfigModel configModel(final Settings settings, final ObjectNode... mappings) throws IOException {
+        final ObjectNode rolesMappingNode = DefaultObjectMapper.objectMapper.createObjectNode();
+        rolesMappingNode.set("_meta", SecurityRolesPermissionsTest.meta("rolesmapping"));
+        for (ObjectNode mapping : mappings) {
+            rolesMappingNode.set(mapping.remove("description").asText(), mapping);
+        }
+        final DynamicConfigModel dcm = mock(DynamicConfigModel.class);
+        when(dcm.getHostsResolverMode()).thenReturn("ip-only");
+        return new ConfigModelV7(
+            SecurityRolesPermissionsTest.createRolesConfig(),
+            SecurityDynamicConfiguration.fromNode(rolesMappingNode, CType.ROLESMAPPING, 2, 0, 0),
+            SecurityRolesPermissionsTest.createActionGroupsConfig(),
+            SecurityRolesPermissionsTest.createTenantsConfig(),
+            dcm,
+            settings
+        );
+    }
+}
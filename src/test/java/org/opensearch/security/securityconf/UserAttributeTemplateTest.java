@@ -0,0 +1,89 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ *
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.security.securityconf;
+
+import java.util.Arrays;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import org.opensearch.security.user.User;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class UserAttributeTemplateTest {
+
+    private final User user = user();
+
+    @Test
+    public void testTemplateWithoutPlaceholders() {
+        final String pattern = "logs-*";
+        final UserAttributeTemplate template = UserAttributeTemplate.compile(pattern);
+
+        assertThat(template.hasPlaceholders(), is(false));
+        assertThat(template.expand(user), sameInstance(pattern));
+        assertThat(UserAttributeTemplate.compile(null).expand(user), nullValue());
+        assertThat(UserAttributeTemplate.compile("logs-${unterminated").hasPlaceholders(), is(false));
+    }
+
+    @Test
+    public void testUserPlaceholders() {
+        assertThat(expand("${user.name}-${user_name}"), equalTo("alice-alice"));
+        assertThat(expand("{\"terms\":{\"roles\":[${user.roles}]}}"), equalTo("{\"terms\":{\"roles\":[\"ldap_admins\"]}}"));
+        assertThat(expand("[${user_securityRoles}]"), equalTo("[\"readall\"]"));
+    }
+
+    @Test
+    public void testAttributePlaceholders() {
+        assertThat(expand("dept-${attr.jwt.department}"), equalTo("dept-sales"));
+        assertThat(expand("dept-${attr_jwt_department}"), equalTo("dept-sales"));
+        assertThat(expand("${attr.jwt.missing}-${user.name}"), equalTo("${attr.jwt.missing}-alice"));
+        assertThat(expand("${a${user.name}}"), equalTo("${aalice}"));
+    }
+
+    @Test
+    public void testValuesAreNotExpandedAgain() {
+        final User user = new User("${attr.jwt.department}");
+        user.addAttributes(ImmutableMap.of("attr.jwt.department", "sales"));
+
+        assertThat(UserAttributeTemplate.compile("${user.name}").expand(user), equalTo("${attr.jwt.department}"));
+    }
+
+    @Test
+    public void testExtractReturnsSubstitutedValues() {
+        final UserAttributeTemplate template = UserAttributeTemplate.compile("{\"term\":{\"${attr.a}\":\"${attr.b}-${attr.c}\"}}");
+
+        assertThat(template.extract("{\"term\":{\"dept\":\"x-y-z\"}}"), equalTo(new String[] { "dept", "x", "y-z" }));
+        assertThat(template.extract("{\"term\":{\"dept\":\"x\"}}"), nullValue());
+        assertThat(template.extract("{\"match\":{\"dept\":\"x-y\"}}"), nullValue());
+        assertThat(template.substitute(i -> "v" + i), equalTo("{\"term\":{\"v0\":\"v1-v2\"}}"));
+        assertThat(template.getPrefix(), equalTo("{\"term\":{\""));
+        assertThat(UserAttributeTemplate.compile("logs-*").getPrefix(), equalTo("logs-*"));
+        assertThat(UserAttributeTemplate.compile("logs-*").extract("logs-*"), nullValue());
+    }
+
+    private String expand(final String template) {
+        return UserAttributeTemplate.compile(template).expand(user);
+    }
+
+    private static User user() {
+        final User user = new User("alice", ImmutableSet.of("ldap_admins"), null);
+        user.addSecurityRoles(Arrays.asList("readall"));
+        user.addAttributes(ImmutableMap.of("attr.jwt.department", "sales"));
+        return user;
+    }
+}
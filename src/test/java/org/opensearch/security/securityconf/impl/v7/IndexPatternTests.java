@@ -43,7 +43,6 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -108,7 +107,7 @@ public class IndexPatternTests {
     @Test
     public void testExactNameWithNoMatches() {
         doReturn("index-17").when(ip).getUnresolvedIndexPattern(user);
-        when(clusterService.state()).thenReturn(mock(ClusterState.class));
+        when(clusterService.state()).thenReturn(createClusterState());
         when(resolver.concreteIndexNames(any(), eq(IndicesOptions.lenientExpandOpen()), eq(true), eq("index-17"))).thenReturn(
             new String[] {}
         );
@@ -126,7 +125,7 @@ public class IndexPatternTests {
     @Test
     public void testExactName() {
         doReturn("index-17").when(ip).getUnresolvedIndexPattern(user);
-        when(clusterService.state()).thenReturn(mock(ClusterState.class));
+        when(clusterService.state()).thenReturn(createClusterState());
         when(resolver.concreteIndexNames(any(), eq(IndicesOptions.lenientExpandOpen()), eq(true), eq("index-17"))).thenReturn(
             new String[] { "resolved-index-17" }
         );
@@ -153,7 +152,7 @@ public class IndexPatternTests {
 
         assertThat(results, contains("resolved-index-17", "resolved-index-18"));
 
-        verify(clusterService, times(2)).state();
+        verify(clusterService).state();
         verify(ip).getUnresolvedIndexPattern(user);
         verify(resolver).concreteIndexNames(any(), eq(IndicesOptions.lenientExpandOpen()), eq(true), eq("index-1*"));
     }
@@ -180,7 +179,7 @@ public class IndexPatternTests {
 
         assertThat(results, contains("resolved-index-100", "resolved-index-17", "resolved-index-18"));
 
-        verify(clusterService, times(3)).state();
+        verify(clusterService).state();
         verify(ip).getUnresolvedIndexPattern(user);
         verify(resolver).concreteIndexNames(any(), eq(IndicesOptions.lenientExpandOpen()), eq(true), eq("index-100"));
         verify(resolver).concreteIndexNames(any(), eq(IndicesOptions.lenientExpandOpen()), eq(true), eq("index-1*"));
@@ -207,7 +206,7 @@ public class IndexPatternTests {
 
         assertThat(results, contains("resolved-index-100", "resolved-index-101", "resolved-index-17", "resolved-index-18", "index-1*"));
 
-        verify(clusterService, times(3)).state();
+        verify(clusterService).state();
         verify(ip).getUnresolvedIndexPattern(user);
         verify(resolver).concreteIndexNames(any(), eq(IndicesOptions.lenientExpandOpen()), eq(true), eq("index-100"), eq("index-101"));
         verify(resolver).concreteIndexNames(any(), eq(IndicesOptions.lenientExpandOpen()), eq(true), eq("index-1*"));